@@ -178,6 +178,21 @@ public final class SentryAndroidOptions extends SentryOptions {
 
   private @Nullable BeforeCaptureCallback beforeViewHierarchyCaptureCallback;
 
+  static final int DEFAULT_MAX_VIEW_HIERARCHY_DEPTH = 100;
+  static final int DEFAULT_MAX_VIEW_HIERARCHY_NODES = 5000;
+
+  /**
+   * The maximum depth of Android views captured for the view hierarchy attachment, the decor view
+   * has a depth of 0. Default is 100.
+   */
+  private int maxViewHierarchyDepth = DEFAULT_MAX_VIEW_HIERARCHY_DEPTH;
+
+  /**
+   * The maximum number of Android views captured for the view hierarchy attachment. Default is
+   * 5000.
+   */
+  private int maxViewHierarchyNodes = DEFAULT_MAX_VIEW_HIERARCHY_NODES;
+
   /** Turns NDK on or off. Default is enabled. */
   private boolean enableNdk = true;
 
@@ -651,6 +666,43 @@ public final class SentryAndroidOptions extends SentryOptions {
     this.beforeViewHierarchyCaptureCallback = beforeViewHierarchyCaptureCallback;
   }
 
+  public int getMaxViewHierarchyDepth() {
+    return maxViewHierarchyDepth;
+  }
+
+  /**
+   * Sets the maximum depth of Android views captured for the view hierarchy attachment. Views below
+   * are left out, which keeps the time spent on the main thread bounded for deeply nested layouts.
+   *
+   * @param maxViewHierarchyDepth the maximum depth, the decor view has a depth of 0, needs to be
+   *     greater than 0
+   */
+  public void setMaxViewHierarchyDepth(final int maxViewHierarchyDepth) {
+    if (maxViewHierarchyDepth <= 0) {
+      throw new IllegalArgumentException(
+          "The value " + maxViewHierarchyDepth + " is not valid. Use values greater than 0.");
+    }
+    this.maxViewHierarchyDepth = maxViewHierarchyDepth;
+  }
+
+  public int getMaxViewHierarchyNodes() {
+    return maxViewHierarchyNodes;
+  }
+
+  /**
+   * Sets the maximum number of Android views captured for the view hierarchy attachment. Once
+   * reached, the remaining views are left out.
+   *
+   * @param maxViewHierarchyNodes the maximum number of views, needs to be greater than 0
+   */
+  public void setMaxViewHierarchyNodes(final int maxViewHierarchyNodes) {
+    if (maxViewHierarchyNodes <= 0) {
+      throw new IllegalArgumentException(
+          "The value " + maxViewHierarchyNodes + " is not valid. Use values greater than 0.");
+    }
+    this.maxViewHierarchyNodes = maxViewHierarchyNodes;
+  }
+
   /**
    * Check if NDK is ON or OFF Default is ON
    *
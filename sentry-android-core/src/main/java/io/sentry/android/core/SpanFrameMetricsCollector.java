@@ -13,10 +13,8 @@ import io.sentry.SpanDataConvention;
 import io.sentry.android.core.internal.util.SentryFrameMetricsCollector;
 import io.sentry.protocol.MeasurementValue;
 import io.sentry.util.AutoClosableReentrantLock;
-import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -59,11 +57,14 @@ public class SpanFrameMetricsCollector
                 .compareTo(o2.getSpanContext().getSpanId().toString());
           });
 
-  // all collected frames, sorted by frame end time
-  // this is a concurrent set, as the frames are added on the main thread,
-  // but span starts/finish may happen on any thread
-  // the list only holds Frames, but in order to query for a specific span NanoTimeStamp is used
-  private final @NotNull ConcurrentSkipListSet<Frame> frames = new ConcurrentSkipListSet<>();
+  // all collected slow and frozen frames, sorted by frame end time
+  // the frames are added on the main thread, but span starts/finish may happen on any thread,
+  // so the buffer is guarded by its own lock, which is only held for short periods of time
+  private final @NotNull AutoClosableReentrantLock framesLock = new AutoClosableReentrantLock();
+  private final @NotNull FrameBuffer frames = new FrameBuffer(MAX_FRAMES_COUNT);
+  // guarded by lock, the frames of the span that is being finished, copied out of frames so that
+  // onFrameMetricCollected doesn't wait for the metrics to be computed
+  private final @NotNull FrameBuffer spanFrames = new FrameBuffer(MAX_FRAMES_COUNT);
 
   // assume 60fps until we get a value reported by the system
   private long lastKnownFrameDurationNanos = 16_666_666L;
@@ -126,7 +127,10 @@ public class SpanFrameMetricsCollector
       } else {
         // otherwise only remove old/irrelevant frames
         final @NotNull ISpan oldestSpan = runningSpans.first();
-        frames.headSet(new Frame(toNanoTime(oldestSpan.getStartDate()))).clear();
+        final long oldestSpanStartNanos = toNanoTime(oldestSpan.getStartDate());
+        try (final @NotNull ISentryLifecycleToken ignored2 = framesLock.acquire()) {
+          frames.removeEndingBefore(oldestSpanStartNanos);
+        }
       }
     }
   }
@@ -155,44 +159,52 @@ public class SpanFrameMetricsCollector
 
       long frameDurationNanos = lastKnownFrameDurationNanos;
 
-      if (!frames.isEmpty()) {
-        // determine relevant start in frames list
-        final Iterator<Frame> iterator = frames.tailSet(new Frame(spanStartNanos)).iterator();
-
-        //noinspection WhileLoopReplaceableByForEach
-        while (iterator.hasNext()) {
-          final @NotNull Frame frame = iterator.next();
-
-          if (frame.startNanos > spanEndNanos) {
-            break;
-          }
-
-          if (frame.startNanos >= spanStartNanos && frame.endNanos <= spanEndNanos) {
-            // if the frame is contained within the span, add it 1:1 to the span metrics
-            frameMetrics.addFrame(
-                frame.durationNanos, frame.delayNanos, frame.isSlow, frame.isFrozen);
-          } else if ((spanStartNanos > frame.startNanos && spanStartNanos < frame.endNanos)
-              || (spanEndNanos > frame.startNanos && spanEndNanos < frame.endNanos)) {
-            // span start or end are within frame
-            // calculate the intersection
-            final long durationBeforeSpan = Math.max(0, spanStartNanos - frame.startNanos);
-            final long delayBeforeSpan =
-                Math.max(0, durationBeforeSpan - frame.expectedDurationNanos);
-            final long delayWithinSpan =
-                Math.min(frame.delayNanos - delayBeforeSpan, spanDurationNanos);
-
-            final long frameStart = Math.max(spanStartNanos, frame.startNanos);
-            final long frameEnd = Math.min(spanEndNanos, frame.endNanos);
-            final long frameDuration = frameEnd - frameStart;
-            frameMetrics.addFrame(
-                frameDuration,
-                delayWithinSpan,
-                SentryFrameMetricsCollector.isSlow(frameDuration, frame.expectedDurationNanos),
-                SentryFrameMetricsCollector.isFrozen(frameDuration));
-          }
-
-          frameDurationNanos = frame.expectedDurationNanos;
+      try (final @NotNull ISentryLifecycleToken ignored2 = framesLock.acquire()) {
+        // determine relevant range in frames buffer, frames after the first one ending at or after
+        // the span end start after it
+        final int from = frames.firstEndingAtOrAfter(spanStartNanos);
+        final int to = Math.min(frames.size(), frames.firstEndingAtOrAfter(spanEndNanos) + 1);
+        spanFrames.copyFrom(frames, from, Math.max(from, to));
+      }
+
+      final int size = spanFrames.size();
+      for (int i = 0; i < size; i++) {
+        final long frameStartNanos = spanFrames.getStartNanos(i);
+        final long frameEndNanos = spanFrames.getEndNanos(i);
+        final long frameDelayNanos = spanFrames.getDelayNanos(i);
+        final long expectedDurationNanos = spanFrames.getExpectedDurationNanos(i);
+
+        if (frameStartNanos > spanEndNanos) {
+          break;
         }
+
+        if (frameStartNanos >= spanStartNanos && frameEndNanos <= spanEndNanos) {
+          // if the frame is contained within the span, add it 1:1 to the span metrics
+          frameMetrics.addFrame(
+              spanFrames.getDurationNanos(i),
+              frameDelayNanos,
+              spanFrames.isSlow(i),
+              spanFrames.isFrozen(i));
+        } else if ((spanStartNanos > frameStartNanos && spanStartNanos < frameEndNanos)
+            || (spanEndNanos > frameStartNanos && spanEndNanos < frameEndNanos)) {
+          // span start or end are within frame
+          // calculate the intersection
+          final long durationBeforeSpan = Math.max(0, spanStartNanos - frameStartNanos);
+          final long delayBeforeSpan = Math.max(0, durationBeforeSpan - expectedDurationNanos);
+          final long delayWithinSpan =
+              Math.min(frameDelayNanos - delayBeforeSpan, spanDurationNanos);
+
+          final long frameStart = Math.max(spanStartNanos, frameStartNanos);
+          final long frameEnd = Math.min(spanEndNanos, frameEndNanos);
+          final long frameDuration = frameEnd - frameStart;
+          frameMetrics.addFrame(
+              frameDuration,
+              delayWithinSpan,
+              SentryFrameMetricsCollector.isSlow(frameDuration, expectedDurationNanos),
+              SentryFrameMetricsCollector.isFrozen(frameDuration));
+        }
+
+        frameDurationNanos = expectedDurationNanos;
       }
 
       int totalFrameCount = frameMetrics.getSlowFrozenFrameCount();
@@ -232,7 +244,9 @@ public class SpanFrameMetricsCollector
         frameMetricsCollector.stopCollection(listenerId);
         listenerId = null;
       }
-      frames.clear();
+      try (final @NotNull ISentryLifecycleToken ignored2 = framesLock.acquire()) {
+        frames.clear();
+      }
       runningSpans.clear();
     }
   }
@@ -247,26 +261,23 @@ public class SpanFrameMetricsCollector
       boolean isFrozen,
       float refreshRate) {
 
-    // buffer is full, skip adding new frames for now
-    // once a span finishes, the buffer will trimmed
-    if (frames.size() > MAX_FRAMES_COUNT) {
-      return;
-    }
-
     final long expectedFrameDurationNanos =
         (long) ((double) ONE_SECOND_NANOS / (double) refreshRate);
     lastKnownFrameDurationNanos = expectedFrameDurationNanos;
 
     if (isSlow || isFrozen) {
-      frames.add(
-          new Frame(
-              frameStartNanos,
-              frameEndNanos,
-              durationNanos,
-              delayNanos,
-              isSlow,
-              isFrozen,
-              expectedFrameDurationNanos));
+      try (final @NotNull ISentryLifecycleToken ignored = framesLock.acquire()) {
+        // if the buffer is full, new frames are skipped for now
+        // once a span finishes, the buffer will be trimmed
+        frames.add(
+            frameStartNanos,
+            frameEndNanos,
+            durationNanos,
+            delayNanos,
+            isSlow,
+            isFrozen,
+            expectedFrameDurationNanos);
+      }
     }
   }
 
@@ -326,39 +337,203 @@ public class SpanFrameMetricsCollector
     return System.nanoTime() - shiftInNanos;
   }
 
-  private static class Frame implements Comparable<Frame> {
-    private final long startNanos;
-    private final long endNanos;
-    private final long durationNanos;
-    private final long delayNanos;
-    private final boolean isSlow;
-    private final boolean isFrozen;
-    private final long expectedDurationNanos;
+  /**
+   * Frames stored in primitive arrays used as a ring buffer, sorted by frame end time. Frames are
+   * appended at the tail and trimmed from the head, so adding a frame doesn't allocate once the
+   * buffer has grown to the number of frames the running spans need. Frames are addressed by their
+   * position relative to the head of the buffer.
+   *
+   * <p>Not thread safe.
+   */
+  private static final class FrameBuffer {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte FLAG_SLOW = 1;
+    private static final byte FLAG_FROZEN = 2;
+
+    private final int maxCapacity;
 
-    Frame(final long timestampNanos) {
-      this(timestampNanos, timestampNanos, 0, 0, false, false, 0);
+    private long[] startNanos = new long[0];
+    private long[] endNanos = new long[0];
+    private long[] durationNanos = new long[0];
+    private long[] delayNanos = new long[0];
+    private long[] expectedDurationNanos = new long[0];
+    private byte[] flags = new byte[0];
+
+    private int head;
+    private int size;
+
+    FrameBuffer(final int maxCapacity) {
+      this.maxCapacity = maxCapacity;
+    }
+
+    int size() {
+      return size;
     }
 
-    Frame(
-        final long startNanos,
-        final long endNanos,
-        final long durationNanos,
-        final long delayNanos,
+    /**
+     * Appends a frame, unless the buffer is full or the frame doesn't end after the last frame.
+     *
+     * @return true if the frame was added
+     */
+    boolean add(
+        final long frameStartNanos,
+        final long frameEndNanos,
+        final long frameDurationNanos,
+        final long frameDelayNanos,
         final boolean isSlow,
         final boolean isFrozen,
-        final long expectedFrameDurationNanos) {
-      this.startNanos = startNanos;
-      this.endNanos = endNanos;
-      this.durationNanos = durationNanos;
-      this.delayNanos = delayNanos;
-      this.isSlow = isSlow;
-      this.isFrozen = isFrozen;
-      this.expectedDurationNanos = expectedFrameDurationNanos;
-    }
-
-    @Override
-    public int compareTo(final @NotNull Frame o) {
-      return Long.compare(this.endNanos, o.endNanos);
+        final long frameExpectedDurationNanos) {
+      // frames are reported in order, a frame ending at the same time as the previous one is a
+      // duplicate
+      if (size > 0 && frameEndNanos <= endNanos[index(size - 1)]) {
+        return false;
+      }
+      if (size == startNanos.length && !grow()) {
+        return false;
+      }
+
+      final int index = index(size);
+      startNanos[index] = frameStartNanos;
+      endNanos[index] = frameEndNanos;
+      durationNanos[index] = frameDurationNanos;
+      delayNanos[index] = frameDelayNanos;
+      expectedDurationNanos[index] = frameExpectedDurationNanos;
+      flags[index] = (byte) ((isSlow ? FLAG_SLOW : 0) | (isFrozen ? FLAG_FROZEN : 0));
+      size++;
+      return true;
+    }
+
+    /**
+     * @return the position of the first frame ending at or after the given time, or {@link
+     *     #size()} if there is none
+     */
+    int firstEndingAtOrAfter(final long timestampNanos) {
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (endNanos[index(mid)] < timestampNanos) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    void removeEndingBefore(final long timestampNanos) {
+      final int count = firstEndingAtOrAfter(timestampNanos);
+      if (count == size) {
+        clear();
+      } else {
+        head = index(count);
+        size -= count;
+      }
+    }
+
+    void clear() {
+      head = 0;
+      size = 0;
+    }
+
+    /** Replaces the frames of this buffer with the frames of source in [from, to). */
+    void copyFrom(final @NotNull FrameBuffer source, final int from, final int to) {
+      final int count = to - from;
+      if (startNanos.length < count) {
+        final int capacity = Math.max(INITIAL_CAPACITY, count);
+        startNanos = new long[capacity];
+        endNanos = new long[capacity];
+        durationNanos = new long[capacity];
+        delayNanos = new long[capacity];
+        expectedDurationNanos = new long[capacity];
+        flags = new byte[capacity];
+      }
+      head = 0;
+      size = count;
+      if (count == 0) {
+        return;
+      }
+      final int first = source.index(from);
+      final int headLength = Math.min(count, source.startNanos.length - first);
+      copyRange(source.startNanos, startNanos, first, headLength, count);
+      copyRange(source.endNanos, endNanos, first, headLength, count);
+      copyRange(source.durationNanos, durationNanos, first, headLength, count);
+      copyRange(source.delayNanos, delayNanos, first, headLength, count);
+      copyRange(source.expectedDurationNanos, expectedDurationNanos, first, headLength, count);
+      copyRange(source.flags, flags, first, headLength, count);
+    }
+
+    private static void copyRange(
+        final @NotNull Object source,
+        final @NotNull Object target,
+        final int first,
+        final int headLength,
+        final int count) {
+      System.arraycopy(source, first, target, 0, headLength);
+      System.arraycopy(source, 0, target, headLength, count - headLength);
+    }
+
+    long getStartNanos(final int position) {
+      return startNanos[index(position)];
+    }
+
+    long getEndNanos(final int position) {
+      return endNanos[index(position)];
+    }
+
+    long getDurationNanos(final int position) {
+      return durationNanos[index(position)];
+    }
+
+    long getDelayNanos(final int position) {
+      return delayNanos[index(position)];
+    }
+
+    long getExpectedDurationNanos(final int position) {
+      return expectedDurationNanos[index(position)];
+    }
+
+    boolean isSlow(final int position) {
+      return (flags[index(position)] & FLAG_SLOW) != 0;
+    }
+
+    boolean isFrozen(final int position) {
+      return (flags[index(position)] & FLAG_FROZEN) != 0;
+    }
+
+    private int index(final int position) {
+      final int index = head + position;
+      return index < startNanos.length ? index : index - startNanos.length;
+    }
+
+    private boolean grow() {
+      final int capacity = startNanos.length;
+      if (capacity >= maxCapacity) {
+        return false;
+      }
+      final int newCapacity = Math.min(maxCapacity, Math.max(INITIAL_CAPACITY, capacity * 2));
+      startNanos = copyInOrder(startNanos, newCapacity);
+      endNanos = copyInOrder(endNanos, newCapacity);
+      durationNanos = copyInOrder(durationNanos, newCapacity);
+      delayNanos = copyInOrder(delayNanos, newCapacity);
+      expectedDurationNanos = copyInOrder(expectedDurationNanos, newCapacity);
+
+      final byte[] newFlags = new byte[newCapacity];
+      final int headLength = Math.min(size, capacity - head);
+      System.arraycopy(flags, head, newFlags, 0, headLength);
+      System.arraycopy(flags, 0, newFlags, headLength, size - headLength);
+      flags = newFlags;
+
+      head = 0;
+      return true;
+    }
+
+    private long[] copyInOrder(final long[] source, final int newCapacity) {
+      final long[] target = new long[newCapacity];
+      final int headLength = Math.min(size, source.length - head);
+      System.arraycopy(source, head, target, 0, headLength);
+      System.arraycopy(source, 0, target, headLength, size - headLength);
+      return target;
     }
   }
 }
@@ -102,7 +102,9 @@ public final class ViewHierarchyEventProcessor implements EventProcessor {
             activity,
             options.getViewHierarchyExporters(),
             options.getThreadChecker(),
-            options.getLogger());
+            options.getLogger(),
+            options.getMaxViewHierarchyDepth(),
+            options.getMaxViewHierarchyNodes());
 
     if (viewHierarchy != null) {
       hint.setViewHierarchy(Attachment.fromViewHierarchy(viewHierarchy));
@@ -153,6 +155,35 @@ public final class ViewHierarchyEventProcessor implements EventProcessor {
       final @NotNull List<ViewHierarchyExporter> exporters,
       final @NotNull IThreadChecker threadChecker,
       final @NotNull ILogger logger) {
+    return snapshotViewHierarchy(
+        activity,
+        exporters,
+        threadChecker,
+        logger,
+        SentryAndroidOptions.DEFAULT_MAX_VIEW_HIERARCHY_DEPTH,
+        SentryAndroidOptions.DEFAULT_MAX_VIEW_HIERARCHY_NODES);
+  }
+
+  /**
+   * Captures the view hierarchy of the given activity. Only the properties of the views are read on
+   * the main thread, the view hierarchy is built on the calling thread.
+   *
+   * @param activity the activity
+   * @param exporters the exporters for views not backed by the Android view system
+   * @param threadChecker the thread checker
+   * @param logger the logger
+   * @param maxDepth the maximum depth of captured views, the decor view has a depth of 0
+   * @param maxNodes the maximum number of captured Android views
+   * @return the view hierarchy, or null if it could not be captured
+   */
+  @Nullable
+  public static ViewHierarchy snapshotViewHierarchy(
+      final @Nullable Activity activity,
+      final @NotNull List<ViewHierarchyExporter> exporters,
+      final @NotNull IThreadChecker threadChecker,
+      final @NotNull ILogger logger,
+      final int maxDepth,
+      final int maxNodes) {
 
     if (activity == null) {
       logger.log(SentryLevel.INFO, "Missing activity for view hierarchy snapshot.");
@@ -172,30 +203,57 @@ public final class ViewHierarchyEventProcessor implements EventProcessor {
     }
 
     try {
+      final @NotNull ViewHierarchySnapshot snapshot = ViewHierarchySnapshot.obtain();
       if (threadChecker.isMainThread()) {
-        return snapshotViewHierarchy(decorView, exporters);
+        capture(snapshot, decorView, exporters, maxDepth, maxNodes, logger);
       } else {
         final CountDownLatch latch = new CountDownLatch(1);
-        final AtomicReference<ViewHierarchy> viewHierarchy = new AtomicReference<>(null);
         activity.runOnUiThread(
             () -> {
               try {
-                viewHierarchy.set(snapshotViewHierarchy(decorView, exporters));
+                capture(snapshot, decorView, exporters, maxDepth, maxNodes, logger);
                 latch.countDown();
               } catch (Throwable t) {
                 logger.log(SentryLevel.ERROR, "Failed to process view hierarchy.", t);
               }
             });
-        if (latch.await(CAPTURE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
-          return viewHierarchy.get();
+        if (!latch.await(CAPTURE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          // the snapshot is not recycled, as the main thread may still be writing to it
+          return null;
         }
       }
+      try {
+        return snapshot.toViewHierarchy();
+      } finally {
+        snapshot.recycle();
+      }
     } catch (Throwable t) {
       logger.log(SentryLevel.ERROR, "Failed to process view hierarchy.", t);
     }
     return null;
   }
 
+  private static void capture(
+      final @NotNull ViewHierarchySnapshot snapshot,
+      final @NotNull View decorView,
+      final @NotNull List<ViewHierarchyExporter> exporters,
+      final int maxDepth,
+      final int maxNodes,
+      final @NotNull ILogger logger) {
+    final long startNanos = System.nanoTime();
+    snapshot.capture(decorView, exporters, maxDepth, maxNodes);
+    final long durationNanos = System.nanoTime() - startNanos;
+
+    if (logger.isEnabled(SentryLevel.DEBUG)) {
+      logger.log(
+          SentryLevel.DEBUG,
+          "Captured %d views of the view hierarchy in %d us on the main thread%s.",
+          snapshot.size(),
+          TimeUnit.NANOSECONDS.toMicros(durationNanos),
+          snapshot.isTruncated() ? ", views beyond the depth or node limit were left out" : "");
+    }
+  }
+
   @NotNull
   public static ViewHierarchy snapshotViewHierarchy(final @NotNull View view) {
     return snapshotViewHierarchy(view, new ArrayList<>(0));
@@ -268,23 +326,22 @@ public final class ViewHierarchyEventProcessor implements EventProcessor {
     node.setWidth((double) view.getWidth());
     node.setHeight((double) view.getHeight());
     node.setAlpha((double) view.getAlpha());
+    node.setVisibility(getVisibility(view.getVisibility()));
 
-    switch (view.getVisibility()) {
+    return node;
+  }
+
+  static @Nullable String getVisibility(final int visibility) {
+    switch (visibility) {
       case View.VISIBLE:
-        node.setVisibility("visible");
-        break;
+        return "visible";
       case View.INVISIBLE:
-        node.setVisibility("invisible");
-        break;
+        return "invisible";
       case View.GONE:
-        node.setVisibility("gone");
-        break;
+        return "gone";
       default:
-        // ignored
-        break;
+        return null;
     }
-
-    return node;
   }
 
   @Override
@@ -0,0 +1,247 @@
+package io.sentry.android.core;
+
+import android.content.res.Resources;
+import android.view.View;
+import android.view.ViewGroup;
+import io.sentry.android.core.internal.gestures.ViewUtils;
+import io.sentry.internal.viewhierarchy.ViewHierarchyExporter;
+import io.sentry.protocol.ViewHierarchy;
+import io.sentry.protocol.ViewHierarchyNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A snapshot of the Android view tree in a flat table, stored in pre-order with the index of the
+ * parent of every view. Capturing only reads the properties of the views on the main thread and
+ * defers resolving class and resource names and building the {@link ViewHierarchyNode} graph to
+ * {@link #toViewHierarchy()}, which can be called on any thread.
+ *
+ * <p>The snapshot is bounded by a maximum depth and number of views. Instances are pooled, {@link
+ * #obtain()} one and {@link #recycle()} it once it has been converted. Capturing only allocates
+ * when the table grows and for views accepted by a {@link ViewHierarchyExporter}, whose holder
+ * node is kept.
+ */
+final class ViewHierarchySnapshot {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private static final @NotNull AtomicReference<ViewHierarchySnapshot> pool =
+      new AtomicReference<>();
+
+  private int size;
+  private boolean truncated;
+  private @Nullable Resources resources;
+
+  private int[] parents = new int[0];
+  private Class<?>[] types = new Class<?>[0];
+  private int[] ids = new int[0];
+  private float[] xs = new float[0];
+  private float[] ys = new float[0];
+  private int[] widths = new int[0];
+  private int[] heights = new int[0];
+  private float[] alphas = new float[0];
+  private int[] visibilities = new int[0];
+  // nodes filled by a ViewHierarchyExporter, which replace the children of the view
+  private @Nullable ViewHierarchyNode[] exported = new ViewHierarchyNode[0];
+  // holder offered to the exporters, only replaced once an exporter accepted it, as exporters
+  // leave the node untouched when they don't recognize the view
+  private @Nullable ViewHierarchyNode exportHolder;
+
+  private ViewHierarchySnapshot() {}
+
+  static @NotNull ViewHierarchySnapshot obtain() {
+    final @Nullable ViewHierarchySnapshot snapshot = pool.getAndSet(null);
+    return snapshot != null ? snapshot : new ViewHierarchySnapshot();
+  }
+
+  /** Clears the snapshot and returns it to the pool. It must not be used afterwards. */
+  void recycle() {
+    Arrays.fill(types, 0, size, null);
+    Arrays.fill(exported, 0, size, null);
+    resources = null;
+    size = 0;
+    truncated = false;
+    pool.set(this);
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return true if views were left out because of the maximum depth or number of views
+   */
+  boolean isTruncated() {
+    return truncated;
+  }
+
+  /**
+   * Captures the given view and its descendants, needs to be called on the main thread.
+   *
+   * @param root the root view
+   * @param exporters the exporters for views not backed by the Android view system
+   * @param maxDepth the maximum depth of captured views, the root has a depth of 0
+   * @param maxViews the maximum number of captured views
+   */
+  void capture(
+      final @NotNull View root,
+      final @NotNull List<ViewHierarchyExporter> exporters,
+      final int maxDepth,
+      final int maxViews) {
+    resources = root.getContext() != null ? root.getContext().getResources() : null;
+    add(root, -1, 0, exporters, maxDepth, maxViews);
+  }
+
+  private void add(
+      final @NotNull View view,
+      final int parent,
+      final int depth,
+      final @NotNull List<ViewHierarchyExporter> exporters,
+      final int maxDepth,
+      final int maxViews) {
+    if (size >= maxViews) {
+      truncated = true;
+      return;
+    }
+    if (size == parents.length) {
+      grow(maxViews);
+    }
+
+    final int index = size++;
+    parents[index] = parent;
+    types[index] = view.getClass();
+    ids[index] = view.getId();
+    xs[index] = view.getX();
+    ys[index] = view.getY();
+    widths[index] = view.getWidth();
+    heights[index] = view.getHeight();
+    alphas[index] = view.getAlpha();
+    visibilities[index] = view.getVisibility();
+
+    if (!(view instanceof ViewGroup)) {
+      return;
+    }
+
+    // In case any external exporter recognizes it's own widget (e.g. AndroidComposeView)
+    // we can immediately return
+    if (!exporters.isEmpty()) {
+      @Nullable ViewHierarchyNode node = exportHolder;
+      if (node == null) {
+        node = new ViewHierarchyNode();
+        exportHolder = node;
+      }
+      for (final @NotNull ViewHierarchyExporter exporter : exporters) {
+        if (exporter.export(node, view)) {
+          exported[index] = node;
+          exportHolder = null;
+          return;
+        }
+      }
+    }
+
+    final @NotNull ViewGroup viewGroup = (ViewGroup) view;
+    final int childCount = viewGroup.getChildCount();
+    if (childCount == 0) {
+      return;
+    }
+    if (depth >= maxDepth) {
+      truncated = true;
+      return;
+    }
+    for (int i = 0; i < childCount; i++) {
+      final @Nullable View child = viewGroup.getChildAt(i);
+      if (child != null) {
+        add(child, index, depth + 1, exporters, maxDepth, maxViews);
+      }
+    }
+  }
+
+  /**
+   * Builds the view hierarchy from the captured views, can be called on any thread.
+   *
+   * @return the view hierarchy
+   */
+  @NotNull
+  ViewHierarchy toViewHierarchy() {
+    final @NotNull List<ViewHierarchyNode> windows = new ArrayList<>(1);
+    final @NotNull ViewHierarchy viewHierarchy = new ViewHierarchy("android_view_system", windows);
+
+    final @NotNull ViewHierarchyNode[] nodes = new ViewHierarchyNode[size];
+    final @NotNull Map<Class<?>, String> typeNames = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      final @NotNull ViewHierarchyNode node = toNode(i, typeNames);
+      nodes[i] = node;
+
+      final int parent = parents[i];
+      if (parent < 0) {
+        windows.add(node);
+      } else {
+        final @NotNull ViewHierarchyNode parentNode = nodes[parent];
+        @Nullable List<ViewHierarchyNode> children = parentNode.getChildren();
+        if (children == null) {
+          children = new ArrayList<>();
+          parentNode.setChildren(children);
+        }
+        children.add(node);
+      }
+    }
+    return viewHierarchy;
+  }
+
+  private @NotNull ViewHierarchyNode toNode(
+      final int index, final @NotNull Map<Class<?>, String> typeNames) {
+    final @NotNull ViewHierarchyNode node = new ViewHierarchyNode();
+
+    final @NotNull Class<?> type = types[index];
+    @Nullable String typeName = typeNames.get(type);
+    if (typeName == null) {
+      typeName = type.getCanonicalName();
+      if (typeName == null) {
+        typeName = type.getSimpleName();
+      }
+      typeNames.put(type, typeName);
+    }
+    node.setType(typeName);
+
+    try {
+      final @Nullable String identifier = ViewUtils.getResourceIdOrNull(resources, ids[index]);
+      if (identifier != null) {
+        node.setIdentifier(identifier);
+      }
+    } catch (Throwable e) {
+      // ignored
+    }
+    node.setX((double) xs[index]);
+    node.setY((double) ys[index]);
+    node.setWidth((double) widths[index]);
+    node.setHeight((double) heights[index]);
+    node.setAlpha((double) alphas[index]);
+    node.setVisibility(ViewHierarchyEventProcessor.getVisibility(visibilities[index]));
+
+    final @Nullable ViewHierarchyNode exportedNode = exported[index];
+    if (exportedNode != null) {
+      node.setChildren(exportedNode.getChildren());
+    }
+    return node;
+  }
+
+  private void grow(final int maxViews) {
+    final int capacity = Math.min(maxViews, Math.max(INITIAL_CAPACITY, parents.length * 2));
+    parents = Arrays.copyOf(parents, capacity);
+    types = Arrays.copyOf(types, capacity);
+    ids = Arrays.copyOf(ids, capacity);
+    xs = Arrays.copyOf(xs, capacity);
+    ys = Arrays.copyOf(ys, capacity);
+    widths = Arrays.copyOf(widths, capacity);
+    heights = Arrays.copyOf(heights, capacity);
+    alphas = Arrays.copyOf(alphas, capacity);
+    visibilities = Arrays.copyOf(visibilities, capacity);
+    exported = Arrays.copyOf(exported, capacity);
+  }
+}
@@ -26,6 +26,7 @@ public class AnrProfileManager implements AutoCloseable {
       (int) ((THRESHOLD_ANR_MS / POLLING_INTERVAL_MS) * 2);
 
   @NotNull private final ObjectQueue<AnrStackTrace> queue;
+  @NotNull private final AnrStackTraceCodec codec = new AnrStackTraceCodec();
 
   public AnrProfileManager(final @NotNull SentryOptions options) {
     this(
@@ -66,7 +67,7 @@ public class AnrProfileManager implements AutoCloseable {
                   // hold any resources
                   final @NotNull ByteArrayInputStream bis = new ByteArrayInputStream(source);
                   final @NotNull DataInputStream dis = new DataInputStream(bis);
-                  return AnrStackTrace.deserialize(dis);
+                  return codec.read(dis);
                 }
 
                 @Override
@@ -74,7 +75,7 @@ public class AnrProfileManager implements AutoCloseable {
                     final @NotNull AnrStackTrace value, final @NotNull OutputStream sink)
                     throws IOException {
                   try (final @NotNull DataOutputStream dos = new DataOutputStream(sink)) {
-                    value.serialize(dos);
+                    codec.write(value, dos);
                     dos.flush();
                     sink.flush();
                   }
@@ -83,16 +84,19 @@ public class AnrProfileManager implements AutoCloseable {
     }
   }
 
-  public void clear() throws IOException {
+  public synchronized void clear() throws IOException {
     queue.clear();
+    codec.resetWriter();
   }
 
-  public void add(AnrStackTrace trace) throws IOException {
+  public synchronized void add(AnrStackTrace trace) throws IOException {
     queue.add(trace);
   }
 
   @NotNull
-  public AnrProfile load() throws IOException {
+  public synchronized AnrProfile load() throws IOException {
+    // samples are encoded relative to their predecessors, so they have to be read from the start
+    codec.resetReader();
     return new AnrProfile(queue.asList());
   }
 
@@ -0,0 +1,192 @@
+package io.sentry.android.core.anr;
+
+import io.sentry.util.StringUtils;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Encodes the stack traces of a recording relative to each other. While the main thread is
+ * blocked, consecutive samples are almost identical, so frames are interned into a per recording
+ * frame table and every sample only stores the frames above the part of the stack it shares with
+ * the previous sample.
+ *
+ * <p>Every {@link #KEYFRAME_INTERVAL} samples the table is reset and the sample is stored on its
+ * own, so that the recording can still be read after the queue dropped its oldest samples. Samples
+ * that don't follow their predecessor are skipped until the next keyframe.
+ *
+ * <p>Instances are stateful and not thread safe, samples have to be read in the order they were
+ * written.
+ */
+final class AnrStackTraceCodec {
+
+  static final short VERSION = 2;
+  static final int KEYFRAME_INTERVAL = 16;
+
+  private static final int MAX_STACK_LENGTH = 1000;
+
+  // encoder state
+  private final @NotNull Map<StackTraceElement, Integer> frameIndices = new HashMap<>();
+  private @Nullable StackTraceElement[] previousWritten;
+  private int writeSequence;
+
+  // decoder state
+  private final @NotNull List<StackTraceElement> frames = new ArrayList<>();
+  private @Nullable StackTraceElement[] previousRead;
+  private int readSequence = -1;
+
+  /** Forgets all previously written samples, the next sample is written as a keyframe. */
+  void resetWriter() {
+    frameIndices.clear();
+    previousWritten = null;
+    writeSequence = 0;
+  }
+
+  /** Forgets all previously read samples, samples are skipped until the next keyframe. */
+  void resetReader() {
+    frames.clear();
+    previousRead = null;
+    readSequence = -1;
+  }
+
+  void write(final @NotNull AnrStackTrace trace, final @NotNull DataOutputStream dos)
+      throws IOException {
+    if (writeSequence % KEYFRAME_INTERVAL == 0) {
+      frameIndices.clear();
+      previousWritten = null;
+    }
+
+    final @NotNull StackTraceElement[] stack = trace.stack;
+    final int sharedLength = sharedRootLength(previousWritten, stack);
+    final int topLength = stack.length - sharedLength;
+
+    dos.writeShort(VERSION);
+    dos.writeLong(trace.timestampMs);
+    dos.writeInt(writeSequence % KEYFRAME_INTERVAL);
+    dos.writeInt(sharedLength);
+    dos.writeInt(topLength);
+    for (int i = 0; i < topLength; i++) {
+      final @NotNull StackTraceElement element = stack[i];
+      final @Nullable Integer index = frameIndices.get(element);
+      if (index != null) {
+        dos.writeInt(index);
+      } else {
+        // a new frame is defined where it is first used
+        final int newIndex = frameIndices.size();
+        frameIndices.put(element, newIndex);
+        dos.writeInt(newIndex);
+        writeFrame(element, dos);
+      }
+    }
+
+    previousWritten = stack;
+    writeSequence++;
+  }
+
+  /**
+   * @return the sample, or null if it can't be read or its predecessors are missing
+   */
+  @Nullable
+  AnrStackTrace read(final @NotNull DataInputStream dis) throws IOException {
+    try {
+      dis.mark(Short.BYTES);
+      final short version = dis.readShort();
+      if (version != VERSION) {
+        // samples written by previous SDK versions are stored on their own
+        dis.reset();
+        return AnrStackTrace.deserialize(dis);
+      }
+
+      final long timestampMs = dis.readLong();
+      final int sequence = dis.readInt();
+      final int sharedLength = dis.readInt();
+      final int topLength = dis.readInt();
+
+      final boolean isKeyframe = sequence == 0;
+      if (isKeyframe) {
+        frames.clear();
+        previousRead = null;
+      } else if (sequence != readSequence + 1) {
+        readSequence = -1;
+        return null;
+      }
+
+      final @Nullable StackTraceElement[] previous = previousRead;
+      final int previousLength = previous == null ? 0 : previous.length;
+      if (sharedLength < 0
+          || sharedLength > previousLength
+          || topLength < 0
+          || sharedLength + topLength > MAX_STACK_LENGTH) {
+        readSequence = -1;
+        return null;
+      }
+
+      final @NotNull StackTraceElement[] stack = new StackTraceElement[topLength + sharedLength];
+      for (int i = 0; i < topLength; i++) {
+        final int index = dis.readInt();
+        if (index == frames.size()) {
+          frames.add(readFrame(dis));
+        } else if (index < 0 || index > frames.size()) {
+          readSequence = -1;
+          return null;
+        }
+        stack[i] = frames.get(index);
+      }
+      if (previous != null) {
+        System.arraycopy(previous, previousLength - sharedLength, stack, topLength, sharedLength);
+      }
+
+      previousRead = stack;
+      readSequence = sequence;
+      return new AnrStackTrace(timestampMs, stack);
+    } catch (EOFException e) {
+      readSequence = -1;
+      return null;
+    }
+  }
+
+  // the number of frames at the root of the stack which are the same as in the previous stack
+  private static int sharedRootLength(
+      final @Nullable StackTraceElement[] previous, final @NotNull StackTraceElement[] stack) {
+    if (previous == null) {
+      return 0;
+    }
+    final int maxLength = Math.min(previous.length, stack.length);
+    int length = 0;
+    while (length < maxLength
+        && stack[stack.length - 1 - length].equals(previous[previous.length - 1 - length])) {
+      length++;
+    }
+    return length;
+  }
+
+  private static void writeFrame(
+      final @NotNull StackTraceElement element, final @NotNull DataOutputStream dos)
+      throws IOException {
+    dos.writeUTF(StringUtils.getOrEmpty(element.getClassName()));
+    dos.writeUTF(StringUtils.getOrEmpty(element.getMethodName()));
+    // Write null as a special marker to preserve null vs empty string distinction
+    final @Nullable String fileName = element.getFileName();
+    dos.writeBoolean(fileName == null);
+    dos.writeUTF(fileName == null ? "" : fileName);
+    dos.writeInt(element.getLineNumber());
+  }
+
+  private static @NotNull StackTraceElement readFrame(final @NotNull DataInputStream dis)
+      throws IOException {
+    final @NotNull String className = dis.readUTF();
+    final @NotNull String methodName = dis.readUTF();
+    final boolean isFileNameNull = dis.readBoolean();
+    final @NotNull String fileNameStr = dis.readUTF();
+    final @Nullable String fileName = isFileNameNull ? null : fileNameStr;
+    final int lineNumber = dis.readInt();
+    return new StackTraceElement(className, methodName, fileName, lineNumber);
+  }
+}
@@ -172,7 +172,23 @@ public final class ViewUtils {
     if (viewId == View.NO_ID || isViewIdGenerated(viewId)) {
       return null;
     }
-    final Resources resources = view.getContext().getResources();
+    return getResourceIdOrNull(view.getContext().getResources(), viewId);
+  }
+
+  /**
+   * Retrieves the human-readable name of the given view id, like {@link
+   * #getResourceIdOrNull(View)}. Resolving the name doesn't need the view, so it can be done off
+   * the main thread.
+   *
+   * @param resources - the resources of the view, or {@code null} if it has none
+   * @param viewId - the id of the view
+   * @return human-readable view id, or {@code null} if it cannot be resolved
+   */
+  public static @Nullable String getResourceIdOrNull(
+      final @Nullable Resources resources, final int viewId) {
+    if (viewId == View.NO_ID || isViewIdGenerated(viewId)) {
+      return null;
+    }
     if (resources == null) {
       return "";
     }
@@ -5,6 +5,7 @@ import io.sentry.NoOpTransactionProfiler
 import io.sentry.protocol.DebugImage
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
 import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
 import kotlin.test.assertNull
@@ -114,6 +115,24 @@ class SentryAndroidOptionsTest {
     assertFalse(sentryOptions.isAttachViewHierarchy)
   }
 
+  @Test
+  fun `view hierarchy capture is bounded by default`() {
+    val sentryOptions = SentryAndroidOptions()
+
+    assertEquals(100, sentryOptions.maxViewHierarchyDepth)
+    assertEquals(5000, sentryOptions.maxViewHierarchyNodes)
+  }
+
+  @Test
+  fun `view hierarchy capture limits need to be positive`() {
+    val sentryOptions = SentryAndroidOptions()
+
+    assertFailsWith<IllegalArgumentException> { sentryOptions.maxViewHierarchyDepth = 0 }
+    assertFailsWith<IllegalArgumentException> { sentryOptions.maxViewHierarchyNodes = -1 }
+    assertEquals(100, sentryOptions.maxViewHierarchyDepth)
+    assertEquals(5000, sentryOptions.maxViewHierarchyNodes)
+  }
+
   @Test
   fun `native sdk name is null by default`() {
     val sentryOptions = SentryAndroidOptions()
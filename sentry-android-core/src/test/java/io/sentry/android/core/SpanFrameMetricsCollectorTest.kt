@@ -8,10 +8,12 @@ import io.sentry.SentryNanotimeDate
 import io.sentry.SpanContext
 import io.sentry.android.core.internal.util.SentryFrameMetricsCollector
 import io.sentry.protocol.MeasurementValue
+import java.lang.management.ManagementFactory
 import java.util.UUID
 import java.util.concurrent.TimeUnit
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertTrue
 import org.mockito.AdditionalMatchers
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
@@ -436,6 +438,82 @@ class SpanFrameMetricsCollectorTest {
     verify(span0, never()).setData(any(), any())
   }
 
+  @Test
+  fun `only frames within the span are counted when many frames are buffered`() {
+    val sut = fixture.getSut()
+
+    // given a long running span
+    val span0 = createFakeSpan(0, 10_000)
+    sut.onSpanStarted(span0)
+
+    // and a span which only covers a part of the frames
+    val span1 = createFakeSpan(3_000, 5_000)
+    sut.onSpanStarted(span1)
+
+    // when 100 slow frames are recorded
+    for (i in 0 until 100) {
+      sut.onFrameMetricCollected(i * 100L, i * 100L + 50, 50, 34, true, false, 60.0f)
+    }
+
+    sut.onSpanFinished(span1)
+    sut.onSpanFinished(span0)
+
+    // then each span only contains the frames within its time range
+    verify(span1).setData("frames.slow", 20)
+    verify(span0).setData("frames.slow", 100)
+  }
+
+  @Test
+  fun `frames are skipped once the buffer is full`() {
+    val sut = fixture.getSut()
+
+    // given a long running span
+    val span = createFakeSpan(0, 10_000_000)
+    sut.onSpanStarted(span)
+
+    // when more slow frames than the buffer can hold are recorded
+    for (i in 0 until 4000) {
+      sut.onFrameMetricCollected(i * 2000L, i * 2000L + 1000, 1000, 984, true, false, 60.0f)
+    }
+    sut.onSpanFinished(span)
+
+    // then only the buffered frames are reported
+    verify(span).setData("frames.slow", 3600)
+  }
+
+  @Test
+  fun `collecting frames does not allocate`() {
+    val threadBean = ManagementFactory.getThreadMXBean()
+    if (
+      threadBean !is com.sun.management.ThreadMXBean || !threadBean.isThreadAllocatedMemoryEnabled
+    ) {
+      return
+    }
+    val sut = fixture.getSut()
+
+    // given the frame buffer has grown to its full size
+    val span0 = createFakeSpan(0, 4_000_000)
+    sut.onSpanStarted(span0)
+    for (i in 0 until 4000) {
+      sut.onFrameMetricCollected(i * 1000L, i * 1000L + 500, 500, 484, true, false, 60.0f)
+    }
+    val span1 = createFakeSpan(5_000_000, 10_000_000)
+    sut.onSpanStarted(span1)
+    sut.onSpanFinished(span0)
+
+    // when slow and frozen frames are recorded
+    val threadId = Thread.currentThread().id
+    val allocatedBefore = threadBean.getThreadAllocatedBytes(threadId)
+    for (i in 0 until 3000) {
+      val start = 5_000_000L + i * 1000L
+      sut.onFrameMetricCollected(start, start + 500, 500, 484, true, i % 2 == 0, 60.0f)
+    }
+    val allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore
+
+    // then no frame objects are allocated
+    assertTrue(allocated < 1024, "allocated $allocated bytes")
+  }
+
   @Test
   fun `SentryNanoDate diff does nano precision`() {
     // having this in here, as SpanFrameMetricsCollector relies on this behavior
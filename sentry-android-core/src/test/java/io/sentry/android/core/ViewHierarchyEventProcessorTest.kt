@@ -11,7 +11,9 @@ import io.sentry.JsonSerializer
 import io.sentry.SentryEvent
 import io.sentry.SentryIntegrationPackageStorage
 import io.sentry.TypeCheckHint
+import io.sentry.internal.viewhierarchy.ViewHierarchyExporter
 import io.sentry.protocol.SentryException
+import io.sentry.protocol.ViewHierarchyNode
 import io.sentry.util.thread.IThreadChecker
 import java.io.Writer
 import kotlin.test.BeforeTest
@@ -19,12 +21,15 @@ import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
+import kotlin.test.assertNotSame
 import kotlin.test.assertNull
+import kotlin.test.assertSame
 import kotlin.test.assertTrue
 import org.junit.runner.RunWith
 import org.mockito.invocation.InvocationOnMock
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
@@ -33,14 +38,14 @@ class ViewHierarchyEventProcessorTest {
   private class Fixture {
     val logger = mock<AndroidLogger>()
     val serializer: JsonSerializer = mock {
-      on(it.serialize(any<JsonSerializable>(), any())).then { invocationOnMock: InvocationOnMock ->
+      on(it.serialize(any<JsonSerializable>(), any<Writer>())).then { invocationOnMock: InvocationOnMock ->
         val writer: Writer = invocationOnMock.getArgument(1)
         writer.write("mock-data")
         writer.flush()
       }
     }
     val emptySerializer: JsonSerializer = mock {
-      on(it.serialize(any<JsonSerializable>(), any())).then { invocationOnMock: InvocationOnMock ->
+      on(it.serialize(any<JsonSerializable>(), any<Writer>())).then { invocationOnMock: InvocationOnMock ->
         val writer: Writer = invocationOnMock.getArgument(1)
         writer.flush()
       }
@@ -351,6 +356,211 @@ class ViewHierarchyEventProcessorTest {
     assertNotNull(hint.viewHierarchy)
   }
 
+  @Test
+  fun `snapshot of an activity matches the snapshot of its decor view`() {
+    val decorView =
+      mockedView(
+        0.0f,
+        1.0f,
+        200,
+        400,
+        1f,
+        View.VISIBLE,
+        listOf(
+          mockedView(10.0f, 11.0f, 100, 101, 0.5f, View.GONE),
+          mockedView(
+            20.0f,
+            21.0f,
+            200,
+            201,
+            1f,
+            View.INVISIBLE,
+            listOf(mockedView(30.0f, 31.0f, 50, 51, 1f, View.VISIBLE)),
+          ),
+        ),
+      )
+    whenever(fixture.window.peekDecorView()).thenReturn(decorView)
+
+    val expected = ViewHierarchyEventProcessor.snapshotViewHierarchy(decorView)
+    val actual =
+      ViewHierarchyEventProcessor.snapshotViewHierarchy(
+        fixture.activity,
+        emptyList(),
+        fixture.threadChecker,
+        fixture.logger,
+      )
+
+    assertNotNull(actual)
+    assertEquals(expected.renderingSystem, actual.renderingSystem)
+    assertEquals(1, actual.windows!!.size)
+    assertSameNode(expected.windows!![0], actual.windows!![0])
+  }
+
+  @Test
+  fun `snapshot of an activity leaves out views below the max depth`() {
+    val decorView =
+      mockedView(
+        0.0f,
+        0.0f,
+        200,
+        400,
+        1f,
+        View.VISIBLE,
+        listOf(
+          mockedView(
+            0.0f,
+            0.0f,
+            100,
+            100,
+            1f,
+            View.VISIBLE,
+            listOf(mockedView(0.0f, 0.0f, 50, 50, 1f, View.VISIBLE)),
+          )
+        ),
+      )
+    whenever(fixture.window.peekDecorView()).thenReturn(decorView)
+
+    val viewHierarchy =
+      ViewHierarchyEventProcessor.snapshotViewHierarchy(
+        fixture.activity,
+        emptyList(),
+        fixture.threadChecker,
+        fixture.logger,
+        1,
+        100,
+      )
+
+    val root = viewHierarchy!!.windows!![0]
+    assertEquals(1, root.children!!.size)
+    assertNull(root.children!![0].children)
+  }
+
+  @Test
+  fun `snapshot of an activity leaves out views beyond the max number of nodes`() {
+    val decorView =
+      mockedView(
+        0.0f,
+        0.0f,
+        200,
+        400,
+        1f,
+        View.VISIBLE,
+        listOf(
+          mockedView(10.0f, 0.0f, 100, 100, 1f, View.VISIBLE),
+          mockedView(20.0f, 0.0f, 100, 100, 1f, View.VISIBLE),
+          mockedView(30.0f, 0.0f, 100, 100, 1f, View.VISIBLE),
+        ),
+      )
+    whenever(fixture.window.peekDecorView()).thenReturn(decorView)
+
+    val viewHierarchy =
+      ViewHierarchyEventProcessor.snapshotViewHierarchy(
+        fixture.activity,
+        emptyList(),
+        fixture.threadChecker,
+        fixture.logger,
+        100,
+        3,
+      )
+
+    val root = viewHierarchy!!.windows!![0]
+    assertEquals(2, root.children!!.size)
+    assertEquals(10.0, root.children!![0].x)
+    assertEquals(20.0, root.children!![1].x)
+  }
+
+  @Test
+  fun `snapshot of an activity uses the children provided by an exporter`() {
+    val exportedView = mockedView(10.0f, 0.0f, 100, 100, 1f, View.VISIBLE)
+    val decorView = mockedView(0.0f, 0.0f, 200, 400, 1f, View.VISIBLE, listOf(exportedView))
+    whenever(fixture.window.peekDecorView()).thenReturn(decorView)
+    val exporter =
+      ViewHierarchyExporter { parent, element ->
+        if (element !== exportedView) {
+          return@ViewHierarchyExporter false
+        }
+        parent.children = listOf(ViewHierarchyNode().apply { type = "@Composable" })
+        true
+      }
+
+    val viewHierarchy =
+      ViewHierarchyEventProcessor.snapshotViewHierarchy(
+        fixture.activity,
+        listOf(exporter),
+        fixture.threadChecker,
+        fixture.logger,
+      )
+
+    val exportedNode = viewHierarchy!!.windows!![0].children!![0]
+    assertEquals(10.0, exportedNode.x)
+    assertEquals("@Composable", exportedNode.children!![0].type)
+  }
+
+  @Test
+  fun `snapshot of an activity only allocates a new exporter holder once one was accepted`() {
+    val first = mockedView(10.0f, 0.0f, 100, 100, 1f, View.VISIBLE)
+    val second = mockedView(20.0f, 0.0f, 100, 100, 1f, View.VISIBLE)
+    val decorView = mockedView(0.0f, 0.0f, 200, 400, 1f, View.VISIBLE, listOf(first, second))
+    whenever(fixture.window.peekDecorView()).thenReturn(decorView)
+    val offered = mutableListOf<ViewHierarchyNode>()
+    val exporter =
+      ViewHierarchyExporter { parent, element ->
+        offered.add(parent)
+        if (element === decorView) {
+          return@ViewHierarchyExporter false
+        }
+        parent.children = listOf(ViewHierarchyNode().apply { x = (element as View).x.toDouble() })
+        true
+      }
+
+    val viewHierarchy =
+      ViewHierarchyEventProcessor.snapshotViewHierarchy(
+        fixture.activity,
+        listOf(exporter),
+        fixture.threadChecker,
+        fixture.logger,
+      )
+
+    assertEquals(3, offered.size)
+    assertSame(offered[0], offered[1])
+    assertNotSame(offered[1], offered[2])
+    val children = viewHierarchy!!.windows!![0].children!!
+    assertEquals(10.0, children[0].children!![0].x)
+    assertEquals(20.0, children[1].children!![0].x)
+  }
+
+  @Test
+  fun `snapshots of an activity are captured on the main thread and built on the calling thread`() {
+    whenever(fixture.threadChecker.isMainThread).thenReturn(false)
+    val decorView = mockedView(0.0f, 0.0f, 200, 400, 1f, View.VISIBLE)
+    whenever(fixture.window.peekDecorView()).thenReturn(decorView)
+
+    repeat(2) {
+      val viewHierarchy =
+        ViewHierarchyEventProcessor.snapshotViewHierarchy(
+          fixture.activity,
+          emptyList(),
+          fixture.threadChecker,
+          fixture.logger,
+        )
+      assertEquals(200.0, viewHierarchy!!.windows!![0].width)
+    }
+    verify(fixture.activity, times(2)).runOnUiThread(any())
+  }
+
+  private fun assertSameNode(expected: ViewHierarchyNode, actual: ViewHierarchyNode) {
+    assertEquals(expected.type, actual.type)
+    assertEquals(expected.identifier, actual.identifier)
+    assertEquals(expected.x, actual.x)
+    assertEquals(expected.y, actual.y)
+    assertEquals(expected.width, actual.width)
+    assertEquals(expected.height, actual.height)
+    assertEquals(expected.alpha, actual.alpha)
+    assertEquals(expected.visibility, actual.visibility)
+    assertEquals(expected.children?.size, actual.children?.size)
+    expected.children?.forEachIndexed { i, child -> assertSameNode(child, actual.children!![i]) }
+  }
+
   private fun mockedView(
     x: Float,
     y: Float,
@@ -362,6 +572,7 @@ class ViewHierarchyEventProcessorTest {
   ): View {
     val view = mock<ViewGroup>()
 
+    whenever(view.id).thenReturn(View.NO_ID)
     whenever(view.x).thenReturn(x)
     whenever(view.y).thenReturn(y)
     whenever(view.width).thenReturn(width)
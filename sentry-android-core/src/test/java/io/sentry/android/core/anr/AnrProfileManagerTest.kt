@@ -3,6 +3,7 @@ package io.sentry.android.core.anr
 import io.sentry.SentryOptions
 import java.io.File
 import kotlin.test.Test
+import kotlin.test.assertContentEquals
 import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
 import kotlin.test.assertTrue
@@ -134,4 +135,72 @@ class AnrProfileManagerTest {
     assertEquals(1, profile.stacks.size)
     assertEquals(1000L, profile.stacks[0].timestampMs)
   }
+
+  @Test
+  fun `loads consecutive samples sharing most of their frames`() {
+    // Arrange
+    val options = createOptions()
+    val manager = AnrProfileManager(options)
+    val traces = (0 until 40).map { AnrStackTrace(1000L + it, blockedStack(it)) }
+
+    // Act
+    traces.forEach { manager.add(it) }
+    val profile = manager.load()
+
+    // Assert
+    assertEquals(traces.size, profile.stacks.size)
+    traces.forEachIndexed { i, trace ->
+      assertEquals(trace.timestampMs, profile.stacks[i].timestampMs)
+      assertContentEquals(trace.stack, profile.stacks[i].stack)
+    }
+  }
+
+  @Test
+  fun `skips samples whose predecessors were evicted until the next keyframe`() {
+    // Arrange
+    val options = createOptions()
+    val manager = AnrProfileManager(options)
+    val traces = (0 until 150).map { AnrStackTrace(1000L + it, blockedStack(it)) }
+
+    // Act
+    traces.forEach { manager.add(it) }
+    val profile = manager.load()
+
+    // Assert
+    assertTrue(profile.stacks.isNotEmpty())
+    val firstIndex = (profile.stacks[0].timestampMs - 1000L).toInt()
+    assertEquals(0, firstIndex % AnrStackTraceCodec.KEYFRAME_INTERVAL)
+    assertEquals(traces.size - firstIndex, profile.stacks.size)
+    profile.stacks.forEachIndexed { i, stack ->
+      assertContentEquals(traces[firstIndex + i].stack, stack.stack)
+    }
+  }
+
+  @Test
+  fun `starts a new keyframe after clear`() {
+    // Arrange
+    val options = createOptions()
+    val manager = AnrProfileManager(options)
+    (0 until 5).forEach { manager.add(AnrStackTrace(1000L + it, blockedStack(it))) }
+
+    // Act
+    manager.clear()
+    manager.add(AnrStackTrace(2000L, blockedStack(7)))
+    manager.add(AnrStackTrace(2001L, blockedStack(8)))
+    val profile = manager.load()
+
+    // Assert
+    assertEquals(2, profile.stacks.size)
+    assertContentEquals(blockedStack(7), profile.stacks[0].stack)
+    assertContentEquals(blockedStack(8), profile.stacks[1].stack)
+  }
+
+  private fun blockedStack(sample: Int): Array<StackTraceElement> {
+    val root =
+      (0 until 30).map {
+        StackTraceElement("com.example.Class$it", "method$it", "Class$it.java", it)
+      }
+    val top = StackTraceElement("com.example.Busy", "spin", null, sample % 3)
+    return (listOf(top) + root.reversed()).toTypedArray()
+  }
 }
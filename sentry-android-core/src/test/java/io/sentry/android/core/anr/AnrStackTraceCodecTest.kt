@@ -0,0 +1,96 @@
+package io.sentry.android.core.anr
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class AnrStackTraceCodecTest {
+
+  private val root =
+    arrayOf(
+      StackTraceElement("com.example.MyClass", "method1", null, 42),
+      StackTraceElement("com.example.MyClass", "method1", "", 42),
+      StackTraceElement("android.os.Looper", "loop", "Looper.java", 100),
+    )
+
+  @Test
+  fun `round trips samples and shares frames between them`() {
+    val codec = AnrStackTraceCodec()
+    val first = AnrStackTrace(1000, root)
+    val busy = StackTraceElement("com.example.Busy", "spin", "B.java", 1)
+    val second = AnrStackTrace(2000, arrayOf(busy) + root)
+
+    val items = listOf(first, second).map { write(codec, it) }
+    val decoded = items.map { assertNotNull(read(codec, it)) }
+
+    assertEquals(1000L, decoded[0].timestampMs)
+    assertContentEquals(first.stack, decoded[0].stack)
+    assertEquals(2000L, decoded[1].timestampMs)
+    assertContentEquals(second.stack, decoded[1].stack)
+    assertSame(decoded[0].stack[0], decoded[1].stack[1])
+  }
+
+  @Test
+  fun `delta samples are smaller than full samples`() {
+    val codec = AnrStackTraceCodec()
+    val keyframe = write(codec, AnrStackTrace(1000, root))
+    val delta = write(codec, AnrStackTrace(2000, root))
+
+    assertTrue(delta.size < keyframe.size)
+  }
+
+  @Test
+  fun `skips delta samples without their predecessor`() {
+    val writer = AnrStackTraceCodec()
+    val items =
+      (0 until AnrStackTraceCodec.KEYFRAME_INTERVAL + 1).map {
+        write(writer, AnrStackTrace(it.toLong(), root))
+      }
+
+    val reader = AnrStackTraceCodec()
+    val decoded = items.drop(1).map { read(reader, it) }
+
+    assertTrue(decoded.dropLast(1).all { it == null })
+    assertContentEquals(root, assertNotNull(decoded.last()).stack)
+  }
+
+  @Test
+  fun `reads samples written in the previous format`() {
+    val original = AnrStackTrace(1234567890L, root)
+    val bytes = ByteArrayOutputStream()
+    original.serialize(DataOutputStream(bytes))
+
+    val deserialized = read(AnrStackTraceCodec(), bytes.toByteArray())
+
+    assertNotNull(deserialized)
+    assertEquals(original.timestampMs, deserialized.timestampMs)
+    assertContentEquals(original.stack, deserialized.stack)
+  }
+
+  @Test
+  fun `returns null for truncated samples`() {
+    val codec = AnrStackTraceCodec()
+    val bytes = write(codec, AnrStackTrace(1000, root))
+
+    assertNull(read(AnrStackTraceCodec(), bytes.copyOf(bytes.size - 4)))
+  }
+
+  private fun write(codec: AnrStackTraceCodec, trace: AnrStackTrace): ByteArray {
+    val bytes = ByteArrayOutputStream()
+    val dos = DataOutputStream(bytes)
+    codec.write(trace, dos)
+    dos.flush()
+    return bytes.toByteArray()
+  }
+
+  private fun read(codec: AnrStackTraceCodec, bytes: ByteArray): AnrStackTrace? =
+    codec.read(DataInputStream(ByteArrayInputStream(bytes)))
+}
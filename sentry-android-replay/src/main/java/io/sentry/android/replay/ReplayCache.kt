@@ -3,6 +3,7 @@ package io.sentry.android.replay
 import android.graphics.Bitmap
 import android.graphics.Bitmap.CompressFormat.JPEG
 import android.graphics.BitmapFactory
+import android.system.Os
 import io.sentry.DateUtils
 import io.sentry.ReplayRecording
 import io.sentry.SentryLevel.DEBUG
@@ -11,6 +12,7 @@ import io.sentry.SentryLevel.WARNING
 import io.sentry.SentryOptions
 import io.sentry.SentryReplayEvent.ReplayType
 import io.sentry.SentryReplayEvent.ReplayType.SESSION
+import io.sentry.android.replay.util.BitmapPool
 import io.sentry.android.replay.video.MuxerConfig
 import io.sentry.android.replay.video.SimpleVideoEncoder
 import io.sentry.protocol.SentryId
@@ -46,6 +48,23 @@ public class ReplayCache(private val options: SentryOptions, private val replayI
   private val framesLock = AutoClosableReentrantLock()
   private var encoder: SimpleVideoEncoder? = null
 
+  // content hash and file of the last compressed frame, an unchanged frame is stored by linking
+  // to the file of the previous one instead of compressing it again
+  private var lastFrameHash: Long = 0L
+  private var lastFrameScreenshot: File? = null
+  private var rowPixels = IntArray(0)
+
+  // frames are decoded into bitmaps of the video dimensions, which are reused across segments
+  internal val decodedFrames = BitmapPool(maxSize = 1)
+
+  // the video of the ongoing segment, see encodeFramesOf
+  private var ongoingVideo: SegmentVideo? = null
+  private var isIncrementalEncodingDisabled = false
+
+  /** The number of frames already encoded into the video of the ongoing segment. */
+  internal val ongoingVideoFrameCount: Int
+    get() = ongoingVideo?.frameCount ?: 0
+
   internal val replayCacheDir: File? by lazy { makeReplayCacheDir(options, replayId) }
 
   internal val frames = mutableListOf<ReplayFrame>()
@@ -66,7 +85,7 @@ public class ReplayCache(private val options: SentryOptions, private val replayI
   /**
    * Stores the current frame screenshot to in-memory cache as well as disk with [frameTimestamp] as
    * filename. Uses [Bitmap.CompressFormat.JPEG] format with quality 80. The frames are stored under
-   * [replayCacheDir].
+   * [replayCacheDir]. A frame with the same content as the previous one reuses its file.
    *
    * This method is not thread-safe.
    *
@@ -79,19 +98,70 @@ public class ReplayCache(private val options: SentryOptions, private val replayI
     }
     replayCacheDir?.mkdirs()
 
-    val screenshot = File(replayCacheDir, "$frameTimestamp.jpg").also { it.createNewFile() }
+    val screenshot = File(replayCacheDir, "$frameTimestamp.jpg")
     synchronized(bitmap) {
       if (bitmap.isRecycled) {
         return
       }
-      screenshot.outputStream().use {
-        bitmap.compress(JPEG, options.sessionReplay.quality.screenshotQuality, it)
-        it.flush()
+      // static screens keep emitting the same frame, there's no need to compress it again
+      val hash = bitmap.contentHash()
+      val previous = lastFrameScreenshot
+      if (previous == null || hash != lastFrameHash || !linkScreenshot(previous, screenshot)) {
+        screenshot.createNewFile()
+        screenshot.outputStream().use {
+          bitmap.compress(JPEG, options.sessionReplay.quality.screenshotQuality, it)
+          it.flush()
+        }
       }
+      lastFrameHash = hash
+      lastFrameScreenshot = screenshot
       addFrame(screenshot, frameTimestamp, screen)
     }
   }
 
+  /**
+   * A hash of all pixels of the frame, which is already scaled down to the recording resolution, so
+   * that changes as small as a single pixel, like a blinking cursor, produce a different hash.
+   */
+  private fun Bitmap.contentHash(): Long {
+    if (rowPixels.size < width) {
+      rowPixels = IntArray(width)
+    }
+    var hash = 31L * width + height
+    for (y in 0 until height) {
+      getPixels(rowPixels, 0, width, 0, y, width, 1)
+      for (x in 0 until width) {
+        hash = 31L * hash + rowPixels[x]
+      }
+    }
+    return hash
+  }
+
+  /**
+   * Makes [target] a hard link to [source], so both frames share the compressed screenshot on disk
+   * but can still be deleted independently. Falls back to copying the file.
+   */
+  private fun linkScreenshot(source: File, target: File): Boolean {
+    if (source == target) {
+      return true
+    }
+    if (!source.exists()) {
+      return false
+    }
+    return try {
+      Os.link(source.absolutePath, target.absolutePath)
+      true
+    } catch (ignored: Throwable) {
+      try {
+        source.copyTo(target, overwrite = true)
+        true
+      } catch (e: Throwable) {
+        options.logger.log(DEBUG, "Failed to reuse the previous replay frame", e)
+        false
+      }
+    }
+  }
+
   /**
    * Same as [addFrame], but accepts frame screenshot as [File], the file should contain a
    * bitmap/image by the time [createVideoOf] is invoked.
@@ -104,6 +174,7 @@ public class ReplayCache(private val options: SentryOptions, private val replayI
   public fun addFrame(screenshot: File, frameTimestamp: Long, screen: String? = null) {
     val frame = ReplayFrame(screenshot, frameTimestamp, screen)
     framesLock.acquire().use { frames += frame }
+    ongoingVideo?.add(frame)
   }
 
   /** Returns the timestamp of the first frame if available in a thread-safe manner. */
@@ -140,17 +211,121 @@ public class ReplayCache(private val options: SentryOptions, private val replayI
     bitRate: Int,
     videoFile: File = File(replayCacheDir, "$segmentId.mp4"),
   ): GeneratedVideo? {
-    if (videoFile.exists() && videoFile.length() > 0) {
-      videoFile.delete()
+    val end = from + duration
+    val ongoing = ongoingVideo
+    ongoingVideo = null
+    val video: SegmentVideo
+    if (
+      ongoing != null &&
+        !isClosed.get() &&
+        ongoing.matches(videoFile, from, segmentId, height, width, frameRate, bitRate) &&
+        ongoing.canFinishAt(end)
+    ) {
+      // the frames captured so far have already been encoded by encodeFramesOf
+      video = ongoing
+    } else {
+      ongoing?.abort()
+      if (videoFile.exists() && videoFile.length() > 0) {
+        videoFile.delete()
+      }
+      // Work on a snapshot of frames to avoid races with writers
+      val framesSnapshot =
+        framesLock.acquire().use { if (frames.isEmpty()) emptyList() else frames.toList() }
+      if (framesSnapshot.isEmpty()) {
+        options.logger.log(DEBUG, "No captured frames, skipping generating a video segment")
+        return null
+      }
+
+      startEncoder(videoFile, height, width, frameRate, bitRate)
+      video =
+        SegmentVideo(videoFile, from, segmentId, height, width, frameRate, bitRate).apply {
+          framesSnapshot.forEach { add(it) }
+        }
     }
-    // Work on a snapshot of frames to avoid races with writers
-    val framesSnapshot =
-      framesLock.acquire().use { if (frames.isEmpty()) mutableListOf() else frames.toMutableList() }
-    if (framesSnapshot.isEmpty()) {
-      options.logger.log(DEBUG, "No captured frames, skipping generating a video segment")
+
+    video.finish(end)
+    val frameCount = video.frameCount
+
+    if (frameCount == 0) {
+      options.logger.log(DEBUG, "Generated a video with no frames, not capturing a replay segment")
+      encoderLock.acquire().use {
+        encoder?.release()
+        encoder = null
+      }
+      deleteFile(videoFile)
       return null
     }
 
+    var videoDuration: Long
+    encoderLock.acquire().use {
+      encoder?.release()
+      videoDuration = encoder?.duration ?: 0
+      encoder = null
+    }
+
+    rotate(until = end)
+
+    return GeneratedVideo(videoFile, frameCount, videoDuration)
+  }
+
+  /**
+   * Encodes the frames of the video segment starting at [from] that have been captured so far, so
+   * the work is spread over the segment instead of happening all at once in [createVideoOf]. Only
+   * frame intervals that no later frame can be picked for anymore are encoded, [createVideoOf]
+   * with the same parameters then finishes the video. Falls back to encoding the whole segment in
+   * [createVideoOf] if the parameters change in between.
+   *
+   * This method is not thread-safe.
+   */
+  internal fun encodeFramesOf(
+    from: Long,
+    segmentId: Int,
+    height: Int,
+    width: Int,
+    frameRate: Int,
+    bitRate: Int,
+  ) {
+    val replayCacheDir = replayCacheDir
+    if (replayCacheDir == null || isClosed.get() || isIncrementalEncodingDisabled) {
+      return
+    }
+    val videoFile = File(replayCacheDir, "$segmentId.mp4")
+    var video = ongoingVideo
+    if (
+      video != null && !video.matches(videoFile, from, segmentId, height, width, frameRate, bitRate)
+    ) {
+      video.abort()
+      video = null
+      ongoingVideo = null
+    }
+
+    if (video == null) {
+      val framesSnapshot =
+        framesLock.acquire().use { if (frames.isEmpty()) emptyList() else frames.toList() }
+      if (framesSnapshot.isEmpty()) {
+        return
+      }
+      if (videoFile.exists() && videoFile.length() > 0) {
+        videoFile.delete()
+      }
+      try {
+        startEncoder(videoFile, height, width, frameRate, bitRate)
+      } catch (e: Throwable) {
+        // the segment is encoded at once in createVideoOf then, no need to retry for every frame
+        options.logger.log(WARNING, "Unable to start encoding the video segment ahead", e)
+        isIncrementalEncodingDisabled = true
+        return
+      }
+      video =
+        SegmentVideo(videoFile, from, segmentId, height, width, frameRate, bitRate).apply {
+          framesSnapshot.forEach { add(it) }
+        }
+      ongoingVideo = video
+    }
+    video.encodeCapturedFrames()
+  }
+
+  private fun startEncoder(videoFile: File, height: Int, width: Int, frameRate: Int, bitRate: Int) {
     encoder =
       encoderLock.acquire().use {
         SimpleVideoEncoder(
@@ -174,69 +349,166 @@ public class ReplayCache(private val options: SentryOptions, private val replayI
             }
           }
       }
+  }
 
-    val step = 1000 / frameRate.toLong()
+  /**
+   * A video segment being encoded by [encoder]. Every frame interval of the video shows the first
+   * frame captured within it, or repeats the last shown frame if there was none, to respect the
+   * video duration. We only support 1 frame per interval.
+   */
+  private inner class SegmentVideo(
+    private val file: File,
+    private val from: Long,
+    private val segmentId: Int,
+    private val height: Int,
+    private val width: Int,
+    private val frameRate: Int,
+    private val bitRate: Int,
+  ) {
+    private val step = 1000 / frameRate.toLong()
+    // start of the next interval to encode
+    private var timestamp = from
+    // frames that can still be shown in the next intervals, in order
+    private val pendingFrames = ArrayDeque<ReplayFrame>()
+    private var latestFrameTimestamp = Long.MIN_VALUE
+    // until a frame is captured within an interval, the first frame is shown
+    private var lastFrame: ReplayFrame? = null
+    private var hasFirstFrame = false
+    // the last frame is repeated until the next one, so keep it decoded in the meantime
+    private var decodedFrame: ReplayFrame? = null
+    private var decodedBitmap: Bitmap? = null
     var frameCount = 0
-    var lastFrame: ReplayFrame? = framesSnapshot.firstOrNull()
-    for (timestamp in from until (from + (duration)) step step) {
-      val iter = framesSnapshot.iterator()
-      while (iter.hasNext()) {
-        val frame = iter.next()
-        if (frame.timestamp in (timestamp..timestamp + step)) {
-          lastFrame = frame
-          break // we only support 1 frame per given interval
-        }
+      private set
+
+    fun matches(
+      file: File,
+      from: Long,
+      segmentId: Int,
+      height: Int,
+      width: Int,
+      frameRate: Int,
+      bitRate: Int,
+    ): Boolean =
+      this.file == file &&
+        this.from == from &&
+        this.segmentId == segmentId &&
+        this.height == height &&
+        this.width == width &&
+        this.frameRate == frameRate &&
+        this.bitRate == bitRate
+
+    /** Whether no interval at or after [end] has been encoded yet. */
+    fun canFinishAt(end: Long): Boolean = timestamp - step < end
+
+    /** Adds a captured frame, frames have to be added in order. */
+    fun add(frame: ReplayFrame) {
+      if (!hasFirstFrame) {
+        lastFrame = frame
+        hasFirstFrame = true
+      }
+      if (frame.timestamp >= timestamp) {
+        pendingFrames.addLast(frame)
+      }
+      latestFrameTimestamp = maxOf(latestFrameTimestamp, frame.timestamp)
+    }
 
-        // assuming frames are in order, if out of bounds exit early
-        if (frame.timestamp > timestamp + step) {
-          break
-        }
+    /** Encodes the intervals that end before the latest added frame. */
+    fun encodeCapturedFrames() {
+      while (timestamp + step < latestFrameTimestamp) {
+        encodeInterval()
       }
+    }
 
-      // we either encode a new frame within the step bounds or replicate the last known frame
-      // to respect the video duration
-      if (encode(lastFrame)) {
-        frameCount++
-      } else if (lastFrame != null) {
-        // if we failed to encode the frame, we delete the screenshot right away as the
-        // likelihood of it being able to be encoded later is low
-        deleteFile(lastFrame.screenshot)
-        framesLock.acquire().use { frames.remove(lastFrame) }
-        framesSnapshot.remove(lastFrame)
-        lastFrame = null
+    /** Encodes the remaining intervals before [end] and releases the decoded frame. */
+    fun finish(end: Long) {
+      while (timestamp < end) {
+        encodeInterval()
       }
+      releaseDecodedFrame()
     }
 
-    if (frameCount == 0) {
-      options.logger.log(DEBUG, "Generated a video with no frames, not capturing a replay segment")
+    /** Stops encoding, deletes the partial video and releases the encoder. */
+    fun abort() {
+      releaseDecodedFrame()
       encoderLock.acquire().use {
         encoder?.release()
         encoder = null
       }
-      deleteFile(videoFile)
-      return null
+      deleteFile(file)
     }
 
-    var videoDuration: Long
-    encoderLock.acquire().use {
-      encoder?.release()
-      videoDuration = encoder?.duration ?: 0
-      encoder = null
-    }
+    private fun encodeInterval() {
+      while (pendingFrames.isNotEmpty() && pendingFrames.first().timestamp < timestamp) {
+        pendingFrames.removeFirst()
+      }
+      val frame = pendingFrames.firstOrNull()
+      if (frame != null && frame.timestamp <= timestamp + step) {
+        lastFrame = frame
+      }
 
-    rotate(until = (from + duration))
+      val currentFrame = lastFrame
+      if (currentFrame !== decodedFrame) {
+        releaseDecodedFrame()
+        decodedBitmap = decode(currentFrame, width, height)
+        decodedFrame = currentFrame
+      }
 
-    return GeneratedVideo(videoFile, frameCount, videoDuration)
+      if (encode(decodedBitmap)) {
+        frameCount++
+      } else if (currentFrame != null) {
+        // if we failed to encode the frame, we delete the screenshot right away as the
+        // likelihood of it being able to be encoded later is low
+        deleteFile(currentFrame.screenshot)
+        framesLock.acquire().use { frames.remove(currentFrame) }
+        pendingFrames.remove(currentFrame)
+        lastFrame = null
+        releaseDecodedFrame()
+      }
+      timestamp += step
+    }
+
+    private fun releaseDecodedFrame() {
+      decodedBitmap?.let { decodedFrames.release(it) }
+      decodedBitmap = null
+      decodedFrame = null
+    }
   }
 
-  private fun encode(frame: ReplayFrame?): Boolean {
+  private fun decode(frame: ReplayFrame?, width: Int, height: Int): Bitmap? {
     if (frame == null) {
+      return null
+    }
+    // decode into a mutable bitmap, so it can be pooled and decoded into again for the next frame
+    val decodeOptions = BitmapFactory.Options().apply { inMutable = true }
+    return try {
+      val reusable = decodedFrames.take(width, height, Bitmap.Config.ARGB_8888)
+      if (reusable != null) {
+        decodeOptions.inBitmap = reusable
+        try {
+          val bitmap = BitmapFactory.decodeFile(frame.screenshot.absolutePath, decodeOptions)
+          if (bitmap == null) {
+            decodedFrames.release(reusable)
+          }
+          return bitmap
+        } catch (e: IllegalArgumentException) {
+          // the frame has other dimensions than the video (e.g. it was resized), decode it as is
+          decodeOptions.inBitmap = null
+          reusable.recycle()
+        }
+      }
+      BitmapFactory.decodeFile(frame.screenshot.absolutePath, decodeOptions)
+    } catch (e: Throwable) {
+      options.logger.log(WARNING, "Unable to decode bitmap, skipping frame", e)
+      null
+    }
+  }
+
+  private fun encode(bitmap: Bitmap?): Boolean {
+    if (bitmap == null) {
       return false
     }
     return try {
-      val bitmap = BitmapFactory.decodeFile(frame.screenshot.absolutePath)
       encoderLock.acquire().use { encoder?.encode(bitmap) }
-      bitmap.recycle()
       true
     } catch (e: Throwable) {
       options.logger.log(
@@ -303,6 +575,7 @@ public class ReplayCache(private val options: SentryOptions, private val replayI
     } finally {
       // has to happen on all paths, callers rely on it to stop persisting segment values
       isClosed.set(true)
+      decodedFrames.close()
     }
   }
 
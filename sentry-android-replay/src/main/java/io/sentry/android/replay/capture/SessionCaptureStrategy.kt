@@ -142,6 +142,16 @@ internal class SessionCaptureStrategy(
             // set next segment timestamp as close to the previous one as possible to avoid gaps
             segmentTimestamp = segment.replay.timestamp
           }
+        } else {
+          // encode the frames as they come in, so the segment is almost done once it ends
+          cache?.encodeFramesOf(
+            currentSegmentTimestamp.time,
+            currentSegment,
+            currentConfig.recordingHeight,
+            currentConfig.recordingWidth,
+            currentConfig.frameRate,
+            currentConfig.bitRate,
+          )
         }
 
         if ((now - replayStartTimestamp.get() >= options.sessionReplay.sessionDuration)) {
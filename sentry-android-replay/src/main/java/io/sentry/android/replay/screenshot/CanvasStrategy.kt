@@ -52,6 +52,8 @@ internal class CanvasStrategy(
 
   @Volatile private var screenshot: Bitmap? = null
   private var unprocessedPictureRef = AtomicReference<Picture>(null)
+  // a picture that has been rendered (or superseded) and can be recorded into again
+  private val sparePictureRef = AtomicReference<Picture>(null)
   private val screenshotLock = AutoClosableReentrantLock()
   private val prescaledMatrix by
     lazy(NONE) { Matrix().apply { preScale(config.scaleFactorX, config.scaleFactorY) } }
@@ -88,6 +90,7 @@ internal class CanvasStrategy(
         picture.draw(surfaceCanvas)
       } finally {
         surface.unlockCanvasAndPost(surfaceCanvas)
+        sparePictureRef.set(picture)
       }
 
       if (screenshot == null) {
@@ -149,7 +152,7 @@ internal class CanvasStrategy(
       return
     }
 
-    val picture = Picture()
+    val picture = sparePictureRef.getAndSet(null) ?: Picture()
     val canvas = picture.beginRecording(config.recordingWidth, config.recordingHeight)
     textIgnoringCanvas.delegate = canvas
     textIgnoringCanvas.setMatrix(prescaledMatrix)
@@ -157,7 +160,8 @@ internal class CanvasStrategy(
     picture.endRecording()
 
     if (!isClosed.get()) {
-      unprocessedPictureRef.set(picture)
+      // the superseded picture has not been rendered, it can be recorded into next time
+      unprocessedPictureRef.getAndSet(picture)?.let { sparePictureRef.set(it) }
       executor
         .getBackgroundHandler()
         .postSafely(ReplayRunnable("screenshot_recorder.canvas", pictureRenderTask))
@@ -180,6 +184,7 @@ internal class CanvasStrategy(
         }
       )
     unprocessedPictureRef.getAndSet(null)
+    sparePictureRef.getAndSet(null)
   }
 
   override fun lastCaptureSuccessful(): Boolean = lastCaptureSuccessful.get()
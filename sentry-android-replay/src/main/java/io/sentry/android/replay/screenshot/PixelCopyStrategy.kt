@@ -19,6 +19,7 @@ import io.sentry.android.replay.ExecutorProvider
 import io.sentry.android.replay.ScreenshotRecorderCallback
 import io.sentry.android.replay.ScreenshotRecorderConfig
 import io.sentry.android.replay.phoneWindow
+import io.sentry.android.replay.util.BitmapPool
 import io.sentry.android.replay.util.DebugOverlayDrawable
 import io.sentry.android.replay.util.MaskRenderer
 import io.sentry.android.replay.util.ReplayRunnable
@@ -64,6 +65,8 @@ internal class PixelCopyStrategy(
     lazy(NONE) { Matrix().apply { preScale(config.scaleFactorX, config.scaleFactorY) } }
   private val lastCaptureSuccessful = AtomicBoolean(false)
   private val maskRenderer = MaskRenderer()
+  // SurfaceViews keep their size between captures, so their bitmaps are reused
+  private val surfaceViewBitmaps = BitmapPool()
   private val contentChanged = AtomicBoolean(false)
   private val unstableCaptures = AtomicInteger(0)
   private val isClosed = AtomicBoolean(false)
@@ -263,7 +266,11 @@ internal class PixelCopyStrategy(
       var svBitmap: Bitmap? = null
       try {
         svBitmap =
-          Bitmap.createBitmap(surfaceView.width, surfaceView.height, Bitmap.Config.ARGB_8888)
+          surfaceViewBitmaps.acquire(
+            surfaceView.width,
+            surfaceView.height,
+            Bitmap.Config.ARGB_8888,
+          )
         val bitmapToCapture = svBitmap
 
         surfaceView.getLocationOnScreen(svLocation)
@@ -275,7 +282,7 @@ internal class PixelCopyStrategy(
           bitmapToCapture,
           { copyResult: Int ->
             if (isClosed.get()) {
-              bitmapToCapture.recycle()
+              surfaceViewBitmaps.release(bitmapToCapture)
               // still drive the completion latch so any prior captures get recycled by the
               // composite step's early-return path.
               onCaptureComplete()
@@ -284,7 +291,7 @@ internal class PixelCopyStrategy(
             if (copyResult == PixelCopy.SUCCESS) {
               captures[index] = SurfaceViewCapture(bitmapToCapture, capturedX, capturedY)
             } else {
-              bitmapToCapture.recycle()
+              surfaceViewBitmaps.release(bitmapToCapture)
               options.logger.log(INFO, "Failed to capture SurfaceView: %d", copyResult)
             }
             onCaptureComplete()
@@ -296,7 +303,7 @@ internal class PixelCopyStrategy(
         svBitmap = null
       } catch (e: Throwable) {
         options.logger.log(WARNING, "Failed to capture SurfaceView", e)
-        svBitmap?.recycle()
+        svBitmap?.let { surfaceViewBitmaps.release(it) }
         onCaptureComplete()
       }
     }
@@ -337,7 +344,7 @@ internal class PixelCopyStrategy(
                 config.scaleFactorX,
                 config.scaleFactorY,
               )
-              capture.bitmap.recycle()
+              surfaceViewBitmaps.release(capture.bitmap)
             }
 
             applyMaskingAndNotify(root, viewHierarchy, resetUnstableCaptures)
@@ -354,8 +361,8 @@ internal class PixelCopyStrategy(
 
   private fun recycleCaptures(captures: Array<SurfaceViewCapture?>) {
     for (capture in captures) {
-      if (capture != null && !capture.bitmap.isRecycled) {
-        capture.bitmap.recycle()
+      if (capture != null) {
+        surfaceViewBitmaps.release(capture.bitmap)
       }
     }
   }
@@ -431,6 +438,7 @@ internal class PixelCopyStrategy(
             }
           }
           maskRenderer.close()
+          surfaceViewBitmaps.close()
         },
       )
     // ReplayExecutorService.submit returns null only on genuine rejection (post-shutdown);
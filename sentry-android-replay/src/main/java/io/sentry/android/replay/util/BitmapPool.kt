@@ -0,0 +1,80 @@
+package io.sentry.android.replay.util
+
+import android.graphics.Bitmap
+import io.sentry.util.AutoClosableReentrantLock
+import java.io.Closeable
+
+/**
+ * A small pool of mutable bitmaps keyed by their dimensions and config. Session Replay works with
+ * bitmaps of the same (scaled recording) dimensions for every frame, so pooling them avoids
+ * allocating and recycling a bitmap per capture or per encoded frame.
+ *
+ * At most [maxSize] bitmaps are kept, bitmaps released to a full or closed pool are recycled.
+ */
+internal class BitmapPool(private val maxSize: Int = DEFAULT_MAX_SIZE) : Closeable {
+
+  private val lock = AutoClosableReentrantLock()
+  private val bitmaps = ArrayList<Bitmap>(maxSize)
+  private var isClosed = false
+
+  /** The number of bitmaps currently available in the pool. */
+  val size: Int
+    get() = lock.acquire().use { bitmaps.size }
+
+  /**
+   * Takes a pooled bitmap with the given dimensions and config out of the pool.
+   *
+   * @return the pooled bitmap, or null if there is none
+   */
+  fun take(width: Int, height: Int, config: Bitmap.Config): Bitmap? {
+    lock.acquire().use {
+      for (i in bitmaps.indices.reversed()) {
+        val bitmap = bitmaps[i]
+        if (bitmap.isRecycled) {
+          bitmaps.removeAt(i)
+        } else if (bitmap.width == width && bitmap.height == height && bitmap.config == config) {
+          bitmaps.removeAt(i)
+          return bitmap
+        }
+      }
+    }
+    return null
+  }
+
+  /**
+   * Takes a pooled bitmap with the given dimensions and config out of the pool, or creates a new
+   * one if there is none. Its content is undefined, hand it back with [release] once done.
+   */
+  fun acquire(width: Int, height: Int, config: Bitmap.Config): Bitmap =
+    take(width, height, config) ?: Bitmap.createBitmap(width, height, config)
+
+  /** Returns the bitmap to the pool for reuse, or recycles it if it can't be pooled. */
+  fun release(bitmap: Bitmap) {
+    if (bitmap.isRecycled) {
+      return
+    }
+    lock.acquire().use {
+      if (bitmaps.any { it === bitmap }) {
+        return
+      }
+      if (!isClosed && bitmap.isMutable && bitmaps.size < maxSize) {
+        bitmaps.add(bitmap)
+        return
+      }
+    }
+    bitmap.recycle()
+  }
+
+  /** Recycles all pooled bitmaps, bitmaps released afterwards are recycled right away. */
+  override fun close() {
+    lock.acquire().use {
+      isClosed = true
+      bitmaps.forEach { if (!it.isRecycled) it.recycle() }
+      bitmaps.clear()
+    }
+  }
+
+  private companion object {
+    private const val DEFAULT_MAX_SIZE = 2
+  }
+}
@@ -30,8 +30,15 @@ internal class MaskRenderer : Closeable {
     lazy(NONE) { Bitmap.createBitmap(1, 1, Bitmap.Config.ARGB_8888) }
   internal val singlePixelBitmap: Bitmap by lazySinglePixelBitmap
   private val singlePixelBitmapCanvas: Canvas by lazy(NONE) { Canvas(singlePixelBitmap) }
+  private val singlePixelBitmapBounds = Rect(0, 0, 1, 1)
   private val maskingPaint by lazy(NONE) { Paint() }
 
+  // reused across calls, rendering happens for every captured frame
+  private var canvas: Canvas? = null
+  private var canvasBitmap: Bitmap? = null
+  private val tmpRect = Rect()
+  private val tmpRectF = RectF()
+
   /**
    * Renders masks onto the given bitmap based on the view hierarchy.
    *
@@ -50,9 +57,8 @@ internal class MaskRenderer : Closeable {
     }
 
     val maskedRects = mutableListOf<Rect>()
-    val canvas = Canvas(bitmap)
-
-    scaleMatrix?.let { canvas.setMatrix(it) }
+    val canvas = canvasFor(bitmap)
+    canvas.setMatrix(scaleMatrix)
 
     viewHierarchy.traverse { node ->
       if (node.shouldMask && node.width > 0 && node.height > 0) {
@@ -76,7 +82,8 @@ internal class MaskRenderer : Closeable {
 
         maskingPaint.color = color
         visibleRects.forEach { rect ->
-          canvas.drawRoundRect(RectF(rect), MASK_CORNER_RADIUS, MASK_CORNER_RADIUS, maskingPaint)
+          tmpRectF.set(rect)
+          canvas.drawRoundRect(tmpRectF, MASK_CORNER_RADIUS, MASK_CORNER_RADIUS, maskingPaint)
         }
         maskedRects.addAll(visibleRects)
       }
@@ -86,6 +93,16 @@ internal class MaskRenderer : Closeable {
     return maskedRects
   }
 
+  /** Returns the reused canvas, pointed at [bitmap]. */
+  private fun canvasFor(bitmap: Bitmap): Canvas {
+    val canvas = canvas ?: Canvas().also { canvas = it }
+    if (canvasBitmap !== bitmap) {
+      canvas.setBitmap(bitmap)
+      canvasBitmap = bitmap
+    }
+    return canvas
+  }
+
   /**
    * Samples the dominant color from a region of the bitmap by scaling the region down to a single
    * pixel (averaging all colors in the region).
@@ -95,15 +112,16 @@ internal class MaskRenderer : Closeable {
       return Color.BLACK
     }
 
-    val visibleRect = Rect(rect)
-    val visibleRectF = RectF(visibleRect)
+    val visibleRect = tmpRect
+    val visibleRectF = tmpRectF
+    visibleRectF.set(rect)
 
     // Apply scale matrix if provided (for replay's lower resolution)
     scaleMatrix?.mapRect(visibleRectF)
     visibleRectF.round(visibleRect)
 
     // Draw the region scaled down to 1x1 pixel (averages the colors)
-    singlePixelBitmapCanvas.drawBitmap(bitmap, visibleRect, Rect(0, 0, 1, 1), null)
+    singlePixelBitmapCanvas.drawBitmap(bitmap, visibleRect, singlePixelBitmapBounds, null)
 
     // Return the averaged color
     return singlePixelBitmap.getPixel(0, 0)
@@ -111,6 +129,8 @@ internal class MaskRenderer : Closeable {
 
   /** Releases resources. Call when done with this renderer. */
   override fun close() {
+    canvas?.setBitmap(null)
+    canvasBitmap = null
     if (lazySinglePixelBitmap.isInitialized() && !singlePixelBitmap.isRecycled) {
       singlePixelBitmap.recycle()
     }
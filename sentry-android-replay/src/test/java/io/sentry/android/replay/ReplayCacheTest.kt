@@ -3,6 +3,7 @@ package io.sentry.android.replay
 import android.graphics.Bitmap
 import android.graphics.Bitmap.CompressFormat.JPEG
 import android.graphics.Bitmap.Config.ARGB_8888
+import android.graphics.Color
 import androidx.test.ext.junit.runners.AndroidJUnit4
 import com.google.common.truth.Truth.assertThat
 import com.google.common.truth.Truth.assertWithMessage
@@ -34,6 +35,7 @@ import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFailsWith
 import kotlin.test.assertFalse
+import kotlin.test.assertNotEquals
 import kotlin.test.assertNull
 import kotlin.test.assertTrue
 import org.junit.Rule
@@ -95,6 +97,61 @@ class ReplayCacheTest {
     assertEquals(replayCache.frames.first().screenshot, expectedScreenshotFile)
   }
 
+  @Test
+  fun `stores unchanged frames without compressing them again`() {
+    val replayCache = fixture.getSut(tmpDir)
+
+    val bitmap = Bitmap.createBitmap(1, 1, ARGB_8888)
+    replayCache.addFrame(bitmap, 1)
+    // mark the stored frame to see whether the next one reuses it
+    File(replayCache.replayCacheDir, "1.jpg").writeText("previous frame")
+    replayCache.addFrame(bitmap, 1001)
+
+    assertEquals(2, replayCache.frames.size)
+    assertEquals("previous frame", File(replayCache.replayCacheDir, "1001.jpg").readText())
+  }
+
+  @Test
+  fun `compresses frames when their content changed`() {
+    val replayCache = fixture.getSut(tmpDir)
+
+    val bitmap = Bitmap.createBitmap(1, 1, ARGB_8888)
+    replayCache.addFrame(bitmap, 1)
+    File(replayCache.replayCacheDir, "1.jpg").writeText("previous frame")
+    bitmap.setPixel(0, 0, Color.RED)
+    replayCache.addFrame(bitmap, 1001)
+
+    assertEquals(2, replayCache.frames.size)
+    assertNotEquals("previous frame", File(replayCache.replayCacheDir, "1001.jpg").readText())
+  }
+
+  @Test
+  fun `compresses frames when a single row changed`() {
+    val replayCache = fixture.getSut(tmpDir)
+
+    val bitmap = Bitmap.createBitmap(8, 8, ARGB_8888)
+    replayCache.addFrame(bitmap, 1)
+    File(replayCache.replayCacheDir, "1.jpg").writeText("previous frame")
+    bitmap.setPixel(3, 5, Color.RED)
+    replayCache.addFrame(bitmap, 1001)
+
+    assertEquals(2, replayCache.frames.size)
+    assertNotEquals("previous frame", File(replayCache.replayCacheDir, "1001.jpg").readText())
+  }
+
+  @Test
+  fun `compresses unchanged frames when the previous frame was deleted`() {
+    val replayCache = fixture.getSut(tmpDir)
+
+    val bitmap = Bitmap.createBitmap(1, 1, ARGB_8888)
+    replayCache.addFrame(bitmap, 1)
+    replayCache.rotate(1001)
+    replayCache.addFrame(bitmap, 1001)
+
+    assertEquals(1, replayCache.frames.size)
+    assertTrue(File(replayCache.replayCacheDir, "1001.jpg").exists())
+  }
+
   @Test
   fun `when no frames are provided, returns nothing`() {
     val replayCache = fixture.getSut(tmpDir)
@@ -193,6 +250,73 @@ class ReplayCacheTest {
     assertEquals(File(replayCache.replayCacheDir, "1.mp4"), segment1.video)
   }
 
+  @Test
+  fun `close recycles the decoded frame bitmaps`() {
+    val replayCache = fixture.getSut(tmpDir)
+    val pooled = Bitmap.createBitmap(200, 100, ARGB_8888)
+    replayCache.decodedFrames.release(pooled)
+
+    replayCache.close()
+
+    assertTrue(pooled.isRecycled)
+    assertEquals(0, replayCache.decodedFrames.size)
+  }
+
+  @Test
+  fun `encodes frames ahead and finishes the video when creating it`() {
+    val replayCache = fixture.getSut(tmpDir)
+
+    val bitmap = Bitmap.createBitmap(1, 1, ARGB_8888)
+    replayCache.addFrame(bitmap, 1)
+    replayCache.encodeFramesOf(0, 0, 100, 200, 1, 20_000)
+    // the interval of the latest frame can still get a later frame
+    assertEquals(0, replayCache.ongoingVideoFrameCount)
+
+    replayCache.addFrame(bitmap, 3001)
+    replayCache.encodeFramesOf(0, 0, 100, 200, 1, 20_000)
+    assertEquals(3, replayCache.ongoingVideoFrameCount)
+
+    val segment0 = replayCache.createVideoOf(5000L, 0, 0, 100, 200, 1, 20_000)
+    assertEquals(5, segment0!!.frameCount)
+    assertEquals(5000, segment0.duration)
+    assertTrue { segment0.video.exists() && segment0.video.length() > 0 }
+    assertEquals(File(replayCache.replayCacheDir, "0.mp4"), segment0.video)
+    assertTrue(replayCache.frames.isEmpty())
+    assertEquals(0, replayCache.ongoingVideoFrameCount)
+  }
+
+  @Test
+  fun `encodes the whole segment when the video parameters changed`() {
+    val replayCache = fixture.getSut(tmpDir)
+
+    val bitmap = Bitmap.createBitmap(1, 1, ARGB_8888)
+    replayCache.addFrame(bitmap, 1)
+    replayCache.addFrame(bitmap, 3001)
+    replayCache.encodeFramesOf(0, 0, 100, 200, 1, 20_000)
+    assertEquals(3, replayCache.ongoingVideoFrameCount)
+
+    val segment0 = replayCache.createVideoOf(5000L, 0, 0, 200, 100, 1, 20_000)
+    assertEquals(5, segment0!!.frameCount)
+    assertEquals(5000, segment0.duration)
+    assertTrue { segment0.video.exists() && segment0.video.length() > 0 }
+    assertEquals(0, replayCache.ongoingVideoFrameCount)
+  }
+
+  @Test
+  fun `encodes the whole segment when frames past its end were encoded ahead`() {
+    val replayCache = fixture.getSut(tmpDir)
+
+    val bitmap = Bitmap.createBitmap(1, 1, ARGB_8888)
+    replayCache.addFrame(bitmap, 1)
+    replayCache.addFrame(bitmap, 9001)
+    replayCache.encodeFramesOf(0, 0, 100, 200, 1, 20_000)
+    assertEquals(9, replayCache.ongoingVideoFrameCount)
+
+    val segment0 = replayCache.createVideoOf(5000L, 0, 0, 100, 200, 1, 20_000)
+    assertEquals(5, segment0!!.frameCount)
+    assertEquals(listOf(9001L), replayCache.frames.map { it.timestamp })
+  }
+
   @Test
   fun `respects frameRate`() {
     ReplayShadowMediaCodec.framesToEncode = 6
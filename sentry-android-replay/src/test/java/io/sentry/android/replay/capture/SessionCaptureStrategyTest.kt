@@ -48,6 +48,7 @@ import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.argThat
 import org.mockito.kotlin.check
 import org.mockito.kotlin.doAnswer
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.verify
@@ -267,6 +268,19 @@ class SessionCaptureStrategyTest {
     )
   }
 
+  @Test
+  fun `onScreenshotRecorded encodes frames ahead while the segment is ongoing`() {
+    val strategy = fixture.getSut()
+    strategy.start()
+    strategy.onConfigurationChanged(fixture.recorderConfig)
+
+    strategy.onScreenshotRecorded(mock<Bitmap>()) {}
+
+    verify(fixture.replayCache)
+      .encodeFramesOf(anyLong(), eq(0), eq(1920), eq(1080), eq(1), eq(20_000))
+    verify(fixture.scopes, never()).captureReplay(any(), any())
+  }
+
   @Test
   fun `onScreenshotRecorded stops replay when replay duration exceeded`() {
     val now = System.currentTimeMillis() + (fixture.options.sessionReplay.sessionDuration * 2)
@@ -0,0 +1,120 @@
+package io.sentry.android.replay.util
+
+import android.graphics.Bitmap
+import android.graphics.Bitmap.Config.ARGB_8888
+import android.graphics.Bitmap.Config.RGB_565
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotSame
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+import org.junit.runner.RunWith
+import org.robolectric.annotation.Config
+
+@RunWith(AndroidJUnit4::class)
+@Config(sdk = [30])
+class BitmapPoolTest {
+
+  @Test
+  fun `acquire reuses released bitmaps instead of allocating new ones`() {
+    val pool = BitmapPool()
+
+    val first = pool.acquire(100, 200, ARGB_8888)
+    pool.release(first)
+
+    repeat(10) {
+      val bitmap = pool.acquire(100, 200, ARGB_8888)
+      assertSame(first, bitmap)
+      pool.release(bitmap)
+    }
+    assertFalse(first.isRecycled)
+    assertEquals(1, pool.size)
+  }
+
+  @Test
+  fun `acquire creates a new bitmap when dimensions or config differ`() {
+    val pool = BitmapPool()
+
+    val bitmap = pool.acquire(100, 200, ARGB_8888)
+    pool.release(bitmap)
+
+    val otherSize = pool.acquire(200, 100, ARGB_8888)
+    assertNotSame(bitmap, otherSize)
+    assertEquals(200, otherSize.width)
+    assertEquals(100, otherSize.height)
+
+    val otherConfig = pool.acquire(100, 200, RGB_565)
+    assertNotSame(bitmap, otherConfig)
+    assertEquals(RGB_565, otherConfig.config)
+    assertEquals(1, pool.size)
+  }
+
+  @Test
+  fun `take returns null when there is no matching bitmap`() {
+    val pool = BitmapPool()
+
+    assertNull(pool.take(100, 200, ARGB_8888))
+
+    pool.release(Bitmap.createBitmap(100, 200, ARGB_8888))
+    assertNull(pool.take(100, 100, ARGB_8888))
+    assertEquals(1, pool.size)
+  }
+
+  @Test
+  fun `release recycles bitmaps when the pool is full`() {
+    val pool = BitmapPool(maxSize = 1)
+
+    val first = Bitmap.createBitmap(100, 200, ARGB_8888)
+    val second = Bitmap.createBitmap(100, 200, ARGB_8888)
+    pool.release(first)
+    pool.release(second)
+
+    assertFalse(first.isRecycled)
+    assertTrue(second.isRecycled)
+    assertEquals(1, pool.size)
+  }
+
+  @Test
+  fun `release ignores bitmaps already in the pool`() {
+    val pool = BitmapPool()
+
+    val bitmap = Bitmap.createBitmap(100, 200, ARGB_8888)
+    pool.release(bitmap)
+    pool.release(bitmap)
+
+    assertFalse(bitmap.isRecycled)
+    assertEquals(1, pool.size)
+  }
+
+  @Test
+  fun `does not hand out recycled bitmaps`() {
+    val pool = BitmapPool()
+
+    val bitmap = pool.acquire(100, 200, ARGB_8888)
+    pool.release(bitmap)
+    bitmap.recycle()
+
+    assertNull(pool.take(100, 200, ARGB_8888))
+    assertEquals(0, pool.size)
+  }
+
+  @Test
+  fun `close recycles pooled bitmaps and bitmaps released afterwards`() {
+    val pool = BitmapPool()
+
+    val pooled = pool.acquire(100, 200, ARGB_8888)
+    val inUse = pool.acquire(100, 200, ARGB_8888)
+    pool.release(pooled)
+
+    pool.close()
+    assertTrue(pooled.isRecycled)
+    assertFalse(inUse.isRecycled)
+
+    pool.release(inUse)
+    assertTrue(inUse.isRecycled)
+    assertEquals(0, pool.size)
+  }
+}
@@ -314,6 +314,37 @@ class MaskRendererTest {
     renderer.close()
   }
 
+  @Test
+  fun `renderMasks reuses the renderer across bitmaps`() {
+    val first = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888)
+    val second = Bitmap.createBitmap(50, 50, Bitmap.Config.ARGB_8888)
+
+    val node =
+      GenericViewHierarchyNode(
+        x = 0f,
+        y = 0f,
+        width = 100,
+        height = 100,
+        elevation = 0f,
+        distance = 0,
+        shouldMask = true,
+        isVisible = true,
+        visibleRect = Rect(10, 10, 90, 90),
+      )
+
+    val renderer = MaskRenderer()
+    val scaleMatrix = Matrix().apply { preScale(0.5f, 0.5f) }
+    repeat(3) {
+      assertEquals(listOf(Rect(10, 10, 90, 90)), renderer.renderMasks(first, node, null))
+      assertEquals(listOf(Rect(10, 10, 90, 90)), renderer.renderMasks(second, node, scaleMatrix))
+    }
+
+    first.recycle()
+    assertTrue(renderer.renderMasks(first, node, null).isEmpty())
+    assertEquals(1, renderer.renderMasks(second, node, scaleMatrix).size)
+    renderer.close()
+  }
+
   @Test
   fun `close recycles internal bitmap`() {
     val renderer = MaskRenderer()
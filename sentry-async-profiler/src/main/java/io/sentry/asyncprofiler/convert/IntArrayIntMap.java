@@ -0,0 +1,107 @@
+package io.sentry.asyncprofiler.convert;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from int arrays to an int. Lookups take a reusable buffer and a
+ * length, so only keys that are actually inserted get copied.
+ */
+final class IntArrayIntMap {
+  static final int MISSING = -1;
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  private int[][] keys;
+  private int[] hashes;
+  private int[] values;
+  private int size;
+
+  IntArrayIntMap() {
+    keys = new int[INITIAL_CAPACITY][];
+    hashes = new int[INITIAL_CAPACITY];
+    values = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * @return the value stored for the first {@code length} ints of {@code key} or {@link #MISSING}
+   */
+  int get(final int[] key, final int length) {
+    final int hash = hash(key, length);
+    final int mask = keys.length - 1;
+    int slot = hash & mask;
+    int[] candidate;
+    while ((candidate = keys[slot]) != null) {
+      if (hashes[slot] == hash && sameKey(candidate, key, length)) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return MISSING;
+  }
+
+  /**
+   * Stores a copy of the first {@code length} ints of {@code key}. The key must not be present yet.
+   *
+   * @param value a non negative int
+   */
+  void put(final int[] key, final int length, final int value) {
+    if ((size + 1) * 2 > keys.length) {
+      resize();
+    }
+    insert(keys, hashes, values, Arrays.copyOf(key, length), hash(key, length), value);
+    size++;
+  }
+
+  private void resize() {
+    final int capacity = keys.length * 2;
+    final int[][] newKeys = new int[capacity][];
+    final int[] newHashes = new int[capacity];
+    final int[] newValues = new int[capacity];
+    for (int i = 0; i < keys.length; i++) {
+      final int[] key = keys[i];
+      if (key != null) {
+        insert(newKeys, newHashes, newValues, key, hashes[i], values[i]);
+      }
+    }
+    keys = newKeys;
+    hashes = newHashes;
+    values = newValues;
+  }
+
+  private static void insert(
+      final int[][] keys,
+      final int[] hashes,
+      final int[] values,
+      final int[] key,
+      final int hash,
+      final int value) {
+    final int mask = keys.length - 1;
+    int slot = hash & mask;
+    while (keys[slot] != null) {
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    hashes[slot] = hash;
+    values[slot] = value;
+  }
+
+  private static boolean sameKey(final int[] stored, final int[] key, final int length) {
+    if (stored.length != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (stored[i] != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int hash(final int[] key, final int length) {
+    int h = 1;
+    for (int i = 0; i < length; i++) {
+      h = 31 * h + key[i];
+    }
+    return h ^ (h >>> 16);
+  }
+}
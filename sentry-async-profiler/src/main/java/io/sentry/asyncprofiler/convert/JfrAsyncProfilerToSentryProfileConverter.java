@@ -2,8 +2,10 @@ package io.sentry.asyncprofiler.convert;
 
 import io.sentry.DateUtils;
 import io.sentry.ILogger;
+import io.sentry.ProfilingEventType;
 import io.sentry.Sentry;
 import io.sentry.SentryLevel;
+import io.sentry.SentryOptions;
 import io.sentry.SentryStackTraceFactory;
 import io.sentry.protocol.SentryStackFrame;
 import io.sentry.protocol.profiling.SentryProfile;
@@ -27,12 +29,22 @@ import org.jetbrains.annotations.Nullable;
 @ApiStatus.Internal
 public final class JfrAsyncProfilerToSentryProfileConverter extends JfrConverter {
   private static final long UNKNOWN_THREAD_ID = -1;
+  private static final int NATIVE_FRAME = -1;
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
 
   private final @NotNull SentryProfile sentryProfile = new SentryProfile();
   private final @NotNull SentryStackTraceFactory stackTraceFactory;
   private final @NotNull ILogger logger;
   private final @NotNull Map<SentryStackFrame, Integer> frameDeduplicationMap = new HashMap<>();
-  private final @NotNull Map<List<Integer>, Integer> stackDeduplicationMap = new HashMap<>();
+  private final @NotNull IntArrayIntMap stackDeduplicationMap = new IntArrayIntMap();
+
+  // Keyed by JFR ids, which are reset for every chunk
+  private final @NotNull LongPairIntMap frameIndexByMethod = new LongPairIntMap();
+  private final @NotNull LongPairIntMap stackIndexByStackTraceId = new LongPairIntMap();
+  private final @NotNull LongPairIntMap threadIndexByTid = new LongPairIntMap();
+  private final @NotNull List<String> threadIds = new ArrayList<>();
+
+  private int[] callStack = new int[64];
 
   public JfrAsyncProfilerToSentryProfileConverter(
       JfrReader jfr,
@@ -46,29 +58,47 @@ public final class JfrAsyncProfilerToSentryProfileConverter extends JfrConverter
 
   @Override
   protected void convertChunk() {
-    collector.forEach(new ProfileEventVisitor(sentryProfile, stackTraceFactory, jfr, args));
+    // Events have been visited while they were read, JFR ids are only valid within their chunk
+    frameIndexByMethod.clear();
+    stackIndexByStackTraceId.clear();
+    threadIndexByTid.clear();
+    threadIds.clear();
   }
 
   @Override
   protected EventCollector createCollector(Arguments args) {
-    return new NonAggregatingEventCollector();
+    // Called from the super constructor, the visitor must only access fields once events arrive
+    return new NonAggregatingEventCollector(new ProfileEventVisitor());
   }
 
   public static @NotNull SentryProfile convertFromFileStatic(@NotNull String jfrFilePath)
       throws IOException {
+    return convertFromFileStatic(
+        jfrFilePath, Sentry.getGlobalScope().getOptions().getProfilingEventType());
+  }
+
+  /**
+   * Converts a recording made with the given event type, which determines the events that are read
+   * and how samples are weighted.
+   */
+  public static @NotNull SentryProfile convertFromFileStatic(
+      @NotNull String jfrFilePath, @NotNull ProfilingEventType eventType) throws IOException {
     JfrAsyncProfilerToSentryProfileConverter converter;
     try (JfrReader jfrReader = new JfrReader(jfrFilePath)) {
+      SentryOptions options = Sentry.getGlobalScope().getOptions();
       Arguments args = new Arguments();
-      args.cpu = false;
-      args.wall = true;
-      args.alloc = false;
+      // The recording only contains events of the type it was started with, see
+      // JavaContinuousProfiler
+      args.cpu = eventType == ProfilingEventType.CPU || eventType == ProfilingEventType.ITIMER;
+      args.wall = eventType == ProfilingEventType.WALL;
+      args.alloc = eventType == ProfilingEventType.ALLOC;
+      args.lock = eventType == ProfilingEventType.LOCK;
       args.threads = true;
       args.lines = true;
       args.dot = true;
 
-      SentryStackTraceFactory stackTraceFactory =
-          new SentryStackTraceFactory(Sentry.getGlobalScope().getOptions());
-      ILogger logger = Sentry.getGlobalScope().getOptions().getLogger();
+      SentryStackTraceFactory stackTraceFactory = new SentryStackTraceFactory(options);
+      ILogger logger = options.getLogger();
       converter =
           new JfrAsyncProfilerToSentryProfileConverter(jfrReader, args, stackTraceFactory, logger);
       converter.convert();
@@ -78,43 +108,55 @@ public final class JfrAsyncProfilerToSentryProfileConverter extends JfrConverter
   }
 
   private class ProfileEventVisitor implements EventCollector.Visitor {
-    private final @NotNull SentryProfile sentryProfile;
-    private final @NotNull SentryStackTraceFactory stackTraceFactory;
-    private final @NotNull JfrReader jfr;
-    private final @NotNull Arguments args;
-
-    public ProfileEventVisitor(
-        @NotNull SentryProfile sentryProfile,
-        @NotNull SentryStackTraceFactory stackTraceFactory,
-        @NotNull JfrReader jfr,
-        @NotNull Arguments args) {
-      this.sentryProfile = sentryProfile;
-      this.stackTraceFactory = stackTraceFactory;
-      this.jfr = jfr;
-      this.args = args;
-    }
-
     @Override
     public void visit(Event event, long samples, long value) {
       try {
-        StackTrace stackTrace = jfr.stackTraces.get(event.stackTraceId);
-        long threadId = resolveThreadId(event.tid);
-
-        if (stackTrace != null) {
-          if (args.threads) {
-            processThreadMetadata(event, threadId);
+        int stackIndex = stackIndexByStackTraceId.get(event.stackTraceId, 0);
+        if (stackIndex == LongPairIntMap.MISSING) {
+          StackTrace stackTrace = jfr.stackTraces.get(event.stackTraceId);
+          if (stackTrace == null) {
+            return;
           }
+          stackIndex = addStackTrace(stackTrace);
+          stackIndexByStackTraceId.put(event.stackTraceId, 0, stackIndex);
+        }
 
-          processSampleWithStack(event, threadId, stackTrace);
+        SentrySample sample = new SentrySample();
+        sample.setTimestamp(calculateTimestamp(event));
+        sample.setThreadId(resolveThreadId(event));
+        sample.setStackId(stackIndex);
+        if (args.alloc) {
+          // bytes allocated
+          sample.setWeight(value);
+        } else if (args.lock) {
+          // lock durations are recorded in ticks of the recording's clock
+          sample.setWeight((long) (value * (NANOS_PER_SECOND / jfr.ticksPerSec)));
+        } else if (samples > 1) {
+          sample.setWeight(samples);
         }
+
+        sentryProfile.getSamples().add(sample);
       } catch (Exception e) {
         logger.log(SentryLevel.WARNING, "Failed to process JFR event " + event, e);
       }
     }
 
-    private long resolveThreadId(int eventId) {
-      Long javaThreadId = jfr.javaThreads.get(eventId);
-      return javaThreadId != null ? javaThreadId : UNKNOWN_THREAD_ID;
+    private @NotNull String resolveThreadId(Event event) {
+      int threadIndex = threadIndexByTid.get(event.tid, 0);
+      if (threadIndex != LongPairIntMap.MISSING) {
+        return threadIds.get(threadIndex);
+      }
+
+      Long javaThreadId = jfr.javaThreads.get(event.tid);
+      long threadId = javaThreadId != null ? javaThreadId : UNKNOWN_THREAD_ID;
+      if (args.threads) {
+        processThreadMetadata(event, threadId);
+      }
+
+      String threadIdString = String.valueOf(threadId);
+      threadIndexByTid.put(event.tid, 0, threadIds.size());
+      threadIds.add(threadIdString);
+      return threadIdString;
     }
 
     private void processThreadMetadata(Event event, long threadId) {
@@ -135,54 +177,64 @@ public final class JfrAsyncProfilerToSentryProfileConverter extends JfrConverter
               });
     }
 
-    private void processSampleWithStack(Event event, long threadId, StackTrace stackTrace) {
-      int stackIndex = addStackTrace(stackTrace);
-
-      SentrySample sample = new SentrySample();
-      sample.setTimestamp(calculateTimestamp(event));
-      sample.setThreadId(String.valueOf(threadId));
-      sample.setStackId(stackIndex);
-
-      sentryProfile.getSamples().add(sample);
-    }
-
     private double calculateTimestamp(Event event) {
       return DateUtils.nanosToSeconds(jfr.eventTimeToNanos(event.time));
     }
 
     private int addStackTrace(StackTrace stackTrace) {
-      List<Integer> callStack = createFramesAndCallStack(stackTrace);
+      int length = createFramesAndCallStack(stackTrace);
 
-      Integer existingIndex = stackDeduplicationMap.get(callStack);
-      if (existingIndex != null) {
+      int existingIndex = stackDeduplicationMap.get(callStack, length);
+      if (existingIndex != IntArrayIntMap.MISSING) {
         return existingIndex;
       }
 
+      List<Integer> stack = new ArrayList<>(length);
+      for (int i = 0; i < length; i++) {
+        stack.add(callStack[i]);
+      }
+
       int stackIndex = sentryProfile.getStacks().size();
-      sentryProfile.getStacks().add(callStack);
-      stackDeduplicationMap.put(callStack, stackIndex);
+      sentryProfile.getStacks().add(stack);
+      stackDeduplicationMap.put(callStack, length, stackIndex);
       return stackIndex;
     }
 
-    private List<Integer> createFramesAndCallStack(StackTrace stackTrace) {
-      List<Integer> callStack = new ArrayList<>();
-
+    // Fills callStack with the frame indices of the stack trace and returns their count
+    private int createFramesAndCallStack(StackTrace stackTrace) {
       long[] methods = stackTrace.methods;
       byte[] types = stackTrace.types;
       int[] locations = stackTrace.locations;
 
+      if (callStack.length < methods.length) {
+        callStack = new int[Math.max(methods.length, callStack.length * 2)];
+      }
+
+      int length = 0;
       for (int i = 0; i < methods.length; i++) {
-        StackTraceElement element = getStackTraceElement(methods[i], types[i], locations[i]);
-        if (element.isNativeMethod() || isNativeFrame(types[i])) {
-          continue;
+        // location and type are packed into a single key, locations are 32 bit and types 8 bit
+        long locationAndType = ((long) locations[i] << 8) | (types[i] & 0xff);
+        int frameIndex = frameIndexByMethod.get(methods[i], locationAndType);
+        if (frameIndex == LongPairIntMap.MISSING) {
+          frameIndex = resolveFrame(methods[i], types[i], locations[i]);
+          frameIndexByMethod.put(methods[i], locationAndType, frameIndex);
+        }
+
+        if (frameIndex != NATIVE_FRAME) {
+          callStack[length++] = frameIndex;
         }
+      }
+
+      return length;
+    }
 
-        SentryStackFrame frame = createStackFrame(element);
-        int frameIndex = getOrAddFrame(frame);
-        callStack.add(frameIndex);
+    private int resolveFrame(long method, byte type, int location) {
+      StackTraceElement element = getStackTraceElement(method, type, location);
+      if (element.isNativeMethod() || isNativeFrame(type)) {
+        return NATIVE_FRAME;
       }
 
-      return callStack;
+      return getOrAddFrame(createStackFrame(element));
     }
 
     // Get existing frame index or add new frame and return its index
@@ -0,0 +1,104 @@
+package io.sentry.asyncprofiler.convert;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from a pair of longs to an int. Used by the converter to look up JFR
+ * ids on every sample without boxing them the way a {@code HashMap} would.
+ */
+final class LongPairIntMap {
+  static final int MISSING = Integer.MIN_VALUE;
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  private long[] firstKeys;
+  private long[] secondKeys;
+  private int[] values;
+  private int size;
+
+  LongPairIntMap() {
+    firstKeys = new long[INITIAL_CAPACITY];
+    secondKeys = new long[INITIAL_CAPACITY];
+    values = new int[INITIAL_CAPACITY];
+    Arrays.fill(values, MISSING);
+  }
+
+  /**
+   * @return the value stored for the given keys or {@link #MISSING}
+   */
+  int get(final long first, final long second) {
+    final int mask = values.length - 1;
+    int slot = hash(first, second) & mask;
+    while (values[slot] != MISSING) {
+      if (firstKeys[slot] == first && secondKeys[slot] == second) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return MISSING;
+  }
+
+  /**
+   * Stores the value for the given keys, replacing any previous value.
+   *
+   * @param value any int but {@link #MISSING}
+   */
+  void put(final long first, final long second, final int value) {
+    if ((size + 1) * 2 > values.length) {
+      resize();
+    }
+    if (insert(firstKeys, secondKeys, values, first, second, value)) {
+      size++;
+    }
+  }
+
+  void clear() {
+    Arrays.fill(values, MISSING);
+    size = 0;
+  }
+
+  private void resize() {
+    final int capacity = values.length * 2;
+    final long[] newFirstKeys = new long[capacity];
+    final long[] newSecondKeys = new long[capacity];
+    final int[] newValues = new int[capacity];
+    Arrays.fill(newValues, MISSING);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != MISSING) {
+        insert(newFirstKeys, newSecondKeys, newValues, firstKeys[i], secondKeys[i], values[i]);
+      }
+    }
+    firstKeys = newFirstKeys;
+    secondKeys = newSecondKeys;
+    values = newValues;
+  }
+
+  private static boolean insert(
+      final long[] firstKeys,
+      final long[] secondKeys,
+      final int[] values,
+      final long first,
+      final long second,
+      final int value) {
+    final int mask = values.length - 1;
+    int slot = hash(first, second) & mask;
+    while (values[slot] != MISSING) {
+      if (firstKeys[slot] == first && secondKeys[slot] == second) {
+        values[slot] = value;
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    firstKeys[slot] = first;
+    secondKeys[slot] = second;
+    values[slot] = value;
+    return true;
+  }
+
+  private static int hash(final long first, final long second) {
+    long h = first * 0x9E3779B97F4A7C15L + second;
+    h ^= h >>> 32;
+    h *= 0xD6E8FEB86659FD93L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -1,18 +1,25 @@
 package io.sentry.asyncprofiler.convert;
 
-import java.util.ArrayList;
-import java.util.List;
 import one.jfr.event.Event;
 import one.jfr.event.EventCollector;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
 
+/**
+ * Hands every event to the visitor as soon as it is read, instead of keeping all events of a
+ * recording in memory until the chunk is converted.
+ */
 @ApiStatus.Internal
 public final class NonAggregatingEventCollector implements EventCollector {
-  final List<Event> events = new ArrayList<>();
+  private final @NotNull Visitor visitor;
+
+  public NonAggregatingEventCollector(final @NotNull Visitor visitor) {
+    this.visitor = visitor;
+  }
 
   @Override
   public void collect(Event e) {
-    events.add(e);
+    visitor.visit(e, e.samples(), e.value());
   }
 
   @Override
@@ -32,8 +39,6 @@ public final class NonAggregatingEventCollector implements EventCollector {
 
   @Override
   public void forEach(Visitor visitor) {
-    for (Event event : events) {
-      visitor.visit(event, event.samples(), event.value());
-    }
+    // No-op, events have already been visited when they were collected
   }
 }
@@ -12,6 +12,7 @@ import io.sentry.ISentryLifecycleToken;
 import io.sentry.NoOpScopes;
 import io.sentry.ProfileChunk;
 import io.sentry.ProfileLifecycle;
+import io.sentry.ProfilingEventType;
 import io.sentry.Sentry;
 import io.sentry.SentryDate;
 import io.sentry.SentryLevel;
@@ -30,11 +31,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.atomic.AtomicBoolean;
 import one.profiler.AsyncProfiler;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
 import org.jetbrains.annotations.VisibleForTesting;
 
 @ApiStatus.Internal
@@ -56,8 +57,10 @@ public final class JavaContinuousProfiler
   private @Nullable Future<?> stopFuture;
   private final @NotNull List<ProfileChunk.Builder> payloadBuilders = new ArrayList<>();
   private @NotNull SentryId profilerId = SentryId.EMPTY_ID;
-  private final @NotNull AtomicBoolean isClosed = new AtomicBoolean(false);
+  private final @NotNull ProfileChunkPipeline chunkPipeline;
   private @NotNull SentryDate startProfileChunkTimestamp = new SentryNanotimeDate();
+  // The event the current chunk is recorded with, options may change before it is converted
+  private @NotNull ProfilingEventType chunkEventType = ProfilingEventType.WALL;
 
   private volatile @NotNull String filename = "";
 
@@ -75,10 +78,27 @@ public final class JavaContinuousProfiler
       final int profilingTracesHz,
       final @NotNull ISentryExecutorService executorService)
       throws Exception {
+    this(
+        logger,
+        profilingTracesDirPath,
+        profilingTracesHz,
+        executorService,
+        new ProfileChunkPipeline(logger));
+  }
+
+  @TestOnly
+  JavaContinuousProfiler(
+      final @NotNull ILogger logger,
+      final @Nullable String profilingTracesDirPath,
+      final int profilingTracesHz,
+      final @NotNull ISentryExecutorService executorService,
+      final @NotNull ProfileChunkPipeline chunkPipeline)
+      throws Exception {
     this.logger = logger;
     this.profilingTracesDirPath = profilingTracesDirPath;
     this.profilingTracesHz = profilingTracesHz;
     this.executorService = executorService;
+    this.chunkPipeline = chunkPipeline;
     initializeProfiler();
   }
 
@@ -204,6 +224,7 @@ public final class JavaContinuousProfiler
       return;
     }
 
+    final @Nullable SentryOptions options = scopes != null ? scopes.getOptions() : null;
     if (scopes != null) {
       final @Nullable RateLimiter rateLimiter = scopes.getRateLimiter();
       if (rateLimiter != null
@@ -225,15 +246,20 @@ public final class JavaContinuousProfiler
     File jfrFile = new File(filename);
 
     try {
-      final String profilingIntervalMicros =
-          String.format("%dus", (int) SECONDS.toMicros(1) / profilingTracesHz);
-      // Example command: start,jfr,event=wall,interval=9900us,file=/path/to/trace.jfr
+      final @NotNull ProfilingEventType eventType =
+          options != null ? options.getProfilingEventType() : ProfilingEventType.WALL;
       final String command =
-          String.format(
-              "start,jfr,event=wall,nobatch,interval=%s,file=%s",
-              profilingIntervalMicros, filename);
+          options != null
+              ? buildStartCommand(
+                  eventType,
+                  profilingTracesHz,
+                  options.getProfilingAllocationIntervalBytes(),
+                  options.getProfilingLockThresholdNanos(),
+                  filename)
+              : buildStartCommand(eventType, profilingTracesHz, 0, 0, filename);
 
       profiler.execute(command);
+      chunkEventType = eventType;
     } catch (Exception e) {
       logger.log(SentryLevel.ERROR, "Failed to start profiling: ", e);
       filename = "";
@@ -260,6 +286,37 @@ public final class JavaContinuousProfiler
     }
   }
 
+  static @NotNull String buildStartCommand(
+      final @NotNull ProfilingEventType eventType,
+      final int profilingTracesHz,
+      final long allocationIntervalBytes,
+      final long lockThresholdNanos,
+      final @NotNull String filename) {
+    final String profilingIntervalMicros =
+        String.format("%dus", (int) SECONDS.toMicros(1) / profilingTracesHz);
+    switch (eventType) {
+      case CPU:
+        // Example command: start,jfr,event=cpu,interval=9900us,file=/path/to/trace.jfr
+        return String.format(
+            "start,jfr,event=cpu,interval=%s,file=%s", profilingIntervalMicros, filename);
+      case ITIMER:
+        return String.format(
+            "start,jfr,event=itimer,interval=%s,file=%s", profilingIntervalMicros, filename);
+      case ALLOC:
+        // Example command: start,jfr,event=alloc,alloc=524288,file=/path/to/trace.jfr
+        return String.format(
+            "start,jfr,event=alloc,alloc=%d,file=%s", allocationIntervalBytes, filename);
+      case LOCK:
+        // Example command: start,jfr,event=lock,lock=1000000,file=/path/to/trace.jfr
+        return String.format("start,jfr,event=lock,lock=%d,file=%s", lockThresholdNanos, filename);
+      case WALL:
+      default:
+        // Example command: start,jfr,event=wall,interval=9900us,file=/path/to/trace.jfr
+        return String.format(
+            "start,jfr,event=wall,nobatch,interval=%s,file=%s", profilingIntervalMicros, filename);
+    }
+  }
+
   @Override
   public void stopProfiler(final @NotNull ProfileLifecycle profileLifecycle) {
     try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
@@ -317,12 +374,13 @@ public final class JavaContinuousProfiler
           jfrFile.deleteOnExit();
           payloadBuilders.add(
               new ProfileChunk.Builder(
-                  profilerId,
-                  new SentryId(),
-                  new HashMap<>(),
-                  jfrFile,
-                  startProfileChunkTimestamp,
-                  ProfileChunk.PLATFORM_JAVA));
+                      profilerId,
+                      new SentryId(),
+                      new HashMap<>(),
+                      jfrFile,
+                      startProfileChunkTimestamp,
+                      ProfileChunk.PLATFORM_JAVA)
+                  .setProfilingEventType(chunkEventType));
         }
       } else {
         logger.log(
@@ -366,7 +424,7 @@ public final class JavaContinuousProfiler
       rootSpanCounter = 0;
       stop(false);
       if (isTerminating) {
-        isClosed.set(true);
+        chunkPipeline.close();
       }
     }
   }
@@ -382,28 +440,17 @@ public final class JavaContinuousProfiler
     return SentryId.EMPTY_ID;
   }
 
-  @SuppressWarnings("FutureReturnValueIgnored")
   private void sendChunks(final @NotNull IScopes scopes, final @NotNull SentryOptions options) {
+    // Conversion and capturing happen on the chunk pipeline, so the chunks are only built here
     try {
-      options
-          .getExecutorService()
-          .submit(
-              () -> {
-                // SDK is closed, we don't send the chunks
-                if (isClosed.get()) {
-                  return;
-                }
-                final ArrayList<ProfileChunk> payloads = new ArrayList<>(payloadBuilders.size());
-                try (final @NotNull ISentryLifecycleToken ignored = payloadLock.acquire()) {
-                  for (ProfileChunk.Builder builder : payloadBuilders) {
-                    payloads.add(builder.build(options));
-                  }
-                  payloadBuilders.clear();
-                }
-                for (ProfileChunk payload : payloads) {
-                  scopes.captureProfileChunk(payload);
-                }
-              });
+      final @NotNull List<ProfileChunk.Builder> builders;
+      try (final @NotNull ISentryLifecycleToken ignored = payloadLock.acquire()) {
+        builders = new ArrayList<>(payloadBuilders);
+        payloadBuilders.clear();
+      }
+      for (final @NotNull ProfileChunk.Builder builder : builders) {
+        chunkPipeline.submit(builder.build(options), scopes, options);
+      }
     } catch (Throwable e) {
       options.getLogger().log(SentryLevel.DEBUG, "Failed to send profile chunks.", e);
     }
@@ -432,6 +479,11 @@ public final class JavaContinuousProfiler
     return stopFuture;
   }
 
+  /** The pipeline converting and sending finished chunks, exposing conversion counters. */
+  public @NotNull ProfileChunkPipeline getChunkPipeline() {
+    return chunkPipeline;
+  }
+
   @VisibleForTesting
   public int getRootSpanCounter() {
     return rootSpanCounter;
@@ -0,0 +1,197 @@
+package io.sentry.asyncprofiler.profiling;
+
+import io.sentry.ILogger;
+import io.sentry.IProfileConverter;
+import io.sentry.IScopes;
+import io.sentry.NoOpProfileConverter;
+import io.sentry.ProfileChunk;
+import io.sentry.SentryLevel;
+import io.sentry.SentryOptions;
+import io.sentry.protocol.profiling.SentryProfile;
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Converts finished JFR chunks into Sentry profiles and captures them, on a dedicated low priority
+ * thread instead of the shared {@link io.sentry.ISentryExecutorService}, which is also used by the
+ * transport and the batch processors. At most {@link #MAX_PENDING_CHUNKS} chunks wait for
+ * conversion, further chunks are dropped.
+ */
+@ApiStatus.Internal
+public final class ProfileChunkPipeline {
+  static final int MAX_PENDING_CHUNKS = 3;
+  private static final long THREAD_KEEP_ALIVE_SECONDS = 30;
+
+  private final @NotNull ILogger logger;
+  private final @NotNull Executor executor;
+  private final @NotNull AtomicBoolean isClosed = new AtomicBoolean(false);
+
+  private final @NotNull AtomicLong convertedChunkCount = new AtomicLong();
+  private final @NotNull AtomicLong droppedChunkCount = new AtomicLong();
+  private final @NotNull AtomicLong lastConversionLatencyMillis = new AtomicLong();
+  private final @NotNull AtomicLong totalConversionLatencyMillis = new AtomicLong();
+  private final @NotNull AtomicLong lastChunkSizeBytes = new AtomicLong();
+  private final @NotNull AtomicLong totalChunkSizeBytes = new AtomicLong();
+
+  public ProfileChunkPipeline(final @NotNull ILogger logger) {
+    this(logger, createExecutor());
+  }
+
+  @TestOnly
+  ProfileChunkPipeline(final @NotNull ILogger logger, final @NotNull Executor executor) {
+    this.logger = logger;
+    this.executor = executor;
+  }
+
+  private static @NotNull Executor createExecutor() {
+    // The worker thread times out while idle, so no thread is kept alive between chunks
+    final @NotNull ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            THREAD_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_CHUNKS),
+            new ProfileChunkPipelineThreadFactory());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Queues the chunk to be converted and captured. The trace file of the chunk is deleted once it
+   * has been converted, or if the chunk is dropped.
+   */
+  void submit(
+      final @NotNull ProfileChunk chunk,
+      final @NotNull IScopes scopes,
+      final @NotNull SentryOptions options) {
+    if (isClosed.get()) {
+      drop(chunk);
+      return;
+    }
+    try {
+      executor.execute(() -> process(chunk, scopes, options));
+    } catch (RejectedExecutionException e) {
+      logger.log(
+          SentryLevel.WARNING,
+          "Dropping profile chunk %s, too many chunks are waiting for conversion.",
+          chunk.getChunkId());
+      drop(chunk);
+    }
+  }
+
+  private void process(
+      final @NotNull ProfileChunk chunk,
+      final @NotNull IScopes scopes,
+      final @NotNull SentryOptions options) {
+    // SDK is closed, we don't send the chunks
+    if (isClosed.get()) {
+      drop(chunk);
+      return;
+    }
+
+    final @NotNull IProfileConverter converter = options.getProfilerConverter();
+    final File traceFile = chunk.getTraceFile();
+    // Without a converter the chunk is captured as is and dropped when its envelope is created
+    if (traceFile != null && !NoOpProfileConverter.getInstance().equals(converter)) {
+      final long sizeBytes = traceFile.length();
+      final long start = System.nanoTime();
+      try {
+        final @NotNull SentryProfile profile =
+            converter.convertFromFile(traceFile.getAbsolutePath(), chunk.getProfilingEventType());
+        chunk.setSentryProfile(profile);
+      } catch (Exception e) {
+        logger.log(SentryLevel.WARNING, "Failed to convert profile chunk.", e);
+        drop(chunk);
+        return;
+      }
+      final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      traceFile.delete();
+
+      lastConversionLatencyMillis.set(latencyMillis);
+      totalConversionLatencyMillis.addAndGet(latencyMillis);
+      lastChunkSizeBytes.set(sizeBytes);
+      totalChunkSizeBytes.addAndGet(sizeBytes);
+      convertedChunkCount.incrementAndGet();
+      logger.log(
+          SentryLevel.DEBUG,
+          "Converted profile chunk of %d bytes in %d ms.",
+          sizeBytes,
+          latencyMillis);
+    }
+
+    scopes.captureProfileChunk(chunk);
+  }
+
+  private void drop(final @NotNull ProfileChunk chunk) {
+    droppedChunkCount.incrementAndGet();
+    final File traceFile = chunk.getTraceFile();
+    if (traceFile != null) {
+      traceFile.delete();
+    }
+  }
+
+  /**
+   * Stops capturing chunks and shuts down the pipeline thread, chunks that are still queued or
+   * submitted afterwards are dropped.
+   */
+  void close() {
+    isClosed.set(true);
+    if (executor instanceof ExecutorService) {
+      ((ExecutorService) executor).shutdown();
+    }
+  }
+
+  /** The number of chunks that have been converted. */
+  public long getConvertedChunkCount() {
+    return convertedChunkCount.get();
+  }
+
+  /** The number of chunks that were dropped because the queue was full, or conversion failed. */
+  public long getDroppedChunkCount() {
+    return droppedChunkCount.get();
+  }
+
+  /** How long converting the last chunk took, in milliseconds. */
+  public long getLastConversionLatencyMillis() {
+    return lastConversionLatencyMillis.get();
+  }
+
+  /** How long converting all chunks took, in milliseconds. */
+  public long getTotalConversionLatencyMillis() {
+    return totalConversionLatencyMillis.get();
+  }
+
+  /** The size of the JFR recording of the last converted chunk, in bytes. */
+  public long getLastChunkSizeBytes() {
+    return lastChunkSizeBytes.get();
+  }
+
+  /** The size of the JFR recordings of all converted chunks, in bytes. */
+  public long getTotalChunkSizeBytes() {
+    return totalChunkSizeBytes.get();
+  }
+
+  private static final class ProfileChunkPipelineThreadFactory implements ThreadFactory {
+    private int cnt;
+
+    @Override
+    public @NotNull Thread newThread(final @NotNull Runnable r) {
+      final Thread ret = new Thread(r, "SentryProfileChunkPipeline-" + cnt++);
+      ret.setDaemon(true);
+      ret.setPriority(Thread.MIN_PRIORITY);
+      return ret;
+    }
+  }
+}
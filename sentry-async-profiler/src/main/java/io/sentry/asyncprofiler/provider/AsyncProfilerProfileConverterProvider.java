@@ -1,6 +1,7 @@
 package io.sentry.asyncprofiler.provider;
 
 import io.sentry.IProfileConverter;
+import io.sentry.ProfilingEventType;
 import io.sentry.asyncprofiler.convert.JfrAsyncProfilerToSentryProfileConverter;
 import io.sentry.profiling.JavaProfileConverterProvider;
 import org.jetbrains.annotations.ApiStatus;
@@ -29,5 +30,12 @@ public final class AsyncProfilerProfileConverterProvider implements JavaProfileC
         @NotNull String jfrFilePath) throws java.io.IOException {
       return JfrAsyncProfilerToSentryProfileConverter.convertFromFileStatic(jfrFilePath);
     }
+
+    @Override
+    public @NotNull io.sentry.protocol.profiling.SentryProfile convertFromFile(
+        @NotNull String jfrFilePath, @NotNull ProfilingEventType eventType)
+        throws java.io.IOException {
+      return JfrAsyncProfilerToSentryProfileConverter.convertFromFileStatic(jfrFilePath, eventType);
+    }
   }
 }
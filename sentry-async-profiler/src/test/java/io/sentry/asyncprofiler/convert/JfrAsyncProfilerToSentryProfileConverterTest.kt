@@ -5,6 +5,7 @@ import io.sentry.ILogger
 import io.sentry.IProfileConverter
 import io.sentry.IScope
 import io.sentry.IScopes
+import io.sentry.ProfilingEventType
 import io.sentry.Sentry
 import io.sentry.SentryOptions
 import io.sentry.SentryStackTraceFactory
@@ -12,11 +13,19 @@ import io.sentry.TracesSampler
 import io.sentry.asyncprofiler.provider.AsyncProfilerProfileConverterProvider
 import io.sentry.protocol.profiling.SentryProfile
 import io.sentry.test.DeferredExecutorService
+import java.io.File
 import java.io.IOException
+import java.io.RandomAccessFile
+import java.lang.management.ManagementFactory
+import java.time.Duration
 import java.time.LocalDateTime
 import java.time.ZoneOffset
 import java.time.temporal.ChronoUnit
 import java.util.*
+import java.util.concurrent.CountDownLatch
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordingFile
+import kotlin.concurrent.thread
 import kotlin.math.absoluteValue
 import kotlin.test.AfterTest
 import kotlin.test.BeforeTest
@@ -24,15 +33,27 @@ import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
 import kotlin.test.assertTrue
+import one.jfr.event.Event
+import one.jfr.event.EventCollector
 import org.junit.Test
 import org.mockito.Mockito
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.spy
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoMoreInteractions
 import org.mockito.kotlin.whenever
 
 class JfrAsyncProfilerToSentryProfileConverterTest {
 
+  private companion object {
+    const val CHUNKS = 8
+
+    // magic, version, chunk size, constant pool and metadata offsets, start nanos, duration and
+    // start ticks precede the tick rate in the chunk header
+    const val TICKS_PER_SECOND_OFFSET = 56L
+  }
+
   private val fixture = Fixture()
 
   private class Fixture {
@@ -145,6 +166,113 @@ class JfrAsyncProfilerToSentryProfileConverterTest {
     assertEquals(frameSet.size, sentryProfile.frames.size)
   }
 
+  @Test
+  fun `check no duplicate stacks`() {
+    val file = loadFile("async_profiler_test_sample.jfr")
+    val sentryProfile = fixture.getSut()!!.convertFromFile(file)
+
+    val stackSet = sentryProfile.stacks.toSet()
+
+    assertEquals(stackSet.size, sentryProfile.stacks.size)
+  }
+
+  @Test
+  fun `samples and stacks reference existing stacks and frames`() {
+    val file = loadFile("async_profiler_test_sample.jfr")
+    val sentryProfile = fixture.getSut()!!.convertFromFile(file)
+
+    assertTrue(sentryProfile.samples.isNotEmpty())
+    sentryProfile.samples.forEach { sample ->
+      assertTrue(sample.stackId in sentryProfile.stacks.indices)
+    }
+    sentryProfile.stacks.forEach { stack ->
+      stack.forEach { frameIndex -> assertTrue(frameIndex in sentryProfile.frames.indices) }
+    }
+  }
+
+  @Test
+  fun `collector visits events as they are collected`() {
+    val visitor = mock<EventCollector.Visitor>()
+    val collector = NonAggregatingEventCollector(visitor)
+    val event = mock<Event>()
+    whenever(event.samples()).thenReturn(3)
+    whenever(event.value()).thenReturn(5)
+
+    collector.collect(event)
+    verify(visitor).visit(event, 3, 5)
+
+    collector.forEach(visitor)
+    verifyNoMoreInteractions(visitor)
+  }
+
+  @Test
+  fun `converting a multi-chunk recording converts every chunk once`() {
+    val chunk = File(loadFile("async_profiler_test_sample.jfr")).readBytes()
+    val recording = File.createTempFile("multi-chunk", ".jfr").apply { deleteOnExit() }
+    recording.outputStream().use { out -> repeat(CHUNKS) { out.write(chunk) } }
+    val converter = fixture.getSut()!!
+
+    val (single, singleAllocated) =
+      measureAllocations { converter.convertFromFile(loadFile("async_profiler_test_sample.jfr")) }
+    val (multi, multiAllocated) =
+      measureAllocations { converter.convertFromFile(recording.absolutePath) }
+
+    assertTrue(single.samples.isNotEmpty())
+    assertEquals(CHUNKS * single.samples.size, multi.samples.size)
+    // every chunk holds the same events, so it converts to the samples of the single chunk
+    val singleSamples = single.samples.map { listOf(it.timestamp, it.threadId, it.stackId) }
+    multi.samples.chunked(single.samples.size).forEach { chunkSamples ->
+      assertEquals(
+        singleSamples,
+        chunkSamples.map { listOf(it.timestamp, it.threadId, it.stackId) },
+      )
+    }
+    // frames and stacks are deduplicated across chunks
+    assertEquals(single.frames, multi.frames)
+    assertEquals(single.stacks, multi.stacks)
+    assertEquals(
+      single.threadMetadata.mapValues { it.value.name },
+      multi.threadMetadata.mapValues { it.value.name },
+    )
+    // allocations grow with the number of events, re-converting earlier chunks grew quadratically
+    assertTrue(multiAllocated < 2 * CHUNKS * singleAllocated)
+  }
+
+  @Test
+  fun `converts with the event the recording was made with instead of the configured one`() {
+    val file = loadFile("async_profiler_test_sample.jfr")
+    val converter = fixture.getSut { it.profilingEventType = ProfilingEventType.LOCK }!!
+
+    val sentryProfile = converter.convertFromFile(file, ProfilingEventType.WALL)
+
+    assertTrue(sentryProfile.samples.isNotEmpty())
+  }
+
+  @Test
+  fun `lock samples are weighted with the nanoseconds waited`() {
+    val recording = recordLockContention()
+    // a 24 MHz clock instead of the 1 GHz one the JVM records with
+    RandomAccessFile(recording, "rw").use {
+      it.seek(TICKS_PER_SECOND_OFFSET)
+      it.writeLong(24_000_000)
+    }
+    val waited =
+      RecordingFile.readAllEvents(recording.toPath())
+        .filter { it.eventType.name == "jdk.JavaMonitorEnter" }
+        .map { it.duration.toNanos() }
+        .sorted()
+
+    val sentryProfile =
+      fixture.getSut()!!.convertFromFile(recording.absolutePath, ProfilingEventType.LOCK)
+
+    assertTrue(waited.isNotEmpty())
+    val weights = sentryProfile.samples.map { it.weight!! }.sorted()
+    assertEquals(waited.size, weights.size)
+    waited.zip(weights).forEach { (nanos, weight) ->
+      assertTrue((nanos - weight).absoluteValue <= 1, "Expected a weight of $nanos, was $weight")
+    }
+  }
+
   @Test
   fun `convertFromFile with valid JFR returns populated SentryProfile`() {
     val file = loadFile("async_profiler_test_sample.jfr")
@@ -291,6 +419,38 @@ class JfrAsyncProfilerToSentryProfileConverterTest {
 
   private fun loadFile(path: String): String = javaClass.classLoader!!.getResource(path)!!.file
 
+  private fun recordLockContention(): File {
+    val file = File.createTempFile("lock", ".jfr").apply { deleteOnExit() }
+    val lock = Any()
+    Recording().use { recording ->
+      recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ZERO).withStackTrace()
+      recording.start()
+      repeat(3) {
+        val locked = CountDownLatch(1)
+        val holder = thread {
+          synchronized(lock) {
+            locked.countDown()
+            Thread.sleep(20)
+          }
+        }
+        locked.await()
+        synchronized(lock) {}
+        holder.join()
+      }
+      recording.stop()
+      recording.dump(file.toPath())
+    }
+    return file
+  }
+
+  private fun measureAllocations(block: () -> SentryProfile): Pair<SentryProfile, Long> {
+    val threadMXBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+    val threadId = Thread.currentThread().id
+    val before = threadMXBean.getThreadAllocatedBytes(threadId)
+    val profile = block()
+    return profile to threadMXBean.getThreadAllocatedBytes(threadId) - before
+  }
+
   private fun assertValidSentryProfile(profile: SentryProfile) {
     assertNotNull(profile.samples, "Samples should not be null")
     assertNotNull(profile.frames, "Frames should not be null")
@@ -4,6 +4,7 @@ import io.sentry.DataCategory
 import io.sentry.ILogger
 import io.sentry.IScopes
 import io.sentry.ProfileLifecycle
+import io.sentry.ProfilingEventType
 import io.sentry.Sentry
 import io.sentry.SentryLevel
 import io.sentry.SentryOptions
@@ -23,6 +24,7 @@ import kotlin.test.assertTrue
 import org.mockito.ArgumentMatchers.startsWith
 import org.mockito.Mockito
 import org.mockito.kotlin.any
+import org.mockito.kotlin.check
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
@@ -72,6 +74,7 @@ class JavaContinuousProfilerTest {
         options.profilingTracesDirPath,
         options.profilingTracesHz,
         options.executorService,
+        ProfileChunkPipeline(options.logger) { executor.submit(it) },
       )
     }
   }
@@ -374,6 +377,54 @@ class JavaContinuousProfilerTest {
     verify(fixture.scopes, never()).captureProfileChunk(any())
   }
 
+  @Test
+  fun `chunk keeps the event it was started with`() {
+    val profiler = fixture.getSut { it.profilingEventType = ProfilingEventType.ITIMER }
+    profiler.startProfiler(ProfileLifecycle.MANUAL, fixture.mockTracesSampler)
+    assertTrue(profiler.isRunning)
+
+    fixture.options.profilingEventType = ProfilingEventType.WALL
+    profiler.stopProfiler(ProfileLifecycle.MANUAL)
+    fixture.executor.runAll()
+
+    verify(fixture.scopes)
+      .captureProfileChunk(check { assertEquals(ProfilingEventType.ITIMER, it.profilingEventType) })
+  }
+
+  @Test
+  fun `profiler samples wall clock by default`() {
+    assertEquals(
+      "start,jfr,event=wall,nobatch,interval=9900us,file=trace.jfr",
+      JavaContinuousProfiler.buildStartCommand(
+        ProfilingEventType.WALL,
+        101,
+        512 * 1024,
+        1_000_000,
+        "trace.jfr",
+      ),
+    )
+  }
+
+  @Test
+  fun `profiler start command matches the profiling event type`() {
+    fun command(eventType: ProfilingEventType) =
+      JavaContinuousProfiler.buildStartCommand(eventType, 101, 1024, 5_000, "trace.jfr")
+
+    assertEquals(
+      "start,jfr,event=cpu,interval=9900us,file=trace.jfr",
+      command(ProfilingEventType.CPU),
+    )
+    assertEquals(
+      "start,jfr,event=itimer,interval=9900us,file=trace.jfr",
+      command(ProfilingEventType.ITIMER),
+    )
+    assertEquals(
+      "start,jfr,event=alloc,alloc=1024,file=trace.jfr",
+      command(ProfilingEventType.ALLOC),
+    )
+    assertEquals("start,jfr,event=lock,lock=5000,file=trace.jfr", command(ProfilingEventType.LOCK))
+  }
+
   @Test
   fun `profiler stops when rate limited`() {
     val profiler = fixture.getSut()
@@ -0,0 +1,157 @@
+package io.sentry.asyncprofiler.profiling
+
+import io.sentry.ILogger
+import io.sentry.IProfileConverter
+import io.sentry.IScopes
+import io.sentry.ProfileChunk
+import io.sentry.ProfilingEventType
+import io.sentry.SentryNanotimeDate
+import io.sentry.SentryOptions
+import io.sentry.protocol.SentryId
+import io.sentry.protocol.profiling.SentryProfile
+import io.sentry.test.DeferredExecutorService
+import java.io.File
+import java.io.IOException
+import java.nio.file.Files
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+import org.mockito.kotlin.any
+import org.mockito.kotlin.check
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+class ProfileChunkPipelineTest {
+
+  private class Fixture {
+    val executor = DeferredExecutorService()
+    val logger = mock<ILogger>()
+    val scopes = mock<IScopes>()
+    val converter = mock<IProfileConverter>()
+    val profile = SentryProfile()
+    val options = SentryOptions().apply { profilerConverter = converter }
+    val traceDir: File = Files.createTempDirectory("sentry-profile-chunks").toFile()
+
+    init {
+      whenever(converter.convertFromFile(any(), any())).thenReturn(profile)
+    }
+
+    fun getSut(executor: Executor = Executor { this.executor.submit(it) }) =
+      ProfileChunkPipeline(logger, executor)
+
+    fun createChunk(eventType: ProfilingEventType = ProfilingEventType.WALL): ProfileChunk {
+      val traceFile = File(traceDir, "${SentryId()}.jfr").apply { writeBytes(ByteArray(42)) }
+      return ProfileChunk.Builder(
+          SentryId(),
+          SentryId(),
+          HashMap(),
+          traceFile,
+          SentryNanotimeDate(),
+          ProfileChunk.PLATFORM_JAVA,
+        )
+        .setProfilingEventType(eventType)
+        .build(options)
+    }
+  }
+
+  private val fixture = Fixture()
+
+  @AfterTest
+  fun cleanup() {
+    fixture.traceDir.deleteRecursively()
+  }
+
+  @Test
+  fun `converts the chunk before capturing it`() {
+    val pipeline = fixture.getSut()
+    val chunk = fixture.createChunk()
+
+    pipeline.submit(chunk, fixture.scopes, fixture.options)
+    verify(fixture.scopes, never()).captureProfileChunk(any())
+
+    fixture.executor.runAll()
+    verify(fixture.scopes)
+      .captureProfileChunk(check { assertSame(fixture.profile, it.sentryProfile) })
+    assertFalse(chunk.traceFile!!.exists())
+    assertEquals(1, pipeline.convertedChunkCount)
+    assertEquals(42, pipeline.lastChunkSizeBytes)
+    assertEquals(42, pipeline.totalChunkSizeBytes)
+    assertTrue(pipeline.lastConversionLatencyMillis >= 0)
+  }
+
+  @Test
+  fun `converts the chunk with the event it was recorded with`() {
+    fixture.options.profilingEventType = ProfilingEventType.WALL
+    val pipeline = fixture.getSut()
+
+    pipeline.submit(fixture.createChunk(ProfilingEventType.ALLOC), fixture.scopes, fixture.options)
+    fixture.executor.runAll()
+
+    verify(fixture.converter).convertFromFile(any(), eq(ProfilingEventType.ALLOC))
+  }
+
+  @Test
+  fun `drops the chunk when too many chunks are pending`() {
+    val pipeline = fixture.getSut { throw RejectedExecutionException() }
+    val chunk = fixture.createChunk()
+
+    pipeline.submit(chunk, fixture.scopes, fixture.options)
+
+    verify(fixture.converter, never()).convertFromFile(any(), any())
+    assertFalse(chunk.traceFile!!.exists())
+    assertEquals(1, pipeline.droppedChunkCount)
+  }
+
+  @Test
+  fun `drops the chunk when conversion fails`() {
+    whenever(fixture.converter.convertFromFile(any(), any())).thenThrow(IOException())
+    val pipeline = fixture.getSut()
+    val chunk = fixture.createChunk()
+
+    pipeline.submit(chunk, fixture.scopes, fixture.options)
+    fixture.executor.runAll()
+
+    verify(fixture.scopes, never()).captureProfileChunk(any())
+    assertFalse(chunk.traceFile!!.exists())
+    assertEquals(0, pipeline.convertedChunkCount)
+    assertEquals(1, pipeline.droppedChunkCount)
+  }
+
+  @Test
+  fun `drops pending chunks after close`() {
+    val pipeline = fixture.getSut()
+    val chunk = fixture.createChunk()
+
+    pipeline.submit(chunk, fixture.scopes, fixture.options)
+    pipeline.close()
+    fixture.executor.runAll()
+
+    verify(fixture.converter, never()).convertFromFile(any(), any())
+    verify(fixture.scopes, never()).captureProfileChunk(any())
+    assertFalse(chunk.traceFile!!.exists())
+  }
+
+  @Test
+  fun `close shuts down the pipeline thread and drops chunks submitted afterwards`() {
+    val executor = Executors.newSingleThreadExecutor()
+    val pipeline = fixture.getSut(executor)
+    val chunk = fixture.createChunk()
+
+    pipeline.close()
+    pipeline.submit(chunk, fixture.scopes, fixture.options)
+
+    assertTrue(executor.isShutdown)
+    verify(fixture.converter, never()).convertFromFile(any(), any())
+    assertFalse(chunk.traceFile!!.exists())
+    assertEquals(1, pipeline.droppedChunkCount)
+  }
+}
@@ -109,6 +109,25 @@ public final class SentryInstrumentation
     this(null, subscriptionHandler, captureRequestBodyForNonSubscriptions);
   }
 
+  /**
+   * Reports a single span per type and field with the number of calls and their total and max
+   * duration as data, instead of a span for every call of a data fetcher.
+   *
+   * @see SentryGraphqlInstrumentation#setAggregateDataFetcherSpans(boolean)
+   * @param aggregateDataFetcherSpans true to aggregate the spans of data fetcher calls
+   */
+  public void setAggregateDataFetcherSpans(final boolean aggregateDataFetcherSpans) {
+    instrumentation.setAggregateDataFetcherSpans(aggregateDataFetcherSpans);
+  }
+
+  /**
+   * @param slowDataFetcherThresholdMillis data fetcher calls taking at least this long get their
+   *     own span if spans are aggregated, defaults to 100ms
+   */
+  public void setSlowDataFetcherThresholdMillis(final long slowDataFetcherThresholdMillis) {
+    instrumentation.setSlowDataFetcherThresholdMillis(slowDataFetcherThresholdMillis);
+  }
+
   @Override
   public @NotNull InstrumentationState createState(
       final @NotNull InstrumentationCreateStateParameters parameters) {
@@ -133,6 +152,7 @@ public final class SentryInstrumentation
     return super.instrumentExecutionResult(executionResult, parameters, state)
         .whenComplete(
             (result, exception) -> {
+              instrumentation.endExecution(InstrumentationState.ofState(state));
               instrumentation.instrumentExecutionResultComplete(parameters, result, exception);
             });
   }
@@ -0,0 +1,144 @@
+package io.sentry.graphql;
+
+import graphql.schema.DataFetchingEnvironment;
+import io.sentry.ISentryLifecycleToken;
+import io.sentry.SentryDate;
+import io.sentry.SentryLongDate;
+import io.sentry.util.AutoClosableReentrantLock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Call counts and durations of the data fetchers of a single execution, by the type and field they
+ * fetch, which are reported as one span per field instead of one span per call.
+ */
+final class DataFetcherAggregates {
+
+  static final @NotNull String COUNT_DATA = "graphql.data_fetcher.count";
+  static final @NotNull String ERROR_COUNT_DATA = "graphql.data_fetcher.error_count";
+  static final @NotNull String TOTAL_DURATION_DATA = "graphql.data_fetcher.total_duration_ms";
+  static final @NotNull String MAX_DURATION_DATA = "graphql.data_fetcher.max_duration_ms";
+
+  private final @NotNull AutoClosableReentrantLock lock = new AutoClosableReentrantLock();
+  // stats by span description, in the order the fields were first fetched
+  private final @NotNull Map<String, FieldStats> stats = new LinkedHashMap<>();
+  private final long startDateNanos;
+  private final long startNanoTime;
+
+  /**
+   * @param startDate the current date, used to turn {@link System#nanoTime()} values into dates
+   */
+  DataFetcherAggregates(final @NotNull SentryDate startDate) {
+    this.startDateNanos = startDate.nanoTimestamp();
+    this.startNanoTime = System.nanoTime();
+  }
+
+  void record(
+      final @NotNull String description,
+      final @NotNull DataFetchingEnvironment environment,
+      final long startNanos,
+      final long endNanos,
+      final boolean failed) {
+    final long durationNanos = endNanos - startNanos;
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      @Nullable FieldStats fieldStats = stats.get(description);
+      if (fieldStats == null) {
+        fieldStats = new FieldStats(description, environment, startNanos, endNanos);
+        stats.put(description, fieldStats);
+      }
+      fieldStats.count++;
+      if (failed) {
+        fieldStats.errorCount++;
+      }
+      fieldStats.totalNanos += durationNanos;
+      fieldStats.maxNanos = Math.max(fieldStats.maxNanos, durationNanos);
+      fieldStats.firstStartNanos = Math.min(fieldStats.firstStartNanos, startNanos);
+      fieldStats.lastEndNanos = Math.max(fieldStats.lastEndNanos, endNanos);
+    }
+  }
+
+  /**
+   * Returns the stats of every fetched field and clears them.
+   *
+   * @return the stats, in the order the fields were first fetched
+   */
+  @NotNull
+  List<FieldStats> drain() {
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      final @NotNull List<FieldStats> fields = new ArrayList<>(stats.values());
+      stats.clear();
+      return fields;
+    }
+  }
+
+  /**
+   * @param nanoTime a {@link System#nanoTime()} value
+   * @return the date of the given time
+   */
+  @NotNull
+  SentryDate toDate(final long nanoTime) {
+    return new SentryLongDate(startDateNanos + (nanoTime - startNanoTime));
+  }
+
+  /** The calls of the data fetcher of a single field. */
+  static final class FieldStats {
+    private final @NotNull String description;
+    // environment of the first call, passed to beforeSpan for the span of the field
+    private final @NotNull DataFetchingEnvironment environment;
+    private long count;
+    private long errorCount;
+    private long totalNanos;
+    private long maxNanos;
+    private long firstStartNanos;
+    private long lastEndNanos;
+
+    FieldStats(
+        final @NotNull String description,
+        final @NotNull DataFetchingEnvironment environment,
+        final long firstStartNanos,
+        final long lastEndNanos) {
+      this.description = description;
+      this.environment = environment;
+      this.firstStartNanos = firstStartNanos;
+      this.lastEndNanos = lastEndNanos;
+    }
+
+    @NotNull
+    String getDescription() {
+      return description;
+    }
+
+    @NotNull
+    DataFetchingEnvironment getEnvironment() {
+      return environment;
+    }
+
+    long getCount() {
+      return count;
+    }
+
+    long getErrorCount() {
+      return errorCount;
+    }
+
+    long getTotalNanos() {
+      return totalNanos;
+    }
+
+    long getMaxNanos() {
+      return maxNanos;
+    }
+
+    long getFirstStartNanos() {
+      return firstStartNanos;
+    }
+
+    long getLastEndNanos() {
+      return lastEndNanos;
+    }
+  }
+}
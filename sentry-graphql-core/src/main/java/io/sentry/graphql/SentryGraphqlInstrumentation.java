@@ -22,6 +22,7 @@ import io.sentry.IScopes;
 import io.sentry.ISpan;
 import io.sentry.NoOpScopes;
 import io.sentry.Sentry;
+import io.sentry.SentryDate;
 import io.sentry.SpanOptions;
 import io.sentry.SpanStatus;
 import io.sentry.TypeCheckHint;
@@ -32,6 +33,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
@@ -47,11 +49,17 @@ public final class SentryGraphqlInstrumentation {
           "INTERNAL", // Netflix DGS
           "DataFetchingException" // raw graphql-java
           );
+  private static final @NotNull String SPAN_OPERATION = "graphql";
+  private static final long DEFAULT_SLOW_DATA_FETCHER_THRESHOLD_MILLIS = 100;
+
   private final @Nullable BeforeSpanCallback beforeSpan;
   private final @NotNull SentrySubscriptionHandler subscriptionHandler;
   private final @NotNull ExceptionReporter exceptionReporter;
   private final @NotNull List<String> ignoredErrorTypes;
   private final @NotNull String traceOrigin;
+  private boolean aggregateDataFetcherSpans = false;
+  private long slowDataFetcherThresholdNanos =
+      TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_DATA_FETCHER_THRESHOLD_MILLIS);
 
   /**
    * @param beforeSpan callback when a span is created
@@ -90,6 +98,36 @@ public final class SentryGraphqlInstrumentation {
     this.traceOrigin = traceOrigin;
   }
 
+  /**
+   * Reports a single span per type and field with the number of calls and their total and max
+   * duration as data, instead of a span for every call of a data fetcher. Calls that fail or take
+   * at least {@link #setSlowDataFetcherThresholdMillis(long)} still get their own span.
+   *
+   * <p>Useful for queries with list fields, which may call a data fetcher thousands of times.
+   *
+   * @param aggregateDataFetcherSpans true to aggregate the spans of data fetcher calls
+   */
+  public void setAggregateDataFetcherSpans(final boolean aggregateDataFetcherSpans) {
+    this.aggregateDataFetcherSpans = aggregateDataFetcherSpans;
+  }
+
+  public boolean isAggregateDataFetcherSpans() {
+    return aggregateDataFetcherSpans;
+  }
+
+  /**
+   * @param slowDataFetcherThresholdMillis data fetcher calls taking at least this long get their
+   *     own span if spans are aggregated, defaults to 100ms
+   */
+  public void setSlowDataFetcherThresholdMillis(final long slowDataFetcherThresholdMillis) {
+    this.slowDataFetcherThresholdNanos =
+        TimeUnit.MILLISECONDS.toNanos(slowDataFetcherThresholdMillis);
+  }
+
+  public long getSlowDataFetcherThresholdMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(slowDataFetcherThresholdNanos);
+  }
+
   public @NotNull InstrumentationState createState() {
     return new TracingState();
   }
@@ -98,10 +136,45 @@ public final class SentryGraphqlInstrumentation {
       final @NotNull InstrumentationExecutionParameters parameters,
       final @NotNull TracingState tracingState) {
     final @NotNull IScopes currentScopes = Sentry.getCurrentScopes();
-    tracingState.setTransaction(currentScopes.getSpan());
+    final @Nullable ISpan transaction = currentScopes.getSpan();
+    tracingState.setTransaction(transaction);
+    if (aggregateDataFetcherSpans && transaction != null) {
+      tracingState.aggregates =
+          new DataFetcherAggregates(currentScopes.getOptions().getDateProvider().now());
+    }
     parameters.getGraphQLContext().put(SENTRY_SCOPES_CONTEXT_KEY, currentScopes);
   }
 
+  /**
+   * Reports the aggregated data fetcher spans, if enabled. Like the span of a single call, they are
+   * passed to the {@link BeforeSpanCallback}, with the environment of the first call of the field
+   * and no result.
+   *
+   * @param tracingState the state of the execution
+   */
+  public void endExecution(final @NotNull TracingState tracingState) {
+    final @Nullable DataFetcherAggregates aggregates = tracingState.aggregates;
+    final @Nullable ISpan transaction = tracingState.getTransaction();
+    if (aggregates == null || transaction == null) {
+      return;
+    }
+    for (final @NotNull DataFetcherAggregates.FieldStats field : aggregates.drain()) {
+      final @NotNull ISpan span =
+          createSpan(
+              transaction, field.getDescription(), aggregates.toDate(field.getFirstStartNanos()));
+      span.setData(DataFetcherAggregates.COUNT_DATA, field.getCount());
+      span.setData(DataFetcherAggregates.ERROR_COUNT_DATA, field.getErrorCount());
+      span.setData(
+          DataFetcherAggregates.TOTAL_DURATION_DATA,
+          TimeUnit.NANOSECONDS.toMillis(field.getTotalNanos()));
+      span.setData(
+          DataFetcherAggregates.MAX_DURATION_DATA,
+          TimeUnit.NANOSECONDS.toMillis(field.getMaxNanos()));
+      span.setStatus(field.getErrorCount() == 0 ? SpanStatus.OK : SpanStatus.INTERNAL_ERROR);
+      finish(span, field.getEnvironment(), null, aggregates.toDate(field.getLastEndNanos()));
+    }
+  }
+
   public void instrumentExecutionResultComplete(
       final @NotNull InstrumentationExecutionParameters parameters,
       final @Nullable ExecutionResult result,
@@ -222,7 +295,11 @@ public final class SentryGraphqlInstrumentation {
                 hint);
       }
       final ISpan transaction = tracingState.getTransaction();
-      if (transaction != null) {
+      final @Nullable DataFetcherAggregates aggregates = tracingState.aggregates;
+      if (transaction != null && aggregates != null) {
+        return fetchAggregated(
+            dataFetcher, parameters, environment, transaction, aggregates, System.nanoTime());
+      } else if (transaction != null) {
         final ISpan span = createSpan(transaction, parameters);
         try {
           final @Nullable Object tmpResult = dataFetcher.get(environment);
@@ -258,6 +335,62 @@ public final class SentryGraphqlInstrumentation {
     };
   }
 
+  @SuppressWarnings("FutureReturnValueIgnored")
+  private @Nullable Object fetchAggregated(
+      final @NotNull DataFetcher<?> dataFetcher,
+      final @NotNull InstrumentationFieldFetchParameters parameters,
+      final @NotNull DataFetchingEnvironment environment,
+      final @NotNull ISpan transaction,
+      final @NotNull DataFetcherAggregates aggregates,
+      final long startNanos)
+      throws Exception {
+    try {
+      final @Nullable Object tmpResult = dataFetcher.get(environment);
+      final @Nullable Object result =
+          maybeCallSubscriptionHandler(parameters, environment, tmpResult);
+      if (result instanceof CompletableFuture) {
+        ((CompletableFuture<?>) result)
+            .whenComplete(
+                (r, ex) ->
+                    finishAggregated(
+                        parameters, environment, transaction, aggregates, startNanos, r, ex));
+      } else {
+        finishAggregated(
+            parameters, environment, transaction, aggregates, startNanos, result, null);
+      }
+      return result;
+    } catch (Throwable e) {
+      finishAggregated(parameters, environment, transaction, aggregates, startNanos, null, e);
+      throw e;
+    }
+  }
+
+  private void finishAggregated(
+      final @NotNull InstrumentationFieldFetchParameters parameters,
+      final @NotNull DataFetchingEnvironment environment,
+      final @NotNull ISpan transaction,
+      final @NotNull DataFetcherAggregates aggregates,
+      final long startNanos,
+      final @Nullable Object result,
+      final @Nullable Throwable throwable) {
+    final long endNanos = System.nanoTime();
+    final @NotNull String description = spanDescription(parameters);
+    aggregates.record(description, environment, startNanos, endNanos, throwable != null);
+
+    // failed and slow calls still get their own span
+    if (throwable == null && endNanos - startNanos < slowDataFetcherThresholdNanos) {
+      return;
+    }
+    final @NotNull ISpan span = createSpan(transaction, description, aggregates.toDate(startNanos));
+    if (throwable != null) {
+      span.setThrowable(throwable);
+      span.setStatus(SpanStatus.INTERNAL_ERROR);
+    } else {
+      span.setStatus(SpanStatus.OK);
+    }
+    finish(span, environment, result, aggregates.toDate(endNanos));
+  }
+
   private @Nullable Object maybeCallSubscriptionHandler(
       final @NotNull InstrumentationFieldFetchParameters parameters,
       final @NotNull DataFetchingEnvironment environment,
@@ -282,16 +415,23 @@ public final class SentryGraphqlInstrumentation {
       final @NotNull ISpan span,
       final @NotNull DataFetchingEnvironment environment,
       final @Nullable Object result) {
-    if (beforeSpan != null) {
-      final ISpan newSpan = beforeSpan.execute(span, environment, result);
-      if (newSpan == null) {
-        // span is dropped
-        span.getSpanContext().setSampled(false);
-      } else {
-        newSpan.finish();
-      }
+    finish(span, environment, result, null);
+  }
+
+  private void finish(
+      final @NotNull ISpan span,
+      final @NotNull DataFetchingEnvironment environment,
+      final @Nullable Object result,
+      final @Nullable SentryDate endDate) {
+    final @Nullable ISpan newSpan =
+        beforeSpan == null ? span : beforeSpan.execute(span, environment, result);
+    if (newSpan == null) {
+      // span is dropped
+      span.getSpanContext().setSampled(false);
+    } else if (endDate == null) {
+      newSpan.finish();
     } else {
-      span.finish();
+      newSpan.finish(newSpan.getStatus(), endDate);
     }
   }
 
@@ -302,6 +442,25 @@ public final class SentryGraphqlInstrumentation {
 
   private @NotNull ISpan createSpan(
       @NotNull ISpan transaction, @NotNull InstrumentationFieldFetchParameters parameters) {
+    return createSpan(transaction, spanDescription(parameters), null);
+  }
+
+  private @NotNull ISpan createSpan(
+      final @NotNull ISpan transaction,
+      final @NotNull String description,
+      final @Nullable SentryDate startDate) {
+    final @NotNull SpanOptions spanOptions = new SpanOptions();
+    spanOptions.setOrigin(traceOrigin);
+    if (startDate != null) {
+      spanOptions.setStartTimestamp(startDate);
+    }
+    final @NotNull ISpan span = transaction.startChild(SPAN_OPERATION, description, spanOptions);
+
+    return span;
+  }
+
+  private static @NotNull String spanDescription(
+      final @NotNull InstrumentationFieldFetchParameters parameters) {
     final GraphQLOutputType type = parameters.getExecutionStepInfo().getParent().getType();
     GraphQLObjectType parent;
     if (type instanceof GraphQLNonNull) {
@@ -309,19 +468,12 @@ public final class SentryGraphqlInstrumentation {
     } else {
       parent = (GraphQLObjectType) type;
     }
-    final @NotNull SpanOptions spanOptions = new SpanOptions();
-    spanOptions.setOrigin(traceOrigin);
-    final @NotNull ISpan span =
-        transaction.startChild(
-            "graphql",
-            parent.getName() + "." + parameters.getExecutionStepInfo().getPath().getSegmentName(),
-            spanOptions);
-
-    return span;
+    return parent.getName() + "." + parameters.getExecutionStepInfo().getPath().getSegmentName();
   }
 
   public static final class TracingState implements InstrumentationState {
     private @Nullable ISpan transaction;
+    private @Nullable DataFetcherAggregates aggregates;
 
     public @Nullable ISpan getTransaction() {
       return transaction;
@@ -106,6 +106,25 @@ public final class SentryInstrumentation
     this(null, subscriptionHandler, captureRequestBodyForNonSubscriptions);
   }
 
+  /**
+   * Reports a single span per type and field with the number of calls and their total and max
+   * duration as data, instead of a span for every call of a data fetcher.
+   *
+   * @see SentryGraphqlInstrumentation#setAggregateDataFetcherSpans(boolean)
+   * @param aggregateDataFetcherSpans true to aggregate the spans of data fetcher calls
+   */
+  public void setAggregateDataFetcherSpans(final boolean aggregateDataFetcherSpans) {
+    instrumentation.setAggregateDataFetcherSpans(aggregateDataFetcherSpans);
+  }
+
+  /**
+   * @param slowDataFetcherThresholdMillis data fetcher calls taking at least this long get their
+   *     own span if spans are aggregated, defaults to 100ms
+   */
+  public void setSlowDataFetcherThresholdMillis(final long slowDataFetcherThresholdMillis) {
+    instrumentation.setSlowDataFetcherThresholdMillis(slowDataFetcherThresholdMillis);
+  }
+
   @Override
   public @NotNull InstrumentationState createState() {
     return instrumentation.createState();
@@ -126,6 +145,9 @@ public final class SentryInstrumentation
     return super.instrumentExecutionResult(executionResult, parameters)
         .whenComplete(
             (result, exception) -> {
+              final SentryGraphqlInstrumentation.TracingState tracingState =
+                  parameters.getInstrumentationState();
+              instrumentation.endExecution(tracingState);
               instrumentation.instrumentExecutionResultComplete(parameters, result, exception);
             });
   }
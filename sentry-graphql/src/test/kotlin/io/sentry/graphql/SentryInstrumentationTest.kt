@@ -45,6 +45,8 @@ class SentryInstrumentationTest {
       isTransactionActive: Boolean = true,
       dataFetcherThrows: Boolean = false,
       beforeSpan: SentryGraphqlInstrumentation.BeforeSpanCallback? = null,
+      fetchShowIds: Boolean = false,
+      slowDataFetcherThresholdMillis: Long? = null,
     ): GraphQL {
       whenever(scopes.options).thenReturn(SentryOptions())
       activeSpan = SentryTracer(TransactionContext("name", "op"), scopes)
@@ -62,13 +64,17 @@ class SentryInstrumentationTest {
 
       val graphQLSchema =
         SchemaGenerator()
-          .makeExecutableSchema(SchemaParser().parse(schema), buildRuntimeWiring(dataFetcherThrows))
-      val graphQL =
-        GraphQL.newGraphQL(graphQLSchema)
-          .instrumentation(
-            SentryInstrumentation(beforeSpan, NoOpSubscriptionHandler.getInstance(), true)
+          .makeExecutableSchema(
+            SchemaParser().parse(schema),
+            buildRuntimeWiring(dataFetcherThrows, fetchShowIds),
           )
-          .build()
+      val instrumentation =
+        SentryInstrumentation(beforeSpan, NoOpSubscriptionHandler.getInstance(), true)
+      if (slowDataFetcherThresholdMillis != null) {
+        instrumentation.setAggregateDataFetcherSpans(true)
+        instrumentation.setSlowDataFetcherThresholdMillis(slowDataFetcherThresholdMillis)
+      }
+      val graphQL = GraphQL.newGraphQL(graphQLSchema).instrumentation(instrumentation).build()
 
       if (isTransactionActive) {
         whenever(scopes.span).thenReturn(activeSpan)
@@ -79,7 +85,7 @@ class SentryInstrumentationTest {
       return graphQL
     }
 
-    private fun buildRuntimeWiring(dataFetcherThrows: Boolean) =
+    private fun buildRuntimeWiring(dataFetcherThrows: Boolean, fetchShowIds: Boolean) =
       RuntimeWiring.newRuntimeWiring()
         .type("Query") {
           it.dataFetcher("shows") {
@@ -90,6 +96,12 @@ class SentryInstrumentationTest {
             }
           }
         }
+        .type("Show") {
+          if (fetchShowIds) {
+            it.dataFetcher("id") { environment -> environment.getSource<Show>()!!.id }
+          }
+          it
+        }
         .build()
   }
 
@@ -183,6 +195,71 @@ class SentryInstrumentationTest {
     }
   }
 
+  @Test
+  fun `when data fetcher spans are aggregated, creates a span per field with its stats`() {
+    val sut = fixture.getSut(fetchShowIds = true, slowDataFetcherThresholdMillis = Long.MAX_VALUE)
+
+    withMockScopes {
+      val result = sut.execute("{ shows { id } }")
+
+      assertTrue(result.errors.isEmpty())
+      assertEquals(2, fixture.activeSpan.children.size)
+      val showsSpan = fixture.activeSpan.children.first { it.description == "Query.shows" }
+      assertEquals("graphql", showsSpan.operation)
+      assertEquals("auto.graphql.graphql", showsSpan.spanContext.origin)
+      assertEquals(1L, showsSpan.getData("graphql.data_fetcher.count"))
+      assertTrue(showsSpan.isFinished)
+      assertEquals(SpanStatus.OK, showsSpan.status)
+      val idSpan = fixture.activeSpan.children.first { it.description == "Show.id" }
+      assertEquals(2L, idSpan.getData("graphql.data_fetcher.count"))
+      assertEquals(0L, idSpan.getData("graphql.data_fetcher.error_count"))
+      assertTrue(idSpan.isFinished)
+    }
+  }
+
+  @Test
+  fun `when data fetcher spans are aggregated, failed calls get their own span`() {
+    val sut =
+      fixture.getSut(dataFetcherThrows = true, slowDataFetcherThresholdMillis = Long.MAX_VALUE)
+
+    withMockScopes {
+      val result = sut.execute("{ shows { id } }")
+
+      assertTrue(result.errors.isNotEmpty())
+      assertEquals(2, fixture.activeSpan.children.size)
+      val callSpan =
+        fixture.activeSpan.children.first { it.getData("graphql.data_fetcher.count") == null }
+      assertEquals(SpanStatus.INTERNAL_ERROR, callSpan.status)
+      val aggregatedSpan =
+        fixture.activeSpan.children.first { it.getData("graphql.data_fetcher.count") != null }
+      assertEquals(1L, aggregatedSpan.getData("graphql.data_fetcher.error_count"))
+    }
+  }
+
+  @Test
+  fun `when data fetcher spans are aggregated, beforeSpan can drop and modify them`() {
+    val sut =
+      fixture.getSut(
+        beforeSpan =
+          SentryGraphqlInstrumentation.BeforeSpanCallback { span, environment, _ ->
+            if (environment.field.name == "id") null else span.apply { description = "changed" }
+          },
+        fetchShowIds = true,
+        slowDataFetcherThresholdMillis = Long.MAX_VALUE,
+      )
+
+    withMockScopes {
+      val result = sut.execute("{ shows { id } }")
+
+      assertTrue(result.errors.isEmpty())
+      assertEquals(2, fixture.activeSpan.children.size)
+      val showsSpan = fixture.activeSpan.children.first { it.description == "changed" }
+      assertTrue(showsSpan.isFinished)
+      val idSpan = fixture.activeSpan.children.first { it.description == "Show.id" }
+      assertNotNull(idSpan.isSampled) { assertFalse(it) }
+    }
+  }
+
   @Test
   fun `invokes subscription handler for subscription`() {
     val exceptionReporter = mock<ExceptionReporter>()
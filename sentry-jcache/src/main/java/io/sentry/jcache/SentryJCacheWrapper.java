@@ -1,5 +1,6 @@
 package io.sentry.jcache;
 
+import io.sentry.AggregatedCacheSpan;
 import io.sentry.IScopes;
 import io.sentry.ISpan;
 import io.sentry.ScopesAdapter;
@@ -491,9 +492,7 @@ public final class SentryJCacheWrapper<K, V> implements Cache<K, V> {
       return null;
     }
 
-    final SpanOptions spanOptions = new SpanOptions();
-    spanOptions.setOrigin(TRACE_ORIGIN);
-    final ISpan span = activeSpan.startChild("cache." + operationName, description, spanOptions);
+    final ISpan span = startChild(activeSpan, "cache." + operationName, description);
     if (span.isNoOp()) {
       return null;
     }
@@ -503,4 +502,22 @@ public final class SentryJCacheWrapper<K, V> implements Cache<K, V> {
     span.setData(SpanDataConvention.CACHE_OPERATION, operationName);
     return span;
   }
+
+  private @NotNull ISpan startChild(
+      final @NotNull ISpan activeSpan,
+      final @NotNull String operation,
+      final @Nullable String description) {
+    if (scopes.getOptions().isEnableCacheSpanAggregation()) {
+      return AggregatedCacheSpan.start(
+          activeSpan,
+          scopes.getOptions(),
+          delegate.getName(),
+          operation,
+          description,
+          TRACE_ORIGIN);
+    }
+    final SpanOptions spanOptions = new SpanOptions();
+    spanOptions.setOrigin(TRACE_ORIGIN);
+    return activeSpan.startChild(operation, description, spanOptions);
+  }
 }
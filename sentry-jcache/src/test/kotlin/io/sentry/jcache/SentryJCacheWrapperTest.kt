@@ -1,5 +1,6 @@
 package io.sentry.jcache
 
+import io.sentry.CacheOperationStats
 import io.sentry.IScopes
 import io.sentry.SentryOptions
 import io.sentry.SentryTracer
@@ -531,4 +532,44 @@ class SentryJCacheWrapperTest {
     assertEquals(SpanStatus.INTERNAL_ERROR, span.status)
     assertEquals(exception, span.throwable)
   }
+
+  // -- aggregation --
+
+  @Test
+  fun `aggregates operations on the active span when cache span aggregation is enabled`() {
+    options.isEnableCacheSpanAggregation = true
+    options.slowCacheOperationThresholdMillis = 10_000
+    val tx = createTransaction()
+    val wrapper = SentryJCacheWrapper(delegate, scopes)
+    whenever(delegate.get("hit")).thenReturn("value")
+    whenever(delegate.get("miss")).thenReturn(null)
+
+    wrapper.get("hit")
+    wrapper.get("miss")
+    wrapper.put("key", "value")
+
+    assertEquals(0, tx.spans.size)
+    assertTrue(tx.getData(SpanDataConvention.CACHE_OPERATIONS) is CacheOperationStats)
+  }
+
+  @Test
+  fun `creates span for failed operations when cache span aggregation is enabled`() {
+    options.isEnableCacheSpanAggregation = true
+    options.slowCacheOperationThresholdMillis = 10_000
+    val tx = createTransaction()
+    val wrapper = SentryJCacheWrapper(delegate, scopes)
+    val exception = RuntimeException("cache error")
+    whenever(delegate.get("myKey")).thenThrow(exception)
+
+    assertFailsWith<RuntimeException> { wrapper.get("myKey") }
+
+    assertEquals(1, tx.spans.size)
+    val span = tx.spans.first()
+    assertEquals("cache.get", span.operation)
+    assertEquals("myKey", span.description)
+    assertEquals(SpanStatus.INTERNAL_ERROR, span.status)
+    assertEquals(exception, span.throwable)
+    assertEquals(listOf("myKey"), span.getData(SpanDataConvention.CACHE_KEY))
+    assertEquals("auto.cache.jcache", span.spanContext.origin)
+  }
 }
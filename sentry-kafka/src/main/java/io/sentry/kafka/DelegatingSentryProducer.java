@@ -0,0 +1,131 @@
+package io.sentry.kafka;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.Uuid;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The {@link Producer} returned by {@link SentryKafkaProducer#wrap}, which instruments {@code send}
+ * and calls the delegate directly for everything else.
+ *
+ * <p>It implements the {@link Producer} interface of the {@code kafka-clients} version the SDK is
+ * compiled against, {@link SentryKafkaProducer} checks that it implements all methods of the
+ * version on the classpath before using it.
+ */
+final class DelegatingSentryProducer<K, V> implements Producer<K, V> {
+
+  private final @NotNull SentryKafkaProducer.ProducerInstrumentation<K, V> instrumentation;
+  private final @NotNull Producer<K, V> delegate;
+
+  DelegatingSentryProducer(
+      final @NotNull SentryKafkaProducer.ProducerInstrumentation<K, V> instrumentation) {
+    this.instrumentation = instrumentation;
+    this.delegate = instrumentation.delegate;
+  }
+
+  @Override
+  public @NotNull Future<RecordMetadata> send(final @NotNull ProducerRecord<K, V> record) {
+    return instrumentation.send(record, null);
+  }
+
+  @Override
+  public @NotNull Future<RecordMetadata> send(
+      final @NotNull ProducerRecord<K, V> record, final @Nullable Callback callback) {
+    return instrumentation.send(record, callback);
+  }
+
+  @Override
+  public void initTransactions() {
+    delegate.initTransactions();
+  }
+
+  @Override
+  public void beginTransaction() {
+    delegate.beginTransaction();
+  }
+
+  @Override
+  @Deprecated
+  @SuppressWarnings("deprecation")
+  public void sendOffsetsToTransaction(
+      final @NotNull Map<TopicPartition, OffsetAndMetadata> offsets,
+      final @NotNull String consumerGroupId) {
+    delegate.sendOffsetsToTransaction(offsets, consumerGroupId);
+  }
+
+  @Override
+  public void sendOffsetsToTransaction(
+      final @NotNull Map<TopicPartition, OffsetAndMetadata> offsets,
+      final @NotNull ConsumerGroupMetadata groupMetadata) {
+    delegate.sendOffsetsToTransaction(offsets, groupMetadata);
+  }
+
+  @Override
+  public void commitTransaction() {
+    delegate.commitTransaction();
+  }
+
+  @Override
+  public void abortTransaction() {
+    delegate.abortTransaction();
+  }
+
+  @Override
+  public void flush() {
+    delegate.flush();
+  }
+
+  @Override
+  public @NotNull List<PartitionInfo> partitionsFor(final @NotNull String topic) {
+    return delegate.partitionsFor(topic);
+  }
+
+  @Override
+  public @NotNull Map<MetricName, ? extends Metric> metrics() {
+    return delegate.metrics();
+  }
+
+  @Override
+  public @NotNull Uuid clientInstanceId(final @NotNull Duration timeout) {
+    return delegate.clientInstanceId(timeout);
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public void close(final @NotNull Duration timeout) {
+    delegate.close(timeout);
+  }
+
+  @Override
+  public boolean equals(final @Nullable Object other) {
+    return this == other || delegate.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public @NotNull String toString() {
+    return instrumentation.toString();
+  }
+}
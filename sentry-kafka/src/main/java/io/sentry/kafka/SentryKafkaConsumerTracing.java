@@ -4,6 +4,7 @@ import io.sentry.BaggageHeader;
 import io.sentry.DateUtils;
 import io.sentry.IScopes;
 import io.sentry.ISentryLifecycleToken;
+import io.sentry.ISpan;
 import io.sentry.ITransaction;
 import io.sentry.ScopesAdapter;
 import io.sentry.SentryLevel;
@@ -17,8 +18,13 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.header.Header;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -34,6 +40,14 @@ public final class SentryKafkaConsumerTracing {
   private static final @NotNull String DELIVERY_ATTEMPT_HEADER = "kafka_deliveryAttempt";
   private static final @NotNull String MESSAGE_ID_HEADER = "messaging.message.id";
 
+  /** The maximum number of records of a batch that get their own span. */
+  static final int MAX_RECORD_SPANS_PER_BATCH = 50;
+
+  static final @NotNull String PRODUCER_TRACE_ID_DATA = "messaging.message.trace_id";
+  static final @NotNull String PRODUCER_SPAN_ID_DATA = "messaging.message.span_id";
+  static final @NotNull String UNSAMPLED_COUNT_DATA = "messaging.batch.unsampled.message_count";
+  static final @NotNull String UNSAMPLED_DURATION_DATA = "messaging.batch.unsampled.duration";
+
   private final @NotNull IScopes scopes;
 
   SentryKafkaConsumerTracing(final @NotNull IScopes scopes) {
@@ -72,6 +86,41 @@ public final class SentryKafkaConsumerTracing {
     new SentryKafkaConsumerTracing(ScopesAdapter.getInstance()).withTracingImpl(record, runnable);
   }
 
+  /**
+   * Processes the records of a poll with a single Kafka consumer processing transaction for the
+   * whole batch.
+   *
+   * <p>Up to {@value #MAX_RECORD_SPANS_PER_BATCH} records spread over the batch get their own child
+   * span, which carries the record metadata and the trace and span id of the producer the record
+   * was sent from. The number of the other records and the total time spent processing them are
+   * recorded on the transaction.
+   *
+   * <p>Records are processed in order, processing stops at the first record the callback throws
+   * for.
+   *
+   * @param records the Kafka records returned by a poll
+   * @param processor the processing callback, called for every record
+   * @param <K> the Kafka record key type
+   * @param <V> the Kafka record value type
+   */
+  public static <K, V> void withBatchTracing(
+      final @NotNull ConsumerRecords<K, V> records, final @NotNull RecordProcessor<K, V> processor)
+      throws Exception {
+    new SentryKafkaConsumerTracing(ScopesAdapter.getInstance())
+        .withBatchTracingImpl(records, processor);
+  }
+
+  /**
+   * Processes a single Kafka record of a batch.
+   *
+   * @param <K> the Kafka record key type
+   * @param <V> the Kafka record value type
+   */
+  @FunctionalInterface
+  public interface RecordProcessor<K, V> {
+    void process(@NotNull ConsumerRecord<K, V> record) throws Exception;
+  }
+
   <K, V, U> U withTracingImpl(
       final @NotNull ConsumerRecord<K, V> record, final @NotNull Callable<U> callable)
       throws Exception {
@@ -124,6 +173,160 @@ public final class SentryKafkaConsumerTracing {
     }
   }
 
+  <K, V> void withBatchTracingImpl(
+      final @NotNull ConsumerRecords<K, V> records, final @NotNull RecordProcessor<K, V> processor)
+      throws Exception {
+    if (records.isEmpty() || !scopes.getOptions().isEnableQueueTracing() || isIgnored()) {
+      for (final @NotNull ConsumerRecord<K, V> record : records) {
+        processor.process(record);
+      }
+      return;
+    }
+
+    final @NotNull IScopes forkedScopes;
+    final @NotNull ISentryLifecycleToken lifecycleToken;
+    try {
+      forkedScopes = scopes.forkedRootScopes(CREATOR);
+      lifecycleToken = forkedScopes.makeCurrent();
+    } catch (Throwable t) {
+      scopes
+          .getOptions()
+          .getLogger()
+          .log(SentryLevel.ERROR, "Failed to fork scopes for Kafka consumer tracing.", t);
+      for (final @NotNull ConsumerRecord<K, V> record : records) {
+        processor.process(record);
+      }
+      return;
+    }
+
+    try (final @NotNull ISentryLifecycleToken ignored = lifecycleToken) {
+      final @Nullable ITransaction transaction = startBatchTransaction(forkedScopes, records);
+      if (transaction == null) {
+        for (final @NotNull ConsumerRecord<K, V> record : records) {
+          processor.process(record);
+        }
+        return;
+      }
+
+      // spread the record spans evenly over the batch
+      final int count = records.count();
+      final int stride = (count + MAX_RECORD_SPANS_PER_BATCH - 1) / MAX_RECORD_SPANS_PER_BATCH;
+      int index = 0;
+      int unsampledCount = 0;
+      long unsampledNanos = 0;
+      @Nullable Throwable callbackThrowable = null;
+
+      try {
+        for (final @NotNull ConsumerRecord<K, V> record : records) {
+          if (index++ % stride == 0) {
+            processRecordWithSpan(transaction, record, processor);
+          } else {
+            final long start = System.nanoTime();
+            try {
+              processor.process(record);
+            } finally {
+              unsampledNanos += System.nanoTime() - start;
+              unsampledCount++;
+            }
+          }
+        }
+      } catch (Throwable t) {
+        callbackThrowable = t;
+        throw t;
+      } finally {
+        try {
+          transaction.setData(UNSAMPLED_COUNT_DATA, unsampledCount);
+          transaction.setData(
+              UNSAMPLED_DURATION_DATA, (double) unsampledNanos / TimeUnit.MILLISECONDS.toNanos(1));
+        } catch (Throwable t) {
+          scopes
+              .getOptions()
+              .getLogger()
+              .log(SentryLevel.ERROR, "Failed to record Kafka consumer batch data.", t);
+        }
+        finishTransaction(
+            transaction,
+            callbackThrowable != null ? SpanStatus.INTERNAL_ERROR : SpanStatus.OK,
+            callbackThrowable);
+      }
+    }
+  }
+
+  private <K, V> void processRecordWithSpan(
+      final @NotNull ITransaction transaction,
+      final @NotNull ConsumerRecord<K, V> record,
+      final @NotNull RecordProcessor<K, V> processor)
+      throws Exception {
+    @Nullable ISpan span = null;
+    try {
+      span = transaction.startChild("queue.process", record.topic());
+      setRecordData(span, record);
+      final @Nullable String sentryTrace =
+          headerValue(record, SentryTraceHeader.SENTRY_TRACE_HEADER);
+      if (sentryTrace != null) {
+        final @NotNull SentryTraceHeader producerTrace = new SentryTraceHeader(sentryTrace);
+        span.setData(PRODUCER_TRACE_ID_DATA, producerTrace.getTraceId().toString());
+        span.setData(PRODUCER_SPAN_ID_DATA, producerTrace.getSpanId().toString());
+      }
+    } catch (Throwable t) {
+      scopes
+          .getOptions()
+          .getLogger()
+          .log(SentryLevel.DEBUG, "Failed to link Kafka record span to its producer.", t);
+    }
+
+    try {
+      processor.process(record);
+      if (span != null) {
+        span.finish(SpanStatus.OK);
+      }
+    } catch (Throwable t) {
+      if (span != null) {
+        span.setThrowable(t);
+        span.finish(SpanStatus.INTERNAL_ERROR);
+      }
+      throw t;
+    }
+  }
+
+  private <K, V> @Nullable ITransaction startBatchTransaction(
+      final @NotNull IScopes forkedScopes, final @NotNull ConsumerRecords<K, V> records) {
+    try {
+      if (!forkedScopes.getOptions().isTracingEnabled()) {
+        return null;
+      }
+
+      final @NotNull Set<String> topics = new TreeSet<>();
+      for (final @NotNull TopicPartition partition : records.partitions()) {
+        topics.add(partition.topic());
+      }
+      final @NotNull String name = String.join(",", topics);
+
+      // records of a batch are sent from many traces, so the batch starts its own trace
+      final @NotNull TransactionContext txContext = new TransactionContext(name, "queue.process");
+
+      final @NotNull TransactionOptions txOptions = new TransactionOptions();
+      txOptions.setOrigin(TRACE_ORIGIN);
+      txOptions.setBindToScope(true);
+
+      final @NotNull ITransaction transaction = forkedScopes.startTransaction(txContext, txOptions);
+      if (transaction.isNoOp()) {
+        return null;
+      }
+
+      transaction.setData(SpanDataConvention.MESSAGING_SYSTEM, "kafka");
+      transaction.setData(SpanDataConvention.MESSAGING_DESTINATION_NAME, name);
+      transaction.setData(SpanDataConvention.MESSAGING_BATCH_MESSAGE_COUNT, records.count());
+      return transaction;
+    } catch (Throwable t) {
+      scopes
+          .getOptions()
+          .getLogger()
+          .log(SentryLevel.ERROR, "Failed to start Kafka consumer tracing transaction.", t);
+      return null;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private static <T extends Throwable> void throwUnchecked(final @NotNull Throwable throwable)
       throws T {
@@ -156,29 +359,7 @@ public final class SentryKafkaConsumerTracing {
         return null;
       }
 
-      transaction.setData(SpanDataConvention.MESSAGING_SYSTEM, "kafka");
-      transaction.setData(SpanDataConvention.MESSAGING_DESTINATION_NAME, record.topic());
-
-      final @Nullable String messageId = headerValue(record, MESSAGE_ID_HEADER);
-      if (messageId != null) {
-        transaction.setData(SpanDataConvention.MESSAGING_MESSAGE_ID, messageId);
-      }
-
-      final int bodySize = record.serializedValueSize();
-      if (bodySize >= 0) {
-        transaction.setData(SpanDataConvention.MESSAGING_MESSAGE_BODY_SIZE, bodySize);
-      }
-
-      final @Nullable Integer retryCount = retryCount(record);
-      if (retryCount != null) {
-        transaction.setData(SpanDataConvention.MESSAGING_MESSAGE_RETRY_COUNT, retryCount);
-      }
-
-      final @Nullable Long receiveLatency = receiveLatency(record);
-      if (receiveLatency != null) {
-        transaction.setData(SpanDataConvention.MESSAGING_MESSAGE_RECEIVE_LATENCY, receiveLatency);
-      }
-
+      setRecordData(transaction, record);
       return transaction;
     } catch (Throwable t) {
       scopes
@@ -189,6 +370,32 @@ public final class SentryKafkaConsumerTracing {
     }
   }
 
+  private <K, V> void setRecordData(
+      final @NotNull ISpan span, final @NotNull ConsumerRecord<K, V> record) {
+    span.setData(SpanDataConvention.MESSAGING_SYSTEM, "kafka");
+    span.setData(SpanDataConvention.MESSAGING_DESTINATION_NAME, record.topic());
+
+    final @Nullable String messageId = headerValue(record, MESSAGE_ID_HEADER);
+    if (messageId != null) {
+      span.setData(SpanDataConvention.MESSAGING_MESSAGE_ID, messageId);
+    }
+
+    final int bodySize = record.serializedValueSize();
+    if (bodySize >= 0) {
+      span.setData(SpanDataConvention.MESSAGING_MESSAGE_BODY_SIZE, bodySize);
+    }
+
+    final @Nullable Integer retryCount = retryCount(record);
+    if (retryCount != null) {
+      span.setData(SpanDataConvention.MESSAGING_MESSAGE_RETRY_COUNT, retryCount);
+    }
+
+    final @Nullable Long receiveLatency = receiveLatency(record);
+    if (receiveLatency != null) {
+      span.setData(SpanDataConvention.MESSAGING_MESSAGE_RECEIVE_LATENCY, receiveLatency);
+    }
+  }
+
   private void finishTransaction(
       final @Nullable ITransaction transaction,
       final @NotNull SpanStatus status,
@@ -4,6 +4,7 @@ import io.sentry.BaggageHeader;
 import io.sentry.DateUtils;
 import io.sentry.IScopes;
 import io.sentry.ISpan;
+import io.sentry.NonRecordingSpan;
 import io.sentry.ScopesAdapter;
 import io.sentry.SentryLevel;
 import io.sentry.SentryTraceHeader;
@@ -15,13 +16,16 @@ import io.sentry.util.TracingUtils;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.jetbrains.annotations.ApiStatus;
@@ -41,6 +45,10 @@ import org.jetbrains.annotations.Nullable;
  *
  * <p>For Spring Kafka, the {@code SentryKafkaProducerBeanPostProcessor} installs this wrapper
  * automatically.
+ *
+ * <p>The wrapper is a plain delegating {@link Producer}. If the {@link Producer} interface of the
+ * {@code kafka-clients} version on the classpath has methods the wrapper doesn't implement, a
+ * {@link Proxy} based wrapper is used instead.
  */
 @ApiStatus.Experimental
 public final class SentryKafkaProducer {
@@ -48,6 +56,8 @@ public final class SentryKafkaProducer {
   public static final @NotNull String TRACE_ORIGIN = "auto.queue.kafka.producer";
   public static final @NotNull String SENTRY_ENQUEUED_TIME_HEADER = "sentry-task-enqueued-time";
 
+  private static volatile @Nullable Boolean canDelegateDirectly = null;
+
   private SentryKafkaProducer() {}
 
   /**
@@ -86,31 +96,67 @@ public final class SentryKafkaProducer {
    * @param <K> the Kafka record key type
    * @param <V> the Kafka record value type
    */
-  @SuppressWarnings("unchecked")
   public static <K, V> @NotNull Producer<K, V> wrap(
       final @NotNull Producer<K, V> delegate,
       final @NotNull IScopes scopes,
       final @NotNull String traceOrigin) {
+    final @NotNull ProducerInstrumentation<K, V> instrumentation =
+        new ProducerInstrumentation<>(delegate, scopes, traceOrigin);
+    if (canDelegateDirectly()) {
+      return new DelegatingSentryProducer<>(instrumentation);
+    }
+    return wrapWithProxy(instrumentation);
+  }
+
+  /**
+   * Checks once whether {@link DelegatingSentryProducer} implements every abstract method of the
+   * {@link Producer} interface on the classpath, which differs between {@code kafka-clients}
+   * versions.
+   */
+  static boolean canDelegateDirectly() {
+    @Nullable Boolean canDelegate = canDelegateDirectly;
+    if (canDelegate == null) {
+      canDelegate = implementsProducer(DelegatingSentryProducer.class);
+      canDelegateDirectly = canDelegate;
+    }
+    return canDelegate;
+  }
+
+  static boolean implementsProducer(final @NotNull Class<?> producerClass) {
+    try {
+      for (final @NotNull Method method : Producer.class.getMethods()) {
+        if (!Modifier.isAbstract(method.getModifiers())) {
+          continue;
+        }
+        final @NotNull Method implementation =
+            producerClass.getMethod(method.getName(), method.getParameterTypes());
+        if (Modifier.isAbstract(implementation.getModifiers())) {
+          return false;
+        }
+      }
+      return true;
+    } catch (Throwable t) {
+      // a method is missing, or refers to a class missing in this kafka-clients version
+      return false;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  static <K, V> @NotNull Producer<K, V> wrapWithProxy(
+      final @NotNull ProducerInstrumentation<K, V> instrumentation) {
     return (Producer<K, V>)
         Proxy.newProxyInstance(
-            delegate.getClass().getClassLoader(),
+            instrumentation.delegate.getClass().getClassLoader(),
             new Class<?>[] {Producer.class},
-            new SentryProducerHandler<>(delegate, scopes, traceOrigin));
+            new SentryProducerHandler<>(instrumentation));
   }
 
   static final class SentryProducerHandler<K, V> implements InvocationHandler {
 
-    final @NotNull Producer<K, V> delegate;
-    private final @NotNull IScopes scopes;
-    private final @NotNull String traceOrigin;
+    private final @NotNull ProducerInstrumentation<K, V> instrumentation;
 
-    SentryProducerHandler(
-        final @NotNull Producer<K, V> delegate,
-        final @NotNull IScopes scopes,
-        final @NotNull String traceOrigin) {
-      this.delegate = delegate;
-      this.scopes = scopes;
-      this.traceOrigin = traceOrigin;
+    SentryProducerHandler(final @NotNull ProducerInstrumentation<K, V> instrumentation) {
+      this.instrumentation = instrumentation;
     }
 
     @Override
@@ -120,9 +166,9 @@ public final class SentryKafkaProducer {
         throws Throwable {
       if ("send".equals(method.getName()) && args != null) {
         if (args.length == 1) {
-          return instrumentedSend((ProducerRecord<K, V>) args[0], null);
+          return instrumentation.send((ProducerRecord<K, V>) args[0], null);
         } else if (args.length == 2) {
-          return instrumentedSend((ProducerRecord<K, V>) args[0], (Callback) args[1]);
+          return instrumentation.send((ProducerRecord<K, V>) args[0], (Callback) args[1]);
         }
       }
 
@@ -134,18 +180,40 @@ public final class SentryKafkaProducer {
       }
 
       if ("toString".equals(method.getName()) && (args == null || args.length == 0)) {
-        return "SentryKafkaProducer[delegate=" + delegate + "]";
+        return instrumentation.toString();
       }
 
       try {
-        return method.invoke(delegate, args);
+        return method.invoke(instrumentation.delegate, args);
       } catch (InvocationTargetException e) {
         throw e.getCause();
       }
     }
+  }
 
-    @SuppressWarnings("unchecked")
-    private @NotNull Object instrumentedSend(
+  /** Records the {@code queue.publish} spans and injects the headers for a wrapped producer. */
+  static final class ProducerInstrumentation<K, V> {
+
+    final @NotNull Producer<K, V> delegate;
+    private final @NotNull IScopes scopes;
+    private final @NotNull String traceOrigin;
+
+    // the last serialized header values, which are the same for all records sent while the
+    // baggage or the propagation context doesn't change
+    private volatile @Nullable SerializedHeader lastSentryTrace = null;
+    private volatile @Nullable SerializedHeader lastBaggage = null;
+
+    ProducerInstrumentation(
+        final @NotNull Producer<K, V> delegate,
+        final @NotNull IScopes scopes,
+        final @NotNull String traceOrigin) {
+      this.delegate = delegate;
+      this.scopes = scopes;
+      this.traceOrigin = traceOrigin;
+    }
+
+    @NotNull
+    Future<RecordMetadata> send(
         final @NotNull ProducerRecord<K, V> record, final @Nullable Callback callback) {
       if (!scopes.getOptions().isEnableQueueTracing() || isIgnored()) {
         return delegate.send(record, callback);
@@ -153,7 +221,10 @@ public final class SentryKafkaProducer {
 
       final @Nullable ISpan activeSpan = scopes.getSpan();
       if (activeSpan == null || activeSpan.isNoOp()) {
-        maybeInjectHeaders(record.headers(), null);
+        // children of unsampled transactions still propagate the transaction's trace and sampling
+        // decision instead of the propagation context
+        maybeInjectHeaders(
+            record.headers(), NonRecordingSpan.isNonRecording(activeSpan) ? activeSpan : null);
         return delegate.send(record, callback);
       }
 
@@ -220,16 +291,19 @@ public final class SentryKafkaProducer {
         if (tracingHeaders != null) {
           final @NotNull SentryTraceHeader sentryTraceHeader =
               tracingHeaders.getSentryTraceHeader();
+          final @NotNull SerializedHeader sentryTrace =
+              SerializedHeader.of(lastSentryTrace, sentryTraceHeader.getValue());
+          lastSentryTrace = sentryTrace;
           headers.remove(sentryTraceHeader.getName());
-          headers.add(
-              sentryTraceHeader.getName(),
-              sentryTraceHeader.getValue().getBytes(StandardCharsets.UTF_8));
+          headers.add(sentryTraceHeader.getName(), sentryTrace.bytes);
 
           final @Nullable BaggageHeader baggageHeader = tracingHeaders.getBaggageHeader();
           if (baggageHeader != null) {
+            final @NotNull SerializedHeader baggage =
+                SerializedHeader.of(lastBaggage, baggageHeader.getValue());
+            lastBaggage = baggage;
             headers.remove(baggageHeader.getName());
-            headers.add(
-                baggageHeader.getName(), baggageHeader.getValue().getBytes(StandardCharsets.UTF_8));
+            headers.add(baggageHeader.getName(), baggage.bytes);
           }
         }
 
@@ -261,5 +335,29 @@ public final class SentryKafkaProducer {
       }
       return values;
     }
+
+    @Override
+    public @NotNull String toString() {
+      return "SentryKafkaProducer[delegate=" + delegate + "]";
+    }
+  }
+
+  /** A header value with its UTF-8 bytes, shared by the records sent with the same value. */
+  static final class SerializedHeader {
+    final @NotNull String value;
+    final byte @NotNull [] bytes;
+
+    private SerializedHeader(final @NotNull String value) {
+      this.value = value;
+      this.bytes = value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static @NotNull SerializedHeader of(
+        final @Nullable SerializedHeader last, final @NotNull String value) {
+      if (last != null && last.value.equals(value)) {
+        return last;
+      }
+      return new SerializedHeader(value);
+    }
   }
 }
@@ -3,6 +3,7 @@ package io.sentry.kafka
 import io.sentry.BaggageHeader
 import io.sentry.IScopes
 import io.sentry.ISentryLifecycleToken
+import io.sentry.ISpan
 import io.sentry.ITransaction
 import io.sentry.SentryOptions
 import io.sentry.SentryTraceHeader
@@ -22,6 +23,8 @@ import kotlin.test.assertEquals
 import kotlin.test.assertFailsWith
 import kotlin.test.assertTrue
 import org.apache.kafka.clients.consumer.ConsumerRecord
+import org.apache.kafka.clients.consumer.ConsumerRecords
+import org.apache.kafka.common.TopicPartition
 import org.apache.kafka.common.header.internals.RecordHeaders
 import org.apache.kafka.common.record.TimestampType
 import org.mockito.kotlin.any
@@ -30,6 +33,7 @@ import org.mockito.kotlin.check
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
@@ -40,6 +44,7 @@ class SentryKafkaConsumerTracingTest {
   private lateinit var options: SentryOptions
   private lateinit var lifecycleToken: ISentryLifecycleToken
   private lateinit var transaction: ITransaction
+  private lateinit var span: ISpan
   private lateinit var tracing: SentryKafkaConsumerTracing
 
   @BeforeTest
@@ -48,6 +53,7 @@ class SentryKafkaConsumerTracingTest {
     forkedScopes = mock()
     lifecycleToken = mock()
     transaction = mock()
+    span = mock()
     tracing = SentryKafkaConsumerTracing(scopes)
 
     options =
@@ -64,6 +70,7 @@ class SentryKafkaConsumerTracingTest {
     whenever(forkedScopes.startTransaction(any<TransactionContext>(), any<TransactionOptions>()))
       .thenReturn(transaction)
     whenever(transaction.isNoOp).thenReturn(false)
+    whenever(transaction.startChild(any<String>(), any<String>())).thenReturn(span)
   }
 
   @Test
@@ -204,6 +211,123 @@ class SentryKafkaConsumerTracingTest {
     verify(transaction).finish()
   }
 
+  @Test
+  fun `withBatchTracing creates a single transaction for the batch with record spans`() {
+    val sentryTraceValue = "2722d9f6ec019ade60c776169d9a8904-cedf5b7571cb4972-1"
+    val records =
+      createRecords(
+        createRecord(topic = "topic-b", sentryTrace = sentryTraceValue, messageId = "message-1"),
+        createRecord(topic = "topic-a"),
+        createRecord(topic = "topic-a"),
+      )
+    val processed = mutableListOf<ConsumerRecord<String, String>>()
+
+    val txContextCaptor = argumentCaptor<TransactionContext>()
+    val txOptionsCaptor = argumentCaptor<TransactionOptions>()
+
+    tracing.withBatchTracingImpl(records) { processed.add(it) }
+
+    assertEquals(records.toList(), processed)
+    verify(scopes).forkedRootScopes("SentryKafkaConsumerTracing")
+    verify(forkedScopes, never()).continueTrace(any(), any())
+    verify(forkedScopes).startTransaction(txContextCaptor.capture(), txOptionsCaptor.capture())
+    assertEquals("topic-a,topic-b", txContextCaptor.firstValue.name)
+    assertEquals("queue.process", txContextCaptor.firstValue.operation)
+    assertEquals(SentryKafkaConsumerTracing.TRACE_ORIGIN, txOptionsCaptor.firstValue.origin)
+
+    verify(transaction).setData(SpanDataConvention.MESSAGING_SYSTEM, "kafka")
+    verify(transaction).setData(SpanDataConvention.MESSAGING_BATCH_MESSAGE_COUNT, 3)
+    verify(transaction).setData(SentryKafkaConsumerTracing.UNSAMPLED_COUNT_DATA, 0)
+
+    verify(transaction).startChild("queue.process", "topic-b")
+    verify(transaction, times(2)).startChild("queue.process", "topic-a")
+    verify(span).setData(SpanDataConvention.MESSAGING_MESSAGE_ID, "message-1")
+    verify(span)
+      .setData(
+        SentryKafkaConsumerTracing.PRODUCER_TRACE_ID_DATA,
+        "2722d9f6ec019ade60c776169d9a8904",
+      )
+    verify(span).setData(SentryKafkaConsumerTracing.PRODUCER_SPAN_ID_DATA, "cedf5b7571cb4972")
+    verify(span, times(3)).finish(SpanStatus.OK)
+
+    verify(transaction).setStatus(SpanStatus.OK)
+    verify(transaction).finish()
+    verify(lifecycleToken).close()
+  }
+
+  @Test
+  fun `withBatchTracing samples record spans and aggregates the other records`() {
+    val batchSize = SentryKafkaConsumerTracing.MAX_RECORD_SPANS_PER_BATCH * 3
+    val records = createRecords(*Array(batchSize) { createRecord() })
+    var processed = 0
+
+    tracing.withBatchTracingImpl(records) { processed++ }
+
+    assertEquals(batchSize, processed)
+    verify(transaction, times(SentryKafkaConsumerTracing.MAX_RECORD_SPANS_PER_BATCH))
+      .startChild("queue.process", "my-topic")
+    verify(transaction).setData(SpanDataConvention.MESSAGING_BATCH_MESSAGE_COUNT, batchSize)
+    verify(transaction)
+      .setData(
+        SentryKafkaConsumerTracing.UNSAMPLED_COUNT_DATA,
+        SentryKafkaConsumerTracing.MAX_RECORD_SPANS_PER_BATCH * 2,
+      )
+    verify(transaction)
+      .setData(
+        eq(SentryKafkaConsumerTracing.UNSAMPLED_DURATION_DATA),
+        check<Double> { assertTrue(it >= 0) },
+      )
+    verify(transaction).finish()
+  }
+
+  @Test
+  fun `withBatchTracing marks transaction and span as error and stops when a record throws`() {
+    val records = createRecords(createRecord(), createRecord())
+    val exception = IOException("boom")
+    var processed = 0
+
+    val thrown =
+      assertFailsWith<IOException> {
+        tracing.withBatchTracingImpl(records) {
+          processed++
+          throw exception
+        }
+      }
+
+    assertEquals(exception, thrown)
+    assertEquals(1, processed)
+    verify(span).setThrowable(exception)
+    verify(span).finish(SpanStatus.INTERNAL_ERROR)
+    verify(transaction).setStatus(SpanStatus.INTERNAL_ERROR)
+    verify(transaction).setThrowable(exception)
+    verify(transaction).finish()
+    verify(lifecycleToken).close()
+  }
+
+  @Test
+  fun `withBatchTracing processes records without tracing when queue tracing is disabled`() {
+    options.isEnableQueueTracing = false
+    val records = createRecords(createRecord(), createRecord())
+    var processed = 0
+
+    tracing.withBatchTracingImpl(records) { processed++ }
+
+    assertEquals(2, processed)
+    verify(scopes, never()).forkedRootScopes(any<String>())
+  }
+
+  @Test
+  fun `withBatchTracing skips empty batches`() {
+    tracing.withBatchTracingImpl(createRecords()) {}
+
+    verify(scopes, never()).forkedRootScopes(any<String>())
+  }
+
+  private fun createRecords(
+    vararg records: ConsumerRecord<String, String>
+  ): ConsumerRecords<String, String> =
+    ConsumerRecords(records.groupBy { TopicPartition(it.topic(), it.partition()) })
+
   private fun createRecord(
     topic: String = "my-topic",
     sentryTrace: String? = null,
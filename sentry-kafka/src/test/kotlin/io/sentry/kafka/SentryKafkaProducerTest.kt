@@ -13,15 +13,19 @@ import io.sentry.SentryTraceHeader
 import io.sentry.SentryTracer
 import io.sentry.SpanOptions
 import io.sentry.SpanStatus
+import io.sentry.TracesSamplingDecision
 import io.sentry.TransactionContext
 import io.sentry.test.initForTest
+import java.lang.reflect.Proxy
 import java.nio.charset.StandardCharsets
+import java.time.Duration
 import java.util.concurrent.CompletableFuture
 import kotlin.test.AfterTest
 import kotlin.test.BeforeTest
 import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
+import kotlin.test.assertIs
 import kotlin.test.assertNotNull
 import kotlin.test.assertSame
 import kotlin.test.assertTrue
@@ -242,6 +246,28 @@ class SentryKafkaProducerTest {
     assertNotNull(record.headers().lastHeader(SentryKafkaProducer.SENTRY_ENQUEUED_TIME_HEADER))
   }
 
+  @Test
+  fun `propagates trace and sampling decision of an unsampled transaction`() {
+    val tx = SentryTracer(TransactionContext("tx", "op", TracesSamplingDecision(false)), scopes)
+    whenever(scopes.span).thenReturn(tx.latestActiveSpan)
+    val producer = SentryKafkaProducer.wrap(delegate, scopes)
+    val record = ProducerRecord<String, String>("my-topic", "key", "value")
+
+    producer.send(record)
+
+    verify(delegate).send(eq(record), isNull())
+    assertTrue(tx.spans.isEmpty())
+    val sentryTraceHeader =
+      SentryTraceHeader(
+        String(
+          record.headers().lastHeader(SentryTraceHeader.SENTRY_TRACE_HEADER).value(),
+          StandardCharsets.UTF_8,
+        )
+      )
+    assertEquals(tx.spanContext.traceId, sentryTraceHeader.traceId)
+    assertEquals(false, sentryTraceHeader.isSampled)
+  }
+
   @Test
   fun `preserves pre-existing third-party baggage header entries`() {
     createTransaction()
@@ -367,6 +393,85 @@ class SentryKafkaProducerTest {
     assertTrue(producer.toString().startsWith("SentryKafkaProducer[delegate="))
   }
 
+  @Test
+  fun `wrap returns a delegating producer instead of a proxy`() {
+    val producer = SentryKafkaProducer.wrap(delegate, scopes)
+
+    assertTrue(SentryKafkaProducer.canDelegateDirectly())
+    assertIs<DelegatingSentryProducer<String, String>>(producer)
+    assertFalse(Proxy.isProxyClass(producer.javaClass))
+  }
+
+  @Test
+  fun `delegates transactional methods to underlying producer`() {
+    val producer = SentryKafkaProducer.wrap(delegate, scopes)
+
+    producer.initTransactions()
+    producer.beginTransaction()
+    producer.commitTransaction()
+    producer.abortTransaction()
+    producer.close(Duration.ofSeconds(1))
+
+    verify(delegate).initTransactions()
+    verify(delegate).beginTransaction()
+    verify(delegate).commitTransaction()
+    verify(delegate).abortTransaction()
+    verify(delegate).close(Duration.ofSeconds(1))
+  }
+
+  @Test
+  fun `proxy based wrapper creates queue publish span and delegates other methods`() {
+    val tx = createTransaction()
+    val producer =
+      SentryKafkaProducer.wrapWithProxy(
+        SentryKafkaProducer.ProducerInstrumentation(
+          delegate,
+          scopes,
+          SentryKafkaProducer.TRACE_ORIGIN,
+        )
+      )
+    val record = ProducerRecord<String, String>("my-topic", "key", "value")
+
+    producer.send(record)
+    producer.flush()
+
+    assertTrue(Proxy.isProxyClass(producer.javaClass))
+    assertEquals("queue.publish", tx.spans.first().operation)
+    assertNotNull(record.headers().lastHeader(SentryTraceHeader.SENTRY_TRACE_HEADER))
+    verify(delegate).send(eq(record), any<Callback>())
+    verify(delegate).flush()
+    assertTrue(producer.toString().startsWith("SentryKafkaProducer[delegate="))
+  }
+
+  @Test
+  fun `only classes implementing all producer methods can be used directly`() {
+    assertTrue(SentryKafkaProducer.implementsProducer(DelegatingSentryProducer::class.java))
+    assertFalse(SentryKafkaProducer.implementsProducer(Any::class.java))
+  }
+
+  @Test
+  fun `reuses the serialized baggage header while it is unchanged`() {
+    createTransaction()
+    val producer = SentryKafkaProducer.wrap(delegate, scopes)
+    val first = ProducerRecord<String, String>("my-topic", "key", "value")
+    val second = ProducerRecord<String, String>("my-topic", "key", "value")
+
+    producer.send(first)
+    producer.send(second)
+
+    val firstBaggage = first.headers().lastHeader(BaggageHeader.BAGGAGE_HEADER)
+    val secondBaggage = second.headers().lastHeader(BaggageHeader.BAGGAGE_HEADER)
+    assertSame(firstBaggage.value(), secondBaggage.value())
+    // every send has its own span, so its own sentry-trace header
+    assertFalse(
+      first
+        .headers()
+        .lastHeader(SentryTraceHeader.SENTRY_TRACE_HEADER)
+        .value()
+        .contentEquals(second.headers().lastHeader(SentryTraceHeader.SENTRY_TRACE_HEADER).value())
+    )
+  }
+
   private fun createTransaction(): SentryTracer {
     val tx = SentryTracer(TransactionContext("tx", "op"), scopes)
     whenever(scopes.span).thenReturn(tx)
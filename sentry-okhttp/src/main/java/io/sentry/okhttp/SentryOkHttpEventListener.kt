@@ -39,6 +39,9 @@ import okhttp3.Response
  *     .addInterceptor(SentryOkHttpInterceptor())
  *     .build()
  * ```
+ *
+ * To keep the state of each call in its own listener, instead of looking it up in a map shared by
+ * all calls on every event, use [SentryOkHttpEventListenerFactory].
  */
 @Suppress("TooManyFunctions")
 public open class SentryOkHttpEventListener(
@@ -47,6 +50,13 @@ public open class SentryOkHttpEventListener(
 ) : EventListener() {
   private var originalEventListener: EventListener? = null
 
+  /**
+   * Set for listeners created by [SentryOkHttpEventListenerFactory], which are used for a single
+   * call and keep its event in [callEvent].
+   */
+  internal var isPerCall: Boolean = false
+  @Volatile private var callEvent: SentryOkHttpEvent? = null
+
   public companion object {
     internal const val PROXY_SELECT_EVENT = "http.client.proxy_select_ms"
     internal const val DNS_EVENT = "http.client.resolve_dns_ms"
@@ -90,7 +100,12 @@ public open class SentryOkHttpEventListener(
     // If the wrapped EventListener is ours, we can just delegate the calls,
     // without creating other events that would create duplicates
     if (canCreateEventSpan()) {
-      eventMap[call] = SentryOkHttpEvent(scopes, call.request())
+      val okHttpEvent = SentryOkHttpEvent(scopes, call.request())
+      if (isPerCall) {
+        callEvent = okHttpEvent
+      }
+      // SentryOkHttpInterceptor looks the event up by its call
+      eventMap[call] = okHttpEvent
     }
   }
 
@@ -99,7 +114,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventStart(PROXY_SELECT_EVENT)
   }
 
@@ -108,7 +123,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventFinish(PROXY_SELECT_EVENT) {
       if (proxies.isNotEmpty()) {
         it.setData("proxies", proxies.joinToString { proxy -> proxy.toString() })
@@ -121,7 +136,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventStart(DNS_EVENT)
   }
 
@@ -130,7 +145,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventFinish(DNS_EVENT) {
       it.setData("domain_name", domainName)
       if (inetAddressList.isNotEmpty()) {
@@ -144,7 +159,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventStart(CONNECT_EVENT)
   }
 
@@ -153,7 +168,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventStart(SECURE_CONNECT_EVENT)
   }
 
@@ -162,7 +177,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventFinish(SECURE_CONNECT_EVENT)
   }
 
@@ -176,7 +191,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.setProtocol(protocol?.name)
     okHttpEvent.onEventFinish(CONNECT_EVENT)
   }
@@ -192,7 +207,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.setProtocol(protocol?.name)
     okHttpEvent.setError(ioe.message)
     okHttpEvent.onEventFinish(CONNECT_EVENT) {
@@ -206,7 +221,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventStart(CONNECTION_EVENT)
   }
 
@@ -215,7 +230,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventFinish(CONNECTION_EVENT)
   }
 
@@ -224,7 +239,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventStart(REQUEST_HEADERS_EVENT)
   }
 
@@ -233,7 +248,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventFinish(REQUEST_HEADERS_EVENT)
   }
 
@@ -242,7 +257,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventStart(REQUEST_BODY_EVENT)
   }
 
@@ -251,7 +266,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventFinish(REQUEST_BODY_EVENT) {
       if (byteCount > 0) {
         it.setData("http.request_content_length", byteCount)
@@ -265,7 +280,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.setError(ioe.message)
     // requestFailed can happen after requestHeaders or requestBody.
     // If requestHeaders already finished, we don't change its status.
@@ -286,7 +301,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventStart(RESPONSE_HEADERS_EVENT)
   }
 
@@ -295,7 +310,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.setResponse(response)
     okHttpEvent.onEventFinish(RESPONSE_HEADERS_EVENT) {
       it.setData(SpanDataConvention.HTTP_STATUS_CODE_KEY, response.code)
@@ -311,7 +326,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.onEventStart(RESPONSE_BODY_EVENT)
   }
 
@@ -320,7 +335,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.setResponseBodySize(byteCount)
     okHttpEvent.onEventFinish(RESPONSE_BODY_EVENT) {
       if (byteCount > 0) {
@@ -334,7 +349,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap[call] ?: return
+    val okHttpEvent: SentryOkHttpEvent = event(call) ?: return
     okHttpEvent.setError(ioe.message)
     // responseFailed can happen after responseHeaders or responseBody.
     // If responseHeaders already finished, we don't change its status.
@@ -352,7 +367,7 @@ public open class SentryOkHttpEventListener(
 
   override fun callEnd(call: Call) {
     originalEventListener?.callEnd(call)
-    val okHttpEvent: SentryOkHttpEvent = eventMap.remove(call) ?: return
+    val okHttpEvent: SentryOkHttpEvent = removeEvent(call) ?: return
     okHttpEvent.finish()
   }
 
@@ -361,7 +376,7 @@ public open class SentryOkHttpEventListener(
     if (!canCreateEventSpan()) {
       return
     }
-    val okHttpEvent: SentryOkHttpEvent = eventMap.remove(call) ?: return
+    val okHttpEvent: SentryOkHttpEvent = removeEvent(call) ?: return
     okHttpEvent.setError(ioe.message)
     okHttpEvent.finish {
       it.status = SpanStatus.INTERNAL_ERROR
@@ -389,6 +404,18 @@ public open class SentryOkHttpEventListener(
     originalEventListener?.cacheConditionalHit(call, cachedResponse)
   }
 
+  private fun event(call: Call): SentryOkHttpEvent? = if (isPerCall) callEvent else eventMap[call]
+
+  private fun removeEvent(call: Call): SentryOkHttpEvent? {
+    val okHttpEvent = eventMap.remove(call)
+    if (!isPerCall) {
+      return okHttpEvent
+    }
+    val perCallEvent = callEvent
+    callEvent = null
+    return perCallEvent
+  }
+
   private fun canCreateEventSpan(): Boolean {
     // If the wrapped EventListener is ours, we shouldn't create spans, as the originalEventListener
     // already did it
@@ -0,0 +1,51 @@
+package io.sentry.okhttp
+
+import io.sentry.IScopes
+import io.sentry.ScopesAdapter
+import okhttp3.Call
+import okhttp3.EventListener
+
+/**
+ * Creates a [SentryOkHttpEventListener] for each call, which keeps the state of its call instead of
+ * looking it up in a map shared by all calls on every event.
+ *
+ * Usage - add an instance of [SentryOkHttpEventListenerFactory] in
+ * [okhttp3.OkHttpClient.Builder.eventListenerFactory]
+ *
+ * ```
+ * val client = OkHttpClient.Builder()
+ *     .eventListenerFactory(SentryOkHttpEventListenerFactory())
+ *     .addInterceptor(SentryOkHttpInterceptor())
+ *     .build()
+ * ```
+ *
+ * If you already use a [okhttp3.EventListener.Factory], you can pass it in the constructor.
+ *
+ * ```
+ * val client = OkHttpClient.Builder()
+ *     .eventListenerFactory(SentryOkHttpEventListenerFactory(myEventListenerFactory))
+ *     .addInterceptor(SentryOkHttpInterceptor())
+ *     .build()
+ * ```
+ */
+public class SentryOkHttpEventListenerFactory(
+  private val scopes: IScopes = ScopesAdapter.getInstance(),
+  private val originalEventListenerFactory: EventListener.Factory? = null,
+) : EventListener.Factory {
+
+  public constructor(
+    originalEventListenerFactory: EventListener.Factory
+  ) : this(ScopesAdapter.getInstance(), originalEventListenerFactory)
+
+  override fun create(call: Call): EventListener {
+    val originalFactory = originalEventListenerFactory
+    val listener =
+      if (originalFactory != null) {
+        SentryOkHttpEventListener(scopes, originalFactory)
+      } else {
+        SentryOkHttpEventListener(scopes)
+      }
+    listener.isPerCall = true
+    return listener
+  }
+}
@@ -56,6 +56,7 @@ class SentryOkHttpEventListenerTest {
       configureOptions: (options: SentryOptions) -> Unit = {},
       eventListener: EventListener? = null,
       eventListenerFactory: EventListener.Factory? = null,
+      usePerCallListeners: Boolean = false,
     ): OkHttpClient {
       options =
         SentryOptions().apply {
@@ -82,6 +83,11 @@ class SentryOkHttpEventListenerTest {
       if (useInterceptor) {
         builder.addInterceptor(SentryOkHttpInterceptor(scopes))
       }
+      if (usePerCallListeners) {
+        return builder
+          .eventListenerFactory(SentryOkHttpEventListenerFactory(scopes, eventListenerFactory))
+          .build()
+      }
       sentryOkHttpEventListener =
         when {
           eventListenerFactory != null -> SentryOkHttpEventListener(scopes, eventListenerFactory)
@@ -219,6 +225,54 @@ class SentryOkHttpEventListenerTest {
     assertEquals(SpanStatus.fromHttpStatusCode(404), callSpan.status)
   }
 
+  @Test
+  fun `per call listeners add a data for each event and remove the call once it ends`() {
+    val sut = fixture.getSut(usePerCallListeners = true)
+    val request = getRequest()
+    val call = sut.newCall(request)
+    val response = call.execute()
+    val okHttpEvent = SentryOkHttpEventListener.eventMap[call]
+    val callSpan = okHttpEvent?.callSpan
+    response.close()
+    assertEquals(1, fixture.sentryTracer.children.size)
+    assertNotNull(callSpan)
+    assertEquals("GET ${request.url}", callSpan.description)
+    assertEquals(201, callSpan.getData(SpanDataConvention.HTTP_STATUS_CODE_KEY))
+    assertNotNull(callSpan.getData("http.client.resolve_dns_ms"))
+    assertNotNull(callSpan.getData("http.connect_ms"))
+    assertNotNull(callSpan.getData("http.connection.response_headers_ms"))
+    assertNotNull(callSpan.getData("http.connection.response_body_ms"))
+    assertTrue(callSpan.isFinished)
+    assertNull(SentryOkHttpEventListener.eventMap[call])
+  }
+
+  @Test
+  fun `per call listeners share the call span with the SentryOkHttpInterceptor`() {
+    val sut = fixture.getSut(useInterceptor = true, usePerCallListeners = true)
+    sut.newCall(getRequest()).execute().close()
+    val recorderRequest =
+      fixture.server.takeRequest(mockServerRequestTimeoutMillis, TimeUnit.MILLISECONDS)!!
+    assertNotNull(recorderRequest.headers[SentryTraceHeader.SENTRY_TRACE_HEADER])
+    assertEquals(1, fixture.sentryTracer.children.size)
+  }
+
+  @Test
+  fun `factory creates a listener for each call`() {
+    val factory = SentryOkHttpEventListenerFactory(fixture.scopes, fixture.mockEventListenerFactory)
+    val client = OkHttpClient()
+    val call = client.newCall(getRequest())
+
+    val first = factory.create(call)
+    val second = factory.create(call)
+
+    assertTrue(first is SentryOkHttpEventListener && first.isPerCall)
+    assertTrue(second is SentryOkHttpEventListener && second.isPerCall)
+    assertTrue(first !== second)
+    first.callStart(call)
+    verify(fixture.mockEventListenerFactory).create(call)
+    verify(fixture.mockEventListener).callStart(call)
+  }
+
   @Test
   fun `propagate all calls to the event listener passed in the ctor`() {
     val sut = fixture.getSut(eventListener = fixture.mockEventListener)
@@ -19,14 +19,15 @@ public final class SentryReactorThreadLocalAccessor implements ThreadLocalAccess
     return Sentry.getCurrentScopes(false);
   }
 
+  // Called on every thread hop of a pipeline, restoring the previous scopes is left to Reactor.
   @Override
   public void setValue(IScopes value) {
-    Sentry.setCurrentScopes(value);
+    Sentry.replaceCurrentScopes(value);
   }
 
   @Override
   @SuppressWarnings("deprecation")
   public void reset() {
-    Sentry.setCurrentScopes(NoOpScopes.getInstance());
+    Sentry.replaceCurrentScopes(NoOpScopes.getInstance());
   }
 }
@@ -0,0 +1,285 @@
+package io.sentry.spring7;
+
+import io.sentry.ISentryLifecycleToken;
+import io.sentry.util.AutoClosableReentrantLock;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.http.MediaType;
+
+/**
+ * Keeps a copy of at most {@code limit} bytes of the request body while the application reads it,
+ * so it can be attached to events captured during the request. Unlike Spring's {@code
+ * ContentCachingRequestWrapper}, the copy is bounded, taken from a shared pool of buffers and
+ * returned to it by {@link #release()} once the request is handled.
+ *
+ * <p>Events may be captured on any thread carrying the request scopes, so the buffer is only
+ * accessed under {@code lock}. {@link #getCachedBody()} hands out a copy and returns nothing once
+ * the buffer has been given back to the pool, where another request may already be using it. The
+ * request itself isn't thread safe, only the thread that created the wrapper reads from it.
+ *
+ * <p>The limit may come from the declared content length, so the buffer grows with the bytes that
+ * are actually kept instead of being allocated for the limit up front.
+ */
+final class SentryRequestBodyCachingWrapper extends HttpServletRequestWrapper {
+
+  /** Bodies up to the {@code MEDIUM} request size fit into a pooled buffer. */
+  static final int POOLED_BUFFER_SIZE = 10_000;
+
+  private static final int MAX_POOLED_BUFFERS = 32;
+
+  /** How many bytes of the unread body are read at a time. */
+  private static final int READ_CHUNK_SIZE = 8192;
+
+  private static final @NotNull Queue<byte[]> bufferPool =
+      new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+
+  private final int limit;
+  private final @NotNull Thread requestThread;
+  private final @NotNull AutoClosableReentrantLock lock = new AutoClosableReentrantLock();
+  private @Nullable byte[] buffer;
+  private int count;
+  private boolean released;
+  private @Nullable ServletInputStream inputStream;
+  private @Nullable BufferedReader reader;
+
+  /**
+   * @param request the request
+   * @param limit the maximum number of bytes of the body to keep
+   */
+  SentryRequestBodyCachingWrapper(final @NotNull HttpServletRequest request, final int limit) {
+    super(request);
+    this.limit = limit;
+    this.requestThread = Thread.currentThread();
+  }
+
+  @Override
+  public @NotNull ServletInputStream getInputStream() throws IOException {
+    if (inputStream == null) {
+      inputStream = new CachingInputStream(super.getInputStream());
+    }
+    return inputStream;
+  }
+
+  @Override
+  public @NotNull BufferedReader getReader() throws IOException {
+    if (reader == null) {
+      final @Nullable String encoding = getCharacterEncoding();
+      final @NotNull String charset =
+          encoding != null ? encoding : StandardCharsets.ISO_8859_1.name();
+      reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+    return reader;
+  }
+
+  /**
+   * Returns the kept bytes of the body. On the thread handling the request, the part of the body
+   * the application hasn't read yet is read first, up to the limit, and form parameters are used
+   * for form posts whose body has been read by the container. Other threads only get the bytes kept
+   * so far.
+   *
+   * @return the kept bytes of the body, or null if the wrapper has been released
+   */
+  @Nullable
+  byte[] getCachedBody() throws IOException {
+    if (Thread.currentThread() == requestThread) {
+      final int kept = keptCount();
+      if (kept == -1) {
+        return null;
+      }
+      if (kept == 0 && isFormPost()) {
+        final byte[] form = encodeParameters();
+        return form.length > limit ? Arrays.copyOf(form, limit) : form;
+      }
+      readUnreadBody();
+    }
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      if (released) {
+        return null;
+      }
+      // a copy, the buffer goes back to the pool on release
+      return buffer == null ? new byte[0] : Arrays.copyOf(buffer, count);
+    }
+  }
+
+  /**
+   * Drops the kept bytes and returns the buffer to the pool, the body isn't kept afterwards. Must
+   * be called by the thread handling the request once it's done with it.
+   */
+  void release() {
+    final @Nullable byte[] pooled;
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      released = true;
+      pooled = buffer;
+      buffer = null;
+      count = 0;
+    }
+    // only pooled once no other thread can reach it through this wrapper anymore
+    if (pooled != null && pooled.length == POOLED_BUFFER_SIZE) {
+      bufferPool.offer(pooled);
+    }
+  }
+
+  /** Returns how many bytes are kept, or -1 if the wrapper has been released. */
+  private int keptCount() {
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      return released ? -1 : count;
+    }
+  }
+
+  /**
+   * Reads the rest of the body through the caching stream, which keeps it. The stream is read
+   * without holding {@code lock}, so other threads can still take the bytes kept so far.
+   */
+  private void readUnreadBody() throws IOException {
+    int kept = keptCount();
+    if (kept == -1 || kept >= limit) {
+      return;
+    }
+    final @NotNull ServletInputStream stream = getInputStream();
+    final byte[] chunk = new byte[Math.min(limit - kept, READ_CHUNK_SIZE)];
+    while (kept != -1 && kept < limit) {
+      if (stream.read(chunk, 0, Math.min(chunk.length, limit - kept)) == -1) {
+        break;
+      }
+      kept = keptCount();
+    }
+  }
+
+  private void cache(final byte[] bytes, final int offset, final int length) {
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      final int toCache = Math.min(length, limit - count);
+      if (released || toCache <= 0) {
+        return;
+      }
+      System.arraycopy(bytes, offset, buffer(count + toCache), count, toCache);
+      count += toCache;
+    }
+  }
+
+  private void cache(final int b) {
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      if (released || count >= limit) {
+        return;
+      }
+      buffer(count + 1)[count++] = (byte) b;
+    }
+  }
+
+  /**
+   * Returns a buffer holding at least {@code capacity} bytes, which is at most the limit. A pooled
+   * buffer is taken once the first byte is kept, requests that don't read their body need none.
+   * Beyond that, the buffer doubles in size up to the limit. Must be called holding {@code lock}.
+   */
+  private @NotNull byte[] buffer(final int capacity) {
+    @Nullable byte[] current = buffer;
+    if (current == null) {
+      final @Nullable byte[] pooled = bufferPool.poll();
+      current = pooled != null ? pooled : new byte[POOLED_BUFFER_SIZE];
+    }
+    if (current.length < capacity) {
+      final @NotNull byte[] outgrown = current;
+      current =
+          Arrays.copyOf(outgrown, (int) Math.min(limit, Math.max(capacity, 2L * outgrown.length)));
+      // no other thread can reach it anymore, copies are only taken under the lock
+      if (outgrown.length == POOLED_BUFFER_SIZE) {
+        bufferPool.offer(outgrown);
+      }
+    }
+    buffer = current;
+    return current;
+  }
+
+  private boolean isFormPost() {
+    final @Nullable String contentType = getContentType();
+    return contentType != null
+        && contentType.contains(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+        && "POST".equals(getMethod());
+  }
+
+  private byte[] encodeParameters() throws UnsupportedEncodingException {
+    final @Nullable String requestEncoding = getCharacterEncoding();
+    final @NotNull String encoding =
+        requestEncoding != null ? requestEncoding : StandardCharsets.UTF_8.name();
+    final @NotNull StringBuilder form = new StringBuilder();
+    for (final @NotNull Map.Entry<String, String[]> entry : getParameterMap().entrySet()) {
+      if (form.length() >= limit) {
+        break;
+      }
+      for (final @Nullable String value : entry.getValue()) {
+        if (form.length() > 0) {
+          form.append('&');
+        }
+        form.append(URLEncoder.encode(entry.getKey(), encoding));
+        if (value != null) {
+          form.append('=').append(URLEncoder.encode(value, encoding));
+        }
+      }
+    }
+    return form.toString().getBytes(encoding);
+  }
+
+  private final class CachingInputStream extends ServletInputStream {
+
+    private final @NotNull ServletInputStream delegate;
+
+    CachingInputStream(final @NotNull ServletInputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = delegate.read();
+      if (b != -1) {
+        cache(b);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      final int read = delegate.read(b, off, len);
+      if (read > 0) {
+        cache(b, off, read);
+      }
+      return read;
+    }
+
+    @Override
+    public int readLine(final byte[] b, final int off, final int len) throws IOException {
+      final int read = delegate.readLine(b, off, len);
+      if (read > 0) {
+        cache(b, off, read);
+      }
+      return read;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return delegate.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setReadListener(final @NotNull ReadListener readListener) {
+      delegate.setReadListener(readListener);
+    }
+  }
+}
@@ -10,6 +10,7 @@ import io.sentry.EventProcessor;
 import io.sentry.Hint;
 import io.sentry.IScopes;
 import io.sentry.ISentryLifecycleToken;
+import io.sentry.ScopedValueScopesStorage;
 import io.sentry.ScopesAdapter;
 import io.sentry.SentryEvent;
 import io.sentry.SentryLevel;
@@ -17,6 +18,7 @@ import io.sentry.SentryOptions;
 import io.sentry.SentryOptions.RequestSize;
 import io.sentry.spring7.tracing.SpringMvcTransactionNameProvider;
 import io.sentry.spring7.tracing.TransactionNameProvider;
+import io.sentry.util.HintUtils;
 import io.sentry.util.Objects;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -29,7 +31,6 @@ import org.springframework.http.MediaType;
 import org.springframework.util.InvalidMimeTypeException;
 import org.springframework.util.MimeType;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
 
 @Open
 public class SentrySpringFilter extends OncePerRequestFilter {
@@ -62,25 +63,56 @@ public class SentrySpringFilter extends OncePerRequestFilter {
       final @NotNull FilterChain filterChain)
       throws ServletException, IOException {
     if (scopesBeforeForking.isEnabled()) {
-      // request may qualify for caching request body, if so resolve cached request
-      final HttpServletRequest request =
-          resolveHttpServletRequest(scopesBeforeForking, servletRequest);
-      final @NotNull IScopes forkedScopes = scopesBeforeForking.forkedScopes("SentrySpringFilter");
-      try (final @NotNull ISentryLifecycleToken ignored = forkedScopes.makeCurrent()) {
-        final Hint hint = new Hint();
-        hint.set(SPRING_REQUEST_FILTER_REQUEST, servletRequest);
-        hint.set(SPRING_REQUEST_FILTER_RESPONSE, response);
-
-        forkedScopes.addBreadcrumb(
-            Breadcrumb.http(request.getRequestURI(), request.getMethod()), hint);
-        configureScope(forkedScopes, request);
-        filterChain.doFilter(request, response);
+      if (ScopedValueScopesStorage.isActive()) {
+        // keeps the scopes of the request in a ScopedValue binding instead of a thread local
+        try {
+          ScopedValueScopesStorage.call(
+              () -> {
+                doFilterWithForkedScopes(servletRequest, response, filterChain);
+                return null;
+              });
+        } catch (ServletException | IOException | RuntimeException e) {
+          throw e;
+        } catch (Exception e) {
+          throw new ServletException(e);
+        }
+      } else {
+        doFilterWithForkedScopes(servletRequest, response, filterChain);
       }
     } else {
       filterChain.doFilter(servletRequest, response);
     }
   }
 
+  private void doFilterWithForkedScopes(
+      final @NotNull HttpServletRequest servletRequest,
+      final @NotNull HttpServletResponse response,
+      final @NotNull FilterChain filterChain)
+      throws ServletException, IOException {
+    // request may qualify for caching request body, if so resolve cached request
+    final HttpServletRequest request =
+        resolveHttpServletRequest(scopesBeforeForking, servletRequest);
+    final @NotNull IScopes forkedScopes = scopesBeforeForking.forkedScopes("SentrySpringFilter");
+    try (final @NotNull ISentryLifecycleToken ignored = forkedScopes.makeCurrent()) {
+      final Hint hint = new Hint();
+      hint.set(SPRING_REQUEST_FILTER_REQUEST, servletRequest);
+      hint.set(SPRING_REQUEST_FILTER_RESPONSE, response);
+
+      forkedScopes.addBreadcrumb(
+          Breadcrumb.http(request.getRequestURI(), request.getMethod()), hint);
+      configureScope(forkedScopes, request);
+      try {
+        filterChain.doFilter(request, response);
+      } finally {
+        // events captured during the request have taken the body already, async requests may
+        // still need it
+        if (request instanceof SentryRequestBodyCachingWrapper && !request.isAsyncStarted()) {
+          ((SentryRequestBodyCachingWrapper) request).release();
+        }
+      }
+    }
+  }
+
   private void configureScope(
       final @NotNull IScopes scopes, final @NotNull HttpServletRequest request) {
     try {
@@ -95,7 +127,7 @@ public class SentrySpringFilter extends OncePerRequestFilter {
             // only if request caches body, add an event processor that sets body on the event
             // body is not on the scope, to avoid using memory when no event is triggered during
             // request processing
-            if (request instanceof ContentCachingRequestWrapper) {
+            if (request instanceof SentryRequestBodyCachingWrapper) {
               scope.addEventProcessor(
                   new RequestBodyExtractingEventProcessor(request, scopes.getOptions()));
             }
@@ -110,13 +142,26 @@ public class SentrySpringFilter extends OncePerRequestFilter {
 
   private @NotNull HttpServletRequest resolveHttpServletRequest(
       final @NotNull IScopes scopes, final @NotNull HttpServletRequest request) {
+    final @NotNull RequestSize maxRequestBodySize = scopes.getOptions().getMaxRequestBodySize();
     if (scopes.getOptions().isSendDefaultPii()
-        && qualifiesForCaching(request, scopes.getOptions().getMaxRequestBodySize())) {
-      return new ContentCachingRequestWrapper(request, 0);
+        && qualifiesForCaching(request, maxRequestBodySize)) {
+      return new SentryRequestBodyCachingWrapper(
+          request, Math.min(request.getContentLength(), maxBodySize(maxRequestBodySize)));
     }
     return request;
   }
 
+  private static int maxBodySize(final @NotNull RequestSize maxRequestBodySize) {
+    switch (maxRequestBodySize) {
+      case SMALL:
+        return 1000;
+      case MEDIUM:
+        return 10000;
+      default:
+        return Integer.MAX_VALUE;
+    }
+  }
+
   private static boolean qualifiesForCaching(
       final @NotNull HttpServletRequest request, final @NotNull RequestSize maxRequestBodySize) {
     final int contentLength = request.getContentLength();
@@ -154,7 +199,11 @@ public class SentrySpringFilter extends OncePerRequestFilter {
 
     @Override
     public @NotNull SentryEvent process(@NotNull SentryEvent event, @NotNull Hint hint) {
+      // events captured in the background have the body taken on the request thread already, the
+      // request may be recycled by now
       if (event.getRequest() != null
+          && !HintUtils.isBackgroundCapture(hint)
+          && event.getRequest().getData() == null
           && options.isSendDefaultPii()
           && qualifiesForCaching(request, options.getMaxRequestBodySize())) {
         event.getRequest().setData(requestPayloadExtractor.extract(request, options));
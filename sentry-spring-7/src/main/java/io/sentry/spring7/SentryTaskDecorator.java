@@ -2,6 +2,7 @@ package io.sentry.spring7;
 
 import io.sentry.IScopes;
 import io.sentry.ISentryLifecycleToken;
+import io.sentry.ScopedValueScopesStorage;
 import io.sentry.Sentry;
 import java.util.concurrent.Callable;
 import org.jetbrains.annotations.NotNull;
@@ -19,9 +20,18 @@ public final class SentryTaskDecorator implements TaskDecorator {
     final IScopes newScopes = Sentry.getCurrentScopes().forkedScopes("SentryTaskDecorator");
 
     return () -> {
-      try (final @NotNull ISentryLifecycleToken ignored = newScopes.makeCurrent()) {
-        runnable.run();
+      if (ScopedValueScopesStorage.isActive()) {
+        // keeps the scopes of the task in a ScopedValue binding instead of a thread local
+        ScopedValueScopesStorage.run(() -> run(newScopes, runnable));
+      } else {
+        run(newScopes, runnable);
       }
     };
   }
+
+  private static void run(final @NotNull IScopes scopes, final @NotNull Runnable runnable) {
+    try (final @NotNull ISentryLifecycleToken ignored = scopes.makeCurrent()) {
+      runnable.run();
+    }
+  }
 }
@@ -21,7 +21,13 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebExceptionHandler;
 import reactor.core.publisher.Mono;
 
-/** Handles unhandled exceptions in Spring WebFlux integration. */
+/**
+ * Handles unhandled exceptions in Spring WebFlux integration.
+ *
+ * <p>If {@link io.sentry.SentryOptions#isEnableBackgroundWebExceptionCapture()} is enabled, only
+ * the transaction name is taken on the request thread and the event is captured in the background
+ * with the scopes of the request.
+ */
 @Order(
     -2) // the DefaultErrorWebExceptionHandler provided by Spring Boot for error handling is ordered
 // at -1
@@ -41,20 +47,25 @@ public final class SentryWebExceptionHandler implements WebExceptionHandler {
         serverWebExchange.getAttributeOrDefault(SentryWebFilter.SENTRY_SCOPES_KEY, null);
     final @NotNull IScopes scopesToUse = requestScopes != null ? requestScopes : scopes;
 
+    if (scopesToUse.getOptions().isEnableBackgroundWebExceptionCapture()) {
+      if (!(ex instanceof ResponseStatusException)) {
+        scopesToUse
+            .getOptions()
+            .getBackgroundEventCapture()
+            .captureEvent(
+                scopesToUse.forkedScopes("SentryWebExceptionHandler"),
+                createEvent(serverWebExchange, ex),
+                new Hint());
+      }
+      return Mono.error(ex);
+    }
+
     return SentryReactorUtils.withSentryScopes(
             Mono.just(ex)
                 .map(
                     it -> {
                       if (!(ex instanceof ResponseStatusException)) {
-                        final Mechanism mechanism = new Mechanism();
-                        mechanism.setType(MECHANISM_TYPE);
-                        mechanism.setHandled(false);
-                        final Throwable throwable =
-                            new ExceptionMechanismException(mechanism, ex, Thread.currentThread());
-                        final SentryEvent event = new SentryEvent(throwable);
-                        event.setLevel(SentryLevel.FATAL);
-                        event.setTransaction(
-                            TransactionNameProvider.provideTransactionName(serverWebExchange));
+                        final SentryEvent event = createEvent(serverWebExchange, ex);
 
                         final Hint hint = new Hint();
                         hint.set(WEBFLUX_EXCEPTION_HANDLER_REQUEST, serverWebExchange.getRequest());
@@ -70,4 +81,17 @@ public final class SentryWebExceptionHandler implements WebExceptionHandler {
             scopesToUse)
         .flatMap(it -> Mono.error(ex));
   }
+
+  private @NotNull SentryEvent createEvent(
+      final @NotNull ServerWebExchange serverWebExchange, final @NotNull Throwable ex) {
+    final Mechanism mechanism = new Mechanism();
+    mechanism.setType(MECHANISM_TYPE);
+    mechanism.setHandled(false);
+    final Throwable throwable =
+        new ExceptionMechanismException(mechanism, ex, Thread.currentThread());
+    final SentryEvent event = new SentryEvent(throwable);
+    event.setLevel(SentryLevel.FATAL);
+    event.setTransaction(TransactionNameProvider.provideTransactionName(serverWebExchange));
+    return event;
+  }
 }
@@ -6,6 +6,7 @@ import kotlin.test.AfterTest
 import kotlin.test.BeforeTest
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertNotSame
 import kotlin.test.assertSame
 import kotlin.test.assertTrue
 import org.apache.kafka.clients.producer.Producer
@@ -88,7 +89,8 @@ class SentryKafkaProducerBeanPostProcessorTest {
 
     val wrapped = pp.apply(raw)
 
-    assertTrue(java.lang.reflect.Proxy.isProxyClass(wrapped.javaClass))
+    assertNotSame(raw, wrapped)
+    assertTrue(wrapped.toString().startsWith("SentryKafkaProducer[delegate="))
   }
 
   @Test
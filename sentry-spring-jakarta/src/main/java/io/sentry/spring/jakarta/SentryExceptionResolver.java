@@ -10,6 +10,7 @@ import io.sentry.SentryEvent;
 import io.sentry.SentryLevel;
 import io.sentry.exception.ExceptionMechanismException;
 import io.sentry.protocol.Mechanism;
+import io.sentry.protocol.Request;
 import io.sentry.spring.jakarta.tracing.TransactionNameProvider;
 import io.sentry.util.Objects;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,11 +20,16 @@ import org.jetbrains.annotations.Nullable;
 import org.springframework.core.Ordered;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.WebUtils;
 
 /**
  * {@link HandlerExceptionResolver} implementation that will record any exception that a Spring
  * {@link org.springframework.web.servlet.mvc.Controller} throws to Sentry. It then returns null,
  * which will let the other (default or custom) exception resolvers handle the actual error.
+ *
+ * <p>If {@link io.sentry.SentryOptions#isEnableBackgroundWebExceptionCapture()} is enabled, only
+ * the request data and transaction name are taken on the request thread and the event is captured
+ * in the background.
  */
 @Open
 public class SentryExceptionResolver implements HandlerExceptionResolver, Ordered {
@@ -31,6 +37,9 @@ public class SentryExceptionResolver implements HandlerExceptionResolver, Ordere
 
   private final @NotNull IScopes scopes;
   private final @NotNull TransactionNameProvider transactionNameProvider;
+  private final @NotNull SentryRequestResolver requestResolver;
+  private final @NotNull RequestPayloadExtractor requestPayloadExtractor =
+      new RequestPayloadExtractor();
   private final int order;
 
   public SentryExceptionResolver(
@@ -40,6 +49,7 @@ public class SentryExceptionResolver implements HandlerExceptionResolver, Ordere
     this.scopes = Objects.requireNonNull(scopes, "scopes are required");
     this.transactionNameProvider =
         Objects.requireNonNull(transactionNameProvider, "transactionNameProvider is required");
+    this.requestResolver = new SentryRequestResolver(scopes);
     this.order = order;
   }
 
@@ -51,14 +61,35 @@ public class SentryExceptionResolver implements HandlerExceptionResolver, Ordere
       final @NotNull Exception ex) {
 
     final SentryEvent event = createEvent(request, ex);
-    final Hint hint = createHint(request, response);
 
-    scopes.captureEvent(event, hint);
+    if (scopes.getOptions().isEnableBackgroundWebExceptionCapture()) {
+      captureInBackground(request, event);
+    } else {
+      final Hint hint = createHint(request, response);
+      scopes.captureEvent(event, hint);
+    }
 
     // null = run other HandlerExceptionResolvers to actually handle the exception
     return null;
   }
 
+  private void captureInBackground(
+      final @NotNull HttpServletRequest request, final @NotNull SentryEvent event) {
+    // the request may be recycled once the response is written, take what the event needs now
+    final @NotNull Request sentryRequest = requestResolver.resolveSentryRequest(request);
+    final @Nullable SentryRequestBodyCachingWrapper cachedRequest =
+        WebUtils.getNativeRequest(request, SentryRequestBodyCachingWrapper.class);
+    if (cachedRequest != null && scopes.getOptions().isSendDefaultPii()) {
+      sentryRequest.setData(requestPayloadExtractor.extract(cachedRequest, scopes.getOptions()));
+    }
+    event.setRequest(sentryRequest);
+
+    scopes
+        .getOptions()
+        .getBackgroundEventCapture()
+        .captureEvent(scopes.forkedScopes("SentryExceptionResolver"), event, new Hint());
+  }
+
   @Override
   public int getOrder() {
     return order;
@@ -1,5 +1,6 @@
 package io.sentry.spring.jakarta.cache;
 
+import io.sentry.AggregatedCacheSpan;
 import io.sentry.IScopes;
 import io.sentry.ISpan;
 import io.sentry.SpanDataConvention;
@@ -310,10 +311,8 @@ public final class SentryCacheWrapper implements Cache {
       return null;
     }
 
-    final SpanOptions spanOptions = new SpanOptions();
-    spanOptions.setOrigin(TRACE_ORIGIN);
     final String keyString = key != null ? String.valueOf(key) : null;
-    final ISpan span = activeSpan.startChild("cache." + operationName, keyString, spanOptions);
+    final ISpan span = startChild(activeSpan, "cache." + operationName, keyString);
     if (span.isNoOp()) {
       return null;
     }
@@ -323,4 +322,22 @@ public final class SentryCacheWrapper implements Cache {
     span.setData(SpanDataConvention.CACHE_OPERATION, operationName);
     return span;
   }
+
+  private @NotNull ISpan startChild(
+      final @NotNull ISpan activeSpan,
+      final @NotNull String operation,
+      final @Nullable String description) {
+    if (scopes.getOptions().isEnableCacheSpanAggregation()) {
+      return AggregatedCacheSpan.start(
+          activeSpan,
+          scopes.getOptions(),
+          delegate.getName(),
+          operation,
+          description,
+          TRACE_ORIGIN);
+    }
+    final SpanOptions spanOptions = new SpanOptions();
+    spanOptions.setOrigin(TRACE_ORIGIN);
+    return activeSpan.startChild(operation, description, spanOptions);
+  }
 }
@@ -0,0 +1,135 @@
+package io.sentry.spring.jakarta
+
+import kotlin.concurrent.thread
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import org.springframework.mock.web.MockHttpServletRequest
+
+class SentryRequestBodyCachingWrapperTest {
+
+  private fun request(body: String) =
+    MockHttpServletRequest("POST", "/some-uri").apply {
+      contentType = "application/json"
+      setContent(body.toByteArray())
+    }
+
+  @Test
+  fun `keeps the body read by the application`() {
+    val wrapper = SentryRequestBodyCachingWrapper(request("{\"key\":\"value\"}"), 100)
+
+    assertEquals("{\"key\":\"value\"}", wrapper.reader.readText())
+    assertEquals("{\"key\":\"value\"}", String(wrapper.cachedBody!!))
+  }
+
+  @Test
+  fun `reads the part of the body the application has not read`() {
+    val wrapper = SentryRequestBodyCachingWrapper(request("abcdef"), 100)
+
+    assertEquals('a'.code, wrapper.inputStream.read())
+    assertEquals("abcdef", String(wrapper.cachedBody!!))
+  }
+
+  @Test
+  fun `keeps at most limit bytes of the body`() {
+    val wrapper = SentryRequestBodyCachingWrapper(request("abcdef"), 3)
+
+    assertEquals("abcdef", String(wrapper.inputStream.readBytes()))
+    assertEquals("abc", String(wrapper.cachedBody!!))
+  }
+
+  @Test
+  fun `keeps the body of a request declaring a larger content length than it sends`() {
+    // the limit is taken from the declared content length
+    val wrapper = SentryRequestBodyCachingWrapper(request("abcdef"), Int.MAX_VALUE)
+
+    assertEquals("abcdef", String(wrapper.inputStream.readBytes()))
+    assertEquals("abcdef", String(wrapper.cachedBody!!))
+  }
+
+  @Test
+  fun `reads the unread body of a request declaring a larger content length than it sends`() {
+    val wrapper = SentryRequestBodyCachingWrapper(request("abcdef"), Int.MAX_VALUE)
+
+    assertEquals("abcdef", String(wrapper.cachedBody!!))
+  }
+
+  @Test
+  fun `keeps bodies larger than a pooled buffer up to the limit`() {
+    val body = (0 until 25_000).map { 'a' + it % 26 }.joinToString("")
+    val wrapper = SentryRequestBodyCachingWrapper(request(body), 20_000)
+
+    assertEquals(body, String(wrapper.inputStream.readBytes()))
+    assertEquals(body.substring(0, 20_000), String(wrapper.cachedBody!!))
+  }
+
+  @Test
+  fun `only returns the bytes read so far on other threads`() {
+    val wrapper = SentryRequestBodyCachingWrapper(request("abcdef"), 100)
+    wrapper.inputStream.read()
+    wrapper.inputStream.read()
+
+    var body: ByteArray? = null
+    thread { body = wrapper.cachedBody }.join()
+
+    assertEquals("ab", String(body!!))
+    // the request has not been read on the other thread
+    assertEquals('c'.code, wrapper.inputStream.read())
+    assertEquals("abcdef", String(wrapper.cachedBody!!))
+  }
+
+  @Test
+  fun `does not read form parameters on other threads`() {
+    val request =
+      MockHttpServletRequest("POST", "/some-uri").apply {
+        contentType = "application/x-www-form-urlencoded"
+        addParameter("name", "some value")
+      }
+    val wrapper = SentryRequestBodyCachingWrapper(request, 100)
+
+    var body: ByteArray? = null
+    thread { body = wrapper.cachedBody }.join()
+
+    assertEquals(0, body!!.size)
+  }
+
+  @Test
+  fun `encodes form parameters of form posts`() {
+    val request =
+      MockHttpServletRequest("POST", "/some-uri").apply {
+        contentType = "application/x-www-form-urlencoded"
+        addParameter("name", "some value")
+      }
+    val wrapper = SentryRequestBodyCachingWrapper(request, 100)
+
+    assertEquals("name=some+value", String(wrapper.cachedBody!!))
+  }
+
+  @Test
+  fun `does not return the body once released`() {
+    val wrapper = SentryRequestBodyCachingWrapper(request("abcdef"), 100)
+    wrapper.inputStream.readBytes()
+
+    wrapper.release()
+
+    assertNull(wrapper.cachedBody)
+  }
+
+  @Test
+  fun `does not return the body of a request reusing the released buffer`() {
+    val released = SentryRequestBodyCachingWrapper(request("aaaaaa"), 100)
+    released.inputStream.readBytes()
+    val taken = released.cachedBody!!
+    released.release()
+
+    val next = SentryRequestBodyCachingWrapper(request("bbbbbb"), 100)
+    next.inputStream.readBytes()
+    // events of the released request may still be captured, e.g. by an @Async task
+    var body: ByteArray? = byteArrayOf()
+    thread { body = released.cachedBody }.join()
+
+    assertNull(body)
+    assertEquals("aaaaaa", String(taken))
+    assertEquals("bbbbbb", String(next.cachedBody!!))
+  }
+}
@@ -5,12 +5,15 @@ import io.sentry.IScopes
 import io.sentry.SentryEvent
 import io.sentry.SentryOptions
 import io.sentry.spring.jakarta.tracing.SpringMvcTransactionNameProvider
+import io.sentry.util.HintUtils
 import jakarta.servlet.http.HttpServletRequest
 import java.net.URI
 import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
+import kotlin.test.assertNull
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 import org.springframework.mock.web.MockServletContext
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders
@@ -61,4 +64,18 @@ class SentryRequestHttpServletRequestProcessorTest {
     assertNotNull(event.transaction)
     assertEquals("some-transaction", event.transaction)
   }
+
+  @Test
+  fun `when event is captured in the background, does not read the request`() {
+    val request = mock<HttpServletRequest>()
+    val eventProcessor = fixture.getSut(request)
+    val event = SentryEvent()
+    val hint = Hint()
+    HintUtils.setIsBackgroundCapture(hint)
+
+    eventProcessor.process(event, hint)
+
+    assertNull(event.transaction)
+    verifyNoInteractions(request)
+  }
 }
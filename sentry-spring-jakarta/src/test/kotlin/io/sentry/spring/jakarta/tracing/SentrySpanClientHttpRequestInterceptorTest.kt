@@ -6,17 +6,23 @@ import io.sentry.ScopeCallback
 import io.sentry.Sentry
 import io.sentry.SentryOptions
 import io.sentry.SentryTraceHeader
+import io.sentry.SentryTracer
+import io.sentry.TracesSamplingDecision
+import io.sentry.TransactionContext
 import io.sentry.W3CTraceparentHeader
 import java.net.URI
 import kotlin.test.Test
+import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
 import kotlin.test.assertNull
+import kotlin.test.assertTrue
 import org.junit.runner.RunWith
 import org.mockito.kotlin.any
 import org.mockito.kotlin.doAnswer
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.whenever
 import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
 import org.springframework.http.client.ClientHttpRequestExecution
 import org.springframework.http.client.ClientHttpResponse
 import org.springframework.mock.http.client.MockClientHttpRequest
@@ -75,4 +81,25 @@ class SentrySpanClientHttpRequestInterceptorTest {
     assertNotNull(fixture.request.headers.get(SentryTraceHeader.SENTRY_TRACE_HEADER))
     assertNull(fixture.request.headers.get(W3CTraceparentHeader.TRACEPARENT_HEADER))
   }
+
+  @Test
+  fun `propagates the trace of an unsampled transaction without creating a span`() {
+    val transaction =
+      SentryTracer(TransactionContext("name", "op", TracesSamplingDecision(false)), fixture.scopes)
+    val activeSpan = transaction.latestActiveSpan!!
+    whenever(fixture.scopes.span).thenReturn(activeSpan)
+    val response = mock<ClientHttpResponse>()
+    whenever(response.statusCode).thenReturn(HttpStatus.OK)
+    whenever(fixture.requestExecution.execute(any(), any())).thenReturn(response)
+
+    val sut = fixture.create {}
+    sut.intercept(fixture.request, fixture.body, fixture.requestExecution)
+
+    assertTrue(activeSpan.isNoOp)
+    assertEquals(
+      transaction.toSentryTrace().value,
+      fixture.request.headers.getFirst(SentryTraceHeader.SENTRY_TRACE_HEADER),
+    )
+    assertTrue(transaction.spans.isEmpty())
+  }
 }
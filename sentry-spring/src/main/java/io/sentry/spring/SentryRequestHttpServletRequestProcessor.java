@@ -5,6 +5,7 @@ import io.sentry.EventProcessor;
 import io.sentry.Hint;
 import io.sentry.SentryEvent;
 import io.sentry.spring.tracing.TransactionNameProvider;
+import io.sentry.util.HintUtils;
 import io.sentry.util.Objects;
 import javax.servlet.http.HttpServletRequest;
 import org.jetbrains.annotations.NotNull;
@@ -26,7 +27,9 @@ public class SentryRequestHttpServletRequestProcessor implements EventProcessor
 
   @Override
   public @NotNull SentryEvent process(final @NotNull SentryEvent event, final @NotNull Hint hint) {
-    if (event.getTransaction() == null) {
+    // the request may be recycled by the time events captured in the background are processed,
+    // their transaction name is taken on the request thread
+    if (event.getTransaction() == null && !HintUtils.isBackgroundCapture(hint)) {
       event.setTransaction(transactionNameProvider.provideTransactionName(request));
     }
     return event;
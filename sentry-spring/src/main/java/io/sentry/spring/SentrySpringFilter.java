@@ -17,6 +17,7 @@ import io.sentry.SentryOptions;
 import io.sentry.SentryOptions.RequestSize;
 import io.sentry.spring.tracing.SpringMvcTransactionNameProvider;
 import io.sentry.spring.tracing.TransactionNameProvider;
+import io.sentry.util.HintUtils;
 import io.sentry.util.Objects;
 import java.io.IOException;
 import javax.servlet.FilterChain;
@@ -29,7 +30,6 @@ import org.springframework.http.MediaType;
 import org.springframework.util.InvalidMimeTypeException;
 import org.springframework.util.MimeType;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
 
 @Open
 public class SentrySpringFilter extends OncePerRequestFilter {
@@ -74,7 +74,15 @@ public class SentrySpringFilter extends OncePerRequestFilter {
         forkedScopes.addBreadcrumb(
             Breadcrumb.http(request.getRequestURI(), request.getMethod()), hint);
         configureScope(forkedScopes, request);
-        filterChain.doFilter(request, response);
+        try {
+          filterChain.doFilter(request, response);
+        } finally {
+          // events captured during the request have taken the body already, async requests may
+          // still need it
+          if (request instanceof SentryRequestBodyCachingWrapper && !request.isAsyncStarted()) {
+            ((SentryRequestBodyCachingWrapper) request).release();
+          }
+        }
       }
     } else {
       filterChain.doFilter(servletRequest, response);
@@ -95,7 +103,7 @@ public class SentrySpringFilter extends OncePerRequestFilter {
             // only if request caches body, add an event processor that sets body on the event
             // body is not on the scope, to avoid using memory when no event is triggered during
             // request processing
-            if (request instanceof ContentCachingRequestWrapper) {
+            if (request instanceof SentryRequestBodyCachingWrapper) {
               scope.addEventProcessor(
                   new RequestBodyExtractingEventProcessor(request, scopes.getOptions()));
             }
@@ -110,13 +118,26 @@ public class SentrySpringFilter extends OncePerRequestFilter {
 
   private @NotNull HttpServletRequest resolveHttpServletRequest(
       final @NotNull IScopes scopes, final @NotNull HttpServletRequest request) {
+    final @NotNull RequestSize maxRequestBodySize = scopes.getOptions().getMaxRequestBodySize();
     if (scopes.getOptions().isSendDefaultPii()
-        && qualifiesForCaching(request, scopes.getOptions().getMaxRequestBodySize())) {
-      return new ContentCachingRequestWrapper(request);
+        && qualifiesForCaching(request, maxRequestBodySize)) {
+      return new SentryRequestBodyCachingWrapper(
+          request, Math.min(request.getContentLength(), maxBodySize(maxRequestBodySize)));
     }
     return request;
   }
 
+  private static int maxBodySize(final @NotNull RequestSize maxRequestBodySize) {
+    switch (maxRequestBodySize) {
+      case SMALL:
+        return 1000;
+      case MEDIUM:
+        return 10000;
+      default:
+        return Integer.MAX_VALUE;
+    }
+  }
+
   private static boolean qualifiesForCaching(
       final @NotNull HttpServletRequest request, final @NotNull RequestSize maxRequestBodySize) {
     final int contentLength = request.getContentLength();
@@ -154,7 +175,11 @@ public class SentrySpringFilter extends OncePerRequestFilter {
 
     @Override
     public @NotNull SentryEvent process(@NotNull SentryEvent event, @NotNull Hint hint) {
+      // events captured in the background have the body taken on the request thread already, the
+      // request may be recycled by now
       if (event.getRequest() != null
+          && !HintUtils.isBackgroundCapture(hint)
+          && event.getRequest().getData() == null
           && options.isSendDefaultPii()
           && qualifiesForCaching(request, options.getMaxRequestBodySize())) {
         event.getRequest().setData(requestPayloadExtractor.extract(request, options));
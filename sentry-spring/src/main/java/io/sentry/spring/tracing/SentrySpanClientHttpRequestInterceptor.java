@@ -50,6 +50,13 @@ public class SentrySpanClientHttpRequestInterceptor implements ClientHttpRequest
         maybeAddTracingHeaders(request, null);
         return execution.execute(request, body);
       }
+      if (activeSpan.isNoOp()) {
+        // nothing is recorded (e.g. the transaction is not sampled), only propagate the trace
+        maybeAddTracingHeaders(request, activeSpan);
+        response = execution.execute(request, body);
+        responseStatusCode = response.getStatusCode().value();
+        return response;
+      }
       final @NotNull SpanOptions spanOptions = new SpanOptions();
       spanOptions.setOrigin(TRACE_ORIGIN);
       final ISpan span = activeSpan.startChild("http.client", null, spanOptions);
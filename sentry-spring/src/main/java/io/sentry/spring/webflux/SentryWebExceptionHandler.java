@@ -19,7 +19,12 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebExceptionHandler;
 import reactor.core.publisher.Mono;
 
-/** Handles unhandled exceptions in Spring WebFlux integration. */
+/**
+ * Handles unhandled exceptions in Spring WebFlux integration.
+ *
+ * <p>If {@link io.sentry.SentryOptions#isEnableBackgroundWebExceptionCapture()} is enabled, only
+ * the transaction name is taken on the request thread and the event is captured in the background.
+ */
 @Order(
     -2) // the DefaultErrorWebExceptionHandler provided by Spring Boot for error handling is ordered
 // at -1
@@ -36,14 +41,15 @@ public final class SentryWebExceptionHandler implements WebExceptionHandler {
   public @NotNull Mono<Void> handle(
       final @NotNull ServerWebExchange serverWebExchange, final @NotNull Throwable ex) {
     if (!(ex instanceof ResponseStatusException)) {
-      final Mechanism mechanism = new Mechanism();
-      mechanism.setType(MECHANISM_TYPE);
-      mechanism.setHandled(false);
-      final Throwable throwable =
-          new ExceptionMechanismException(mechanism, ex, Thread.currentThread());
-      final SentryEvent event = new SentryEvent(throwable);
-      event.setLevel(SentryLevel.FATAL);
-      event.setTransaction(TransactionNameProvider.provideTransactionName(serverWebExchange));
+      final SentryEvent event = createEvent(serverWebExchange, ex);
+
+      if (scopes.getOptions().isEnableBackgroundWebExceptionCapture()) {
+        scopes
+            .getOptions()
+            .getBackgroundEventCapture()
+            .captureEvent(scopes.forkedScopes("SentryWebExceptionHandler"), event, new Hint());
+        return Mono.error(ex);
+      }
 
       final Hint hint = new Hint();
       hint.set(WEBFLUX_EXCEPTION_HANDLER_REQUEST, serverWebExchange.getRequest());
@@ -54,4 +60,17 @@ public final class SentryWebExceptionHandler implements WebExceptionHandler {
     }
     return Mono.error(ex);
   }
+
+  private @NotNull SentryEvent createEvent(
+      final @NotNull ServerWebExchange serverWebExchange, final @NotNull Throwable ex) {
+    final Mechanism mechanism = new Mechanism();
+    mechanism.setType(MECHANISM_TYPE);
+    mechanism.setHandled(false);
+    final Throwable throwable =
+        new ExceptionMechanismException(mechanism, ex, Thread.currentThread());
+    final SentryEvent event = new SentryEvent(throwable);
+    event.setLevel(SentryLevel.FATAL);
+    event.setTransaction(TransactionNameProvider.provideTransactionName(serverWebExchange));
+    return event;
+  }
 }
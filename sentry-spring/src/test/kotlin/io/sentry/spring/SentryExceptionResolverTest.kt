@@ -4,6 +4,7 @@ import io.sentry.Hint
 import io.sentry.IScopes
 import io.sentry.SentryEvent
 import io.sentry.SentryLevel
+import io.sentry.SentryOptions
 import io.sentry.exception.ExceptionMechanismException
 import io.sentry.spring.tracing.TransactionNameProvider
 import javax.servlet.http.HttpServletRequest
@@ -11,18 +12,27 @@ import javax.servlet.http.HttpServletResponse
 import kotlin.test.Test
 import org.assertj.core.api.Assertions.assertThat
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.argumentCaptor
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.timeout
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
+import org.springframework.mock.web.MockHttpServletRequest
 
 class SentryExceptionResolverTest {
+  private val options = SentryOptions()
   private val scopes = mock<IScopes>()
   private val transactionNameProvider = mock<TransactionNameProvider>()
 
   private val request = mock<HttpServletRequest>()
   private val response = mock<HttpServletResponse>()
 
+  init {
+    whenever(scopes.options).thenReturn(options)
+  }
+
   @Test
   fun `when handles exception, sets wrapped exception for event`() {
     val eventCaptor = argumentCaptor<SentryEvent>()
@@ -114,4 +124,24 @@ class SentryExceptionResolverTest {
 
     assertThat(hintCaptor.firstValue).isEqualTo(expectedHint)
   }
+
+  @Test
+  fun `when background capture is enabled, captures event with request data in the background`() {
+    options.isEnableBackgroundWebExceptionCapture = true
+    val forkedScopes = mock<IScopes>()
+    whenever(forkedScopes.options).thenReturn(options)
+    whenever(scopes.forkedScopes(any())).thenReturn(forkedScopes)
+    val eventCaptor = argumentCaptor<SentryEvent>()
+    val hintCaptor = argumentCaptor<Hint>()
+    val request = MockHttpServletRequest("GET", "/some-uri")
+
+    SentryExceptionResolver(scopes, transactionNameProvider, 1)
+      .resolveException(request, response, null, RuntimeException("test"))
+
+    verify(forkedScopes, timeout(5000)).captureEvent(eventCaptor.capture(), hintCaptor.capture())
+    verify(scopes, never()).captureEvent(anyOrNull(), anyOrNull<Hint>())
+    assertThat(eventCaptor.firstValue.request!!.url).isEqualTo("http://localhost/some-uri")
+    assertThat(eventCaptor.firstValue.request!!.method).isEqualTo("GET")
+    assertThat(hintCaptor.firstValue.get("springResolver:request")).isNull()
+  }
 }
@@ -35,7 +35,6 @@ import org.springframework.mock.web.MockHttpServletRequest
 import org.springframework.mock.web.MockHttpServletResponse
 import org.springframework.mock.web.MockServletContext
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders
-import org.springframework.web.util.ContentCachingRequestWrapper
 
 class SentrySpringFilterTest {
   private class Fixture {
@@ -308,7 +307,7 @@ class SentrySpringFilterTest {
 
         verify(fixture.chain)
           .doFilter(
-            check { assertEquals(param.expectedToBeCached, it is ContentCachingRequestWrapper) },
+            check { assertEquals(param.expectedToBeCached, it is SentryRequestBodyCachingWrapper) },
             any(),
           )
       } catch (e: AssertionError) {
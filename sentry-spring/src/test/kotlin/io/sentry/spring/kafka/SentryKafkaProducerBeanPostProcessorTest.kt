@@ -2,6 +2,7 @@ package io.sentry.spring.kafka
 
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertNotSame
 import kotlin.test.assertSame
 import kotlin.test.assertTrue
 import org.apache.kafka.clients.producer.Producer
@@ -74,7 +75,8 @@ class SentryKafkaProducerBeanPostProcessorTest {
 
     val wrapped = pp.apply(raw)
 
-    assertTrue(java.lang.reflect.Proxy.isProxyClass(wrapped.javaClass))
+    assertNotSame(raw, wrapped)
+    assertTrue(wrapped.toString().startsWith("SentryKafkaProducer[delegate="))
   }
 
   @Test
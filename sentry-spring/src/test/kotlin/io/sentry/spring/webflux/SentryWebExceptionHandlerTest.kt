@@ -0,0 +1,91 @@
+package io.sentry.spring.webflux
+
+import io.sentry.Hint
+import io.sentry.IScopes
+import io.sentry.SentryEvent
+import io.sentry.SentryOptions
+import io.sentry.TypeCheckHint
+import io.sentry.util.HintUtils
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+import org.mockito.kotlin.any
+import org.mockito.kotlin.check
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.timeout
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import org.springframework.http.HttpStatus
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest
+import org.springframework.mock.web.server.MockServerWebExchange
+import org.springframework.web.reactive.HandlerMapping
+import org.springframework.web.server.ResponseStatusException
+import org.springframework.web.util.pattern.PathPatternParser
+
+class SentryWebExceptionHandlerTest {
+  private class Fixture {
+    val scopes = mock<IScopes>()
+    val forkedScopes = mock<IScopes>()
+    val options =
+      SentryOptions().apply {
+        dsn = "https://key@sentry.io/proj"
+        isEnableBackgroundWebExceptionCapture = true
+      }
+    val exchange =
+      MockServerWebExchange.from(MockServerHttpRequest.get("/product/{id}", 12).build())
+
+    init {
+      whenever(scopes.options).thenReturn(options)
+      whenever(forkedScopes.options).thenReturn(options)
+      whenever(scopes.forkedScopes(any())).thenReturn(forkedScopes)
+      exchange.attributes[HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE] =
+        PathPatternParser().parse("/product/{id}")
+    }
+
+    fun getSut(): SentryWebExceptionHandler {
+      return SentryWebExceptionHandler(scopes)
+    }
+  }
+
+  private val fixture = Fixture()
+
+  @Test
+  fun `when background capture is enabled, captures the exception in the background`() {
+    val sut = fixture.getSut()
+    val exception = RuntimeException("some error")
+
+    val thrown =
+      assertFailsWith<RuntimeException> { sut.handle(fixture.exchange, exception).block() }
+
+    assertSame(exception, thrown)
+    verify(fixture.forkedScopes, timeout(5000))
+      .captureEvent(
+        check<SentryEvent> {
+          assertEquals("GET /product/{id}", it.transaction)
+          assertSame(exception, it.throwable)
+        },
+        check<Hint> {
+          assertTrue(HintUtils.isBackgroundCapture(it))
+          assertNull(it.get(TypeCheckHint.WEBFLUX_EXCEPTION_HANDLER_REQUEST))
+          assertNull(it.get(TypeCheckHint.WEBFLUX_EXCEPTION_HANDLER_EXCHANGE))
+        },
+      )
+    verify(fixture.scopes, never()).captureEvent(any(), any<Hint>())
+  }
+
+  @Test
+  fun `when background capture is enabled, does not capture response status exceptions`() {
+    val sut = fixture.getSut()
+
+    assertFailsWith<ResponseStatusException> {
+      sut.handle(fixture.exchange, ResponseStatusException(HttpStatus.NOT_FOUND)).block()
+    }
+
+    verify(fixture.scopes, never()).forkedScopes(any())
+    verify(fixture.forkedScopes, never()).captureEvent(any(), any<Hint>())
+  }
+}
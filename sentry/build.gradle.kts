@@ -39,6 +39,8 @@ sentryAnimalSniffer {
   ignoreClasses("java.time.Instant")
   // Uses java.util.function.Supplier, but must be manually invoked.
   mainExcludes("**/io/sentry/SentryWrapper.class")
+  // Uses java.lang.invoke to access java.lang.ScopedValue, only used on the JVM.
+  mainExcludes("**/io/sentry/ScopedValueScopesStorage*.class")
 }
 
 tasks {
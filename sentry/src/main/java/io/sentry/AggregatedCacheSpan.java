@@ -0,0 +1,315 @@
+package io.sentry;
+
+import io.sentry.protocol.Contexts;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The span handed out by cache integrations for a single cache operation if {@link
+ * SentryOptions#isEnableCacheSpanAggregation()} is enabled. Instead of being sent, the operation is
+ * recorded in the {@link CacheOperationStats} of the active span once it finishes. Only operations
+ * that fail or take at least {@link SentryOptions#getSlowCacheOperationThresholdMillis()} are
+ * reported as a child of the active span, with the data, status and throwable set on this span.
+ *
+ * <p>It must only be used by the thread that started the operation.
+ */
+@ApiStatus.Internal
+public final class AggregatedCacheSpan implements ISpan {
+
+  private final @NotNull ISpan activeSpan;
+  private final @NotNull SentryOptions options;
+  private final @NotNull String cacheName;
+  private final @NotNull String origin;
+  private final long startNanos;
+  private @NotNull String operation;
+  private @Nullable String description;
+  private @Nullable Map<String, Object> data;
+  private @Nullable SpanStatus status;
+  private @Nullable Throwable throwable;
+  private @Nullable Boolean hit;
+  private boolean write;
+  private boolean finished;
+
+  private AggregatedCacheSpan(
+      final @NotNull ISpan activeSpan,
+      final @NotNull SentryOptions options,
+      final @NotNull String cacheName,
+      final @NotNull String operation,
+      final @Nullable String description,
+      final @NotNull String origin) {
+    this.activeSpan = activeSpan;
+    this.options = options;
+    this.cacheName = cacheName;
+    this.operation = operation;
+    this.description = description;
+    this.origin = origin;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Starts a cache operation to be aggregated on the active span.
+   *
+   * @param activeSpan the active span
+   * @param options the options
+   * @param cacheName the name of the cache
+   * @param operation the span operation, e.g. {@code cache.get}
+   * @param description the span description
+   * @param origin the trace origin of the span
+   * @return the span of the operation, a no-op span if the active span isn't sampled
+   */
+  public static @NotNull ISpan start(
+      final @NotNull ISpan activeSpan,
+      final @NotNull SentryOptions options,
+      final @NotNull String cacheName,
+      final @NotNull String operation,
+      final @Nullable String description,
+      final @NotNull String origin) {
+    if (Boolean.FALSE.equals(activeSpan.isSampled())) {
+      return NoOpSpan.getInstance();
+    }
+    return new AggregatedCacheSpan(activeSpan, options, cacheName, operation, description, origin);
+  }
+
+  @Override
+  public void finish() {
+    finish(status);
+  }
+
+  @Override
+  public void finish(final @Nullable SpanStatus status) {
+    finish(status, null);
+  }
+
+  @Override
+  public void finish(final @Nullable SpanStatus status, final @Nullable SentryDate timestamp) {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    this.status = status;
+    final long durationNanos = System.nanoTime() - startNanos;
+    final boolean failed = throwable != null || (status != null && status != SpanStatus.OK);
+    CacheOperationStats.of(activeSpan).record(cacheName, hit, write, failed, durationNanos);
+
+    if (!failed
+        && durationNanos
+            < TimeUnit.MILLISECONDS.toNanos(options.getSlowCacheOperationThresholdMillis())) {
+      return;
+    }
+    final @NotNull SentryDate end = timestamp != null ? timestamp : options.getDateProvider().now();
+    final @NotNull SpanOptions spanOptions = new SpanOptions();
+    spanOptions.setOrigin(origin);
+    spanOptions.setStartTimestamp(new SentryLongDate(end.nanoTimestamp() - durationNanos));
+    final @NotNull ISpan span = activeSpan.startChild(operation, description, spanOptions);
+    if (data != null) {
+      for (final @NotNull Map.Entry<String, Object> entry : data.entrySet()) {
+        span.setData(entry.getKey(), entry.getValue());
+      }
+    }
+    span.setThrowable(throwable);
+    span.finish(status, end);
+  }
+
+  @Override
+  public void setData(final @Nullable String key, final @Nullable Object value) {
+    if (key == null) {
+      return;
+    }
+    if (SpanDataConvention.CACHE_HIT.equals(key)) {
+      hit = value instanceof Boolean ? (Boolean) value : null;
+    } else if (SpanDataConvention.CACHE_WRITE.equals(key)) {
+      write = Boolean.TRUE.equals(value);
+    }
+    if (data == null) {
+      data = new HashMap<>();
+    }
+    data.put(key, value);
+  }
+
+  @Override
+  public @Nullable Object getData(final @Nullable String key) {
+    return data == null || key == null ? null : data.get(key);
+  }
+
+  @Override
+  public void setOperation(final @NotNull String operation) {
+    this.operation = operation;
+  }
+
+  @Override
+  public @NotNull String getOperation() {
+    return operation;
+  }
+
+  @Override
+  public void setDescription(final @Nullable String description) {
+    this.description = description;
+  }
+
+  @Override
+  public @Nullable String getDescription() {
+    return description;
+  }
+
+  @Override
+  public void setStatus(final @Nullable SpanStatus status) {
+    this.status = status;
+  }
+
+  @Override
+  public @Nullable SpanStatus getStatus() {
+    return status;
+  }
+
+  @Override
+  public void setThrowable(final @Nullable Throwable throwable) {
+    this.throwable = throwable;
+  }
+
+  @Override
+  public @Nullable Throwable getThrowable() {
+    return throwable;
+  }
+
+  @Override
+  public boolean isFinished() {
+    return finished;
+  }
+
+  @Override
+  public boolean isNoOp() {
+    return false;
+  }
+
+  // cache operations have no children, the rest is taken from the active span
+
+  @Override
+  public @NotNull ISpan startChild(final @NotNull String operation) {
+    return NoOpSpan.getInstance();
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull String operation, @Nullable String description, @NotNull SpanOptions spanOptions) {
+    return NoOpSpan.getInstance();
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull SpanContext spanContext, @NotNull SpanOptions spanOptions) {
+    return NoOpSpan.getInstance();
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull String operation,
+      @Nullable String description,
+      @Nullable SentryDate timestamp,
+      @NotNull Instrumenter instrumenter) {
+    return NoOpSpan.getInstance();
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull String operation,
+      @Nullable String description,
+      @Nullable SentryDate timestamp,
+      @NotNull Instrumenter instrumenter,
+      @NotNull SpanOptions spanOptions) {
+    return NoOpSpan.getInstance();
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      final @NotNull String operation, final @Nullable String description) {
+    return NoOpSpan.getInstance();
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull String operation, @Nullable String description, @Nullable SentryDate timestamp) {
+    return NoOpSpan.getInstance();
+  }
+
+  @Override
+  public @NotNull SentryTraceHeader toSentryTrace() {
+    return activeSpan.toSentryTrace();
+  }
+
+  @Override
+  public @Nullable TraceContext traceContext() {
+    return activeSpan.traceContext();
+  }
+
+  @Override
+  public @Nullable BaggageHeader toBaggageHeader(@Nullable List<String> thirdPartyBaggageHeaders) {
+    return activeSpan.toBaggageHeader(thirdPartyBaggageHeaders);
+  }
+
+  @Override
+  public @NotNull SpanContext getSpanContext() {
+    return activeSpan.getSpanContext();
+  }
+
+  @Override
+  public void setTag(@Nullable String key, @Nullable String value) {}
+
+  @Override
+  public @Nullable String getTag(@Nullable String key) {
+    return null;
+  }
+
+  @Override
+  public void setMeasurement(@NotNull String name, @NotNull Number value) {}
+
+  @Override
+  public void setMeasurement(
+      @NotNull String name, @NotNull Number value, @NotNull MeasurementUnit unit) {}
+
+  @Override
+  public boolean updateEndDate(final @NotNull SentryDate date) {
+    return false;
+  }
+
+  @Override
+  public @NotNull SentryDate getStartDate() {
+    final long elapsedNanos = System.nanoTime() - startNanos;
+    return new SentryLongDate(options.getDateProvider().now().nanoTimestamp() - elapsedNanos);
+  }
+
+  @Override
+  public @Nullable SentryDate getFinishDate() {
+    return null;
+  }
+
+  @Override
+  public void setContext(@Nullable String key, @Nullable Object context) {}
+
+  @Override
+  public @NotNull Contexts getContexts() {
+    return new Contexts();
+  }
+
+  @Override
+  public @Nullable Boolean isSampled() {
+    return activeSpan.isSampled();
+  }
+
+  @Override
+  public @Nullable TracesSamplingDecision getSamplingDecision() {
+    return activeSpan.getSamplingDecision();
+  }
+
+  @Override
+  public @NotNull ISentryLifecycleToken makeCurrent() {
+    return NoOpScopesLifecycleToken.getInstance();
+  }
+
+  @Override
+  public void addFeatureFlag(final @Nullable String flag, final @Nullable Boolean result) {}
+}
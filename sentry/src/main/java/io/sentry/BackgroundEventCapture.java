@@ -0,0 +1,171 @@
+package io.sentry;
+
+import io.sentry.clientreport.DiscardReason;
+import io.sentry.transport.ReusableCountLatch;
+import io.sentry.util.AutoClosableReentrantLock;
+import io.sentry.util.HintUtils;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Captures events on a dedicated background thread instead of the calling thread. It doesn't use
+ * {@link SentryOptions#getExecutorService()}, so a burst of errors can't delay envelope caching,
+ * session updates and batch processors. Events that don't fit into its queue are dropped and
+ * recorded as lost.
+ *
+ * <p>Each {@link SentryOptions} owns one, see {@link SentryOptions#getBackgroundEventCapture()}.
+ * {@link Scopes#flush(long)} waits for the queued events to be captured and {@link
+ * Scopes#close(boolean)} drops the ones that aren't captured within the shutdown timeout.
+ */
+@ApiStatus.Internal
+public final class BackgroundEventCapture {
+
+  /** How many events may wait to be captured before new ones are dropped. */
+  static final int MAX_QUEUE_SIZE = 100;
+
+  /** How long the worker thread may stay idle before it self-terminates. */
+  private static final long THREAD_KEEP_ALIVE_SECONDS = 30;
+
+  private final @NotNull SentryOptions options;
+  private final @NotNull ReusableCountLatch pendingCount = new ReusableCountLatch();
+  private final @NotNull AutoClosableReentrantLock lock = new AutoClosableReentrantLock();
+  private @Nullable ThreadPoolExecutor executor;
+
+  public BackgroundEventCapture(final @NotNull SentryOptions options) {
+    this.options = options;
+  }
+
+  /**
+   * Captures the event with the given scopes on a background thread. The event and hint must not
+   * reference objects that are only valid on the calling thread. The hint is marked, see {@link
+   * HintUtils#isBackgroundCapture(Hint)}, so event processors of the scopes don't read them either.
+   *
+   * @param scopes the scopes to capture the event with
+   * @param event the event
+   * @param hint the hint
+   */
+  public void captureEvent(
+      final @NotNull IScopes scopes, final @NotNull SentryEvent event, final @NotNull Hint hint) {
+    HintUtils.setIsBackgroundCapture(hint);
+    pendingCount.increment();
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      if (executor == null) {
+        // created on first use and again after close, its thread only runs while there are events
+        executor = createExecutor();
+      }
+      executor.execute(
+          () -> {
+            try {
+              scopes.captureEvent(event, hint);
+            } finally {
+              pendingCount.decrement();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      pendingCount.decrement();
+      final @NotNull SentryOptions options = scopes.getOptions();
+      options
+          .getLogger()
+          .log(
+              SentryLevel.WARNING,
+              "Event %s was dropped, the background capture queue is full.",
+              event.getEventId());
+      options
+          .getClientReportRecorder()
+          .recordLostEvent(DiscardReason.QUEUE_OVERFLOW, DataCategory.Error);
+    }
+  }
+
+  /**
+   * Waits until the events queued so far have been captured.
+   *
+   * @param timeoutMillis the maximum time to wait
+   */
+  public void flush(final long timeoutMillis) {
+    try {
+      pendingCount.waitTillZero(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      options.getLogger().log(SentryLevel.ERROR, "Failed to flush background captured events", e);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Stops the worker thread once the queued events have been captured. Events that are still
+   * queued after the timeout are dropped and recorded as lost.
+   *
+   * @param timeoutMillis the maximum time to wait for the queued events
+   */
+  public void close(final long timeoutMillis) {
+    final @Nullable ThreadPoolExecutor executor;
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      executor = this.executor;
+      this.executor = null;
+    }
+    if (executor == null) {
+      return;
+    }
+
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        dropQueuedEvents(executor);
+      }
+    } catch (InterruptedException e) {
+      dropQueuedEvents(executor);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void dropQueuedEvents(final @NotNull ThreadPoolExecutor executor) {
+    final int dropped = executor.shutdownNow().size();
+    if (dropped == 0) {
+      return;
+    }
+    for (int i = 0; i < dropped; i++) {
+      pendingCount.decrement();
+    }
+    options
+        .getLogger()
+        .log(
+            SentryLevel.WARNING,
+            "%d events were dropped, they weren't captured in the background before closing.",
+            dropped);
+    options
+        .getClientReportRecorder()
+        .recordLostEvent(DiscardReason.QUEUE_OVERFLOW, DataCategory.Error, dropped);
+  }
+
+  private static @NotNull ThreadPoolExecutor createExecutor() {
+    // A single thread executor with a bounded queue, rejecting events once it's full. Its worker
+    // thread times out while idle, so no thread is kept alive between errors.
+    final @NotNull ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            THREAD_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUE_SIZE),
+            new BackgroundEventCaptureThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static final class BackgroundEventCaptureThreadFactory implements ThreadFactory {
+    private int cnt;
+
+    @Override
+    public @NotNull Thread newThread(final @NotNull Runnable r) {
+      final Thread ret = new Thread(r, "SentryBackgroundEventCapture-" + cnt++);
+      ret.setDaemon(true);
+      return ret;
+    }
+  }
+}
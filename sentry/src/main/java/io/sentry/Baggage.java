@@ -5,6 +5,7 @@ import static io.sentry.protocol.Contexts.REPLAY_ID;
 import io.sentry.protocol.SentryId;
 import io.sentry.protocol.TransactionNameSource;
 import io.sentry.util.AutoClosableReentrantLock;
+import io.sentry.util.Objects;
 import io.sentry.util.SampleRateUtils;
 import io.sentry.util.StringUtils;
 import java.io.UnsupportedEncodingException;
@@ -12,7 +13,6 @@ import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -47,6 +48,9 @@ public final class Baggage {
 
   private final @NotNull ConcurrentHashMap<String, String> keyValues;
   private final @NotNull AutoClosableReentrantLock keyValuesLock = new AutoClosableReentrantLock();
+  // bumped whenever keyValues changes, shared with copies of this baggage as they share keyValues
+  private final @NotNull AtomicInteger keyValuesVersion;
+  private volatile @Nullable HeaderStringCache headerStringCache;
 
   private @Nullable Double sampleRate;
   private @Nullable Double sampleRand;
@@ -87,13 +91,15 @@ public final class Baggage {
       final @Nullable List<String> headerValues,
       final boolean includeThirdPartyValues,
       final @NotNull ILogger logger) {
-
+    final @NotNull HeaderParser parser = new HeaderParser(includeThirdPartyValues, false, logger);
     if (headerValues != null) {
-      return Baggage.fromHeader(
-          StringUtils.join(",", headerValues), includeThirdPartyValues, logger);
-    } else {
-      return Baggage.fromHeader((String) null, includeThirdPartyValues, logger);
+      for (final @Nullable String headerValue : headerValues) {
+        if (headerValue != null) {
+          parser.parse(headerValue);
+        }
+      }
     }
+    return parser.toBaggage();
   }
 
   @ApiStatus.Internal
@@ -102,76 +108,32 @@ public final class Baggage {
       final @Nullable String headerValue,
       final boolean includeThirdPartyValues,
       final @NotNull ILogger logger) {
-
-    final @NotNull ConcurrentHashMap<String, String> keyValues = new ConcurrentHashMap<>();
-
-    final @NotNull List<String> thirdPartyKeyValueStrings = new ArrayList<>();
-    boolean shouldFreeze = false;
-
-    @Nullable Double sampleRate = null;
-    @Nullable Double sampleRand = null;
-
+    final @NotNull HeaderParser parser = new HeaderParser(includeThirdPartyValues, false, logger);
     if (headerValue != null) {
-      try {
-        // see https://errorprone.info/bugpattern/StringSplitter for why limit is passed
-        final String[] keyValueStrings = headerValue.split(",", -1);
-        for (final String keyValueString : keyValueStrings) {
-          if (keyValueString.trim().startsWith(SENTRY_BAGGAGE_PREFIX)) {
-            try {
-              // As per spec (https://www.w3.org/TR/baggage/#value)
-              // a value may contain "=" signs, thus we split by the first occurrence
-              final int separatorIndex = keyValueString.indexOf("=");
-              final String key = keyValueString.substring(0, separatorIndex).trim();
-              final String keyDecoded = decode(key);
-              final String value = keyValueString.substring(separatorIndex + 1).trim();
-              final String valueDecoded = decode(value);
-
-              if (DSCKeys.SAMPLE_RATE.equals(keyDecoded)) {
-                sampleRate = toDouble(valueDecoded);
-              } else if (DSCKeys.SAMPLE_RAND.equals(keyDecoded)) {
-                sampleRand = toDouble(valueDecoded);
-              } else {
-                keyValues.put(keyDecoded, valueDecoded);
-              }
-              // Without ignoring SAMPLE_RAND here, we'd be freezing baggage that we're transporting
-              // via OTel span attributes.
-              // This is done when a transaction is created via Sentry API.
-              // In that case Baggage is created before the OTel span is created and we put it on
-              // the span attributes.
-              // It does however only contain the sample random value as its only value.
-              // The OTel code then uses it to create a propagation context from it and ends up
-              // freezing it,
-              // preventing outgoing requests (to other systems or Sentry) from adding info to
-              // baggage and only then freeze it.
-              if (!DSCKeys.SAMPLE_RAND.equalsIgnoreCase(key)) {
-                shouldFreeze = true;
-              }
-            } catch (Throwable e) {
-              logger.log(
-                  SentryLevel.ERROR,
-                  e,
-                  "Unable to decode baggage key value pair %s",
-                  keyValueString);
-            }
-          } else if (includeThirdPartyValues) {
-            thirdPartyKeyValueStrings.add(keyValueString.trim());
-          }
-        }
-      } catch (Throwable e) {
-        logger.log(SentryLevel.ERROR, e, "Unable to decode baggage header %s", headerValue);
+      parser.parse(headerValue);
+    }
+    return parser.toBaggage();
+  }
+
+  /**
+   * Collects the third party list members of the given headers, skipping over (and not decoding)
+   * any sentry- list members.
+   *
+   * @param headerValues the baggage header values
+   * @return the third party list members joined by "," or null if there are none
+   */
+  static @Nullable String thirdPartyHeaderFrom(final @Nullable List<String> headerValues) {
+    if (headerValues == null) {
+      return null;
+    }
+    final @NotNull HeaderParser parser =
+        new HeaderParser(true, true, NoOpLogger.getInstance());
+    for (final @Nullable String headerValue : headerValues) {
+      if (headerValue != null) {
+        parser.parse(headerValue);
       }
     }
-    final String thirdPartyHeader =
-        thirdPartyKeyValueStrings.isEmpty()
-            ? null
-            : StringUtils.join(",", thirdPartyKeyValueStrings);
-    /*
-     can't freeze Baggage right away as we might have to backfill sampleRand
-     also we don't receive sentry-trace header here or in ctor so we can't
-     backfill then freeze here unless we pass sentry-trace header.
-    */
-    return new Baggage(
-        keyValues, sampleRate, sampleRand, thirdPartyHeader, true, shouldFreeze, logger);
+    return parser.thirdPartyHeader();
   }
 
   @ApiStatus.Internal
@@ -211,6 +173,7 @@ public final class Baggage {
   public Baggage(final @NotNull Baggage baggage) {
     this(
         baggage.keyValues,
+        baggage.keyValuesVersion,
         baggage.sampleRate,
         baggage.sampleRand,
         baggage.thirdPartyHeader,
@@ -228,7 +191,28 @@ public final class Baggage {
       final boolean isMutable,
       final boolean shouldFreeze,
       final @NotNull ILogger logger) {
+    this(
+        keyValues,
+        new AtomicInteger(),
+        sampleRate,
+        sampleRand,
+        thirdPartyHeader,
+        isMutable,
+        shouldFreeze,
+        logger);
+  }
+
+  private Baggage(
+      final @NotNull ConcurrentHashMap<String, String> keyValues,
+      final @NotNull AtomicInteger keyValuesVersion,
+      final @Nullable Double sampleRate,
+      final @Nullable Double sampleRand,
+      final @Nullable String thirdPartyHeader,
+      final boolean isMutable,
+      final boolean shouldFreeze,
+      final @NotNull ILogger logger) {
     this.keyValues = keyValues;
+    this.keyValuesVersion = keyValuesVersion;
     this.sampleRate = sampleRate;
     this.sampleRand = sampleRand;
     this.logger = logger;
@@ -258,6 +242,31 @@ public final class Baggage {
   }
 
   public @NotNull String toHeaderString(@Nullable String thirdPartyBaggageHeaderString) {
+    // outgoing requests mostly serialize the same, unchanged baggage over and over again
+    final int version = keyValuesVersion.get();
+    final @Nullable Double sampleRate = this.sampleRate;
+    final @Nullable Double sampleRand = this.sampleRand;
+    final @Nullable HeaderStringCache cache = headerStringCache;
+    if (cache != null
+        && cache.keyValuesVersion == version
+        && Objects.equals(cache.sampleRate, sampleRate)
+        && Objects.equals(cache.sampleRand, sampleRand)
+        && Objects.equals(cache.thirdPartyHeader, thirdPartyBaggageHeaderString)) {
+      return cache.value;
+    }
+
+    final String headerString =
+        toHeaderString(thirdPartyBaggageHeaderString, sampleRate, sampleRand);
+    headerStringCache =
+        new HeaderStringCache(
+            version, sampleRate, sampleRand, thirdPartyBaggageHeaderString, headerString);
+    return headerString;
+  }
+
+  private @NotNull String toHeaderString(
+      final @Nullable String thirdPartyBaggageHeaderString,
+      final @Nullable Double sampleRate,
+      final @Nullable Double sampleRand) {
     final StringBuilder sb = new StringBuilder();
     String separator = "";
     int listMemberCount = 0;
@@ -461,6 +470,7 @@ public final class Baggage {
   public void forceSetReplayId(final @NotNull SentryId replayId) {
     if (!SentryId.EMPTY_ID.equals(replayId)) {
       keyValues.put(DSCKeys.REPLAY_ID, replayId.toString());
+      keyValuesVersion.incrementAndGet();
     }
   }
 
@@ -488,6 +498,7 @@ public final class Baggage {
       } else {
         keyValues.put(key, value);
       }
+      keyValuesVersion.incrementAndGet();
     }
   }
 
@@ -646,6 +657,183 @@ public final class Baggage {
     }
   }
 
+  private static final class HeaderStringCache {
+    private final int keyValuesVersion;
+    private final @Nullable Double sampleRate;
+    private final @Nullable Double sampleRand;
+    private final @Nullable String thirdPartyHeader;
+    private final @NotNull String value;
+
+    HeaderStringCache(
+        final int keyValuesVersion,
+        final @Nullable Double sampleRate,
+        final @Nullable Double sampleRand,
+        final @Nullable String thirdPartyHeader,
+        final @NotNull String value) {
+      this.keyValuesVersion = keyValuesVersion;
+      this.sampleRate = sampleRate;
+      this.sampleRand = sampleRand;
+      this.thirdPartyHeader = thirdPartyHeader;
+      this.value = value;
+    }
+  }
+
+  /**
+   * Parses baggage list members in place instead of splitting the header into intermediate
+   * strings. Only sentry- list members are decoded, third party list members are kept as the raw
+   * (trimmed) slices of the header.
+   */
+  private static final class HeaderParser {
+    private final boolean includeThirdPartyValues;
+    private final boolean skipSentryValues;
+    private final @NotNull ILogger logger;
+
+    private final @NotNull ConcurrentHashMap<String, String> keyValues = new ConcurrentHashMap<>();
+    private @Nullable StringBuilder thirdPartyHeader;
+    private @Nullable Double sampleRate;
+    private @Nullable Double sampleRand;
+    private boolean shouldFreeze;
+
+    HeaderParser(
+        final boolean includeThirdPartyValues,
+        final boolean skipSentryValues,
+        final @NotNull ILogger logger) {
+      this.includeThirdPartyValues = includeThirdPartyValues;
+      this.skipSentryValues = skipSentryValues;
+      this.logger = logger;
+    }
+
+    void parse(final @NotNull String headerValue) {
+      final int length = headerValue.length();
+      int memberStart = 0;
+      while (memberStart <= length) {
+        int memberEnd = headerValue.indexOf(',', memberStart);
+        if (memberEnd < 0) {
+          memberEnd = length;
+        }
+        parseMember(headerValue, memberStart, memberEnd);
+        memberStart = memberEnd + 1;
+      }
+    }
+
+    private void parseMember(final @NotNull String headerValue, final int start, final int end) {
+      final int from = trimStart(headerValue, start, end);
+      final int to = trimEnd(headerValue, from, end);
+
+      if (headerValue.startsWith(SENTRY_BAGGAGE_PREFIX, from)) {
+        if (!skipSentryValues) {
+          parseSentryMember(headerValue, start, end, from, to);
+        }
+      } else if (includeThirdPartyValues) {
+        if (thirdPartyHeader == null) {
+          thirdPartyHeader = new StringBuilder(to - from);
+        } else {
+          thirdPartyHeader.append(',');
+        }
+        thirdPartyHeader.append(headerValue, from, to);
+      }
+    }
+
+    private void parseSentryMember(
+        final @NotNull String headerValue,
+        final int start,
+        final int end,
+        final int from,
+        final int to) {
+      try {
+        // As per spec (https://www.w3.org/TR/baggage/#value)
+        // a value may contain "=" signs, thus we split by the first occurrence
+        final int separatorIndex = headerValue.indexOf('=', from);
+        if (separatorIndex < 0 || separatorIndex >= to) {
+          logger.log(
+              SentryLevel.ERROR,
+              "Unable to decode baggage key value pair %s",
+              headerValue.substring(start, end));
+          return;
+        }
+        final String key = trimmedSubstring(headerValue, from, separatorIndex);
+        final String keyDecoded = decodeIfEscaped(key);
+        final String valueDecoded =
+            decodeIfEscaped(trimmedSubstring(headerValue, separatorIndex + 1, to));
+
+        if (DSCKeys.SAMPLE_RATE.equals(keyDecoded)) {
+          sampleRate = toDouble(valueDecoded);
+        } else if (DSCKeys.SAMPLE_RAND.equals(keyDecoded)) {
+          sampleRand = toDouble(valueDecoded);
+        } else {
+          keyValues.put(keyDecoded, valueDecoded);
+        }
+        // Without ignoring SAMPLE_RAND here, we'd be freezing baggage that we're transporting
+        // via OTel span attributes.
+        // This is done when a transaction is created via Sentry API.
+        // In that case Baggage is created before the OTel span is created and we put it on
+        // the span attributes.
+        // It does however only contain the sample random value as its only value.
+        // The OTel code then uses it to create a propagation context from it and ends up
+        // freezing it,
+        // preventing outgoing requests (to other systems or Sentry) from adding info to
+        // baggage and only then freeze it.
+        if (!DSCKeys.SAMPLE_RAND.equalsIgnoreCase(key)) {
+          shouldFreeze = true;
+        }
+      } catch (Throwable e) {
+        logger.log(
+            SentryLevel.ERROR,
+            e,
+            "Unable to decode baggage key value pair %s",
+            headerValue.substring(start, end));
+      }
+    }
+
+    @Nullable
+    String thirdPartyHeader() {
+      return thirdPartyHeader == null ? null : thirdPartyHeader.toString();
+    }
+
+    @NotNull
+    Baggage toBaggage() {
+      /*
+       can't freeze Baggage right away as we might have to backfill sampleRand
+       also we don't receive sentry-trace header here or in ctor so we can't
+       backfill then freeze here unless we pass sentry-trace header.
+      */
+      return new Baggage(
+          keyValues, sampleRate, sampleRand, thirdPartyHeader(), true, shouldFreeze, logger);
+    }
+
+    private static int trimStart(final @NotNull String value, int from, final int to) {
+      while (from < to && value.charAt(from) <= ' ') {
+        from++;
+      }
+      return from;
+    }
+
+    private static int trimEnd(final @NotNull String value, final int from, int to) {
+      while (to > from && value.charAt(to - 1) <= ' ') {
+        to--;
+      }
+      return to;
+    }
+
+    private static @NotNull String trimmedSubstring(
+        final @NotNull String value, final int start, final int end) {
+      final int from = trimStart(value, start, end);
+      return value.substring(from, trimEnd(value, from, end));
+    }
+
+    /** URLDecoder only changes values containing '%' or '+', so we can skip it for all others. */
+    private static @NotNull String decodeIfEscaped(final @NotNull String value)
+        throws UnsupportedEncodingException {
+      for (int i = 0; i < value.length(); i++) {
+        final char c = value.charAt(i);
+        if (c == '%' || c == '+') {
+          return decode(value);
+        }
+      }
+      return value;
+    }
+  }
+
   @ApiStatus.Internal
   public static final class DSCKeys {
     public static final String TRACE_ID = "sentry-trace_id";
@@ -14,9 +14,8 @@ public final class BaggageHeader {
   @Nullable
   public static BaggageHeader fromBaggageAndOutgoingHeader(
       final @NotNull Baggage baggage, final @Nullable List<String> outgoingBaggageHeaders) {
-    final Baggage thirdPartyBaggage =
-        Baggage.fromHeader(outgoingBaggageHeaders, true, baggage.logger);
-    String headerValue = baggage.toHeaderString(thirdPartyBaggage.getThirdPartyHeader());
+    final @Nullable String thirdPartyHeader = Baggage.thirdPartyHeaderFrom(outgoingBaggageHeaders);
+    String headerValue = baggage.toHeaderString(thirdPartyHeader);
 
     if (headerValue.isEmpty()) {
       return null;
@@ -0,0 +1,132 @@
+package io.sentry;
+
+import io.sentry.util.AutoClosableReentrantLock;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Aggregated cache operations of a span, by cache name. Kept as the {@link
+ * SpanDataConvention#CACHE_OPERATIONS} data of the span, which is serialized with the number of
+ * operations, hits, misses, writes, errors and a latency histogram of each cache.
+ */
+@ApiStatus.Internal
+public final class CacheOperationStats implements JsonSerializable {
+
+  private static final @NotNull AutoClosableReentrantLock createLock =
+      new AutoClosableReentrantLock();
+
+  /** Upper bounds of the latency histogram buckets, the last bucket has no upper bound. */
+  private static final long[] BUCKET_BOUNDS_NANOS = {10_000L, 100_000L, 1_000_000L, 10_000_000L};
+
+  private static final @NotNull String[] BUCKET_NAMES = {"10us", "100us", "1ms", "10ms", "inf"};
+
+  private static final int COUNT = 0;
+  private static final int HITS = 1;
+  private static final int MISSES = 2;
+  private static final int WRITES = 3;
+  private static final int ERRORS = 4;
+  private static final int TOTAL_NANOS = 5;
+  private static final int MAX_NANOS = 6;
+  private static final int FIRST_BUCKET = 7;
+  private static final int STATS_SIZE = FIRST_BUCKET + BUCKET_NAMES.length;
+
+  private final @NotNull AutoClosableReentrantLock lock = new AutoClosableReentrantLock();
+  private final @NotNull Map<String, long[]> stats = new LinkedHashMap<>();
+
+  private CacheOperationStats() {}
+
+  /**
+   * @param span the span cache operations are aggregated on
+   * @return the stats of the span, they're created if the span doesn't have any yet
+   */
+  public static @NotNull CacheOperationStats of(final @NotNull ISpan span) {
+    final @Nullable Object existing = span.getData(SpanDataConvention.CACHE_OPERATIONS);
+    if (existing instanceof CacheOperationStats) {
+      return (CacheOperationStats) existing;
+    }
+    try (final @NotNull ISentryLifecycleToken ignored = createLock.acquire()) {
+      final @Nullable Object current = span.getData(SpanDataConvention.CACHE_OPERATIONS);
+      if (current instanceof CacheOperationStats) {
+        return (CacheOperationStats) current;
+      }
+      final @NotNull CacheOperationStats stats = new CacheOperationStats();
+      span.setData(SpanDataConvention.CACHE_OPERATIONS, stats);
+      return stats;
+    }
+  }
+
+  /**
+   * Records a cache operation.
+   *
+   * @param cacheName the name of the cache
+   * @param hit whether a read found a value, null if the operation doesn't read
+   * @param write whether the operation changed the cache
+   * @param failed whether the operation failed
+   * @param durationNanos the duration of the operation
+   */
+  public void record(
+      final @NotNull String cacheName,
+      final @Nullable Boolean hit,
+      final boolean write,
+      final boolean failed,
+      final long durationNanos) {
+    int bucket = 0;
+    while (bucket < BUCKET_BOUNDS_NANOS.length && durationNanos >= BUCKET_BOUNDS_NANOS[bucket]) {
+      bucket++;
+    }
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      long[] cacheStats = stats.get(cacheName);
+      if (cacheStats == null) {
+        cacheStats = new long[STATS_SIZE];
+        stats.put(cacheName, cacheStats);
+      }
+      cacheStats[COUNT]++;
+      if (hit != null) {
+        cacheStats[hit ? HITS : MISSES]++;
+      }
+      if (write) {
+        cacheStats[WRITES]++;
+      }
+      if (failed) {
+        cacheStats[ERRORS]++;
+      }
+      cacheStats[TOTAL_NANOS] += durationNanos;
+      cacheStats[MAX_NANOS] = Math.max(cacheStats[MAX_NANOS], durationNanos);
+      cacheStats[FIRST_BUCKET + bucket]++;
+    }
+  }
+
+  @Override
+  public void serialize(final @NotNull ObjectWriter writer, final @NotNull ILogger logger)
+      throws IOException {
+    writer.beginObject();
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      for (final @NotNull Map.Entry<String, long[]> entry : stats.entrySet()) {
+        final long[] cacheStats = entry.getValue();
+        writer.name(entry.getKey()).beginObject();
+        writer.name("count").value(cacheStats[COUNT]);
+        writer.name("hits").value(cacheStats[HITS]);
+        writer.name("misses").value(cacheStats[MISSES]);
+        writer.name("writes").value(cacheStats[WRITES]);
+        writer.name("errors").value(cacheStats[ERRORS]);
+        writer.name("total_duration_ms").value(toMillis(cacheStats[TOTAL_NANOS]));
+        writer.name("max_duration_ms").value(toMillis(cacheStats[MAX_NANOS]));
+        writer.name("latency_histogram").beginObject();
+        for (int i = 0; i < BUCKET_NAMES.length; i++) {
+          writer.name(BUCKET_NAMES[i]).value(cacheStats[FIRST_BUCKET + i]);
+        }
+        writer.endObject();
+        writer.endObject();
+      }
+    }
+    writer.endObject();
+  }
+
+  private static double toMillis(final long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
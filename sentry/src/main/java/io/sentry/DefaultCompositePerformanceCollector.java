@@ -5,9 +5,11 @@ import io.sentry.util.Objects;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.jetbrains.annotations.ApiStatus;
@@ -18,9 +20,16 @@ import org.jetbrains.annotations.Nullable;
 public final class DefaultCompositePerformanceCollector implements CompositePerformanceCollector {
   private static final long TRANSACTION_COLLECTION_INTERVAL_MILLIS = 100;
   private static final long TRANSACTION_COLLECTION_TIMEOUT_MILLIS = 30000;
+  // samples are kept for a little longer than the longest profile chunk (60 seconds on Android)
+  private static final int MAX_COLLECTED_SAMPLES = 1024;
   private final @NotNull AutoClosableReentrantLock timerLock = new AutoClosableReentrantLock();
   private volatile @Nullable Timer timer = null;
   private final @NotNull Map<String, CompositeData> compositeDataMap = new ConcurrentHashMap<>();
+  // samples shared by all entries of compositeDataMap, which only remember when they started
+  private final @NotNull PerformanceCollectionDataBuffer samples =
+      new PerformanceCollectionDataBuffer(MAX_COLLECTED_SAMPLES);
+  // running transactions in the order they started, so the oldest ones are checked for timeouts
+  private final @NotNull Queue<CompositeData> transactionTimeouts = new ConcurrentLinkedQueue<>();
   private final @NotNull List<IPerformanceSnapshotCollector> snapshotCollectors;
   private final @NotNull List<IPerformanceContinuousCollector> continuousCollectors;
   private final boolean hasNoCollectors;
@@ -65,7 +74,10 @@ public final class DefaultCompositePerformanceCollector implements CompositePerf
 
     final @NotNull String id = transaction.getEventId().toString();
     if (!compositeDataMap.containsKey(id)) {
-      compositeDataMap.put(id, new CompositeData(transaction));
+      final @NotNull CompositeData data = new CompositeData(transaction);
+      if (compositeDataMap.putIfAbsent(id, data) == null) {
+        transactionTimeouts.add(data);
+      }
     }
     start(id);
   }
@@ -106,13 +118,10 @@ public final class DefaultCompositePerformanceCollector implements CompositePerf
         // and collect() calls.
         // This way ICollectors that collect average stats based on time intervals, like
         // AndroidCpuCollector, can have an actual time interval to evaluate.
-        final @NotNull List<ITransaction> timedOutTransactions = new ArrayList<>();
         TimerTask timerTask =
             new TimerTask() {
               @Override
               public void run() {
-                timedOutTransactions.clear();
-
                 final @NotNull PerformanceCollectionData tempData =
                     new PerformanceCollectionData(options.getDateProvider().now().nanoTimestamp());
 
@@ -121,21 +130,10 @@ public final class DefaultCompositePerformanceCollector implements CompositePerf
                   collector.collect(tempData);
                 }
 
-                // Add the enriched tempData to all transactions/profiles/objects that collect data.
-                // Then Check if that object timed out.
-                for (CompositeData data : compositeDataMap.values()) {
-                  if (data.addDataAndCheckTimeout(tempData, tempData.getNanoTimestamp())) {
-                    // timed out
-                    if (data.transaction != null) {
-                      timedOutTransactions.add(data.transaction);
-                    }
-                  }
-                }
-                // Stop timed out transactions outside compositeDataMap loop, as stop() modifies the
-                // map
-                for (final @NotNull ITransaction t : timedOutTransactions) {
-                  stop(t);
-                }
+                // The enriched tempData is shared by all transactions/profiles/objects that collect
+                // data, they take the samples collected while they were running when they stop.
+                samples.add(tempData);
+                stopTimedOutTransactions(tempData.getNanoTimestamp());
               }
             };
         timer.schedule(
@@ -146,6 +144,27 @@ public final class DefaultCompositePerformanceCollector implements CompositePerf
     }
   }
 
+  /**
+   * Stops the transactions running for longer than the timeout. They are checked in the order they
+   * started, so only the ones that timed out and the next running one are looked at.
+   *
+   * @param nowNanos the timestamp of the current collection
+   */
+  private void stopTimedOutTransactions(final long nowNanos) {
+    final long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(TRANSACTION_COLLECTION_TIMEOUT_MILLIS);
+    @Nullable CompositeData data;
+    while ((data = transactionTimeouts.peek()) != null) {
+      final @Nullable ITransaction transaction = data.transaction;
+      if (transaction != null && nowNanos <= data.startTimestamp + timeoutNanos) {
+        break;
+      }
+      transactionTimeouts.poll();
+      if (transaction != null) {
+        stop(transaction);
+      }
+    }
+  }
+
   @Override
   public void onSpanStarted(@NotNull ISpan span) {
     for (final @NotNull IPerformanceContinuousCollector collector : continuousCollectors) {
@@ -182,11 +201,22 @@ public final class DefaultCompositePerformanceCollector implements CompositePerf
     final @Nullable CompositeData data = compositeDataMap.remove(id);
     options.getLogger().log(SentryLevel.DEBUG, "stop collecting performance info for " + id);
 
+    if (data == null) {
+      // close if there are no more running requests
+      if (compositeDataMap.isEmpty()) {
+        close();
+      }
+      return null;
+    }
+    // a stopped transaction no longer needs to be checked for a timeout
+    data.transaction = null;
+    final @NotNull List<PerformanceCollectionData> dataList = samples.since(data.startTimestamp);
+
     // close if there are no more running requests
     if (compositeDataMap.isEmpty()) {
       close();
     }
-    return data != null ? data.dataList : null;
+    return dataList;
   }
 
   @Override
@@ -196,6 +226,8 @@ public final class DefaultCompositePerformanceCollector implements CompositePerf
         .log(SentryLevel.DEBUG, "stop collecting all performance info for transactions");
 
     compositeDataMap.clear();
+    transactionTimeouts.clear();
+    samples.clear();
     for (final @NotNull IPerformanceContinuousCollector collector : continuousCollectors) {
       collector.clear();
     }
@@ -210,35 +242,13 @@ public final class DefaultCompositePerformanceCollector implements CompositePerf
   }
 
   private class CompositeData {
-    private final @NotNull List<PerformanceCollectionData> dataList;
-    private final @Nullable ITransaction transaction;
+    // set to null once stopped, so it's not retained until it would have timed out
+    private volatile @Nullable ITransaction transaction;
     private final long startTimestamp;
 
     private CompositeData(final @Nullable ITransaction transaction) {
-      this.dataList = new ArrayList<>();
       this.transaction = transaction;
       this.startTimestamp = options.getDateProvider().now().nanoTimestamp();
     }
-
-    /**
-     * Adds the data to the internal list of PerformanceCollectionData. Then it checks if data
-     * collection timed out (for transactions only).
-     *
-     * @param nowNanos the timestamp of the current collection, passed in so a single clock reading
-     *     is shared by every transaction in this collection round.
-     * @return true if data collection timed out (for transactions only).
-     */
-    boolean addDataAndCheckTimeout(
-        final @NotNull PerformanceCollectionData data, final long nowNanos) {
-      // stop() hands dataList out while this timer thread may still be writing to it, so consumers
-      // synchronize on the list while iterating. We must hold the same monitor here.
-      synchronized (dataList) {
-        dataList.add(data);
-      }
-      return transaction != null
-          && nowNanos
-              > startTimestamp
-                  + TimeUnit.MILLISECONDS.toNanos(TRANSACTION_COLLECTION_TIMEOUT_MILLIS);
-    }
   }
 }
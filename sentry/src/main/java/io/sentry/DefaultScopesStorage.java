@@ -19,6 +19,11 @@ public final class DefaultScopesStorage implements IScopesStorage {
     return new DefaultScopesLifecycleToken(oldScopes);
   }
 
+  @Override
+  public void replace(final @Nullable IScopes scopes) {
+    currentScopes.set(scopes);
+  }
+
   @Override
   public @Nullable IScopes get() {
     return currentScopes.get();
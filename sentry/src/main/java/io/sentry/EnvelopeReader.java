@@ -1,6 +1,10 @@
 package io.sentry;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
@@ -18,12 +22,105 @@ public final class EnvelopeReader implements IEnvelopeReader {
   @SuppressWarnings("CharsetObjectCanBeUsed")
   private static final Charset UTF_8 = Charset.forName("UTF-8");
 
+  /** Item payloads of at least this size are kept in the file when reading from a file. */
+  static final int FILE_BACKED_ITEM_MIN_SIZE = 64 * 1024;
+
   private final @NotNull ISerializer serializer;
 
   public EnvelopeReader(@NotNull ISerializer serializer) {
     this.serializer = serializer;
   }
 
+  /**
+   * Reads the envelope from the file in a single streaming pass. Item payloads smaller than {@link
+   * #FILE_BACKED_ITEM_MIN_SIZE} are read into memory, larger ones are skipped over and only read
+   * from the file once they are actually needed, see {@link SentryEnvelopeItem#isFileBacked()}.
+   * This way big replay or profile payloads can be forwarded to the transport, or dropped, without
+   * ever being fully loaded.
+   */
+  @Override
+  public @Nullable SentryEnvelope read(final @NotNull File file) throws IOException {
+    final long fileLength = file.length();
+    try (final InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+      final byte[] headerBytes = readLine(stream);
+      if (headerBytes == null) {
+        throw new IllegalArgumentException("Empty stream.");
+      }
+      long position = headerBytes.length;
+      if (position == fileLength) {
+        throw new IllegalArgumentException("Envelope contains no header.");
+      }
+      position++; // line break
+
+      final SentryEnvelopeHeader header =
+          deserializeEnvelopeHeader(headerBytes, 0, headerBytes.length);
+      if (header == null) {
+        throw new IllegalArgumentException("Envelope header is null.");
+      }
+
+      final List<SentryEnvelopeItem> items = new ArrayList<>();
+      do {
+        final byte[] itemHeaderBytes = readLine(stream);
+        if (itemHeaderBytes == null || position + itemHeaderBytes.length == fileLength) {
+          throw new IllegalArgumentException(
+              "Invalid envelope. Item at index '"
+                  + items.size()
+                  + "'. "
+                  + "has no header delimiter.");
+        }
+        position += itemHeaderBytes.length + 1;
+
+        final SentryEnvelopeItemHeader itemHeader =
+            deserializeEnvelopeItemHeader(itemHeaderBytes, 0, itemHeaderBytes.length);
+
+        if (itemHeader == null || itemHeader.getLength() <= 0) {
+          throw new IllegalArgumentException(
+              "Item header at index '" + items.size() + "' is null or empty.");
+        }
+
+        final long payloadEndOffsetExclusive = position + itemHeader.getLength();
+        if (payloadEndOffsetExclusive > fileLength) {
+          throw new IllegalArgumentException(
+              "Invalid length for item at index '"
+                  + items.size()
+                  + "'. "
+                  + "Item is '"
+                  + payloadEndOffsetExclusive
+                  + "' bytes. There are '"
+                  + fileLength
+                  + "' in the buffer.");
+        }
+
+        if (itemHeader.getLength() >= FILE_BACKED_ITEM_MIN_SIZE) {
+          skipFully(stream, itemHeader.getLength());
+          items.add(new SentryEnvelopeItem(itemHeader, file, position));
+        } else {
+          final byte[] envelopeItemBytes = new byte[itemHeader.getLength()];
+          readFully(stream, envelopeItemBytes);
+          items.add(new SentryEnvelopeItem(itemHeader, envelopeItemBytes));
+        }
+        position = payloadEndOffsetExclusive;
+
+        if (payloadEndOffsetExclusive == fileLength) {
+          // End of envelope
+          break;
+        }
+        final int delimiter = stream.read();
+        position++;
+        if (payloadEndOffsetExclusive + 1 == fileLength) {
+          // Envelope items can be closed with a final line break
+          if (delimiter == '\n') {
+            break;
+          } else {
+            throw new IllegalArgumentException("Envelope has invalid data following an item.");
+          }
+        }
+      } while (true);
+
+      return new SentryEnvelope(header, items);
+    }
+  }
+
   public @Override @Nullable SentryEnvelope read(final @NotNull InputStream stream)
       throws IOException {
     byte[] buffer = new byte[1024];
@@ -130,6 +227,50 @@ public final class EnvelopeReader implements IEnvelopeReader {
     }
   }
 
+  /**
+   * Reads up to the next line break, which is consumed but not returned.
+   *
+   * @return the bytes of the line, or null if the stream was already exhausted
+   */
+  private static @Nullable byte[] readLine(final @NotNull InputStream stream) throws IOException {
+    final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+    int b;
+    while ((b = stream.read()) != -1) {
+      if (b == '\n') {
+        return line.toByteArray();
+      }
+      line.write(b);
+    }
+    return line.size() == 0 ? null : line.toByteArray();
+  }
+
+  private static void readFully(final @NotNull InputStream stream, final @NotNull byte[] buffer)
+      throws IOException {
+    int offset = 0;
+    while (offset < buffer.length) {
+      final int read = stream.read(buffer, offset, buffer.length - offset);
+      if (read == -1) {
+        throw new EOFException("Envelope ended unexpectedly.");
+      }
+      offset += read;
+    }
+  }
+
+  private static void skipFully(final @NotNull InputStream stream, final long length)
+      throws IOException {
+    long remaining = length;
+    while (remaining > 0) {
+      final long skipped = stream.skip(remaining);
+      if (skipped > 0) {
+        remaining -= skipped;
+      } else if (stream.read() != -1) {
+        remaining--;
+      } else {
+        throw new EOFException("Envelope ended unexpectedly.");
+      }
+    }
+  }
+
   private @Nullable SentryEnvelopeHeader deserializeEnvelopeHeader(
       final @NotNull byte[] buffer, int offset, int length) {
     String json = new String(buffer, offset, length, UTF_8);
@@ -58,6 +58,9 @@ public final class ExternalOptions {
   private @Nullable Boolean enableBackpressureHandling;
   private @Nullable Boolean enableDatabaseTransactionTracing;
   private @Nullable Boolean enableCacheTracing;
+  private @Nullable Boolean enableCacheSpanAggregation;
+  private @Nullable Long slowCacheOperationThresholdMillis;
+  private @Nullable Boolean enableBackgroundWebExceptionCapture;
   private @Nullable Boolean enableQueueTracing;
   private @Nullable Boolean globalHubMode;
   private @Nullable Boolean forceInit;
@@ -168,6 +171,12 @@ public final class ExternalOptions {
         propertiesProvider.getBooleanProperty("enable-database-transaction-tracing"));
 
     options.setEnableCacheTracing(propertiesProvider.getBooleanProperty("enable-cache-tracing"));
+    options.setEnableCacheSpanAggregation(
+        propertiesProvider.getBooleanProperty("enable-cache-span-aggregation"));
+    options.setSlowCacheOperationThresholdMillis(
+        propertiesProvider.getLongProperty("slow-cache-operation-threshold-millis"));
+    options.setEnableBackgroundWebExceptionCapture(
+        propertiesProvider.getBooleanProperty("enable-background-web-exception-capture"));
 
     options.setEnableQueueTracing(propertiesProvider.getBooleanProperty("enable-queue-tracing"));
 
@@ -544,6 +553,32 @@ public final class ExternalOptions {
     return enableCacheTracing;
   }
 
+  public void setEnableCacheSpanAggregation(final @Nullable Boolean enableCacheSpanAggregation) {
+    this.enableCacheSpanAggregation = enableCacheSpanAggregation;
+  }
+
+  public @Nullable Boolean isEnableCacheSpanAggregation() {
+    return enableCacheSpanAggregation;
+  }
+
+  public void setSlowCacheOperationThresholdMillis(
+      final @Nullable Long slowCacheOperationThresholdMillis) {
+    this.slowCacheOperationThresholdMillis = slowCacheOperationThresholdMillis;
+  }
+
+  public @Nullable Long getSlowCacheOperationThresholdMillis() {
+    return slowCacheOperationThresholdMillis;
+  }
+
+  public void setEnableBackgroundWebExceptionCapture(
+      final @Nullable Boolean enableBackgroundWebExceptionCapture) {
+    this.enableBackgroundWebExceptionCapture = enableBackgroundWebExceptionCapture;
+  }
+
+  public @Nullable Boolean isEnableBackgroundWebExceptionCapture() {
+    return enableBackgroundWebExceptionCapture;
+  }
+
   public void setEnableQueueTracing(final @Nullable Boolean enableQueueTracing) {
     this.enableQueueTracing = enableQueueTracing;
   }
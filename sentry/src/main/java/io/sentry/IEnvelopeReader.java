@@ -1,5 +1,8 @@
 package io.sentry;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import org.jetbrains.annotations.NotNull;
@@ -8,4 +11,19 @@ import org.jetbrains.annotations.Nullable;
 public interface IEnvelopeReader {
   @Nullable
   SentryEnvelope read(@NotNull InputStream stream) throws IOException;
+
+  /**
+   * Reads an envelope from a file. Implementations may keep large item payloads in the file and
+   * only read them on demand, so the file must not be deleted before the envelope has been
+   * processed.
+   *
+   * @param file the envelope file
+   * @return the envelope or null
+   * @throws IOException if the file can't be read
+   */
+  default @Nullable SentryEnvelope read(final @NotNull File file) throws IOException {
+    try (final InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+      return read(stream);
+    }
+  }
 }
@@ -22,4 +22,19 @@ public interface IProfileConverter {
    */
   @NotNull
   SentryProfile convertFromFile(@NotNull String jfrFilePath) throws IOException;
+
+  /**
+   * Converts a JFR file that was recorded with the given event to a SentryProfile.
+   *
+   * @param jfrFilePath The path to the JFR file to convert
+   * @param eventType The event the file was recorded with, which may differ from the one currently
+   *     configured
+   * @return The converted SentryProfile
+   * @throws IOException If an error occurs while reading or converting the file
+   */
+  default @NotNull SentryProfile convertFromFile(
+      final @NotNull String jfrFilePath, final @NotNull ProfilingEventType eventType)
+      throws IOException {
+    return convertFromFile(jfrFilePath);
+  }
 }
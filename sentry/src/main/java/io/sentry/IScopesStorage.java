@@ -12,6 +12,16 @@ public interface IScopesStorage {
   @NotNull
   ISentryLifecycleToken set(final @Nullable IScopes scopes);
 
+  /**
+   * Makes the given scopes current without creating a token to restore the previous ones. Used by
+   * integrations that restore the previous scopes on their own, like context propagation.
+   *
+   * @param scopes the scopes
+   */
+  default void replace(final @Nullable IScopes scopes) {
+    set(scopes);
+  }
+
   @Nullable
   IScopes get();
 
@@ -1,8 +1,10 @@
 package io.sentry;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.Map;
@@ -23,6 +25,21 @@ public interface ISerializer {
 
   <T> void serialize(@NotNull T entity, @NotNull Writer writer) throws IOException;
 
+  /**
+   * Serializes an entity as UTF-8 encoded JSON
+   *
+   * @param entity the entity
+   * @param outputStream which will not be closed automatically
+   * @throws IOException an exception
+   */
+  default <T> void serialize(@NotNull T entity, @NotNull OutputStream outputStream)
+      throws IOException {
+    @SuppressWarnings("CharsetObjectCanBeUsed")
+    final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8"));
+    serialize(entity, writer);
+    writer.flush();
+  }
+
   /**
    * Serializes an envelope
    *
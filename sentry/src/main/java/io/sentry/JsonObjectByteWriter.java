@@ -0,0 +1,539 @@
+package io.sentry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link ObjectWriter} that encodes JSON as UTF-8 bytes straight into a buffer which is drained
+ * into an {@link OutputStream}. Unlike {@link JsonObjectWriter} this skips the {@link
+ * java.io.Writer} and {@link java.nio.charset.CharsetEncoder} layers entirely, copies ASCII
+ * strings byte by byte and formats integral numbers without going through {@link String}.
+ *
+ * <p>The produced output is identical to {@link JsonObjectWriter}. The buffer is borrowed from a
+ * per-thread pool and handed back on {@link #flush()}, so callers must always flush once they are
+ * done writing.
+ */
+@ApiStatus.Internal
+public final class JsonObjectByteWriter implements ObjectWriter {
+
+  @SuppressWarnings("CharsetObjectCanBeUsed")
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  static final int BUFFER_SIZE = 8192;
+
+  // worst case is an escaped control character (\u001f), 6 bytes
+  private static final int MAX_BYTES_PER_CHAR = 6;
+
+  // scopes, same as io.sentry.vendor.gson.stream.JsonScope
+  private static final int EMPTY_ARRAY = 1;
+  private static final int NONEMPTY_ARRAY = 2;
+  private static final int EMPTY_OBJECT = 3;
+  private static final int DANGLING_NAME = 4;
+  private static final int NONEMPTY_OBJECT = 5;
+  private static final int EMPTY_DOCUMENT = 6;
+  private static final int NONEMPTY_DOCUMENT = 7;
+
+  private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+  private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+  private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+  private static final byte[] MIN_LONG = asciiBytes(Long.toString(Long.MIN_VALUE));
+  private static final byte[] LINE_SEPARATOR = asciiBytes("\\u2028");
+  private static final byte[] PARAGRAPH_SEPARATOR = asciiBytes("\\u2029");
+
+  private static final byte[][] REPLACEMENT_BYTES;
+
+  static {
+    REPLACEMENT_BYTES = new byte[128][];
+    for (int i = 0; i <= 0x1f; i++) {
+      REPLACEMENT_BYTES[i] = asciiBytes(String.format("\\u%04x", i));
+    }
+    REPLACEMENT_BYTES['"'] = asciiBytes("\\\"");
+    REPLACEMENT_BYTES['\\'] = asciiBytes("\\\\");
+    REPLACEMENT_BYTES['\t'] = asciiBytes("\\t");
+    REPLACEMENT_BYTES['\b'] = asciiBytes("\\b");
+    REPLACEMENT_BYTES['\n'] = asciiBytes("\\n");
+    REPLACEMENT_BYTES['\r'] = asciiBytes("\\r");
+    REPLACEMENT_BYTES['\f'] = asciiBytes("\\f");
+  }
+
+  /** Buffers are only reused by the thread that borrowed them. */
+  private static final ThreadLocal<byte[]> bufferPool = new ThreadLocal<>();
+
+  private final @NotNull OutputStream out;
+  private final @NotNull JsonObjectSerializer jsonObjectSerializer;
+
+  private @Nullable byte[] buffer;
+  private int position;
+
+  private int[] stack = new int[8];
+  private int stackSize = 0;
+
+  private @Nullable String indent;
+  private @Nullable byte[] indentBytes;
+  private boolean lenient;
+  private @Nullable String deferredName;
+
+  public JsonObjectByteWriter(final @NotNull OutputStream out, final int maxDepth) {
+    this.out = out;
+    this.jsonObjectSerializer = new JsonObjectSerializer(maxDepth);
+    push(EMPTY_DOCUMENT);
+  }
+
+  @Override
+  public JsonObjectByteWriter beginArray() throws IOException {
+    writeDeferredName();
+    return open(EMPTY_ARRAY, '[');
+  }
+
+  @Override
+  public JsonObjectByteWriter endArray() throws IOException {
+    return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+  }
+
+  @Override
+  public JsonObjectByteWriter beginObject() throws IOException {
+    writeDeferredName();
+    return open(EMPTY_OBJECT, '{');
+  }
+
+  @Override
+  public JsonObjectByteWriter endObject() throws IOException {
+    return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+  }
+
+  @Override
+  public JsonObjectByteWriter name(final @NotNull String name) throws IOException {
+    if (deferredName != null) {
+      throw new IllegalStateException();
+    }
+    deferredName = name;
+    return this;
+  }
+
+  @Override
+  public JsonObjectByteWriter value(final @Nullable String value) throws IOException {
+    if (value == null) {
+      return nullValue();
+    }
+    writeDeferredName();
+    beforeValue();
+    writeString(value, true);
+    return this;
+  }
+
+  @Override
+  public JsonObjectByteWriter jsonValue(final @Nullable String value) throws IOException {
+    if (value == null) {
+      return nullValue();
+    }
+    writeDeferredName();
+    beforeValue();
+    writeString(value, false);
+    return this;
+  }
+
+  @Override
+  public JsonObjectByteWriter nullValue() throws IOException {
+    writeDeferredName();
+    beforeValue();
+    writeBytes(NULL);
+    return this;
+  }
+
+  @Override
+  public JsonObjectByteWriter value(final boolean value) throws IOException {
+    writeDeferredName();
+    beforeValue();
+    writeBytes(value ? TRUE : FALSE);
+    return this;
+  }
+
+  @Override
+  public JsonObjectByteWriter value(final @Nullable Boolean value) throws IOException {
+    if (value == null) {
+      return nullValue();
+    }
+    return value(value.booleanValue());
+  }
+
+  @Override
+  public JsonObjectByteWriter value(final double value) throws IOException {
+    writeDeferredName();
+    if (!lenient && (Double.isNaN(value) || Double.isInfinite(value))) {
+      throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+    }
+    beforeValue();
+    writeDouble(value);
+    return this;
+  }
+
+  @Override
+  public JsonObjectByteWriter value(final long value) throws IOException {
+    writeDeferredName();
+    beforeValue();
+    writeLong(value);
+    return this;
+  }
+
+  @Override
+  public JsonObjectByteWriter value(final @Nullable Number value) throws IOException {
+    if (value == null) {
+      return nullValue();
+    }
+    if (value instanceof Integer
+        || value instanceof Long
+        || value instanceof Short
+        || value instanceof Byte) {
+      return value(value.longValue());
+    }
+    if (value instanceof Double) {
+      return value(value.doubleValue());
+    }
+
+    writeDeferredName();
+    final String string = value.toString();
+    if (!lenient
+        && (string.equals("-Infinity") || string.equals("Infinity") || string.equals("NaN"))) {
+      throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+    }
+    beforeValue();
+    writeString(string, false);
+    return this;
+  }
+
+  /**
+   * Encodes a supported object (Null, String, Boolean, Number, Collection, Array, Map,
+   * JsonSerializable).
+   *
+   * @param logger The logger. May not be null.
+   * @param object Object to encode. May be null.
+   * @return this writer.
+   */
+  @Override
+  public JsonObjectByteWriter value(final @NotNull ILogger logger, final @Nullable Object object)
+      throws IOException {
+    jsonObjectSerializer.serialize(this, logger, object);
+    return this;
+  }
+
+  @Override
+  public void setLenient(final boolean lenient) {
+    this.lenient = lenient;
+  }
+
+  @Override
+  public void setIndent(final @Nullable String indent) {
+    if (indent == null || indent.isEmpty()) {
+      this.indent = null;
+      this.indentBytes = null;
+    } else {
+      this.indent = indent;
+      this.indentBytes = indent.getBytes(UTF_8);
+    }
+  }
+
+  @Override
+  public @Nullable String getIndent() {
+    return indent;
+  }
+
+  /**
+   * Writes everything buffered so far to the underlying stream and returns the buffer to the pool.
+   * The underlying stream itself is not flushed. The writer can still be used afterwards, a new
+   * buffer is borrowed on the next write.
+   */
+  public void flush() throws IOException {
+    final @Nullable byte[] buf = buffer;
+    if (buf != null) {
+      if (position > 0) {
+        out.write(buf, 0, position);
+      }
+      position = 0;
+      buffer = null;
+      bufferPool.set(buf);
+    }
+  }
+
+  // region json structure
+
+  private JsonObjectByteWriter open(final int empty, final char openBracket) throws IOException {
+    beforeValue();
+    push(empty);
+    writeByte(openBracket);
+    return this;
+  }
+
+  private JsonObjectByteWriter close(final int empty, final int nonempty, final char closeBracket)
+      throws IOException {
+    final int context = peek();
+    if (context != nonempty && context != empty) {
+      throw new IllegalStateException("Nesting problem.");
+    }
+    if (deferredName != null) {
+      throw new IllegalStateException("Dangling name: " + deferredName);
+    }
+
+    stackSize--;
+    if (context == nonempty) {
+      newline();
+    }
+    writeByte(closeBracket);
+    return this;
+  }
+
+  private void push(final int newTop) {
+    if (stackSize == stack.length) {
+      stack = Arrays.copyOf(stack, stackSize * 2);
+    }
+    stack[stackSize++] = newTop;
+  }
+
+  private int peek() {
+    if (stackSize == 0) {
+      throw new IllegalStateException("JsonObjectByteWriter is closed.");
+    }
+    return stack[stackSize - 1];
+  }
+
+  private void replaceTop(final int topOfStack) {
+    stack[stackSize - 1] = topOfStack;
+  }
+
+  private void writeDeferredName() throws IOException {
+    final @Nullable String name = deferredName;
+    if (name != null) {
+      beforeName();
+      writeString(name, true);
+      deferredName = null;
+    }
+  }
+
+  private void newline() throws IOException {
+    final @Nullable byte[] indentation = indentBytes;
+    if (indentation == null) {
+      return;
+    }
+
+    writeByte('\n');
+    for (int i = 1, size = stackSize; i < size; i++) {
+      writeBytes(indentation);
+    }
+  }
+
+  private void beforeName() throws IOException {
+    final int context = peek();
+    if (context == NONEMPTY_OBJECT) { // first in object
+      writeByte(',');
+    } else if (context != EMPTY_OBJECT) { // not in an object!
+      throw new IllegalStateException("Nesting problem.");
+    }
+    newline();
+    replaceTop(DANGLING_NAME);
+  }
+
+  @SuppressWarnings("fallthrough")
+  private void beforeValue() throws IOException {
+    switch (peek()) {
+      case NONEMPTY_DOCUMENT:
+        if (!lenient) {
+          throw new IllegalStateException("JSON must have only one top-level value.");
+        }
+        // fall-through
+      case EMPTY_DOCUMENT: // first in document
+        replaceTop(NONEMPTY_DOCUMENT);
+        break;
+
+      case EMPTY_ARRAY: // first in array
+        replaceTop(NONEMPTY_ARRAY);
+        newline();
+        break;
+
+      case NONEMPTY_ARRAY: // another in array
+        writeByte(',');
+        newline();
+        break;
+
+      case DANGLING_NAME: // value for name
+        writeByte(':');
+        if (indentBytes != null) {
+          writeByte(' ');
+        }
+        replaceTop(NONEMPTY_OBJECT);
+        break;
+
+      default:
+        throw new IllegalStateException("Nesting problem.");
+    }
+  }
+
+  // endregion
+
+  // region encoding
+
+  /**
+   * Encodes the string as UTF-8, optionally quoting and escaping it the same way as {@link
+   * io.sentry.vendor.gson.stream.JsonWriter} does. Unpaired surrogates are replaced with '?' just
+   * like {@link java.io.OutputStreamWriter} does.
+   */
+  private void writeString(final @NotNull String value, final boolean escape) throws IOException {
+    if (escape) {
+      writeByte('"');
+    }
+    final int length = value.length();
+    byte[] buf = buffer();
+    int pos = position;
+    for (int i = 0; i < length; i++) {
+      if (pos + MAX_BYTES_PER_CHAR > buf.length) {
+        position = pos;
+        drain();
+        pos = 0;
+      }
+      final char c = value.charAt(i);
+      if (c < 0x80) {
+        final @Nullable byte[] replacement = escape ? REPLACEMENT_BYTES[c] : null;
+        if (replacement == null) {
+          buf[pos++] = (byte) c;
+        } else {
+          System.arraycopy(replacement, 0, buf, pos, replacement.length);
+          pos += replacement.length;
+        }
+      } else if (c < 0x800) {
+        buf[pos++] = (byte) (0xc0 | (c >> 6));
+        buf[pos++] = (byte) (0x80 | (c & 0x3f));
+      } else if (escape && (c == '\u2028' || c == '\u2029')) {
+        final byte[] replacement = c == '\u2028' ? LINE_SEPARATOR : PARAGRAPH_SEPARATOR;
+        System.arraycopy(replacement, 0, buf, pos, replacement.length);
+        pos += replacement.length;
+      } else if (Character.isSurrogate(c)) {
+        final char low = i + 1 < length ? value.charAt(i + 1) : 0;
+        if (Character.isHighSurrogate(c) && Character.isLowSurrogate(low)) {
+          final int codePoint = Character.toCodePoint(c, low);
+          buf[pos++] = (byte) (0xf0 | (codePoint >> 18));
+          buf[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+          buf[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+          buf[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+          i++;
+        } else {
+          buf[pos++] = '?';
+        }
+      } else {
+        buf[pos++] = (byte) (0xe0 | (c >> 12));
+        buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buf[pos++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+    position = pos;
+    if (escape) {
+      writeByte('"');
+    }
+  }
+
+  private void writeLong(final long value) throws IOException {
+    if (value == Long.MIN_VALUE) {
+      writeBytes(MIN_LONG);
+      return;
+    }
+    // max 19 digits plus the sign
+    ensureCapacity(20);
+    final byte[] buf = buffer();
+    long remaining = value;
+    if (remaining < 0) {
+      buf[position++] = '-';
+      remaining = -remaining;
+    }
+    final int digits = digitCount(remaining);
+    int pos = position + digits;
+    do {
+      buf[--pos] = (byte) ('0' + (remaining % 10));
+      remaining /= 10;
+    } while (remaining != 0);
+    position += digits;
+  }
+
+  /**
+   * Doubles holding an integral value below 10^7 are printed as "digits.0", which is what {@link
+   * Double#toString(double)} produces for them. Everything else goes through {@link
+   * Double#toString(double)}.
+   */
+  private void writeDouble(final double value) throws IOException {
+    final long integral = (long) value;
+    if (integral == value
+        && integral > -10_000_000L
+        && integral < 10_000_000L
+        && !(integral == 0 && Double.doubleToRawLongBits(value) != 0)) {
+      writeLong(integral);
+      ensureCapacity(2);
+      final byte[] buf = buffer();
+      buf[position++] = '.';
+      buf[position++] = '0';
+    } else {
+      writeString(Double.toString(value), false);
+    }
+  }
+
+  private static int digitCount(final long value) {
+    long bound = 10;
+    for (int digits = 1; digits < 19; digits++) {
+      if (value < bound) {
+        return digits;
+      }
+      bound *= 10;
+    }
+    return 19;
+  }
+
+  private void writeByte(final char c) throws IOException {
+    ensureCapacity(1);
+    buffer()[position++] = (byte) c;
+  }
+
+  private void writeBytes(final @NotNull byte[] bytes) throws IOException {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer(), position, bytes.length);
+    position += bytes.length;
+  }
+
+  private void ensureCapacity(final int length) throws IOException {
+    if (position + length > buffer().length) {
+      drain();
+    }
+  }
+
+  private @NotNull byte[] buffer() {
+    byte[] buf = buffer;
+    if (buf == null) {
+      buf = bufferPool.get();
+      if (buf == null) {
+        buf = new byte[BUFFER_SIZE];
+      } else {
+        // the buffer now belongs to this writer until it's flushed
+        bufferPool.set(null);
+      }
+      buffer = buf;
+    }
+    return buf;
+  }
+
+  /** Writes the buffered bytes to the stream without flushing it, the buffer is kept. */
+  private void drain() throws IOException {
+    if (position > 0) {
+      out.write(buffer(), 0, position);
+      position = 0;
+    }
+  }
+
+  private static @NotNull byte[] asciiBytes(final @NotNull String value) {
+    final byte[] bytes = new byte[value.length()];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) value.charAt(i);
+    }
+    return bytes;
+  }
+
+  // endregion
+}
@@ -39,15 +39,12 @@ import io.sentry.rrweb.RRWebSpanEvent;
 import io.sentry.rrweb.RRWebVideoEvent;
 import io.sentry.util.Objects;
 import java.io.BufferedOutputStream;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -60,11 +57,7 @@ import org.jetbrains.annotations.Nullable;
  */
 public final class JsonSerializer implements ISerializer {
 
-  /** the UTF-8 Charset */
-  @SuppressWarnings("CharsetObjectCanBeUsed")
-  private static final Charset UTF_8 = Charset.forName("UTF-8");
-
-  private static final int WRITER_BUFFER_SIZE = 512;
+  private static final int STREAM_BUFFER_SIZE = 8192;
 
   /** the SentryOptions */
   private final @NotNull SentryOptions options;
@@ -220,6 +213,29 @@ public final class JsonSerializer implements ISerializer {
     writer.flush();
   }
 
+  /**
+   * Serializes an entity as UTF-8 encoded JSON without going through a {@link Writer}
+   *
+   * @param entity the entity
+   * @param outputStream will not be closed automatically
+   * @throws IOException an exception
+   */
+  @Override
+  public <T> void serialize(@NotNull T entity, @NotNull OutputStream outputStream)
+      throws IOException {
+    Objects.requireNonNull(entity, "The entity is required.");
+    Objects.requireNonNull(outputStream, "The Stream object is required.");
+
+    if (options.getLogger().isEnabled(SentryLevel.DEBUG)) {
+      String serialized = serializeToString(entity, options.isEnablePrettySerializationOutput());
+      options.getLogger().log(SentryLevel.DEBUG, "Serializing object: %s", serialized);
+    }
+    final JsonObjectByteWriter jsonObjectWriter =
+        new JsonObjectByteWriter(outputStream, options.getMaxDepth());
+    jsonObjectWriter.value(options.getLogger(), entity);
+    jsonObjectWriter.flush();
+  }
+
   /**
    * Serializes an envelope to an OutputStream
    *
@@ -233,30 +249,35 @@ public final class JsonSerializer implements ISerializer {
     Objects.requireNonNull(envelope, "The SentryEnvelope object is required.");
     Objects.requireNonNull(outputStream, "The Stream object is required.");
 
-    // we do not want to close these as we would also close the stream that was passed in
-    final BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(outputStream);
-    final Writer writer =
-        new BufferedWriter(new OutputStreamWriter(bufferedOutputStream, UTF_8), WRITER_BUFFER_SIZE);
+    // we do not want to close this as we would also close the stream that was passed in
+    final BufferedOutputStream bufferedOutputStream =
+        new BufferedOutputStream(outputStream, STREAM_BUFFER_SIZE);
 
     try {
-      envelope
-          .getHeader()
-          .serialize(new JsonObjectWriter(writer, options.getMaxDepth()), options.getLogger());
-      writer.write("\n");
+      serializeHeader(envelope.getHeader(), bufferedOutputStream);
+      bufferedOutputStream.write('\n');
 
       for (final SentryEnvelopeItem item : envelope.getItems()) {
         try {
+          if (item.isFileBacked()) {
+            // Copy large payloads straight from the envelope file they were read from. When
+            // opening the file region throws we don't write anything.
+            try (final InputStream data = item.getDataStream()) {
+              serializeHeader(item.getHeader(), bufferedOutputStream);
+              bufferedOutputStream.write('\n');
+              copy(data, bufferedOutputStream, item.getHeader().getLength());
+              bufferedOutputStream.write('\n');
+            }
+            continue;
+          }
+
           // When this throws we don't write anything and continue with the next item.
           final byte[] data = item.getData();
 
-          item.getHeader()
-              .serialize(new JsonObjectWriter(writer, options.getMaxDepth()), options.getLogger());
-          writer.write("\n");
-          writer.flush();
-
-          outputStream.write(data);
-
-          writer.write("\n");
+          serializeHeader(item.getHeader(), bufferedOutputStream);
+          bufferedOutputStream.write('\n');
+          bufferedOutputStream.write(data);
+          bufferedOutputStream.write('\n');
         } catch (Exception exception) {
           options
               .getLogger()
@@ -264,7 +285,7 @@ public final class JsonSerializer implements ISerializer {
         }
       }
     } finally {
-      writer.flush();
+      bufferedOutputStream.flush();
     }
   }
 
@@ -285,6 +306,30 @@ public final class JsonSerializer implements ISerializer {
     return stringWriter.toString();
   }
 
+  private void serializeHeader(
+      final @NotNull JsonSerializable header, final @NotNull OutputStream outputStream)
+      throws IOException {
+    final JsonObjectByteWriter jsonObjectWriter =
+        new JsonObjectByteWriter(outputStream, options.getMaxDepth());
+    header.serialize(jsonObjectWriter, options.getLogger());
+    jsonObjectWriter.flush();
+  }
+
+  private static void copy(
+      final @NotNull InputStream input, final @NotNull OutputStream output, final long length)
+      throws IOException {
+    final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+    long remaining = length;
+    int read;
+    while (remaining > 0 && (read = input.read(buffer)) != -1) {
+      output.write(buffer, 0, read);
+      remaining -= read;
+    }
+    if (remaining > 0) {
+      throw new IOException("Envelope item ended " + remaining + " bytes early.");
+    }
+  }
+
   private <T> boolean isKnownPrimitive(final @NotNull Class<T> clazz) {
     return clazz.isArray()
         || Collection.class.isAssignableFrom(clazz)
@@ -0,0 +1,219 @@
+package io.sentry;
+
+import io.sentry.protocol.Contexts;
+import java.util.List;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The span handed out for all children of a transaction that has not been sampled. Like {@link
+ * NoOpSpan} it does not record anything and reports {@link #isNoOp()}, so integrations skip
+ * building descriptions and data for it, but it still propagates the trace of its transaction.
+ *
+ * <p>There is a single instance per unsampled transaction, starting a child returns the same
+ * instance.
+ */
+@ApiStatus.Internal
+public final class NonRecordingSpan implements ISpan {
+
+  private final @NotNull ISpan transaction;
+
+  NonRecordingSpan(final @NotNull ISpan transaction) {
+    this.transaction = transaction;
+  }
+
+  /**
+   * Whether the given span is a {@link NonRecordingSpan}, i.e. does not record anything but can be
+   * used to propagate its trace.
+   *
+   * @param span the span to check
+   * @return true if span is a {@link NonRecordingSpan}
+   */
+  public static boolean isNonRecording(final @Nullable ISpan span) {
+    return span instanceof NonRecordingSpan;
+  }
+
+  @Override
+  public @NotNull ISpan startChild(final @NotNull String operation) {
+    return this;
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull String operation, @Nullable String description, @NotNull SpanOptions spanOptions) {
+    return this;
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull SpanContext spanContext, @NotNull SpanOptions spanOptions) {
+    return this;
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull String operation,
+      @Nullable String description,
+      @Nullable SentryDate timestamp,
+      @NotNull Instrumenter instrumenter) {
+    return this;
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull String operation,
+      @Nullable String description,
+      @Nullable SentryDate timestamp,
+      @NotNull Instrumenter instrumenter,
+      @NotNull SpanOptions spanOptions) {
+    return this;
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      final @NotNull String operation, final @Nullable String description) {
+    return this;
+  }
+
+  @Override
+  public @NotNull ISpan startChild(
+      @NotNull String operation, @Nullable String description, @Nullable SentryDate timestamp) {
+    return this;
+  }
+
+  @Override
+  public @NotNull SentryTraceHeader toSentryTrace() {
+    return transaction.toSentryTrace();
+  }
+
+  @Override
+  public @Nullable TraceContext traceContext() {
+    return transaction.traceContext();
+  }
+
+  @Override
+  public @Nullable BaggageHeader toBaggageHeader(@Nullable List<String> thirdPartyBaggageHeaders) {
+    return transaction.toBaggageHeader(thirdPartyBaggageHeaders);
+  }
+
+  @Override
+  public void finish() {}
+
+  @Override
+  public void finish(@Nullable SpanStatus status) {}
+
+  @Override
+  public void finish(@Nullable SpanStatus status, @Nullable SentryDate timestamp) {}
+
+  @Override
+  public void setOperation(@NotNull String operation) {}
+
+  @Override
+  public @NotNull String getOperation() {
+    return "";
+  }
+
+  @Override
+  public void setDescription(@Nullable String description) {}
+
+  @Override
+  public @Nullable String getDescription() {
+    return null;
+  }
+
+  @Override
+  public void setStatus(@Nullable SpanStatus status) {}
+
+  @Override
+  public @Nullable SpanStatus getStatus() {
+    return null;
+  }
+
+  @Override
+  public void setThrowable(@Nullable Throwable throwable) {}
+
+  @Override
+  public @Nullable Throwable getThrowable() {
+    return null;
+  }
+
+  @Override
+  public @NotNull SpanContext getSpanContext() {
+    return transaction.getSpanContext();
+  }
+
+  @Override
+  public void setTag(@Nullable String key, @Nullable String value) {}
+
+  @Override
+  public @Nullable String getTag(@Nullable String key) {
+    return null;
+  }
+
+  @Override
+  public boolean isFinished() {
+    return transaction.isFinished();
+  }
+
+  @Override
+  public void setData(@Nullable String key, @Nullable Object value) {}
+
+  @Override
+  public @Nullable Object getData(@Nullable String key) {
+    return null;
+  }
+
+  @Override
+  public void setMeasurement(@NotNull String name, @NotNull Number value) {}
+
+  @Override
+  public void setMeasurement(
+      @NotNull String name, @NotNull Number value, @NotNull MeasurementUnit unit) {}
+
+  @Override
+  public boolean updateEndDate(final @NotNull SentryDate date) {
+    return false;
+  }
+
+  @Override
+  public @NotNull SentryDate getStartDate() {
+    return transaction.getStartDate();
+  }
+
+  @Override
+  public @Nullable SentryDate getFinishDate() {
+    return transaction.getFinishDate();
+  }
+
+  @Override
+  public boolean isNoOp() {
+    return true;
+  }
+
+  @Override
+  public void setContext(@Nullable String key, @Nullable Object context) {}
+
+  @Override
+  public @NotNull Contexts getContexts() {
+    return new Contexts();
+  }
+
+  @Override
+  public @Nullable Boolean isSampled() {
+    return false;
+  }
+
+  @Override
+  public @Nullable TracesSamplingDecision getSamplingDecision() {
+    return transaction.getSamplingDecision();
+  }
+
+  @Override
+  public @NotNull ISentryLifecycleToken makeCurrent() {
+    return NoOpScopesLifecycleToken.getInstance();
+  }
+
+  @Override
+  public void addFeatureFlag(final @Nullable String flag, final @Nullable Boolean result) {}
+}
@@ -16,16 +16,14 @@ import io.sentry.util.HintUtils;
 import io.sentry.util.LogUtils;
 import io.sentry.util.Objects;
 import io.sentry.util.SampleRateUtils;
-import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -64,15 +62,18 @@ public final class OutboxSender extends DirectoryProcessor implements IEnvelopeS
       return;
     }
 
-    try (final InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
-      final SentryEnvelope envelope = envelopeReader.read(stream);
+    // the transport may still be reading file backed items once we're done, see processEnvelope
+    final @NotNull EnvelopeFileDeletion fileDeletion = new EnvelopeFileDeletion(file, logger);
+    try {
+      // large items are only read from the file once they are processed, see processEnvelope
+      final SentryEnvelope envelope = envelopeReader.read(file);
       if (envelope == null) {
         logger.log(
             SentryLevel.ERROR,
             "Stream from path %s resulted in a null envelope.",
             file.getAbsolutePath());
       } else {
-        processEnvelope(envelope, hint);
+        processEnvelope(envelope, hint, fileDeletion);
         logger.log(SentryLevel.DEBUG, "File '%s' is done.", file.getAbsolutePath());
       }
     } catch (IOException e) {
@@ -84,13 +85,7 @@ public final class OutboxSender extends DirectoryProcessor implements IEnvelopeS
           logger,
           (retryable) -> {
             if (!retryable.isRetry()) {
-              try {
-                if (!file.delete()) {
-                  logger.log(SentryLevel.ERROR, "Failed to delete: %s", file.getAbsolutePath());
-                }
-              } catch (RuntimeException e) {
-                logger.log(SentryLevel.ERROR, e, "Failed to delete: %s", file.getAbsolutePath());
-              }
+              fileDeletion.release();
             }
           });
     }
@@ -113,7 +108,10 @@ public final class OutboxSender extends DirectoryProcessor implements IEnvelopeS
     processFile(new File(path), hint);
   }
 
-  private void processEnvelope(final @NotNull SentryEnvelope envelope, final @NotNull Hint hint)
+  private void processEnvelope(
+      final @NotNull SentryEnvelope envelope,
+      final @NotNull Hint hint,
+      final @NotNull EnvelopeFileDeletion fileDeletion)
       throws IOException {
     logger.log(
         SentryLevel.DEBUG,
@@ -197,7 +195,21 @@ public final class OutboxSender extends DirectoryProcessor implements IEnvelopeS
         final SentryEnvelope newEnvelope =
             new SentryEnvelope(
                 envelope.getHeader().getEventId(), envelope.getHeader().getSdkVersion(), item);
+        final boolean fileBacked = item.isFileBacked();
+        if (fileBacked) {
+          // the transport may still stream the item from the file after waitFlush timed out, so
+          // it keeps the file until the envelope is sent, cached or dropped
+          fileDeletion.retain();
+          HintUtils.setEnvelopeFileRelease(hint, fileDeletion::release);
+        }
         scopes.captureEnvelope(newEnvelope, hint);
+        if (fileBacked) {
+          final @Nullable Runnable notTaken = HintUtils.takeEnvelopeFileRelease(hint);
+          if (notTaken != null) {
+            // no transport kept the envelope for later, it's either sent or dropped already
+            notTaken.run();
+          }
+        }
         logger.log(
             SentryLevel.DEBUG,
             "%s item %d is being captured.",
@@ -302,4 +314,37 @@ public final class OutboxSender extends DirectoryProcessor implements IEnvelopeS
     }
     return true;
   }
+
+  /**
+   * Deletes the envelope file once it's released by the outbox and by every transport that still
+   * streams file backed items from it.
+   */
+  private static final class EnvelopeFileDeletion {
+    private final @NotNull File file;
+    private final @NotNull ILogger logger;
+    // held by the outbox until it's done with the file, and by each envelope being sent
+    private final @NotNull AtomicInteger holders = new AtomicInteger(1);
+
+    EnvelopeFileDeletion(final @NotNull File file, final @NotNull ILogger logger) {
+      this.file = file;
+      this.logger = logger;
+    }
+
+    void retain() {
+      holders.incrementAndGet();
+    }
+
+    void release() {
+      if (holders.decrementAndGet() != 0) {
+        return;
+      }
+      try {
+        if (!file.delete()) {
+          logger.log(SentryLevel.ERROR, "Failed to delete: %s", file.getAbsolutePath());
+        }
+      } catch (RuntimeException e) {
+        logger.log(SentryLevel.ERROR, e, "Failed to delete: %s", file.getAbsolutePath());
+      }
+    }
+  }
 }
@@ -0,0 +1,79 @@
+package io.sentry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A ring buffer of the {@link PerformanceCollectionData} samples collected by {@link
+ * DefaultCompositePerformanceCollector}, shared by all running transactions and profile chunks.
+ * They only remember when they started and take the samples collected since then when they stop,
+ * so collecting a sample costs the same no matter how many of them are running.
+ *
+ * <p>Samples are added by a single thread and read without locking, readers drop the samples that
+ * may have been overwritten while they were copied.
+ */
+final class PerformanceCollectionDataBuffer {
+
+  private final int capacity;
+  private final @NotNull AtomicReferenceArray<PerformanceCollectionData> samples;
+  // the number of samples added so far, the next one is stored at head % capacity
+  private final @NotNull AtomicLong head = new AtomicLong();
+
+  PerformanceCollectionDataBuffer(final int capacity) {
+    this.capacity = capacity;
+    this.samples = new AtomicReferenceArray<>(capacity);
+  }
+
+  /**
+   * Adds a sample, overwriting the oldest one once the buffer is full. Must not be called
+   * concurrently.
+   *
+   * @param data the sample
+   */
+  void add(final @NotNull PerformanceCollectionData data) {
+    final long index = head.get();
+    samples.set((int) (index % capacity), data);
+    head.set(index + 1);
+  }
+
+  /**
+   * Returns the samples collected at or after the given timestamp, limited to the samples still in
+   * the buffer.
+   *
+   * @param startNanos the timestamp in nanoseconds
+   * @return the samples, oldest first
+   */
+  @NotNull
+  List<PerformanceCollectionData> since(final long startNanos) {
+    final long end = head.get();
+    final long oldest = Math.max(0, end - capacity);
+    final @NotNull List<PerformanceCollectionData> slice = new ArrayList<>();
+    for (long index = end - 1; index >= oldest; index--) {
+      final @Nullable PerformanceCollectionData data = samples.get((int) (index % capacity));
+      if (data == null || data.getNanoTimestamp() < startNanos) {
+        break;
+      }
+      slice.add(data);
+    }
+
+    // samples added in the meantime overwrote the oldest ones we copied
+    final long valid = end - (head.get() - capacity);
+    if (valid < slice.size()) {
+      slice.subList((int) Math.max(0, valid), slice.size()).clear();
+    }
+    Collections.reverse(slice);
+    return slice;
+  }
+
+  /** Drops all samples. */
+  void clear() {
+    for (int i = 0; i < capacity; i++) {
+      samples.set(i, null);
+    }
+  }
+}
@@ -44,6 +44,9 @@ public final class ProfileChunk implements JsonUnknown, JsonSerializable {
 
   private @Nullable SentryProfile sentryProfile;
 
+  /** The event the trace file was recorded with, used to convert it. Not serialized. */
+  private @NotNull ProfilingEventType profilingEventType = ProfilingEventType.WALL;
+
   private @Nullable Map<String, Object> unknown;
 
   public ProfileChunk() {
@@ -146,6 +149,10 @@ public final class ProfileChunk implements JsonUnknown, JsonSerializable {
     this.sentryProfile = sentryProfile;
   }
 
+  public @NotNull ProfilingEventType getProfilingEventType() {
+    return profilingEventType;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -190,6 +197,7 @@ public final class ProfileChunk implements JsonUnknown, JsonSerializable {
     private final double timestamp;
     private final @NotNull String platform;
     private @Nullable String contentType;
+    private @NotNull ProfilingEventType profilingEventType = ProfilingEventType.WALL;
 
     public Builder(
         final @NotNull SentryId profilerId,
@@ -211,11 +219,17 @@ public final class ProfileChunk implements JsonUnknown, JsonSerializable {
       return this;
     }
 
+    public Builder setProfilingEventType(final @NotNull ProfilingEventType profilingEventType) {
+      this.profilingEventType = profilingEventType;
+      return this;
+    }
+
     public ProfileChunk build(SentryOptions options) {
       final ProfileChunk chunk =
           new ProfileChunk(
               profilerId, chunkId, traceFile, measurements, timestamp, platform, options);
       chunk.contentType = contentType;
+      chunk.profilingEventType = profilingEventType;
       return chunk;
     }
   }
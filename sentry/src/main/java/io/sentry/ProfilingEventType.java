@@ -0,0 +1,30 @@
+package io.sentry;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * The event the JVM continuous profiler samples on. Only used by the async-profiler based
+ * continuous profiler.
+ */
+@ApiStatus.Experimental
+public enum ProfilingEventType {
+  /** Samples all threads periodically, regardless of whether they are running or waiting. */
+  WALL,
+  /**
+   * Samples threads while they are running on a CPU, using perf events. Falls back to {@link
+   * #ITIMER} if perf events are not available.
+   */
+  CPU,
+  /** Samples threads while they are running on a CPU, using an interval timer. */
+  ITIMER,
+  /**
+   * Samples heap allocations, see {@link SentryOptions#getProfilingAllocationIntervalBytes()}. The
+   * weight of each sample is the number of bytes allocated.
+   */
+  ALLOC,
+  /**
+   * Samples contended locks, see {@link SentryOptions#getProfilingLockThresholdNanos()}. The weight
+   * of each sample is the time waited for the lock in nanoseconds.
+   */
+  LOCK
+}
@@ -0,0 +1,310 @@
+package io.sentry;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Callable;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link IScopesStorage} for servers running many short-lived virtual threads.
+ *
+ * <p>Work wrapped in {@link #run(Runnable)} or {@link #call(Callable)} gets a {@code
+ * java.lang.ScopedValue} binding (Java 21+), and scopes made current within it are kept in that
+ * binding instead of in a thread local, so the thread doesn't need a thread local map for them. The
+ * Spring integrations bind requests in their servlet filter and tasks in their task decorator
+ * while this storage is in use, see {@link #isActive()}. Outside of such a binding, and on JVMs
+ * without {@code ScopedValue}, it behaves like {@link DefaultScopesStorage}.
+ *
+ * <p>Use it through {@link ScopesStorageFactory#scopedValue()}.
+ */
+@ApiStatus.Experimental
+public final class ScopedValueScopesStorage implements IScopesStorage {
+
+  private static final @NotNull ThreadLocal<IScopes> currentScopes = new ThreadLocal<>();
+
+  private static volatile boolean active = false;
+
+  @Override
+  public void init() {
+    active = isScopedValueAvailable();
+  }
+
+  @Override
+  public @NotNull ISentryLifecycleToken set(final @Nullable IScopes scopes) {
+    final @Nullable Slot slot = ScopedValueSupport.currentSlot();
+    if (slot != null) {
+      final @Nullable IScopes oldScopes = slot.scopes;
+      slot.scopes = scopes;
+      return new SlotLifecycleToken(slot, oldScopes);
+    }
+
+    final @Nullable IScopes oldScopes = currentScopes.get();
+    currentScopes.set(scopes);
+    return new ThreadLocalLifecycleToken(oldScopes);
+  }
+
+  @Override
+  public void replace(final @Nullable IScopes scopes) {
+    final @Nullable Slot slot = ScopedValueSupport.currentSlot();
+    if (slot != null) {
+      slot.scopes = scopes;
+    } else {
+      currentScopes.set(scopes);
+    }
+  }
+
+  @Override
+  public @Nullable IScopes get() {
+    final @Nullable Slot slot = ScopedValueSupport.currentSlot();
+    return slot != null ? slot.scopes : currentScopes.get();
+  }
+
+  @Override
+  public void close() {
+    active = false;
+    currentScopes.remove();
+  }
+
+  /**
+   * Integrations wrap their entry points, e.g. a request or a task, in {@link #run(Runnable)} or
+   * {@link #call(Callable)} if this returns true.
+   *
+   * @return true if this storage has been initialized by the SDK and {@code java.lang.ScopedValue}
+   *     is available
+   */
+  @ApiStatus.Internal
+  public static boolean isActive() {
+    return active;
+  }
+
+  /**
+   * @return true if the JVM supports {@code java.lang.ScopedValue}, otherwise scopes are always
+   *     kept in a thread local
+   */
+  public static boolean isScopedValueAvailable() {
+    return ScopedValueSupport.KEY != null;
+  }
+
+  /**
+   * Runs the given {@link Runnable} with its own binding for the current scopes, starting with the
+   * scopes current when it's called. Scopes made current within it don't leak out.
+   *
+   * @param runnable the runnable
+   */
+  public static void run(final @NotNull Runnable runnable) {
+    if (!ScopedValueSupport.run(runnable)) {
+      try (final @NotNull ISentryLifecycleToken ignored = restoreAfterwards()) {
+        runnable.run();
+      }
+    }
+  }
+
+  /**
+   * Calls the given {@link Callable} with its own binding for the current scopes, starting with
+   * the scopes current when it's called. Scopes made current within it don't leak out.
+   *
+   * @param callable the callable
+   * @return the result of the callable
+   * @param <T> the result type
+   */
+  public static <T> T call(final @NotNull Callable<T> callable) throws Exception {
+    final Object[] result = new Object[1];
+    final Exception[] exception = new Exception[1];
+    run(
+        () -> {
+          try {
+            result[0] = callable.call();
+          } catch (Exception e) {
+            exception[0] = e;
+          }
+        });
+    if (exception[0] != null) {
+      throw exception[0];
+    }
+    @SuppressWarnings("unchecked")
+    final T value = (T) result[0];
+    return value;
+  }
+
+  private static @NotNull ISentryLifecycleToken restoreAfterwards() {
+    final @Nullable IScopes oldScopes = currentScopes.get();
+    return new ThreadLocalLifecycleToken(oldScopes);
+  }
+
+  /** The scopes of a binding, only used by the thread that created it. */
+  private static final class Slot {
+    private final @NotNull Thread owner = Thread.currentThread();
+    private @Nullable IScopes scopes;
+
+    Slot(final @Nullable IScopes scopes) {
+      this.scopes = scopes;
+    }
+  }
+
+  private static final class SlotLifecycleToken implements ISentryLifecycleToken {
+
+    private final @NotNull Slot slot;
+    private final @Nullable IScopes oldValue;
+
+    SlotLifecycleToken(final @NotNull Slot slot, final @Nullable IScopes oldValue) {
+      this.slot = slot;
+      this.oldValue = oldValue;
+    }
+
+    @Override
+    public void close() {
+      slot.scopes = oldValue;
+    }
+  }
+
+  private static final class ThreadLocalLifecycleToken implements ISentryLifecycleToken {
+
+    private final @Nullable IScopes oldValue;
+
+    ThreadLocalLifecycleToken(final @Nullable IScopes oldValue) {
+      this.oldValue = oldValue;
+    }
+
+    @Override
+    public void close() {
+      currentScopes.set(oldValue);
+    }
+  }
+
+  /**
+   * Accesses {@code java.lang.ScopedValue} through method handles, as the SDK is compiled for Java
+   * 8. All fields are null if it's not available.
+   */
+  private static final class ScopedValueSupport {
+
+    private static final @NotNull Slot UNBOUND = new Slot(null);
+
+    private static final @Nullable Object KEY;
+    // (ScopedValue, Object) -> Object
+    private static final @Nullable MethodHandle OR_ELSE;
+    // (ScopedValue, Object) -> Carrier
+    private static final @Nullable MethodHandle WHERE;
+    // (Carrier, Runnable) -> void
+    private static final @Nullable MethodHandle RUN;
+
+    static {
+      @Nullable Object key = null;
+      @Nullable MethodHandle orElse = null;
+      @Nullable MethodHandle where = null;
+      @Nullable MethodHandle run = null;
+      try {
+        final @NotNull Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+        final @NotNull Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+        final @NotNull MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        final @NotNull MethodType newInstanceType = MethodType.methodType(scopedValueClass);
+        key = lookup.findStatic(scopedValueClass, "newInstance", newInstanceType).invoke();
+        orElse =
+            lookup
+                .findVirtual(
+                    scopedValueClass, "orElse", MethodType.methodType(Object.class, Object.class))
+                .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+        where =
+            lookup
+                .findStatic(
+                    scopedValueClass,
+                    "where",
+                    MethodType.methodType(carrierClass, scopedValueClass, Object.class))
+                .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+        run =
+            lookup
+                .findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class))
+                .asType(MethodType.methodType(void.class, Object.class, Runnable.class));
+
+        // make sure it works, e.g. it's a preview feature that isn't enabled on Java 21 to 24
+        final @NotNull Object probeKey = key;
+        final @NotNull MethodHandle probeOrElse = orElse;
+        final @NotNull Slot probe = new Slot(null);
+        final boolean[] bound = new boolean[1];
+        final @NotNull Object carrier = where.invokeExact(probeKey, (Object) probe);
+        run.invokeExact(
+            carrier,
+            (Runnable)
+                () -> {
+                  try {
+                    final @Nullable Object value =
+                        (Object) probeOrElse.invokeExact(probeKey, (Object) UNBOUND);
+                    bound[0] = value == probe;
+                  } catch (Throwable ignored) {
+                    // not bound
+                  }
+                });
+        if (!bound[0]) {
+          throw new IllegalStateException("ScopedValue binding is not visible.");
+        }
+      } catch (Throwable t) {
+        key = null;
+        orElse = null;
+        where = null;
+        run = null;
+      }
+      KEY = key;
+      OR_ELSE = orElse;
+      WHERE = where;
+      RUN = run;
+    }
+
+    /**
+     * @return the slot of the binding of the current thread, or null if there is none
+     */
+    static @Nullable Slot currentSlot() {
+      final @Nullable Object key = KEY;
+      final @Nullable MethodHandle orElse = OR_ELSE;
+      if (key == null || orElse == null) {
+        return null;
+      }
+      try {
+        final @NotNull Slot slot = (Slot) (Object) orElse.invokeExact(key, (Object) UNBOUND);
+        // bindings are inherited by threads forked within them, which must not change the scopes of
+        // the thread that created the binding
+        return slot != UNBOUND && slot.owner == Thread.currentThread() ? slot : null;
+      } catch (Throwable t) {
+        return null;
+      }
+    }
+
+    /**
+     * Runs the runnable with a new binding.
+     *
+     * @return false if ScopedValue is not available and the runnable has not been run
+     */
+    static boolean run(final @NotNull Runnable runnable) {
+      final @Nullable Object key = KEY;
+      final @Nullable MethodHandle where = WHERE;
+      final @Nullable MethodHandle run = RUN;
+      if (key == null || where == null || run == null) {
+        return false;
+      }
+
+      final @Nullable Slot current = currentSlot();
+      final @NotNull Slot slot =
+          new Slot(current != null ? current.scopes : ScopedValueScopesStorage.currentScopes.get());
+      final @NotNull Object carrier;
+      try {
+        carrier = where.invokeExact(key, (Object) slot);
+      } catch (Throwable t) {
+        return false;
+      }
+      try {
+        run.invokeExact(carrier, runnable);
+      } catch (Throwable t) {
+        throwUnchecked(t);
+      }
+      return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> void throwUnchecked(final @NotNull Throwable throwable)
+        throws T {
+      throw (T) throwable;
+    }
+  }
+}
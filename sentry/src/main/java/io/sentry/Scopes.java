@@ -433,6 +433,11 @@ public final class Scopes implements IScopes {
           .log(SentryLevel.WARNING, "Instance is disabled and this 'close' call is a no-op.");
     } else {
       try {
+        // events captured in the background still run through the integrations, event processors
+        // and the client, so they're captured before any of them is closed
+        getOptions()
+            .getBackgroundEventCapture()
+            .close(isRestarting ? 0 : getOptions().getShutdownTimeoutMillis());
         for (Integration integration : getOptions().getIntegrations()) {
           if (integration instanceof Closeable) {
             try {
@@ -789,6 +794,7 @@ public final class Scopes implements IScopes {
           .log(SentryLevel.WARNING, "Instance is disabled and this 'flush' call is a no-op.");
     } else {
       try {
+        getOptions().getBackgroundEventCapture().flush(timeoutMillis);
         getClient().flush(timeoutMillis);
       } catch (Throwable e) {
         getOptions().getLogger().log(SentryLevel.ERROR, "Error in the 'client.flush'.", e);
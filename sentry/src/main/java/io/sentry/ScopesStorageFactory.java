@@ -20,6 +20,26 @@ public final class ScopesStorageFactory {
     return storage;
   }
 
+  /**
+   * Returns a factory for {@link ScopedValueScopesStorage}, which keeps the current scopes in a
+   * {@code java.lang.ScopedValue} binding where possible. Set it through {@link
+   * SentryOptions#setScopesStorageFactory(IScopesStorageFactory)}.
+   *
+   * @return the factory
+   */
+  public static @NotNull IScopesStorageFactory scopedValue() {
+    return options -> {
+      if (!ScopedValueScopesStorage.isScopedValueAvailable()) {
+        options
+            .getLogger()
+            .log(
+                SentryLevel.DEBUG,
+                "java.lang.ScopedValue is not available, scopes are kept in a thread local.");
+      }
+      return new ScopedValueScopesStorage();
+    };
+  }
+
   private static @NotNull IScopesStorage createInternal(
       final @NotNull LoadClass loadClass, final @NotNull ILogger logger) {
     if (Platform.isJvm()) {
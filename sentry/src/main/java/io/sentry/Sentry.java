@@ -123,7 +123,7 @@ public final class Sentry {
         return NoOpScopes.getInstance();
       } else {
         scopes = rootScopes.forkedScopes("getCurrentScopes");
-        getScopesStorage().set(scopes);
+        getScopesStorage().replace(scopes);
       }
     }
     return scopes;
@@ -169,6 +169,21 @@ public final class Sentry {
     return getScopesStorage().set(scopes);
   }
 
+  /**
+   * Makes the given scopes current without creating a token to restore the previous ones, doing
+   * nothing if they are current already. For integrations that restore the previous scopes on their
+   * own, e.g. when propagating them between threads.
+   *
+   * @param scopes the scopes
+   */
+  @ApiStatus.Internal
+  public static void replaceCurrentScopes(final @NotNull IScopes scopes) {
+    final @NotNull IScopesStorage storage = getScopesStorage();
+    if (storage.get() != scopes) {
+      storage.replace(scopes);
+    }
+  }
+
   public static @NotNull IScope getGlobalScope() {
     return globalScope;
   }
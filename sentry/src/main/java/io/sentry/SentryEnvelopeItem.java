@@ -13,15 +13,15 @@ import io.sentry.util.JsonSerializationUtils;
 import io.sentry.util.Objects;
 import io.sentry.vendor.Base64;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.io.Reader;
-import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
@@ -42,18 +42,21 @@ public final class SentryEnvelopeItem {
   @SuppressWarnings("CharsetObjectCanBeUsed")
   private static final Charset UTF_8 = Charset.forName("UTF-8");
 
-  private static final int WRITER_BUFFER_SIZE = 512;
-
   private final SentryEnvelopeItemHeader header;
-  // Either dataFactory is set or data needs to be set.
+  // Either dataFactory, file or data needs to be set.
   private final @Nullable Callable<byte[]> dataFactory;
-  // TODO: Can we have a slice or a reader here instead?
+  // The envelope file this item's payload is located in, starting at fileOffset and spanning
+  // header.getLength() bytes
+  private final @Nullable File file;
+  private final long fileOffset;
   private @Nullable byte[] data;
 
   SentryEnvelopeItem(final @NotNull SentryEnvelopeItemHeader header, final byte[] data) {
     this.header = Objects.requireNonNull(header, "SentryEnvelopeItemHeader is required.");
     this.data = data;
     this.dataFactory = null;
+    this.file = null;
+    this.fileOffset = 0;
   }
 
   SentryEnvelopeItem(
@@ -62,19 +65,96 @@ public final class SentryEnvelopeItem {
     this.header = Objects.requireNonNull(header, "SentryEnvelopeItemHeader is required.");
     this.dataFactory = Objects.requireNonNull(dataFactory, "DataFactory is required.");
     this.data = null;
+    this.file = null;
+    this.fileOffset = 0;
+  }
+
+  SentryEnvelopeItem(
+      final @NotNull SentryEnvelopeItemHeader header,
+      final @NotNull File file,
+      final long fileOffset) {
+    this.header = Objects.requireNonNull(header, "SentryEnvelopeItemHeader is required.");
+    this.file = Objects.requireNonNull(file, "File is required.");
+    this.fileOffset = fileOffset;
+    this.dataFactory = null;
+    this.data = null;
   }
 
-  // TODO: Should be a Stream
   // dataFactory is a Callable which returns theoretically a nullable result. Our implementations
   // always provide non-null values.
   @SuppressWarnings("NullAway")
   public @NotNull byte[] getData() throws Exception {
-    if (data == null && dataFactory != null) {
-      data = dataFactory.call();
+    if (data == null) {
+      if (dataFactory != null) {
+        data = dataFactory.call();
+      } else if (file != null) {
+        try (final InputStream stream = getDataStream()) {
+          final byte[] bytes = new byte[header.getLength()];
+          int offset = 0;
+          int read;
+          while (offset < bytes.length
+              && (read = stream.read(bytes, offset, bytes.length - offset)) != -1) {
+            offset += read;
+          }
+          if (offset < bytes.length) {
+            throw new SentryEnvelopeException(
+                String.format(
+                    "Envelope file '%s' ended after %d of the %d bytes of the item at offset %d.",
+                    file.getName(), offset, bytes.length, fileOffset));
+          }
+          data = bytes;
+        }
+      }
     }
     return data;
   }
 
+  /**
+   * Whether the payload of this item has not been loaded yet and is read from a region of an
+   * envelope file on demand, see {@link EnvelopeReader#read(File)}.
+   *
+   * @return true if the payload is file backed
+   */
+  public boolean isFileBacked() {
+    return file != null && data == null;
+  }
+
+  /**
+   * Opens a stream over the payload. File backed payloads are streamed from the envelope file
+   * without loading them into memory.
+   *
+   * @return the payload stream, which has to be closed by the caller
+   * @throws Exception if the payload can't be read
+   */
+  public @NotNull InputStream getDataStream() throws Exception {
+    final @Nullable File file = this.file;
+    if (file == null || data != null) {
+      return new ByteArrayInputStream(getData());
+    }
+    final long length = header.getLength();
+    if (file.length() < fileOffset + length) {
+      throw new SentryEnvelopeException(
+          String.format(
+              "Envelope file '%s' does not contain the %d bytes of the item at offset %d.",
+              file.getName(), length, fileOffset));
+    }
+    final InputStream stream = new FileInputStream(file);
+    try {
+      long skipped = 0;
+      while (skipped < fileOffset) {
+        final long count = stream.skip(fileOffset - skipped);
+        if (count <= 0) {
+          throw new IOException("Failed to seek to the item in the envelope file.");
+        }
+        skipped += count;
+      }
+      return new FileRegionInputStream(stream, length);
+    } catch (IOException e) {
+      stream.close();
+      throw e;
+    }
+  }
+
   public @NotNull SentryEnvelopeItemHeader getHeader() {
     return header;
   }
@@ -87,11 +167,8 @@ public final class SentryEnvelopeItem {
     final CachedItem cachedItem =
         new CachedItem(
             () -> {
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer =
-                      new BufferedWriter(
-                          new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
-                serializer.serialize(session, writer);
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(session, stream);
                 return stream.toByteArray();
               }
             });
@@ -123,11 +200,8 @@ public final class SentryEnvelopeItem {
     final CachedItem cachedItem =
         new CachedItem(
             () -> {
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer =
-                      new BufferedWriter(
-                          new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
-                serializer.serialize(event, writer);
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(event, stream);
                 return stream.toByteArray();
               }
             });
@@ -185,11 +259,8 @@ public final class SentryEnvelopeItem {
     final CachedItem cachedItem =
         new CachedItem(
             () -> {
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer =
-                      new BufferedWriter(
-                          new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
-                serializer.serialize(userFeedback, writer);
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(userFeedback, stream);
                 return stream.toByteArray();
               }
             });
@@ -214,11 +285,8 @@ public final class SentryEnvelopeItem {
     final CachedItem cachedItem =
         new CachedItem(
             () -> {
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer =
-                      new BufferedWriter(
-                          new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
-                serializer.serialize(checkIn, writer);
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(checkIn, stream);
                 return stream.toByteArray();
               }
             });
@@ -319,7 +387,8 @@ public final class SentryEnvelopeItem {
     final CachedItem cachedItem =
         new CachedItem(
             () -> {
-              if (traceFile != null) {
+              // The profile may have been converted already when the chunk was finished
+              if (traceFile != null && profileChunk.getSentryProfile() == null) {
                 if (!traceFile.exists()) {
                   throw new SentryEnvelopeException(
                       String.format(
@@ -331,7 +400,8 @@ public final class SentryEnvelopeItem {
                   if (!NoOpProfileConverter.getInstance().equals(profileConverter)) {
                     try {
                       final SentryProfile profile =
-                          profileConverter.convertFromFile(traceFile.getAbsolutePath());
+                          profileConverter.convertFromFile(
+                              traceFile.getAbsolutePath(), profileChunk.getProfilingEventType());
                       profileChunk.setSentryProfile(profile);
                     } catch (Exception e) {
                       throw new SentryEnvelopeException("Profile conversion failed", e);
@@ -354,11 +424,8 @@ public final class SentryEnvelopeItem {
                 }
               }
 
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer =
-                      new BufferedWriter(
-                          new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
-                serializer.serialize(profileChunk, writer);
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(profileChunk, stream);
                 return stream.toByteArray();
               } catch (IOException e) {
                 throw new SentryEnvelopeException(
@@ -410,10 +477,8 @@ public final class SentryEnvelopeItem {
             () -> {
               // Serialize JSON metadata
               final byte[] metadataBytes;
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer = new BufferedWriter(new OutputStreamWriter(stream, UTF_8))) {
-                serializer.serialize(profileChunk, writer);
-                writer.flush();
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(profileChunk, stream);
                 metadataBytes = stream.toByteArray();
                 metaLength.set(metadataBytes.length);
               } catch (IOException e) {
@@ -488,11 +553,8 @@ public final class SentryEnvelopeItem {
               profilingTraceData.setSampledProfile(base64Trace);
               profilingTraceData.readDeviceCpuFrequencies();
 
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer =
-                      new BufferedWriter(
-                          new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
-                serializer.serialize(profilingTraceData, writer);
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(profilingTraceData, stream);
                 return stream.toByteArray();
               } catch (IOException e) {
                 throw new SentryEnvelopeException(
@@ -524,11 +586,8 @@ public final class SentryEnvelopeItem {
     final CachedItem cachedItem =
         new CachedItem(
             () -> {
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer =
-                      new BufferedWriter(
-                          new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
-                serializer.serialize(clientReport, writer);
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(clientReport, stream);
                 return stream.toByteArray();
               }
             });
@@ -569,36 +628,27 @@ public final class SentryEnvelopeItem {
         new CachedItem(
             () -> {
               try {
-                try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                    final Writer writer =
-                        new BufferedWriter(
-                            new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
+                try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
                   // relay expects the payload to be in this exact order: [event,rrweb,video]
                   final Map<String, byte[]> replayPayload = new LinkedHashMap<>();
                   // first serialize replay event json bytes
-                  serializer.serialize(replayEvent, writer);
+                  serializer.serialize(replayEvent, stream);
                   replayPayload.put(SentryItemType.ReplayEvent.getItemType(), stream.toByteArray());
                   stream.reset();
 
                   // next serialize replay recording
                   if (replayRecording != null) {
-                    serializer.serialize(replayRecording, writer);
+                    serializer.serialize(replayRecording, stream);
                     replayPayload.put(
                         SentryItemType.ReplayRecording.getItemType(), stream.toByteArray());
                     stream.reset();
                   }
 
-                  // next serialize replay video bytes from given file
-                  if (replayVideo != null && replayVideo.exists()) {
-                    final byte[] videoBytes =
-                        readBytesFromFile(
-                            replayVideo.getPath(), SentryReplayEvent.REPLAY_VIDEO_MAX_SIZE);
-                    if (videoBytes.length > 0) {
-                      replayPayload.put(SentryItemType.ReplayVideo.getItemType(), videoBytes);
-                    }
-                  }
-
-                  return serializeToMsgpack(replayPayload);
+                  // the replay video is read from its file last, straight into the payload
+                  return serializeToMsgpack(
+                      replayPayload,
+                      SentryItemType.ReplayVideo.getItemType(),
+                      replayVideo != null && replayVideo.exists() ? replayVideo : null);
                 }
               } catch (Throwable t) {
                 logger.log(SentryLevel.ERROR, "Could not serialize replay recording", t);
@@ -631,11 +681,8 @@ public final class SentryEnvelopeItem {
     final CachedItem cachedItem =
         new CachedItem(
             () -> {
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer =
-                      new BufferedWriter(
-                          new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
-                serializer.serialize(logEvents, writer);
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(logEvents, stream);
                 return stream.toByteArray();
               }
             });
@@ -663,11 +710,8 @@ public final class SentryEnvelopeItem {
     final CachedItem cachedItem =
         new CachedItem(
             () -> {
-              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                  final Writer writer =
-                      new BufferedWriter(
-                          new OutputStreamWriter(stream, UTF_8), WRITER_BUFFER_SIZE)) {
-                serializer.serialize(metricsEvents, writer);
+              try (final ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+                serializer.serialize(metricsEvents, stream);
                 return stream.toByteArray();
               }
             });
@@ -687,6 +731,57 @@ public final class SentryEnvelopeItem {
     return new SentryEnvelopeItem(itemHeader, () -> cachedItem.getBytes());
   }
 
+  /** Limits the wrapped stream to the bytes of a single item. */
+  private static final class FileRegionInputStream extends FilterInputStream {
+    private long remaining;
+
+    FileRegionInputStream(final @NotNull InputStream in, final long length) {
+      super(in);
+      this.remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      final int result = super.read();
+      if (result != -1) {
+        remaining--;
+      }
+      return result;
+    }
+
+    @Override
+    public int read(final @NotNull byte[] b, final int off, final int len) throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      final int result = super.read(b, off, (int) Math.min(len, remaining));
+      if (result != -1) {
+        remaining -= result;
+      }
+      return result;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+      final long result = super.skip(Math.min(n, remaining));
+      remaining -= result;
+      return result;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(super.available(), remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+
   private static class CachedItem {
     private @Nullable byte[] bytes;
     private final @Nullable Callable<byte[]> dataFactory;
@@ -707,34 +802,73 @@ public final class SentryEnvelopeItem {
     }
   }
 
+  /**
+   * Packs the given entries and the content of the given file, if it's not empty, into a msgpack
+   * map. The payload is allocated once with its final size and the file is read straight into it,
+   * so a replay video is held in memory only once.
+   */
   @SuppressWarnings({"UnnecessaryParentheses"})
-  private static byte[] serializeToMsgpack(final @NotNull Map<String, byte[]> map)
+  private static byte[] serializeToMsgpack(
+      final @NotNull Map<String, byte[]> map,
+      final @NotNull String fileKey,
+      final @Nullable File file)
       throws IOException {
-    try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-      // Write map header
-      baos.write((byte) (0x80 | map.size()));
-
-      // Iterate over the map and serialize each key-value pair
-      for (final Map.Entry<String, byte[]> entry : map.entrySet()) {
-        // Pack the key as a string
-        final byte[] keyBytes = entry.getKey().getBytes(UTF_8);
-        final int keyLength = keyBytes.length;
-        // string up to 255 chars
-        baos.write((byte) (0xd9));
-        baos.write((byte) (keyLength));
-        baos.write(keyBytes);
-
-        // Pack the value as a binary string
-        final byte[] valueBytes = entry.getValue();
-        final int valueLength = valueBytes.length;
-        // We will always use the 4 bytes data length for simplicity.
-        baos.write((byte) (0xc6));
-        baos.write(ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN).putInt(valueLength).array());
-        baos.write(valueBytes);
-      }
+    final long fileLength = file != null ? file.length() : 0;
+    if (file != null && fileLength > SentryReplayEvent.REPLAY_VIDEO_MAX_SIZE) {
+      throw new IOException(
+          String.format(
+              "Reading file failed, because size located at '%s' with %d bytes is bigger "
+                  + "than the maximum allowed size of %d bytes.",
+              file.getPath(), fileLength, SentryReplayEvent.REPLAY_VIDEO_MAX_SIZE));
+    }
+    final byte[] fileKeyBytes = fileKey.getBytes(UTF_8);
+
+    int size = 1;
+    for (final Map.Entry<String, byte[]> entry : map.entrySet()) {
+      size += msgpackEntrySize(entry.getKey().getBytes(UTF_8).length, entry.getValue().length);
+    }
+    if (fileLength > 0) {
+      size += msgpackEntrySize(fileKeyBytes.length, (int) fileLength);
+    }
 
-      return baos.toByteArray();
+    final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.BIG_ENDIAN);
+    // Write map header
+    buffer.put((byte) (0x80 | (map.size() + (fileLength > 0 ? 1 : 0))));
+    for (final Map.Entry<String, byte[]> entry : map.entrySet()) {
+      putMsgpackEntryHeader(buffer, entry.getKey().getBytes(UTF_8), entry.getValue().length);
+      buffer.put(entry.getValue());
     }
+    if (file != null && fileLength > 0) {
+      putMsgpackEntryHeader(buffer, fileKeyBytes, (int) fileLength);
+      final byte[] bytes = buffer.array();
+      try (final FileInputStream stream = new FileInputStream(file)) {
+        int offset = buffer.position();
+        while (offset < size) {
+          final int read = stream.read(bytes, offset, size - offset);
+          if (read == -1) {
+            throw new IOException(
+                String.format("File '%s' was truncated while reading it.", file.getName()));
+          }
+          offset += read;
+        }
+      }
+    }
+    return buffer.array();
+  }
+
+  private static int msgpackEntrySize(final int keyLength, final int valueLength) {
+    // string up to 255 chars, followed by a binary string with a 4 bytes length
+    return 2 + keyLength + 5 + valueLength;
+  }
+
+  private static void putMsgpackEntryHeader(
+      final @NotNull ByteBuffer buffer, final @NotNull byte[] keyBytes, final int valueLength) {
+    // Pack the key as a string up to 255 chars
+    buffer.put((byte) 0xd9);
+    buffer.put((byte) keyBytes.length);
+    buffer.put(keyBytes);
+    // Pack the value as a binary string, we will always use the 4 bytes data length for simplicity
+    buffer.put((byte) 0xc6);
+    buffer.putInt(valueLength);
   }
 }
@@ -517,6 +517,25 @@ public class SentryOptions {
   /** Whether cache operations (get, put, remove, flush) should be traced. */
   private boolean enableCacheTracing = false;
 
+  /**
+   * Whether traced cache operations are aggregated per cache on the active span instead of getting
+   * a span each.
+   */
+  private boolean enableCacheSpanAggregation = false;
+
+  /** Aggregated cache operations taking at least this long still get their own span. */
+  private long slowCacheOperationThresholdMillis = 10;
+
+  /**
+   * Whether exceptions reported by the Spring exception resolver and WebFlux exception handler are
+   * captured on a background thread instead of the request thread.
+   */
+  private boolean enableBackgroundWebExceptionCapture = false;
+
+  /** Captures web exceptions in the background, flushed and closed along with the scopes. */
+  private final @NotNull BackgroundEventCapture backgroundEventCapture =
+      new BackgroundEventCapture(this);
+
   /** Whether queue operations (publish, process) should be traced. */
   private boolean enableQueueTracing = false;
 
@@ -647,6 +666,20 @@ public class SentryOptions {
    */
   private @NotNull ProfileLifecycle profileLifecycle = ProfileLifecycle.MANUAL;
 
+  /**
+   * The event the JVM continuous profiler samples on. Defaults to {@link ProfilingEventType#WALL}.
+   */
+  private @NotNull ProfilingEventType profilingEventType = ProfilingEventType.WALL;
+
+  /** Bytes allocated between two samples when profiling {@link ProfilingEventType#ALLOC}. */
+  private long profilingAllocationIntervalBytes = 512 * 1024;
+
+  /**
+   * Minimum time in nanoseconds a thread waits for a lock to be sampled when profiling {@link
+   * ProfilingEventType#LOCK}.
+   */
+  private long profilingLockThresholdNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
   /**
    * Whether profiling can automatically be started as early as possible during the app lifecycle,
    * to capture more of app startup. If {@link SentryOptions#profileLifecycle} is {@link
@@ -2278,6 +2311,73 @@ public class SentryOptions {
     }
   }
 
+  /**
+   * Returns the event the JVM continuous profiler samples on. Defaults to {@link
+   * ProfilingEventType#WALL}.
+   *
+   * @return the profiling event type
+   */
+  @ApiStatus.Experimental
+  public @NotNull ProfilingEventType getProfilingEventType() {
+    return profilingEventType;
+  }
+
+  /**
+   * Sets the event the JVM continuous profiler samples on. {@link ProfilingEventType#CPU} or {@link
+   * ProfilingEventType#ITIMER} only sample running threads, which keeps chunks of services with
+   * many idle threads small. Takes effect when the next profile chunk starts.
+   */
+  @ApiStatus.Experimental
+  public void setProfilingEventType(final @NotNull ProfilingEventType profilingEventType) {
+    this.profilingEventType = profilingEventType;
+  }
+
+  /**
+   * Returns the number of bytes allocated between two samples when profiling {@link
+   * ProfilingEventType#ALLOC}. Defaults to 512 KiB.
+   *
+   * @return the allocation sampling interval in bytes
+   */
+  @ApiStatus.Experimental
+  public long getProfilingAllocationIntervalBytes() {
+    return profilingAllocationIntervalBytes;
+  }
+
+  /** Sets the number of bytes allocated between two samples when profiling allocations. */
+  @ApiStatus.Experimental
+  public void setProfilingAllocationIntervalBytes(final long profilingAllocationIntervalBytes) {
+    if (profilingAllocationIntervalBytes <= 0) {
+      throw new IllegalArgumentException(
+          "The value "
+              + profilingAllocationIntervalBytes
+              + " is not valid. Use values greater than 0.");
+    }
+    this.profilingAllocationIntervalBytes = profilingAllocationIntervalBytes;
+  }
+
+  /**
+   * Returns the minimum time in nanoseconds a thread waits for a lock to be sampled when profiling
+   * {@link ProfilingEventType#LOCK}. Defaults to 1 millisecond.
+   *
+   * @return the lock contention threshold in nanoseconds
+   */
+  @ApiStatus.Experimental
+  public long getProfilingLockThresholdNanos() {
+    return profilingLockThresholdNanos;
+  }
+
+  /** Sets the minimum time in nanoseconds a thread waits for a lock to be sampled. */
+  @ApiStatus.Experimental
+  public void setProfilingLockThresholdNanos(final long profilingLockThresholdNanos) {
+    if (profilingLockThresholdNanos < 0) {
+      throw new IllegalArgumentException(
+          "The value "
+              + profilingLockThresholdNanos
+              + " is not valid. Use values greater than or equal to 0.");
+    }
+    this.profilingLockThresholdNanos = profilingLockThresholdNanos;
+  }
+
   /**
    * Whether profiling can automatically be started as early as possible during the app lifecycle.
    */
@@ -2809,6 +2909,84 @@ public class SentryOptions {
     this.enableCacheTracing = enableCacheTracing;
   }
 
+  /**
+   * Whether traced cache operations are aggregated instead of getting a span each. Hits, misses,
+   * writes, errors and a latency histogram are recorded per cache as data of the active span, only
+   * operations that fail or take at least {@link #getSlowCacheOperationThresholdMillis()} get their
+   * own span.
+   *
+   * @return true if cache operations are aggregated
+   */
+  public boolean isEnableCacheSpanAggregation() {
+    return enableCacheSpanAggregation;
+  }
+
+  /**
+   * Whether traced cache operations are aggregated instead of getting a span each.
+   *
+   * @param enableCacheSpanAggregation true if cache operations should be aggregated
+   */
+  public void setEnableCacheSpanAggregation(boolean enableCacheSpanAggregation) {
+    this.enableCacheSpanAggregation = enableCacheSpanAggregation;
+  }
+
+  /**
+   * Aggregated cache operations taking at least this long still get their own span, defaults to
+   * 10ms.
+   *
+   * @return the threshold in milliseconds
+   */
+  public long getSlowCacheOperationThresholdMillis() {
+    return slowCacheOperationThresholdMillis;
+  }
+
+  /**
+   * Aggregated cache operations taking at least this long still get their own span.
+   *
+   * @param slowCacheOperationThresholdMillis the threshold in milliseconds
+   */
+  public void setSlowCacheOperationThresholdMillis(long slowCacheOperationThresholdMillis) {
+    this.slowCacheOperationThresholdMillis = slowCacheOperationThresholdMillis;
+  }
+
+  /**
+   * Whether exceptions reported by the Spring exception resolver and WebFlux exception handler are
+   * captured on a background thread. Only the request data and transaction name are taken on the
+   * request thread, event processors run in the background. Events are dropped and recorded as lost
+   * if the background queue is full.
+   *
+   * <p>Hints of these events don't carry the request and response, as they may be recycled by the
+   * time the event is processed, and event processors reading thread locals, like context tags
+   * taken from the MDC, don't see the ones of the request thread.
+   *
+   * @return true if web exceptions are captured in the background
+   */
+  public boolean isEnableBackgroundWebExceptionCapture() {
+    return enableBackgroundWebExceptionCapture;
+  }
+
+  /**
+   * Whether exceptions reported by the Spring exception resolver and WebFlux exception handler are
+   * captured on a background thread.
+   *
+   * @param enableBackgroundWebExceptionCapture true if web exceptions should be captured in the
+   *     background
+   */
+  public void setEnableBackgroundWebExceptionCapture(boolean enableBackgroundWebExceptionCapture) {
+    this.enableBackgroundWebExceptionCapture = enableBackgroundWebExceptionCapture;
+  }
+
+  /**
+   * Returns the background capture of these options, used if {@link
+   * #isEnableBackgroundWebExceptionCapture()} is set.
+   *
+   * @return the background event capture
+   */
+  @ApiStatus.Internal
+  public @NotNull BackgroundEventCapture getBackgroundEventCapture() {
+    return backgroundEventCapture;
+  }
+
   /**
    * Whether Sentry emits Queue spans and transforms OpenTelemetry messaging spans to match Sentry's
    * queue conventions.
@@ -3702,6 +3880,15 @@ public class SentryOptions {
     if (options.isEnableCacheTracing() != null) {
       setEnableCacheTracing(options.isEnableCacheTracing());
     }
+    if (options.isEnableCacheSpanAggregation() != null) {
+      setEnableCacheSpanAggregation(options.isEnableCacheSpanAggregation());
+    }
+    if (options.getSlowCacheOperationThresholdMillis() != null) {
+      setSlowCacheOperationThresholdMillis(options.getSlowCacheOperationThresholdMillis());
+    }
+    if (options.isEnableBackgroundWebExceptionCapture() != null) {
+      setEnableBackgroundWebExceptionCapture(options.isEnableBackgroundWebExceptionCapture());
+    }
     if (options.isEnableQueueTracing() != null) {
       setEnableQueueTracing(options.isEnableQueueTracing());
     }
@@ -2,8 +2,6 @@ package io.sentry;
 
 import io.sentry.exception.InvalidSentryTraceHeaderException;
 import io.sentry.protocol.SentryId;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -15,10 +13,12 @@ public final class SentryTraceHeader {
   private final @NotNull SpanId spanId;
   private final @Nullable Boolean sampled;
 
-  // Use numbered capture groups for Android API level < 26 compatibility
-  private static final Pattern SENTRY_TRACEPARENT_HEADER_REGEX =
-      Pattern.compile(
-          "^[ \\t]*([0-9a-f]{32})-([0-9a-f]{16})(-[01])?[ \\t]*$", Pattern.CASE_INSENSITIVE);
+  private static final int TRACE_ID_LENGTH = 32;
+  private static final int SPAN_ID_LENGTH = 16;
+  // <trace_id>-<span_id>
+  private static final int UNSAMPLED_LENGTH = TRACE_ID_LENGTH + 1 + SPAN_ID_LENGTH;
+  // <trace_id>-<span_id>-<sampled>
+  private static final int SAMPLED_LENGTH = UNSAMPLED_LENGTH + 2;
 
   public SentryTraceHeader(
       final @NotNull SentryId traceId,
@@ -29,19 +29,60 @@ public final class SentryTraceHeader {
     this.sampled = sampled;
   }
 
+  /**
+   * Parses a sentry-trace header value of the form {@code <trace_id>-<span_id>[-<sampled>]},
+   * optionally surrounded by spaces or tabs. The ids are hex strings of 32 and 16 characters, the
+   * sampled flag is either 0 or 1.
+   *
+   * @param value the header value
+   * @throws InvalidSentryTraceHeaderException if the value is not a valid sentry-trace header
+   */
   public SentryTraceHeader(final @NotNull String value) throws InvalidSentryTraceHeaderException {
-    Matcher matcher = SENTRY_TRACEPARENT_HEADER_REGEX.matcher(value);
-    boolean matchesExist = matcher.matches();
+    int from = 0;
+    int to = value.length();
+    while (from < to && isBlank(value.charAt(from))) {
+      from++;
+    }
+    while (to > from && isBlank(value.charAt(to - 1))) {
+      to--;
+    }
 
-    if (!matchesExist) {
+    final int length = to - from;
+    final int spanIdStart = from + TRACE_ID_LENGTH + 1;
+    final int spanIdEnd = from + UNSAMPLED_LENGTH;
+    if ((length != UNSAMPLED_LENGTH && length != SAMPLED_LENGTH)
+        || !isHex(value, from, spanIdStart - 1)
+        || value.charAt(spanIdStart - 1) != '-'
+        || !isHex(value, spanIdStart, spanIdEnd)) {
       throw new InvalidSentryTraceHeaderException(value);
     }
 
-    this.traceId = new SentryId(matcher.group(1));
-    this.spanId = new SpanId(matcher.group(2));
+    if (length == SAMPLED_LENGTH) {
+      final char sampledFlag = value.charAt(spanIdEnd + 1);
+      if (value.charAt(spanIdEnd) != '-' || (sampledFlag != '0' && sampledFlag != '1')) {
+        throw new InvalidSentryTraceHeaderException(value);
+      }
+      this.sampled = sampledFlag == '1';
+    } else {
+      this.sampled = null;
+    }
+
+    this.traceId = new SentryId(value.substring(from, spanIdStart - 1));
+    this.spanId = new SpanId(value.substring(spanIdStart, spanIdEnd));
+  }
 
-    String sampled = matcher.group(3);
-    this.sampled = sampled == null ? null : "1".equals(sampled.substring(1));
+  private static boolean isBlank(final char c) {
+    return c == ' ' || c == '\t';
+  }
+
+  private static boolean isHex(final @NotNull String value, final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      final char c = value.charAt(i);
+      if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   public @NotNull String getName() {
@@ -49,11 +90,12 @@ public final class SentryTraceHeader {
   }
 
   public @NotNull String getValue() {
+    final StringBuilder sb = new StringBuilder(SAMPLED_LENGTH);
+    sb.append(traceId.toString()).append('-').append(spanId.toString());
     if (sampled != null) {
-      return String.format("%s-%s-%s", traceId, spanId, sampled ? "1" : "0");
-    } else {
-      return String.format("%s-%s", traceId, spanId);
+      sb.append(sampled ? "-1" : "-0");
     }
+    return sb.toString();
   }
 
   public @NotNull SentryId getTraceId() {
@@ -25,6 +25,8 @@ import org.jetbrains.annotations.TestOnly;
 public final class SentryTracer implements ITransaction {
   private final @NotNull SentryId eventId = new SentryId();
   private final @NotNull Span root;
+  // handed out instead of children when this transaction is not sampled
+  private final @Nullable NonRecordingSpan nonRecordingSpan;
   private final @NotNull List<Span> children = new CopyOnWriteArrayList<>();
   private final @NotNull IScopes scopes;
   private @NotNull String name;
@@ -83,6 +85,14 @@ public final class SentryTracer implements ITransaction {
         Boolean.TRUE.equals(isSampled()) ? compositePerformanceCollector : null;
     this.transactionNameSource = context.getTransactionNameSource();
     this.transactionOptions = transactionOptions;
+    // Unsampled children are dropped anyway, so unless something waits for them, there's no need
+    // to create them at all
+    this.nonRecordingSpan =
+        Boolean.FALSE.equals(isSampled())
+                && !transactionOptions.isWaitForChildren()
+                && transactionOptions.getIdleTimeout() == null
+            ? new NonRecordingSpan(this)
+            : null;
 
     setDefaultSpanData(root);
 
@@ -459,6 +469,10 @@ public final class SentryTracer implements ITransaction {
       return NoOpSpan.getInstance();
     }
 
+    if (nonRecordingSpan != null) {
+      return nonRecordingSpan;
+    }
+
     final @Nullable SpanId parentSpanId = spanContext.getParentSpanId();
     final @NotNull String operation = spanContext.getOperation();
     final @Nullable String description = spanContext.getDescription();
@@ -619,6 +633,13 @@ public final class SentryTracer implements ITransaction {
       return NoOpSpan.getInstance();
     }
 
+    if (nonRecordingSpan != null) {
+      return SpanUtils.isIgnored(
+              scopes.getOptions().getIgnoredSpanOrigins(), spanOptions.getOrigin())
+          ? NoOpSpan.getInstance()
+          : nonRecordingSpan;
+    }
+
     if (children.size() < scopes.getOptions().getMaxSpans()) {
       return root.startChild(operation, description, timestamp, instrumenter, spanOptions);
     } else {
@@ -932,6 +953,9 @@ public final class SentryTracer implements ITransaction {
 
   @Override
   public @Nullable ISpan getLatestActiveSpan() {
+    if (nonRecordingSpan != null && !root.isFinished()) {
+      return nonRecordingSpan;
+    }
     @NotNull
     final ListIterator<Span> iterator =
         CollectionUtils.reverseListIterator((CopyOnWriteArrayList<Span>) this.children);
@@ -14,10 +14,11 @@ public final class SentryUUID {
   }
 
   public static String generateSentryId() {
-    return UUIDStringUtils.toSentryIdString(UUIDGenerator.randomUUID());
+    return UUIDStringUtils.toSentryIdString(
+        UUIDGenerator.randomMostSignificantBits(), UUIDGenerator.randomLeastSignificantBits());
   }
 
   public static String generateSpanId() {
-    return UUIDStringUtils.toSentrySpanIdString(UUIDGenerator.randomHalfLengthUUID());
+    return UUIDStringUtils.toSentrySpanIdString(UUIDGenerator.randomMostSignificantBits());
   }
 }
@@ -29,6 +29,7 @@ public interface SpanDataConvention {
   String CACHE_HIT = "cache.hit";
   String CACHE_KEY = "cache.key";
   String CACHE_OPERATION = "cache.operation";
+  String CACHE_OPERATIONS = "cache.operations";
   String CACHE_WRITE = "cache.write";
   String MESSAGING_SYSTEM = "messaging.system";
   String MESSAGING_DESTINATION_NAME = "messaging.destination.name";
@@ -38,4 +39,5 @@ public interface SpanDataConvention {
   String MESSAGING_MESSAGE_ENVELOPE_SIZE = "messaging.message.envelope.size";
   String MESSAGING_MESSAGE_RECEIVE_LATENCY = "messaging.message.receive.latency";
   String MESSAGING_OPERATION_TYPE = "messaging.operation.type";
+  String MESSAGING_BATCH_MESSAGE_COUNT = "messaging.batch.message_count";
 }
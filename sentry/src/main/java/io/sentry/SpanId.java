@@ -2,33 +2,45 @@ package io.sentry;
 
 import static io.sentry.util.StringUtils.PROPER_NIL_UUID;
 
+import io.sentry.util.UUIDGenerator;
+import io.sentry.util.UUIDStringUtils;
 import java.io.IOException;
 import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * A span id. Generated span ids are kept as random bits, the hex string is only created when it's
+ * first needed (usually on serialization).
+ */
 public final class SpanId implements JsonSerializable {
+  private static final int SPAN_ID_LENGTH = 16;
+
   public static final SpanId EMPTY_ID =
       new SpanId(PROPER_NIL_UUID.replace("-", "").substring(0, 16));
 
+  private final long bits;
+  // false if this id was created from a string that is not 16 lower case hex digits
+  private final boolean hasBits;
   private volatile @Nullable String value;
 
   public SpanId(final @NotNull String value) {
     this.value = Objects.requireNonNull(value, "value is required");
+    this.hasBits = value.length() == SPAN_ID_LENGTH && UUIDStringUtils.isLowerCaseHex(value);
+    this.bits = hasBits ? UUIDStringUtils.hexToLong(value, 0) : 0;
   }
 
-  public SpanId() {}
+  public SpanId() {
+    this.bits = UUIDGenerator.randomMostSignificantBits();
+    this.hasBits = true;
+  }
 
   private @NotNull String getValue() {
     String result = value;
     if (result == null) {
-      synchronized (this) {
-        result = value;
-        if (result == null) {
-          result = SentryUUID.generateSpanId();
-          value = result;
-        }
-      }
+      // racing threads compute the same string
+      result = UUIDStringUtils.toSentrySpanIdString(bits);
+      value = result;
     }
     return result;
   }
@@ -38,12 +50,16 @@ public final class SpanId implements JsonSerializable {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     SpanId spanId = (SpanId) o;
+    if (hasBits && spanId.hasBits) {
+      return bits == spanId.bits;
+    }
     return getValue().equals(spanId.getValue());
   }
 
   @Override
   public int hashCode() {
-    return getValue().hashCode();
+    // ids with and without bits are never equal, see constructor
+    return hasBits ? (int) (bits ^ (bits >>> 32)) : getValue().hashCode();
   }
 
   @Override
@@ -16,6 +16,12 @@ public final class TypeCheckHint {
   @ApiStatus.Internal
   public static final String SENTRY_REPLAY_NETWORK_DETAILS = "sentry:replayNetworkDetails";
 
+  @ApiStatus.Internal
+  public static final String SENTRY_IS_BACKGROUND_CAPTURE = "sentry:isBackgroundCapture";
+
+  @ApiStatus.Internal
+  public static final String SENTRY_ENVELOPE_FILE_RELEASE = "sentry:envelopeFileRelease";
+
   @ApiStatus.Internal public static final String SENTRY_JAVASCRIPT_SDK_NAME = "sentry.javascript";
 
   @ApiStatus.Internal public static final String SENTRY_DOTNET_SDK_NAME = "sentry.dotnet";
@@ -27,6 +27,6 @@ public final class W3CTraceparentHeader {
 
   public @NotNull String getValue() {
     final String sampledFlag = sampled != null && sampled ? "01" : "00";
-    return String.format("00-%s-%s-%s", traceId, spanId, sampledFlag);
+    return "00-" + traceId + "-" + spanId + "-" + sampledFlag;
   }
 }
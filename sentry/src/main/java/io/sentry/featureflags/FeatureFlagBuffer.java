@@ -7,9 +7,11 @@ import io.sentry.protocol.FeatureFlag;
 import io.sentry.protocol.FeatureFlags;
 import io.sentry.util.AutoClosableReentrantLock;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -20,31 +22,35 @@ import org.jetbrains.annotations.Nullable;
  * <ul>
  *   <li>When full, the oldest entry is evicted
  *   <li>Updates to existing entries refresh the entry, meaning it'll be dropped last
- *   <li>Performance of scope cloning is optimized here
+ *   <li>Adding and updating entries takes constant time, entries are kept in a {@link
+ *       LinkedHashMap} in the order they were last updated
+ *   <li>Performance of scope cloning is optimized here, clones share the entries until either of
+ *       them is changed
  *   <li>Supports merging across scope types (GLOBAL, ISOLATION, CURRENT)
  * </ul>
  */
 @ApiStatus.Internal
 public final class FeatureFlagBuffer implements IFeatureFlagBuffer {
 
-  private volatile @NotNull CopyOnWriteArrayList<FeatureFlagEntry> flags;
+  private static final @NotNull FeatureFlagEntry[] EMPTY_ENTRIES = new FeatureFlagEntry[0];
+
+  private @NotNull LinkedHashMap<String, FeatureFlagEntry> flags;
+  // true if flags may be used by a clone of this buffer as well, it must be copied before changing
+  private boolean shared;
   private final @NotNull AutoClosableReentrantLock lock = new AutoClosableReentrantLock();
-  private int maxSize;
+  private final int maxSize;
 
-  private FeatureFlagBuffer(int maxSize) {
-    this.maxSize = maxSize;
-    this.flags = new CopyOnWriteArrayList<>();
+  private FeatureFlagBuffer(final int maxSize) {
+    this(maxSize, new LinkedHashMap<>(), false);
   }
 
   private FeatureFlagBuffer(
-      int maxSize, final @NotNull CopyOnWriteArrayList<FeatureFlagEntry> flags) {
+      final int maxSize,
+      final @NotNull LinkedHashMap<String, FeatureFlagEntry> flags,
+      final boolean shared) {
     this.maxSize = maxSize;
     this.flags = flags;
-  }
-
-  private FeatureFlagBuffer(@NotNull FeatureFlagBuffer other) {
-    this.maxSize = other.maxSize;
-    this.flags = new CopyOnWriteArrayList<>(other.flags);
+    this.shared = shared;
   }
 
   @Override
@@ -52,34 +58,32 @@ public final class FeatureFlagBuffer implements IFeatureFlagBuffer {
     if (flag == null || result == null) {
       return;
     }
+    final @NotNull FeatureFlagEntry entry = new FeatureFlagEntry(flag, result, System.nanoTime());
     try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
-      final int size = flags.size();
-      for (int i = 0; i < size; i++) {
-        final @NotNull FeatureFlagEntry entry = flags.get(i);
-        if (entry.flag.equals(flag)) {
-          flags.remove(i);
-          break;
-        }
-      }
-      flags.add(new FeatureFlagEntry(flag, result, System.nanoTime()));
-
-      if (flags.size() > maxSize) {
-        flags.remove(0);
+      final @NotNull LinkedHashMap<String, FeatureFlagEntry> flags = writableFlags();
+      // removing first, so an updated entry is moved to the end
+      if (flags.remove(flag) == null && flags.size() >= maxSize) {
+        final @NotNull Iterator<FeatureFlagEntry> oldest = flags.values().iterator();
+        oldest.next();
+        oldest.remove();
       }
+      flags.put(flag, entry);
     }
   }
 
   @Override
   public void clear() {
     try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
-      flags.clear();
+      flags = new LinkedHashMap<>();
+      shared = false;
     }
   }
 
   @Override
   public @Nullable FeatureFlags getFeatureFlags() {
-    List<FeatureFlag> featureFlags = new ArrayList<>();
-    for (FeatureFlagEntry entry : flags) {
+    final @NotNull FeatureFlagEntry[] entries = entries();
+    final @NotNull List<FeatureFlag> featureFlags = new ArrayList<>(entries.length);
+    for (final @NotNull FeatureFlagEntry entry : entries) {
       featureFlags.add(entry.toFeatureFlag());
     }
     return new FeatureFlags(featureFlags);
@@ -87,7 +91,27 @@ public final class FeatureFlagBuffer implements IFeatureFlagBuffer {
 
   @Override
   public @NotNull IFeatureFlagBuffer clone() {
-    return new FeatureFlagBuffer(this);
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      shared = true;
+      return new FeatureFlagBuffer(maxSize, flags, true);
+    }
+  }
+
+  private @NotNull LinkedHashMap<String, FeatureFlagEntry> writableFlags() {
+    if (shared) {
+      flags = new LinkedHashMap<>(flags);
+      shared = false;
+    }
+    return flags;
+  }
+
+  /**
+   * @return a snapshot of the entries, oldest first
+   */
+  private @NotNull FeatureFlagEntry[] entries() {
+    try (final @NotNull ISentryLifecycleToken ignored = lock.acquire()) {
+      return flags.values().toArray(new FeatureFlagEntry[0]);
+    }
   }
 
   public static @NotNull IFeatureFlagBuffer create(final @NotNull SentryOptions options) {
@@ -135,108 +159,87 @@ public final class FeatureFlagBuffer implements IFeatureFlagBuffer {
       final @Nullable FeatureFlagBuffer isolationBuffer,
       final @Nullable FeatureFlagBuffer currentBuffer) {
 
-    // Capture references to avoid inconsistencies from concurrent modifications
-    final @Nullable CopyOnWriteArrayList<FeatureFlagEntry> globalFlags =
-        globalBuffer == null ? null : globalBuffer.flags;
-    final @Nullable CopyOnWriteArrayList<FeatureFlagEntry> isolationFlags =
-        isolationBuffer == null ? null : isolationBuffer.flags;
-    final @Nullable CopyOnWriteArrayList<FeatureFlagEntry> currentFlags =
-        currentBuffer == null ? null : currentBuffer.flags;
-
-    final int globalSize = globalFlags == null ? 0 : globalFlags.size();
-    final int isolationSize = isolationFlags == null ? 0 : isolationFlags.size();
-    final int currentSize = currentFlags == null ? 0 : currentFlags.size();
+    // Take snapshots to avoid inconsistencies from concurrent modifications
+    final @NotNull FeatureFlagEntry[] globalFlags =
+        globalBuffer == null ? EMPTY_ENTRIES : globalBuffer.entries();
+    final @NotNull FeatureFlagEntry[] isolationFlags =
+        isolationBuffer == null ? EMPTY_ENTRIES : isolationBuffer.entries();
+    final @NotNull FeatureFlagEntry[] currentFlags =
+        currentBuffer == null ? EMPTY_ENTRIES : currentBuffer.entries();
 
     // Early exit if all buffers are empty
-    if (globalSize == 0 && isolationSize == 0 && currentSize == 0) {
+    if (globalFlags.length == 0 && isolationFlags.length == 0 && currentFlags.length == 0) {
       return NoOpFeatureFlagBuffer.getInstance();
     }
 
-    int globalIndex = globalSize - 1;
-    int isolationIndex = isolationSize - 1;
-    int currentIndex = currentSize - 1;
-
-    @Nullable
-    FeatureFlagEntry globalEntry =
-        globalFlags == null || globalIndex < 0 ? null : globalFlags.get(globalIndex);
-    @Nullable
-    FeatureFlagEntry isolationEntry =
-        isolationFlags == null || isolationIndex < 0 ? null : isolationFlags.get(isolationIndex);
-    @Nullable
-    FeatureFlagEntry currentEntry =
-        currentFlags == null || currentIndex < 0 ? null : currentFlags.get(currentIndex);
+    int globalIndex = globalFlags.length - 1;
+    int isolationIndex = isolationFlags.length - 1;
+    int currentIndex = currentFlags.length - 1;
 
-    final @NotNull java.util.Map<String, FeatureFlagEntry> uniqueFlags =
-        new java.util.LinkedHashMap<>(maxSize);
+    final @NotNull Map<String, FeatureFlagEntry> uniqueFlags = new HashMap<>();
+    // newest first
+    final @NotNull FeatureFlagEntry[] selected = new FeatureFlagEntry[maxSize];
+    int selectedCount = 0;
 
     // check if there is still room and remaining items to check
-    while (uniqueFlags.size() < maxSize
-        && (globalEntry != null || isolationEntry != null || currentEntry != null)) {
+    while (selectedCount < maxSize
+        && (globalIndex >= 0 || isolationIndex >= 0 || currentIndex >= 0)) {
 
       @Nullable FeatureFlagEntry entryToAdd = null;
       @Nullable ScopeType selectedBuffer = null;
 
       // choose newest entry across all buffers
-      if (globalEntry != null && (entryToAdd == null || globalEntry.nanos > entryToAdd.nanos)) {
-        entryToAdd = globalEntry;
+      if (globalIndex >= 0) {
+        entryToAdd = globalFlags[globalIndex];
         selectedBuffer = ScopeType.GLOBAL;
       }
-      if (isolationEntry != null
-          && (entryToAdd == null || isolationEntry.nanos > entryToAdd.nanos)) {
-        entryToAdd = isolationEntry;
+      if (isolationIndex >= 0
+          && (entryToAdd == null || isolationFlags[isolationIndex].nanos > entryToAdd.nanos)) {
+        entryToAdd = isolationFlags[isolationIndex];
         selectedBuffer = ScopeType.ISOLATION;
       }
-      if (currentEntry != null && (entryToAdd == null || currentEntry.nanos > entryToAdd.nanos)) {
-        entryToAdd = currentEntry;
+      if (currentIndex >= 0
+          && (entryToAdd == null || currentFlags[currentIndex].nanos > entryToAdd.nanos)) {
+        entryToAdd = currentFlags[currentIndex];
         selectedBuffer = ScopeType.CURRENT;
       }
 
-      if (entryToAdd != null) {
-        // no need to update existing entries since we already have the latest
-        if (!uniqueFlags.containsKey(entryToAdd.flag)) {
-          uniqueFlags.put(entryToAdd.flag, entryToAdd);
-        }
-
-        // decrement only index of buffer that was selected
-        if (ScopeType.CURRENT.equals(selectedBuffer)) {
-          currentIndex--;
-          currentEntry =
-              currentFlags != null && currentIndex >= 0 ? currentFlags.get(currentIndex) : null;
-        } else if (ScopeType.ISOLATION.equals(selectedBuffer)) {
-          isolationIndex--;
-          isolationEntry =
-              isolationFlags != null && isolationIndex >= 0
-                  ? isolationFlags.get(isolationIndex)
-                  : null;
-        } else if (ScopeType.GLOBAL.equals(selectedBuffer)) {
-          globalIndex--;
-          globalEntry =
-              globalFlags != null && globalIndex >= 0 ? globalFlags.get(globalIndex) : null;
-        }
-      } else {
-        // no need to look any further since lists are sorted and we could not find any newer
-        // entries anymore
+      if (entryToAdd == null) {
         break;
       }
+
+      // no need to update existing entries since we already have the latest
+      if (uniqueFlags.put(entryToAdd.flag, entryToAdd) == null) {
+        selected[selectedCount++] = entryToAdd;
+      }
+
+      // decrement only index of buffer that was selected
+      if (ScopeType.CURRENT.equals(selectedBuffer)) {
+        currentIndex--;
+      } else if (ScopeType.ISOLATION.equals(selectedBuffer)) {
+        isolationIndex--;
+      } else {
+        globalIndex--;
+      }
     }
 
-    // Convert to list in reverse order (oldest first, newest last)
-    final @NotNull List<FeatureFlagEntry> resultList = new ArrayList<>(uniqueFlags.values());
-    Collections.reverse(resultList);
-    return new FeatureFlagBuffer(maxSize, new CopyOnWriteArrayList<>(resultList));
+    // oldest first, newest last
+    final @NotNull LinkedHashMap<String, FeatureFlagEntry> merged =
+        new LinkedHashMap<>(selectedCount * 2);
+    for (int i = selectedCount - 1; i >= 0; i--) {
+      merged.put(selected[i].flag, selected[i]);
+    }
+    return new FeatureFlagBuffer(maxSize, merged, false);
   }
 
-  private static class FeatureFlagEntry {
+  private static final class FeatureFlagEntry {
 
     private final @NotNull String flag;
     private final boolean result;
 
-    @SuppressWarnings("UnusedVariable")
-    @NotNull
-    private final Long nanos;
+    private final long nanos;
 
-    public FeatureFlagEntry(
-        final @NotNull String flag, final boolean result, final @NotNull Long nanos) {
+    FeatureFlagEntry(final @NotNull String flag, final boolean result, final long nanos) {
       this.flag = flag;
       this.result = result;
       this.nanos = nanos;
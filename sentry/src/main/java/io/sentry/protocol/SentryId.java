@@ -5,8 +5,8 @@ import io.sentry.JsonDeserializer;
 import io.sentry.JsonSerializable;
 import io.sentry.ObjectReader;
 import io.sentry.ObjectWriter;
-import io.sentry.SentryUUID;
 import io.sentry.util.StringUtils;
+import io.sentry.util.UUIDGenerator;
 import io.sentry.util.UUIDStringUtils;
 import java.io.IOException;
 import java.util.UUID;
@@ -14,19 +14,30 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public final class SentryId implements JsonSerializable {
+  private static final int SENTRY_ID_LENGTH = 32;
 
   public static final SentryId EMPTY_ID =
       new SentryId(StringUtils.PROPER_NIL_UUID.replace("-", ""));
 
+  private final long mostSignificantBits;
+  private final long leastSignificantBits;
+  // false if this id was created from a string that is not 32 lower case hex digits
+  private final boolean hasBits;
   private volatile @Nullable String value;
-  private final @Nullable UUID uuid;
 
   public SentryId() {
     this((UUID) null);
   }
 
   public SentryId(@Nullable UUID uuid) {
-    this.uuid = uuid;
+    if (uuid != null) {
+      this.mostSignificantBits = uuid.getMostSignificantBits();
+      this.leastSignificantBits = uuid.getLeastSignificantBits();
+    } else {
+      this.mostSignificantBits = UUIDGenerator.randomMostSignificantBits();
+      this.leastSignificantBits = UUIDGenerator.randomLeastSignificantBits();
+    }
+    this.hasBits = true;
   }
 
   public SentryId(final @NotNull String sentryIdString) {
@@ -37,23 +48,20 @@ public final class SentryId implements JsonSerializable {
               + "or 36 characters long (completed UUID). Received: "
               + sentryIdString);
     }
-    this.uuid = null;
-    this.value = normalized.length() == 36 ? normalized.replace("-", "") : normalized;
+    final @NotNull String value =
+        normalized.length() == 36 ? normalized.replace("-", "") : normalized;
+    this.value = value;
+    this.hasBits = value.length() == SENTRY_ID_LENGTH && UUIDStringUtils.isLowerCaseHex(value);
+    this.mostSignificantBits = hasBits ? UUIDStringUtils.hexToLong(value, 0) : 0;
+    this.leastSignificantBits = hasBits ? UUIDStringUtils.hexToLong(value, 16) : 0;
   }
 
   private @NotNull String getValue() {
     String result = value;
     if (result == null) {
-      synchronized (this) {
-        result = value;
-        if (result == null) {
-          result =
-              uuid != null
-                  ? normalize(UUIDStringUtils.toSentryIdString(uuid))
-                  : SentryUUID.generateSentryId();
-          value = result;
-        }
-      }
+      // racing threads compute the same string
+      result = UUIDStringUtils.toSentryIdString(mostSignificantBits, leastSignificantBits);
+      value = result;
     }
     return result;
   }
@@ -68,18 +76,23 @@ public final class SentryId implements JsonSerializable {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     SentryId sentryId = (SentryId) o;
+    if (hasBits && sentryId.hasBits) {
+      return mostSignificantBits == sentryId.mostSignificantBits
+          && leastSignificantBits == sentryId.leastSignificantBits;
+    }
     return getValue().equals(sentryId.getValue());
   }
 
   @Override
   public int hashCode() {
+    // ids with and without bits are never equal, see constructor
+    if (hasBits) {
+      final long bits = mostSignificantBits ^ leastSignificantBits;
+      return (int) (bits ^ (bits >>> 32));
+    }
     return getValue().hashCode();
   }
 
-  private @NotNull String normalize(@NotNull String uuidString) {
-    return StringUtils.normalizeUUID(uuidString).replace("-", "");
-  }
-
   // JsonSerializable
 
   @Override
@@ -26,6 +26,12 @@ public final class SentrySample implements JsonUnknown, JsonSerializable {
 
   private @Nullable String threadId;
 
+  /**
+   * What the sample stands for, if it is not a single occurrence of its stack: bytes allocated for
+   * allocation samples, nanoseconds waited for lock contention samples.
+   */
+  private @Nullable Long weight;
+
   private @Nullable Map<String, Object> unknown;
 
   public SentrySample() {}
@@ -34,6 +40,7 @@ public final class SentrySample implements JsonUnknown, JsonSerializable {
     this.timestamp = sample.timestamp;
     this.stackId = sample.stackId;
     this.threadId = sample.threadId;
+    this.weight = sample.weight;
     this.unknown = CollectionUtils.newConcurrentHashMap(sample.unknown);
   }
 
@@ -61,10 +68,19 @@ public final class SentrySample implements JsonUnknown, JsonSerializable {
     this.threadId = threadId;
   }
 
+  public @Nullable Long getWeight() {
+    return weight;
+  }
+
+  public void setWeight(@Nullable Long weight) {
+    this.weight = weight;
+  }
+
   public static final class JsonKeys {
     public static final String TIMESTAMP = "timestamp";
     public static final String STACK_ID = "stack_id";
     public static final String THREAD_ID = "thread_id";
+    public static final String WEIGHT = "weight";
   }
 
   @Override
@@ -78,6 +94,10 @@ public final class SentrySample implements JsonUnknown, JsonSerializable {
       writer.name(JsonKeys.THREAD_ID).value(logger, threadId);
     }
 
+    if (weight != null) {
+      writer.name(JsonKeys.WEIGHT).value(weight);
+    }
+
     if (unknown != null) {
       for (String key : unknown.keySet()) {
         Object value = unknown.get(key);
@@ -120,6 +140,9 @@ public final class SentrySample implements JsonUnknown, JsonSerializable {
           case JsonKeys.THREAD_ID:
             data.threadId = reader.nextStringOrNull();
             break;
+          case JsonKeys.WEIGHT:
+            data.weight = reader.nextLongOrNull();
+            break;
           default:
             if (unknown == null) {
               unknown = new HashMap<>();
@@ -86,12 +86,15 @@ public final class AsyncHttpTransport implements ITransport {
       options.getLogger().log(SentryLevel.DEBUG, "Captured Envelope is already cached");
     }
 
+    // payloads may still be read from the file until the envelope is sent, see OutboxSender
+    final @Nullable Runnable fileRelease = HintUtils.takeEnvelopeFileRelease(hint);
     final SentryEnvelope filteredEnvelope = rateLimiter.filter(envelope, hint);
 
     if (filteredEnvelope == null) {
       if (cached) {
         envelopeCache.discard(envelope);
       }
+      releaseFile(fileRelease);
     } else {
       SentryEnvelope envelopeThatMayIncludeClientReport;
       if (HintUtils.hasType(
@@ -104,12 +107,14 @@ public final class AsyncHttpTransport implements ITransport {
 
       final Future<?> future =
           executor.submit(
-              new EnvelopeSender(envelopeThatMayIncludeClientReport, hint, currentEnvelopeCache));
+              new EnvelopeSender(
+                  envelopeThatMayIncludeClientReport, hint, currentEnvelopeCache, fileRelease));
 
       if (future != null && future.isCancelled()) {
         options
             .getClientReportRecorder()
             .recordLostEnvelope(DiscardReason.QUEUE_OVERFLOW, envelopeThatMayIncludeClientReport);
+        releaseFile(fileRelease);
       } else {
         HintUtils.runIfHasType(
             hint,
@@ -143,6 +148,7 @@ public final class AsyncHttpTransport implements ITransport {
             }
 
             markHintWhenSendingFailed(envelopeSender.hint, true);
+            releaseFile(envelopeSender.fileRelease);
             logger.log(SentryLevel.WARNING, "Envelope rejected");
           }
         };
@@ -213,6 +219,12 @@ public final class AsyncHttpTransport implements ITransport {
     HintUtils.runIfHasType(hint, Retryable.class, retryable -> retryable.setRetry(retry));
   }
 
+  private static void releaseFile(final @Nullable Runnable fileRelease) {
+    if (fileRelease != null) {
+      fileRelease.run();
+    }
+  }
+
   private static final class AsyncConnectionThreadFactory implements ThreadFactory {
     private int cnt;
 
@@ -228,15 +240,18 @@ public final class AsyncHttpTransport implements ITransport {
     private final @NotNull SentryEnvelope envelope;
     private final @NotNull Hint hint;
     private final @NotNull IEnvelopeCache envelopeCache;
+    private final @Nullable Runnable fileRelease;
     private final TransportResult failedResult = TransportResult.error();
 
     EnvelopeSender(
         final @NotNull SentryEnvelope envelope,
         final @NotNull Hint hint,
-        final @NotNull IEnvelopeCache envelopeCache) {
+        final @NotNull IEnvelopeCache envelopeCache,
+        final @Nullable Runnable fileRelease) {
       this.envelope = Objects.requireNonNull(envelope, "Envelope is required.");
       this.hint = hint;
       this.envelopeCache = Objects.requireNonNull(envelopeCache, "EnvelopeCache is required.");
+      this.fileRelease = fileRelease;
     }
 
     @Override
@@ -263,6 +278,7 @@ public final class AsyncHttpTransport implements ITransport {
                       finalResult.isSuccess());
               submissionResult.setResult(finalResult.isSuccess());
             });
+        releaseFile(fileRelease);
         currentRunnable = null;
       }
     }
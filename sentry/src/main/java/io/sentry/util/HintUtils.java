@@ -2,7 +2,9 @@ package io.sentry.util;
 
 import static io.sentry.TypeCheckHint.SENTRY_DART_SDK_NAME;
 import static io.sentry.TypeCheckHint.SENTRY_DOTNET_SDK_NAME;
+import static io.sentry.TypeCheckHint.SENTRY_ENVELOPE_FILE_RELEASE;
 import static io.sentry.TypeCheckHint.SENTRY_EVENT_DROP_REASON;
+import static io.sentry.TypeCheckHint.SENTRY_IS_BACKGROUND_CAPTURE;
 import static io.sentry.TypeCheckHint.SENTRY_IS_FROM_HYBRID_SDK;
 import static io.sentry.TypeCheckHint.SENTRY_JAVASCRIPT_SDK_NAME;
 import static io.sentry.TypeCheckHint.SENTRY_TYPE_CHECK_HINT;
@@ -35,6 +37,39 @@ public final class HintUtils {
     return Boolean.TRUE.equals(hint.getAs(SENTRY_IS_FROM_HYBRID_SDK, Boolean.class));
   }
 
+  public static void setIsBackgroundCapture(final @NotNull Hint hint) {
+    hint.set(SENTRY_IS_BACKGROUND_CAPTURE, true);
+  }
+
+  /**
+   * @return true if the event is captured on a background thread, so event processors must not
+   *     read objects that are only valid on the thread that created it, like the HTTP request
+   */
+  public static boolean isBackgroundCapture(final @NotNull Hint hint) {
+    return Boolean.TRUE.equals(hint.getAs(SENTRY_IS_BACKGROUND_CAPTURE, Boolean.class));
+  }
+
+  /**
+   * Hands a callback to the transport that releases the file the payloads of the envelope are read
+   * from, see {@link #takeEnvelopeFileRelease(Hint)}.
+   */
+  public static void setEnvelopeFileRelease(
+      final @NotNull Hint hint, final @NotNull Runnable release) {
+    hint.set(SENTRY_ENVELOPE_FILE_RELEASE, release);
+  }
+
+  /**
+   * Takes the callback that releases the file the payloads of the envelope are read from. Whoever
+   * takes it has to run it once the envelope has been sent, cached or dropped.
+   *
+   * @return the callback, or null if there is none or it has been taken already
+   */
+  public static @Nullable Runnable takeEnvelopeFileRelease(final @NotNull Hint hint) {
+    final @Nullable Runnable release = hint.getAs(SENTRY_ENVELOPE_FILE_RELEASE, Runnable.class);
+    hint.remove(SENTRY_ENVELOPE_FILE_RELEASE);
+    return release;
+  }
+
   public static void setEventDropReason(
       final @NotNull Hint hint, final @NotNull EventDropReason eventDropReason) {
     hint.set(SENTRY_EVENT_DROP_REASON, eventDropReason);
@@ -7,6 +7,7 @@ import io.sentry.IScope;
 import io.sentry.IScopes;
 import io.sentry.ISpan;
 import io.sentry.NoOpLogger;
+import io.sentry.NonRecordingSpan;
 import io.sentry.PropagationContext;
 import io.sentry.SentryOptions;
 import io.sentry.SentryTraceHeader;
@@ -60,7 +61,8 @@ public final class TracingUtils {
       final @Nullable ISpan span) {
     final @NotNull SentryOptions sentryOptions = scopes.getOptions();
 
-    if (span != null && !span.isNoOp()) {
+    // spans of unsampled transactions don't record anything but still propagate their trace
+    if (span != null && (!span.isNoOp() || NonRecordingSpan.isNonRecording(span))) {
       final @NotNull SentryTraceHeader sentryTraceHeader = span.toSentryTrace();
       final @Nullable BaggageHeader baggageHeader = span.toBaggageHeader(thirdPartyBaggageHeaders);
       @Nullable W3CTraceparentHeader w3cTraceparentHeader = null;
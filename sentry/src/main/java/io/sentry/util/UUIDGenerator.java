@@ -23,46 +23,39 @@ import java.util.UUID;
 /**
  * Utility class for generating UUIDs and half-length (1 long) UUIDs. Adapted from `java.util.UUID`
  * to use a faster random number generator.
+ *
+ * <p>The random bits are taken from the per thread {@link SentryRandom} a long at a time, instead
+ * of filling (and allocating) a byte array.
  */
 public final class UUIDGenerator {
 
-  @SuppressWarnings("NarrowingCompoundAssignment")
   public static long randomHalfLengthUUID() {
-    Random ng = SentryRandom.current();
-    byte[] randomBytes = new byte[8];
-    ng.nextBytes(randomBytes);
-    // clear version
-    randomBytes[6] &= 0x0f;
-    // set to version 4
-    randomBytes[6] |= 0x40;
-    long msb = 0;
-    for (int i = 0; i < 8; i++) {
-      msb = (msb << 8) | (randomBytes[i] & 0xff);
-    }
-    return msb;
+    return randomMostSignificantBits();
   }
 
-  @SuppressWarnings("NarrowingCompoundAssignment")
   public static UUID randomUUID() {
-    Random ng = SentryRandom.current();
-    byte[] randomBytes = new byte[16];
-    ng.nextBytes(randomBytes);
-    // clear version
-    randomBytes[6] &= 0x0f;
-    // set to version 4
-    randomBytes[6] |= 0x40;
-    // clear variant
-    randomBytes[8] &= 0x3f;
-    // set to IETF variant
-    randomBytes[8] |= 0x80;
-    long msb = 0;
-    long lsb = 0;
-    for (int i = 0; i < 8; i++) {
-      msb = (msb << 8) | (randomBytes[i] & 0xff);
-    }
-    for (int i = 8; i < 16; i++) {
-      lsb = (lsb << 8) | (randomBytes[i] & 0xff);
-    }
-    return new UUID(msb, lsb);
+    return new UUID(randomMostSignificantBits(), randomLeastSignificantBits());
+  }
+
+  /**
+   * Returns the most significant bits of a random version 4 UUID.
+   *
+   * @return the most significant bits
+   */
+  public static long randomMostSignificantBits() {
+    final long bits = SentryRandom.current().nextLong();
+    // clear version and set to version 4
+    return (bits & 0xffffffffffff0fffL) | 0x0000000000004000L;
+  }
+
+  /**
+   * Returns the least significant bits of a random version 4 UUID.
+   *
+   * @return the least significant bits
+   */
+  public static long randomLeastSignificantBits() {
+    final long bits = SentryRandom.current().nextLong();
+    // clear variant and set to IETF variant
+    return (bits & 0x3fffffffffffffffL) | 0x8000000000000000L;
   }
 }
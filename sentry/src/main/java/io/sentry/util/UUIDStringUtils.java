@@ -26,6 +26,7 @@ package io.sentry.util;
 
 import java.util.Arrays;
 import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
 
 /**
  * Utility class to convert UUIDs and longs to Sentry ID Strings
@@ -72,6 +73,44 @@ public final class UUIDStringUtils {
     HEX_VALUES['F'] = 0xf;
   }
 
+  /**
+   * Returns whether the given string only consists of lower case hex digits, i.e. whether it could
+   * have been produced by {@link #toSentryIdString(long, long)} or {@link
+   * #toSentrySpanIdString(long)}.
+   *
+   * @param value the string to check
+   * @return true if all characters are lower case hex digits
+   */
+  public static boolean isLowerCaseHex(final @NotNull String value) {
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parses the 16 hex digits starting at the given offset into a long.
+   *
+   * @param value a string containing at least 16 hex digits after offset
+   * @param offset the index of the first hex digit
+   * @return the parsed bits
+   */
+  public static long hexToLong(final @NotNull String value, final int offset) {
+    long bits = 0;
+    for (int i = offset; i < offset + 16; i++) {
+      final char c = value.charAt(i);
+      final long digit = c < HEX_VALUES.length ? HEX_VALUES[c] : -1;
+      if (digit < 0) {
+        throw new IllegalArgumentException("Not a hex string: " + value);
+      }
+      bits = (bits << 4) | digit;
+    }
+    return bits;
+  }
+
   public static String toSentryIdString(final UUID uuid) {
 
     final long mostSignificantBits = uuid.getMostSignificantBits();
@@ -0,0 +1,105 @@
+package io.sentry
+
+import java.io.StringWriter
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+
+class AggregatedCacheSpanTest {
+
+  private class Fixture {
+    val options = SentryOptions().apply { slowCacheOperationThresholdMillis = 10_000 }
+    val scopes = mock<IScopes>()
+
+    fun getTransaction(sampled: Boolean = true): SentryTracer {
+      whenever(scopes.options).thenReturn(options)
+      return SentryTracer(TransactionContext("name", "op", TracesSamplingDecision(sampled)), scopes)
+    }
+
+    fun start(transaction: ISpan, operation: String = "cache.get"): ISpan =
+      AggregatedCacheSpan.start(transaction, options, "users", operation, "key", "auto.cache.test")
+  }
+
+  private val fixture = Fixture()
+
+  @Test
+  fun `records operations on the active span without creating child spans`() {
+    val transaction = fixture.getTransaction()
+
+    fixture.start(transaction).apply {
+      setData(SpanDataConvention.CACHE_HIT, true)
+      finish(SpanStatus.OK)
+    }
+    fixture.start(transaction).apply {
+      setData(SpanDataConvention.CACHE_HIT, false)
+      finish(SpanStatus.OK)
+    }
+    fixture.start(transaction, "cache.put").apply {
+      setData(SpanDataConvention.CACHE_WRITE, true)
+      finish(SpanStatus.OK)
+    }
+
+    assertTrue(transaction.spans.isEmpty())
+    val json = serialize(CacheOperationStats.of(transaction))
+    assertTrue(json.startsWith("{\"users\":{\"count\":3,\"hits\":1,\"misses\":1,\"writes\":1"))
+    assertTrue(json.contains("\"errors\":0"))
+    assertTrue(json.contains("\"latency_histogram\":{"))
+  }
+
+  @Test
+  fun `creates a child span for failed operations`() {
+    val transaction = fixture.getTransaction()
+    val exception = RuntimeException("boom")
+
+    fixture.start(transaction).apply {
+      setData(SpanDataConvention.CACHE_KEY, listOf("key"))
+      setThrowable(exception)
+      finish(SpanStatus.INTERNAL_ERROR)
+    }
+
+    assertEquals(1, transaction.spans.size)
+    val span = transaction.spans.first()
+    assertEquals("cache.get", span.operation)
+    assertEquals("key", span.description)
+    assertEquals("auto.cache.test", span.spanContext.origin)
+    assertEquals(listOf("key"), span.getData(SpanDataConvention.CACHE_KEY))
+    assertEquals(SpanStatus.INTERNAL_ERROR, span.status)
+    assertSame(exception, span.throwable)
+    assertTrue(span.isFinished)
+    assertTrue(serialize(CacheOperationStats.of(transaction)).contains("\"errors\":1"))
+  }
+
+  @Test
+  fun `creates a child span for operations taking at least the slow threshold`() {
+    fixture.options.slowCacheOperationThresholdMillis = 0
+    val transaction = fixture.getTransaction()
+
+    val cacheSpan = fixture.start(transaction)
+    cacheSpan.finish(SpanStatus.OK)
+    cacheSpan.finish(SpanStatus.OK)
+
+    assertEquals(1, transaction.spans.size)
+    assertEquals(SpanStatus.OK, transaction.spans.first().status)
+    assertTrue(serialize(CacheOperationStats.of(transaction)).contains("\"count\":1"))
+  }
+
+  @Test
+  fun `returns a no-op span if the active span is not sampled`() {
+    val transaction = fixture.getTransaction(sampled = false)
+
+    val cacheSpan = fixture.start(transaction)
+
+    assertTrue(cacheSpan.isNoOp)
+    assertFalse(transaction.getData(SpanDataConvention.CACHE_OPERATIONS) is CacheOperationStats)
+  }
+
+  private fun serialize(jsonSerializable: JsonSerializable): String {
+    val wrt = StringWriter()
+    jsonSerializable.serialize(JsonObjectWriter(wrt, 100), NoOpLogger.getInstance())
+    return wrt.toString()
+  }
+}
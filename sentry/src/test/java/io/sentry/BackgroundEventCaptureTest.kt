@@ -0,0 +1,162 @@
+package io.sentry
+
+import io.sentry.clientreport.DiscardReason
+import io.sentry.clientreport.IClientReportRecorder
+import io.sentry.protocol.SentryId
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNotSame
+import kotlin.test.assertTrue
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
+import org.mockito.kotlin.whenever
+
+class BackgroundEventCaptureTest {
+
+  private class Fixture {
+    val options = SentryOptions()
+    val scopes = mock<IScopes>()
+    val clientReportRecorder = mock<IClientReportRecorder>()
+    val executorService = mock<ISentryExecutorService>()
+    val captureStarted = CountDownLatch(1)
+    val releaseCapture = CountDownLatch(1)
+    val capturedCount = AtomicInteger()
+
+    fun getSut(): BackgroundEventCapture {
+      options.executorService = executorService
+      SentryOptionsManipulator.setClientReportRecorder(options, clientReportRecorder)
+      whenever(scopes.options).thenReturn(options)
+      return BackgroundEventCapture(options)
+    }
+
+    fun blockCaptures() {
+      whenever(scopes.captureEvent(any(), any<Hint>())).thenAnswer {
+        captureStarted.countDown()
+        try {
+          releaseCapture.await()
+          capturedCount.incrementAndGet()
+        } catch (e: InterruptedException) {
+          // interrupted by close
+        }
+        SentryId()
+      }
+    }
+  }
+
+  private val fixture = Fixture()
+
+  @AfterTest
+  fun `release blocked captures`() {
+    fixture.releaseCapture.countDown()
+  }
+
+  @Test
+  fun `captures the event on its own thread instead of the sdk executor service`() {
+    val sut = fixture.getSut()
+    val event = SentryEvent()
+    val hint = Hint()
+    val captureThread = AtomicReference<Thread>()
+    val captured = CountDownLatch(1)
+    whenever(fixture.scopes.captureEvent(event, hint)).thenAnswer {
+      captureThread.set(Thread.currentThread())
+      captured.countDown()
+      SentryId()
+    }
+
+    sut.captureEvent(fixture.scopes, event, hint)
+
+    assertTrue(captured.await(5, TimeUnit.SECONDS))
+    assertNotSame(Thread.currentThread(), captureThread.get())
+    verifyNoInteractions(fixture.executorService)
+    verify(fixture.clientReportRecorder, never()).recordLostEvent(any(), any<DataCategory>())
+    sut.close(0)
+  }
+
+  @Test
+  fun `records the event as lost if the queue is full`() {
+    val sut = fixture.getSut()
+    fixture.blockCaptures()
+    sut.captureEvent(fixture.scopes, SentryEvent(), Hint())
+    assertTrue(fixture.captureStarted.await(5, TimeUnit.SECONDS))
+    repeat(BackgroundEventCapture.MAX_QUEUE_SIZE) {
+      sut.captureEvent(fixture.scopes, SentryEvent(), Hint())
+    }
+    verify(fixture.clientReportRecorder, never()).recordLostEvent(any(), any<DataCategory>())
+
+    sut.captureEvent(fixture.scopes, SentryEvent(), Hint())
+
+    verify(fixture.clientReportRecorder)
+      .recordLostEvent(DiscardReason.QUEUE_OVERFLOW, DataCategory.Error)
+    fixture.releaseCapture.countDown()
+    sut.close(5000)
+    verify(fixture.scopes, times(BackgroundEventCapture.MAX_QUEUE_SIZE + 1))
+      .captureEvent(any(), any<Hint>())
+  }
+
+  @Test
+  fun `flush waits for the queued events`() {
+    val sut = fixture.getSut()
+    fixture.blockCaptures()
+    repeat(3) { sut.captureEvent(fixture.scopes, SentryEvent(), Hint()) }
+    assertTrue(fixture.captureStarted.await(5, TimeUnit.SECONDS))
+
+    sut.flush(0)
+    assertEquals(0, fixture.capturedCount.get())
+
+    fixture.releaseCapture.countDown()
+    sut.flush(5000)
+    assertEquals(3, fixture.capturedCount.get())
+    sut.close(0)
+  }
+
+  @Test
+  fun `close captures the queued events before it returns`() {
+    val sut = fixture.getSut()
+    repeat(3) { sut.captureEvent(fixture.scopes, SentryEvent(), Hint()) }
+
+    sut.close(5000)
+
+    verify(fixture.scopes, times(3)).captureEvent(any(), any<Hint>())
+    verify(fixture.clientReportRecorder, never()).recordLostEvent(any(), any(), any())
+  }
+
+  @Test
+  fun `close records the events that are still queued after the timeout as lost`() {
+    val sut = fixture.getSut()
+    fixture.blockCaptures()
+    sut.captureEvent(fixture.scopes, SentryEvent(), Hint())
+    assertTrue(fixture.captureStarted.await(5, TimeUnit.SECONDS))
+    repeat(3) { sut.captureEvent(fixture.scopes, SentryEvent(), Hint()) }
+
+    sut.close(0)
+
+    verify(fixture.clientReportRecorder)
+      .recordLostEvent(DiscardReason.QUEUE_OVERFLOW, DataCategory.Error, 3)
+    verify(fixture.scopes, times(1)).captureEvent(any(), any<Hint>())
+  }
+
+  @Test
+  fun `captures events again after being closed`() {
+    val sut = fixture.getSut()
+    sut.close(0)
+    val captured = CountDownLatch(1)
+    whenever(fixture.scopes.captureEvent(any(), any<Hint>())).thenAnswer {
+      captured.countDown()
+      SentryId()
+    }
+
+    sut.captureEvent(fixture.scopes, SentryEvent(), Hint())
+
+    assertTrue(captured.await(5, TimeUnit.SECONDS))
+    sut.close(0)
+  }
+}
@@ -11,7 +11,9 @@ import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
+import kotlin.test.assertNotSame
 import kotlin.test.assertNull
+import kotlin.test.assertSame
 import kotlin.test.assertTrue
 
 class BaggageTest {
@@ -928,6 +930,67 @@ class BaggageTest {
       "}",
     )
 
+  @Test
+  fun `third party values are kept as raw slices and only sentry values are decoded`() {
+    val baggage =
+      Baggage.fromHeader(
+        " userId=alice%20a , sentry-release=1.0%2B1 ,,serverNode=DF+28",
+        true,
+        logger,
+      )
+    assertEquals("1.0+1", baggage.release)
+    assertEquals("userId=alice%20a,,serverNode=DF+28", baggage.thirdPartyHeader)
+  }
+
+  @Test
+  fun `parsing multiple header values behaves like parsing the joined header`() {
+    val headerValues = listOf("a=b, sentry-trace_id=123", "sentry-sample_rand=0.5,c=d")
+    val baggage = Baggage.fromHeader(headerValues, true, logger)
+    val joined = Baggage.fromHeader(headerValues.joinToString(","), true, logger)
+    assertEquals(joined.toHeaderString(null), baggage.toHeaderString(null))
+    assertEquals("a=b,c=d", baggage.thirdPartyHeader)
+    assertEquals(joined.thirdPartyHeader, baggage.thirdPartyHeader)
+  }
+
+  @Test
+  fun `unchanged baggage reuses header string`() {
+    val baggage = Baggage.fromHeader("sentry-trace_id=a,sentry-transaction=b", logger)
+    val headerString = baggage.toHeaderString("c=d")
+    assertSame(headerString, baggage.toHeaderString("c=d"))
+    assertNotSame(headerString, baggage.toHeaderString(null))
+  }
+
+  @Test
+  fun `header string reflects changes made after it was serialized`() {
+    val baggage = Baggage.fromHeader("sentry-trace_id=a", logger)
+    assertEquals("sentry-trace_id=a", baggage.toHeaderString(null))
+
+    baggage.setTransaction("b")
+    assertEquals("sentry-trace_id=a,sentry-transaction=b", baggage.toHeaderString(null))
+
+    baggage.setSampleRate(0.5)
+    assertEquals(
+      "sentry-sample_rate=0.5,sentry-trace_id=a,sentry-transaction=b",
+      baggage.toHeaderString(null),
+    )
+
+    baggage.freeze()
+    baggage.forceSetReplayId(SentryId("2fbc6f2e0a7a4a46b6d6a5b6e0c0fa8e"))
+    assertEquals(
+      "sentry-replay_id=2fbc6f2e0a7a4a46b6d6a5b6e0c0fa8e,sentry-sample_rate=0.5,sentry-trace_id=a,sentry-transaction=b",
+      baggage.toHeaderString(null),
+    )
+  }
+
+  @Test
+  fun `header string reflects changes made through a copy`() {
+    val baggage = Baggage.fromHeader("sentry-trace_id=a", logger)
+    assertEquals("sentry-trace_id=a", baggage.toHeaderString(null))
+
+    Baggage(baggage).setTransaction("b")
+    assertEquals("sentry-trace_id=a,sentry-transaction=b", baggage.toHeaderString(null))
+  }
+
   private fun percentEncodedValues() =
     mutableMapOf(
       " " to "%20",
@@ -238,6 +238,25 @@ class DefaultCompositePerformanceCollectorTest {
     assertNotNull(data1)
   }
 
+  @Test
+  fun `transactions only get the data collected while they were running`() {
+    val collector = fixture.getSut()
+    collector.start(fixture.transaction1)
+    Thread.sleep(300)
+    collector.start(fixture.transaction2)
+    Thread.sleep(300)
+
+    val data2 = collector.stop(fixture.transaction2)
+    val data1 = collector.stop(fixture.transaction1)
+    assertNotNull(data1)
+    assertNotNull(data2)
+    assertFalse(data2.isEmpty())
+
+    // The data is shared, but the second transaction misses what was collected before it started
+    assertTrue(data1.size > data2.size)
+    assertTrue(data1.containsAll(data2))
+  }
+
   @Test
   fun `collector has no IPerformanceCollector by default`() {
     val collector = fixture.getSut(null, null)
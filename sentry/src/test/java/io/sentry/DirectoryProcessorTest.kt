@@ -80,7 +80,7 @@ class DirectoryProcessorTest {
     val event = SentryEvent()
     val envelope = SentryEnvelope.from(fixture.serializer, event, null)
 
-    whenever(fixture.envelopeReader.read(any())).thenReturn(envelope)
+    whenever(fixture.envelopeReader.read(any<File>())).thenReturn(envelope)
     whenever(fixture.serializer.deserialize(any(), eq(SentryEvent::class.java))).thenReturn(event)
 
     fixture.getSut().processDirectory(file)
@@ -104,7 +104,7 @@ class DirectoryProcessorTest {
     val event = SentryEvent()
     val envelope = SentryEnvelope.from(fixture.serializer, event, null)
 
-    whenever(fixture.envelopeReader.read(any())).thenReturn(envelope)
+    whenever(fixture.envelopeReader.read(any<File>())).thenReturn(envelope)
     whenever(fixture.serializer.deserialize(any(), eq(SentryEvent::class.java))).thenReturn(event)
 
     // make it retryable so it doesn't get deleted
@@ -126,7 +126,7 @@ class DirectoryProcessorTest {
     val event = SentryEvent()
     val envelope = SentryEnvelope.from(fixture.serializer, event, null)
 
-    whenever(fixture.envelopeReader.read(any())).thenReturn(envelope)
+    whenever(fixture.envelopeReader.read(any<File>())).thenReturn(envelope)
     whenever(fixture.serializer.deserialize(any(), eq(SentryEvent::class.java))).thenReturn(event)
 
     val sut = fixture.getSut(isRateLimitingActive = true)
@@ -0,0 +1,171 @@
+package io.sentry
+
+import io.sentry.exception.SentryEnvelopeException
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.RandomAccessFile
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertNotNull
+import kotlin.test.assertTrue
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+
+class EnvelopeReaderTest {
+  @get:Rule val tmpDir = TemporaryFolder()
+
+  private class Fixture {
+    val serializer = JsonSerializer(SentryOptions())
+
+    fun getSut() = EnvelopeReader(serializer)
+  }
+
+  private val fixture = Fixture()
+
+  private val largePayload =
+    ByteArray(EnvelopeReader.FILE_BACKED_ITEM_MIN_SIZE + 10) { (it % 127).toByte() }
+  private val smallPayload = "{\"message\":\"small\"}".toByteArray()
+
+  private fun envelopeBytes(trailingLineBreak: Boolean = false): ByteArray =
+    ByteArrayOutputStream()
+      .apply {
+        write("{\"event_id\":\"9ec79c33ec9942ab8353589fcb2e04dc\"}\n".toByteArray())
+        write(
+          "{\"type\":\"attachment\",\"length\":${largePayload.size},\"filename\":\"big.bin\"}\n"
+            .toByteArray()
+        )
+        write(largePayload)
+        write("\n".toByteArray())
+        write("{\"type\":\"event\",\"length\":${smallPayload.size}}\n".toByteArray())
+        write(smallPayload)
+        if (trailingLineBreak) {
+          write("\n".toByteArray())
+        }
+      }
+      .toByteArray()
+
+  private fun fileOf(bytes: ByteArray): File = tmpDir.newFile().apply { writeBytes(bytes) }
+
+  @Test
+  fun `reading a file keeps large items in the file`() {
+    val envelope = fixture.getSut().read(fileOf(envelopeBytes()))
+
+    assertNotNull(envelope)
+    val items = envelope.items.toList()
+    assertEquals(2, items.size)
+    assertTrue(items[0].isFileBacked)
+    assertFalse(items[1].isFileBacked)
+    assertContentEquals(smallPayload, items[1].data)
+  }
+
+  @Test
+  fun `file backed items are read on demand`() {
+    val envelope = fixture.getSut().read(fileOf(envelopeBytes()))!!
+    val item = envelope.items.first()
+
+    assertContentEquals(largePayload, item.dataStream.use { it.readBytes() })
+    assertTrue(item.isFileBacked)
+    assertContentEquals(largePayload, item.data)
+    assertFalse(item.isFileBacked)
+  }
+
+  @Test
+  fun `reading a file results in the same envelope as reading the stream`() {
+    listOf(true, false).forEach { trailingLineBreak ->
+      val bytes = envelopeBytes(trailingLineBreak)
+      val fromStream = fixture.getSut().read(bytes.inputStream())!!
+      val fromFile = fixture.getSut().read(fileOf(bytes))!!
+
+      assertEquals(fromStream.header.eventId, fromFile.header.eventId)
+      fromStream.items.zip(fromFile.items).forEach { (expected, actual) ->
+        assertEquals(expected.header.type, actual.header.type)
+        assertEquals(expected.header.length, actual.header.length)
+        assertContentEquals(expected.data, actual.data)
+      }
+    }
+  }
+
+  @Test
+  fun `file backed items are serialized by streaming them from the file`() {
+    val bytes = envelopeBytes()
+    val fromStream = fixture.getSut().read(bytes.inputStream())!!
+    val fromFile = fixture.getSut().read(fileOf(bytes))!!
+
+    val expected = ByteArrayOutputStream().also { fixture.serializer.serialize(fromStream, it) }
+    val actual = ByteArrayOutputStream().also { fixture.serializer.serialize(fromFile, it) }
+
+    assertContentEquals(expected.toByteArray(), actual.toByteArray())
+    assertTrue(fromFile.items.first().isFileBacked)
+  }
+
+  @Test
+  fun `file backed items are dropped when the file is gone`() {
+    val file = fileOf(envelopeBytes())
+    val envelope = fixture.getSut().read(file)!!
+    file.delete()
+
+    assertFailsWith<Exception> { envelope.items.first().data }
+
+    val output = ByteArrayOutputStream().also { fixture.serializer.serialize(envelope, it) }
+    val serialized = fixture.getSut().read(output.toByteArray().inputStream())!!
+    assertEquals(SentryItemType.Event, serialized.items.single().header.type)
+  }
+
+  @Test
+  fun `file backed items are not loaded when the file is cut short`() {
+    val file = fileOf(envelopeBytes())
+    val envelope = fixture.getSut().read(file)!!
+    RandomAccessFile(file, "rw").use { it.setLength(file.length() - smallPayload.size - 100) }
+
+    assertFailsWith<SentryEnvelopeException> { envelope.items.first().data }
+    assertTrue(envelope.items.first().isFileBacked)
+  }
+
+  @Test
+  fun `reading invalid files fails the same way as reading streams`() {
+    listOf(
+        "",
+        "{}",
+        "{}\n{\"type\":\"event\",\"length\":5}",
+        "{}\n{\"type\":\"event\",\"length\":5}\nabcd",
+        "{}\n{\"type\":\"event\",\"length\":2}\n{}x",
+        "{}\n{\"type\":\"event\",\"length\":0}\n",
+      )
+      .forEach { content ->
+        val expected =
+          assertFailsWith<IllegalArgumentException> {
+            fixture.getSut().read(content.byteInputStream())
+          }
+        val actual =
+          assertFailsWith<IllegalArgumentException> {
+            fixture.getSut().read(fileOf(content.toByteArray()))
+          }
+        assertEquals(expected.message, actual.message)
+      }
+  }
+
+  @Test
+  fun `reading envelope resources from files matches reading them from streams`() {
+    listOf(
+        "envelope-session-start.txt",
+        "envelope_session.txt",
+        "envelope-event-attachment.txt",
+        "envelope-transaction.txt",
+        "envelope-feedback.txt",
+        "envelope_attachment.txt",
+      )
+      .forEach { name ->
+        val bytes = this::class.java.classLoader.getResource(name)!!.readBytes()
+        val fromStream = fixture.getSut().read(bytes.inputStream())!!
+        val fromFile = fixture.getSut().read(fileOf(bytes))!!
+
+        assertEquals(fromStream.items.count(), fromFile.items.count())
+        fromStream.items.zip(fromFile.items).forEach { (expected, actual) ->
+          assertContentEquals(expected.data, actual.data)
+        }
+      }
+  }
+}
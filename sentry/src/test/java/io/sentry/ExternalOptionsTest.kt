@@ -345,6 +345,27 @@ class ExternalOptionsTest {
     }
   }
 
+  @Test
+  fun `creates options with enableCacheSpanAggregation set to true`() {
+    withPropertiesFile("enable-cache-span-aggregation=true") { options ->
+      assertTrue(options.isEnableCacheSpanAggregation == true)
+    }
+  }
+
+  @Test
+  fun `creates options with slowCacheOperationThresholdMillis using external properties`() {
+    withPropertiesFile("slow-cache-operation-threshold-millis=50") {
+      assertEquals(50L, it.slowCacheOperationThresholdMillis)
+    }
+  }
+
+  @Test
+  fun `creates options with enableBackgroundWebExceptionCapture set to true`() {
+    withPropertiesFile("enable-background-web-exception-capture=true") { options ->
+      assertTrue(options.isEnableBackgroundWebExceptionCapture == true)
+    }
+  }
+
   @Test
   fun `creates options with enableQueueTracing set to true`() {
     withPropertiesFile("enable-queue-tracing=true") { options ->
@@ -0,0 +1,191 @@
+package io.sentry
+
+import java.io.ByteArrayOutputStream
+import java.io.OutputStreamWriter
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import org.mockito.kotlin.mock
+
+class JsonObjectByteWriterTest {
+
+  private val logger = mock<ILogger>()
+
+  private fun byteWriterOutput(indent: String? = null, block: (ObjectWriter) -> Unit): ByteArray {
+    val stream = ByteArrayOutputStream()
+    val writer = JsonObjectByteWriter(stream, 100)
+    writer.setIndent(indent)
+    block(writer)
+    writer.flush()
+    return stream.toByteArray()
+  }
+
+  private fun jsonWriterOutput(indent: String? = null, block: (ObjectWriter) -> Unit): ByteArray {
+    val stream = ByteArrayOutputStream()
+    val streamWriter = OutputStreamWriter(stream, Charsets.UTF_8)
+    val writer = JsonObjectWriter(streamWriter, 100)
+    writer.setIndent(indent)
+    block(writer)
+    streamWriter.flush()
+    return stream.toByteArray()
+  }
+
+  private fun assertSameOutput(indent: String? = null, block: (ObjectWriter) -> Unit) {
+    val expected = jsonWriterOutput(indent, block)
+    val actual = byteWriterOutput(indent, block)
+    assertEquals(String(expected, Charsets.UTF_8), String(actual, Charsets.UTF_8))
+    assertContentEquals(expected, actual)
+  }
+
+  @Test
+  fun `writes ascii strings`() {
+    assertSameOutput { it.value("hello world") }
+  }
+
+  @Test
+  fun `escapes control characters, quotes and backslashes`() {
+    assertSameOutput { it.value("\"quoted\"\n\t\r\b\u000c\\ \u0001\u001f") }
+  }
+
+  @Test
+  fun `escapes line and paragraph separators`() {
+    assertSameOutput { it.value("a\u2028b\u2029c") }
+  }
+
+  @Test
+  fun `encodes multi byte characters as utf-8`() {
+    assertSameOutput { it.value("äöü € 日本語 😀") }
+  }
+
+  @Test
+  fun `replaces unpaired surrogates like OutputStreamWriter`() {
+    assertSameOutput { it.value("a\uD83Db \uDE00c \uD83D") }
+  }
+
+  @Test
+  fun `writes json values unescaped`() {
+    assertSameOutput { it.beginObject().name("raw").jsonValue("{\"a\":\"ä\"}").endObject() }
+  }
+
+  @Test
+  fun `writes longs`() {
+    assertSameOutput {
+      it
+        .beginArray()
+        .value(0L)
+        .value(7L)
+        .value(-7L)
+        .value(1234567890123L)
+        .value(Long.MAX_VALUE)
+        .value(Long.MIN_VALUE)
+        .endArray()
+    }
+  }
+
+  @Test
+  fun `writes doubles`() {
+    assertSameOutput {
+      it
+        .beginArray()
+        .value(0.0)
+        .value(-0.0)
+        .value(1.0)
+        .value(-42.0)
+        .value(9999999.0)
+        .value(10000000.0)
+        .value(1.5)
+        .value(1.0E-5)
+        .value(1.7976931348623157E308)
+        .value(1699999999.123)
+        .endArray()
+    }
+  }
+
+  @Test
+  fun `writes numbers`() {
+    assertSameOutput {
+      it
+        .beginArray()
+        .value(1 as Number)
+        .value(2L as Number)
+        .value(3.toShort() as Number)
+        .value(4.toByte() as Number)
+        .value(5.5 as Number)
+        .value(6.25f as Number)
+        .value(java.math.BigDecimal("7.125") as Number)
+        .value(null as Number?)
+        .endArray()
+    }
+  }
+
+  @Test
+  fun `rejects non finite numbers unless lenient`() {
+    assertFailsWith<IllegalArgumentException> { byteWriterOutput { it.value(Double.NaN) } }
+    assertFailsWith<IllegalArgumentException> {
+      byteWriterOutput { it.value(Double.POSITIVE_INFINITY as Number) }
+    }
+    assertSameOutput {
+      it.setLenient(true)
+      it.beginArray().value(Double.NaN).value(Float.NEGATIVE_INFINITY as Number).endArray()
+    }
+  }
+
+  @Test
+  fun `writes nested structures`() {
+    val value =
+      mapOf(
+        "string" to "value",
+        "bool" to true,
+        "null" to null,
+        "list" to listOf(1, 2.5, "three", listOf<Any>(), mapOf<String, Any>()),
+        "map" to mapOf("nested" to mapOf("deep" to arrayOf(1, 2))),
+      )
+    assertSameOutput { it.value(logger, value) }
+  }
+
+  @Test
+  fun `writes nested structures with indent`() {
+    val value = mapOf("list" to listOf(1, mapOf("a" to "b")), "empty" to mapOf<String, Any>())
+    assertSameOutput("\t") { it.value(logger, value) }
+  }
+
+  @Test
+  fun `writes strings larger than the buffer`() {
+    val value = buildString {
+      repeat(JsonObjectByteWriter.BUFFER_SIZE) { append("aä\n😀") }
+    }
+    assertSameOutput { it.beginObject().name(value).value(value).endObject() }
+  }
+
+  @Test
+  fun `serializes sentry event the same way as JsonObjectWriter`() {
+    val event = SentryEvent(RuntimeException("boom \"quoted\""))
+    event.setTag("tag", "välue")
+    event.setExtra("extra", mapOf("number" to 1.5, "list" to listOf(1, 2, 3)))
+    assertSameOutput { it.value(logger, event) }
+  }
+
+  @Test
+  fun `rejects multiple top level values unless lenient`() {
+    assertFailsWith<IllegalStateException> { byteWriterOutput { it.value(1L).value(2L) } }
+  }
+
+  @Test
+  fun `rejects dangling names`() {
+    assertFailsWith<IllegalStateException> {
+      byteWriterOutput { it.beginObject().name("name").endObject() }
+    }
+  }
+
+  @Test
+  fun `writer can be reused after flush`() {
+    val stream = ByteArrayOutputStream()
+    val writer = JsonObjectByteWriter(stream, 100)
+    writer.beginArray().value("first")
+    writer.flush()
+    writer.value("second").endArray()
+    writer.flush()
+    assertEquals("[\"first\",\"second\"]", stream.toString("UTF-8"))
+  }
+}
@@ -1,6 +1,9 @@
 package io.sentry
 
+import io.sentry.protocol.SentryId
+import java.io.BufferedWriter
 import java.io.ByteArrayOutputStream
+import java.io.OutputStreamWriter
 import java.io.StringReader
 import java.io.StringWriter
 import java.net.URL
@@ -18,6 +21,34 @@ class JsonSerializerBenchmarkTests {
     runBenchmark(fixture.getJsonSerializer())
   }
 
+  @Test
+  fun benchmarkJsonWriterVsOutputStream() {
+    val serializer = fixture.getJsonSerializer()
+    val eventJson = sanitizedFile("json/sentry_event.json")
+    val event = serializer.deserialize(StringReader(eventJson), SentryEvent::class.java)!!
+    val logs =
+      SentryLogEvents(
+        List(100) {
+          SentryLogEvent(SentryId(), 1234567890.0, "log message $it", SentryLogLevel.INFO)
+        }
+      )
+
+    println("Writer")
+    simpleMeasureTest(1000) {
+      val stream = ByteArrayOutputStream()
+      val writer = BufferedWriter(OutputStreamWriter(stream, Charsets.UTF_8), 512)
+      serializer.serialize(event, writer)
+      serializer.serialize(logs, writer)
+    }
+
+    println("OutputStream")
+    simpleMeasureTest(1000) {
+      val stream = ByteArrayOutputStream()
+      serializer.serialize(event, stream)
+      serializer.serialize(logs, stream)
+    }
+  }
+
   private fun runBenchmark(serializer: ISerializer) {
     val sessionJson = sanitizedFile("json/session.json")
     val eventJson = sanitizedFile("json/sentry_event.json")
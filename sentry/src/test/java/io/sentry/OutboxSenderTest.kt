@@ -12,9 +12,11 @@ import java.nio.file.Files
 import java.nio.file.Paths
 import java.util.Date
 import kotlin.test.Test
+import kotlin.test.assertContentEquals
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
+import kotlin.test.assertNull
 import kotlin.test.assertTrue
 import org.mockito.kotlin.any
 import org.mockito.kotlin.argWhere
@@ -60,7 +62,7 @@ class OutboxSenderTest {
 
   @Test
   fun `when envelopeReader returns null, file is deleted `() {
-    whenever(fixture.envelopeReader.read(any())).thenReturn(null)
+    whenever(fixture.envelopeReader.read(any<File>())).thenReturn(null)
     val sut = fixture.getSut()
     val path = getTempEnvelope()
     assertTrue(File(path).exists()) // sanity check
@@ -279,6 +281,77 @@ class OutboxSenderTest {
     verify(fixture.logger, never()).log(eq(SentryLevel.ERROR), any<String>(), any())
   }
 
+  private fun largeItemEnvelopeFile(payload: ByteArray): File =
+    File.createTempFile("temp-envelope", ".tmp").apply {
+      outputStream().use {
+        it.write("{}\n".toByteArray())
+        it.write(
+          "{\"type\":\"attachment\",\"length\":${payload.size},\"filename\":\"big.bin\"}\n"
+            .toByteArray()
+        )
+        it.write(payload)
+      }
+    }
+
+  @Test
+  fun `when envelope has a large item, the file is kept until the transport released it`() {
+    fixture.envelopeReader = EnvelopeReader(JsonSerializer(fixture.options))
+    val payload = ByteArray(EnvelopeReader.FILE_BACKED_ITEM_MIN_SIZE) { it.toByte() }
+    val file = largeItemEnvelopeFile(payload)
+    var forwardedEnvelope: SentryEnvelope? = null
+    var fileRelease: Runnable? = null
+    whenever(fixture.scopes.captureEnvelope(any(), any())).then {
+      // a transport that sends the envelope later on
+      forwardedEnvelope = it.getArgument(0)
+      fileRelease = HintUtils.takeEnvelopeFileRelease(it.getArgument(1))
+      SentryId.EMPTY_ID
+    }
+
+    val hints = HintUtils.createWithTypeCheckHint(mock<Retryable>())
+    fixture.getSut().processEnvelopeFile(file.absolutePath, hints)
+
+    assertTrue(file.exists())
+    val item = forwardedEnvelope!!.items.first()
+    assertTrue(item.isFileBacked)
+    assertContentEquals(payload, item.dataStream.use { it.readBytes() })
+
+    fileRelease!!.run()
+    assertFalse(file.exists())
+  }
+
+  @Test
+  fun `when envelope has a large item that no transport kept, the file is deleted`() {
+    fixture.envelopeReader = EnvelopeReader(JsonSerializer(fixture.options))
+    val file = largeItemEnvelopeFile(ByteArray(EnvelopeReader.FILE_BACKED_ITEM_MIN_SIZE))
+
+    val hints = HintUtils.createWithTypeCheckHint(mock<Retryable>())
+    fixture.getSut().processEnvelopeFile(file.absolutePath, hints)
+
+    verify(fixture.scopes).captureEnvelope(any(), any())
+    assertFalse(file.exists())
+    assertNull(HintUtils.takeEnvelopeFileRelease(hints))
+  }
+
+  @Test
+  fun `when envelope has a large item and should be retried, the file is kept`() {
+    fixture.envelopeReader = EnvelopeReader(JsonSerializer(fixture.options))
+    val file = largeItemEnvelopeFile(ByteArray(EnvelopeReader.FILE_BACKED_ITEM_MIN_SIZE))
+    var fileRelease: Runnable? = null
+    whenever(fixture.scopes.captureEnvelope(any(), any())).then {
+      fileRelease = HintUtils.takeEnvelopeFileRelease(it.getArgument(1))
+      SentryId.EMPTY_ID
+    }
+    val retryable = mock<Retryable>()
+    whenever(retryable.isRetry).thenReturn(true)
+
+    val hints = HintUtils.createWithTypeCheckHint(retryable)
+    fixture.getSut().processEnvelopeFile(file.absolutePath, hints)
+    fileRelease!!.run()
+
+    assertTrue(file.exists())
+    file.delete()
+  }
+
   @Test
   fun `when envelope has unknown item type, create and capture an envelope`() {
     fixture.envelopeReader = EnvelopeReader(JsonSerializer(fixture.options))
@@ -334,6 +407,8 @@ class OutboxSenderTest {
 
   @Test
   fun `when processEnvelopeFile is called with a invalid path, logs error`() {
+    // the reader opens the file
+    fixture.envelopeReader = EnvelopeReader(JsonSerializer(fixture.options))
     val sut = fixture.getSut()
 
     val hints = HintUtils.createWithTypeCheckHint(mock<Retryable>())
@@ -0,0 +1,55 @@
+package io.sentry
+
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class PerformanceCollectionDataBufferTest {
+
+  private fun PerformanceCollectionDataBuffer.addAll(vararg timestamps: Long) =
+    timestamps.forEach { add(PerformanceCollectionData(it)) }
+
+  private fun List<PerformanceCollectionData>.timestamps() = map { it.nanoTimestamp }
+
+  @Test
+  fun `since returns the data collected at or after the timestamp, oldest first`() {
+    val buffer = PerformanceCollectionDataBuffer(10)
+    buffer.addAll(10, 20, 30, 40)
+
+    assertEquals(listOf(10L, 20L, 30L, 40L), buffer.since(0).timestamps())
+    assertEquals(listOf(20L, 30L, 40L), buffer.since(20).timestamps())
+    assertEquals(listOf(40L), buffer.since(35).timestamps())
+    assertTrue(buffer.since(50).isEmpty())
+  }
+
+  @Test
+  fun `the oldest data is overwritten when the buffer is full`() {
+    val buffer = PerformanceCollectionDataBuffer(3)
+    buffer.addAll(10, 20, 30, 40, 50)
+
+    assertEquals(listOf(30L, 40L, 50L), buffer.since(0).timestamps())
+    assertEquals(listOf(40L, 50L), buffer.since(40).timestamps())
+  }
+
+  @Test
+  fun `since returns a new list every time`() {
+    val buffer = PerformanceCollectionDataBuffer(3)
+    buffer.addAll(10)
+    val data = buffer.since(0)
+
+    buffer.addAll(20)
+    assertEquals(listOf(10L), data.timestamps())
+    assertEquals(listOf(10L, 20L), buffer.since(0).timestamps())
+  }
+
+  @Test
+  fun `clear drops all data`() {
+    val buffer = PerformanceCollectionDataBuffer(3)
+    buffer.addAll(10, 20)
+    buffer.clear()
+    assertTrue(buffer.since(0).isEmpty())
+
+    buffer.addAll(30)
+    assertEquals(listOf(30L), buffer.since(0).timestamps())
+  }
+}
@@ -0,0 +1,130 @@
+package io.sentry
+
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertIs
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import org.mockito.kotlin.mock
+
+class ScopedValueScopesStorageTest {
+
+  private val storage = ScopedValueScopesStorage()
+  private val scopes1 = mock<IScopes>()
+  private val scopes2 = mock<IScopes>()
+
+  @AfterTest
+  fun teardown() {
+    storage.close()
+  }
+
+  @Test
+  fun `closing the token restores the previous scopes`() {
+    storage.set(scopes1).use {
+      assertSame(scopes1, storage.get())
+      storage.set(scopes2).use { assertSame(scopes2, storage.get()) }
+      assertSame(scopes1, storage.get())
+    }
+    assertNull(storage.get())
+  }
+
+  @Test
+  fun `run starts with the current scopes and does not leak scopes set within it`() {
+    storage.set(scopes1).use {
+      ScopedValueScopesStorage.run {
+        assertSame(scopes1, storage.get())
+        storage.set(scopes2)
+        assertSame(scopes2, storage.get())
+      }
+      assertSame(scopes1, storage.get())
+    }
+  }
+
+  @Test
+  fun `nested runs restore the scopes of the enclosing run`() {
+    ScopedValueScopesStorage.run {
+      storage.set(scopes1)
+      ScopedValueScopesStorage.run {
+        assertSame(scopes1, storage.get())
+        storage.set(scopes2).use { assertSame(scopes2, storage.get()) }
+        storage.set(scopes2)
+      }
+      assertSame(scopes1, storage.get())
+    }
+    assertNull(storage.get())
+  }
+
+  @Test
+  fun `threads started within run do not see or change its scopes`() {
+    val seen = AtomicReference<IScopes?>(scopes2)
+    ScopedValueScopesStorage.run {
+      storage.set(scopes1)
+      val thread = Thread {
+        seen.set(storage.get())
+        storage.set(scopes2)
+      }
+      thread.start()
+      thread.join()
+      assertSame(scopes1, storage.get())
+    }
+    assertNull(seen.get())
+  }
+
+  @Test
+  fun `call returns the result and rethrows exceptions of the callable`() {
+    storage.set(scopes1).use {
+      assertEquals(
+        "done",
+        ScopedValueScopesStorage.call {
+          storage.set(scopes2)
+          "done"
+        },
+      )
+      assertSame(scopes1, storage.get())
+
+      val exception = Exception("boom")
+      val thrown =
+        assertFailsWith<Exception> {
+          ScopedValueScopesStorage.call<String> {
+            storage.set(scopes2)
+            throw exception
+          }
+        }
+      assertSame(exception, thrown)
+      assertSame(scopes1, storage.get())
+    }
+  }
+
+  @Test
+  fun `replace changes the scopes of the current binding only`() {
+    storage.replace(scopes1)
+    ScopedValueScopesStorage.run {
+      storage.replace(scopes2)
+      assertSame(scopes2, storage.get())
+    }
+    assertSame(scopes1, storage.get())
+  }
+
+  @Test
+  fun `is only active while initialized and when scoped values are available`() {
+    storage.init()
+    assertEquals(
+      ScopedValueScopesStorage.isScopedValueAvailable(),
+      ScopedValueScopesStorage.isActive(),
+    )
+
+    storage.close()
+    assertFalse(ScopedValueScopesStorage.isActive())
+  }
+
+  @Test
+  fun `factory creates a scoped value scopes storage`() {
+    val storage = ScopesStorageFactory.scopedValue().create(SentryOptions())
+
+    assertIs<ScopedValueScopesStorage>(storage)
+  }
+}
@@ -46,6 +46,7 @@ import org.mockito.kotlin.check
 import org.mockito.kotlin.doAnswer
 import org.mockito.kotlin.doThrow
 import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
@@ -323,6 +324,23 @@ class ScopesTest {
     verify(mockClient).flush(1000)
   }
 
+  @Test
+  fun `when flush is called, background captured events are captured before the client flushes`() {
+    val (sut, mockClient) = getEnabledScopes()
+    whenever(mockClient.captureEvent(any(), any(), any())).thenAnswer {
+      Thread.sleep(100)
+      SentryId()
+    }
+    sut.options.backgroundEventCapture.captureEvent(sut, SentryEvent(), Hint())
+
+    sut.flush(5000)
+
+    inOrder(mockClient) {
+      verify(mockClient).captureEvent(any(), any(), any())
+      verify(mockClient).flush(5000)
+    }
+  }
+
   // region captureEvent tests
   @Test
   fun `when captureEvent is called and event is null, lastEventId is empty`() {
@@ -898,6 +916,24 @@ class ScopesTest {
     verify(mockClient).close(eq(true))
   }
 
+  @Test
+  fun `when close is called, background captured events are captured before the client closes`() {
+    val (sut, mockClient) = getEnabledScopes()
+    whenever(mockClient.captureEvent(any(), any(), any())).thenAnswer {
+      Thread.sleep(100)
+      SentryId()
+    }
+    sut.options.shutdownTimeoutMillis = 5000
+    sut.options.backgroundEventCapture.captureEvent(sut, SentryEvent(), Hint())
+
+    sut.close()
+
+    inOrder(mockClient) {
+      verify(mockClient).captureEvent(any(), any(), any())
+      verify(mockClient).close(eq(false))
+    }
+  }
+
   // endregion
 
   // region withScope tests
@@ -6,6 +6,7 @@ import io.sentry.protocol.SentryId
 import io.sentry.protocol.SentryReplayEventSerializationTest
 import io.sentry.protocol.User
 import io.sentry.protocol.ViewHierarchy
+import io.sentry.protocol.profiling.SentryProfile
 import io.sentry.test.injectForField
 import io.sentry.vendor.Base64
 import java.io.BufferedWriter
@@ -14,7 +15,9 @@ import java.io.File
 import java.io.IOException
 import java.io.InputStreamReader
 import java.io.OutputStreamWriter
+import java.io.RandomAccessFile
 import java.io.StringWriter
+import java.io.Writer
 import java.nio.charset.Charset
 import java.nio.file.Files
 import java.util.concurrent.Callable
@@ -31,6 +34,7 @@ import org.junit.Rule
 import org.junit.rules.TemporaryFolder
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import org.msgpack.core.MessagePack
@@ -42,7 +46,7 @@ class SentryEnvelopeItemTest {
     val options = SentryOptions()
     val serializer = JsonSerializer(options)
     val errorSerializer: JsonSerializer = mock {
-      on(it.serialize(any<JsonSerializable>(), any())).then { throw Exception("Mocked exception.") }
+      on(it.serialize(any<JsonSerializable>(), any<Writer>())).then { throw Exception("Mocked exception.") }
     }
     val pathname = "hello.txt"
     val filename = pathname
@@ -528,6 +532,23 @@ class SentryEnvelopeItemTest {
     assertFalse(file.exists())
   }
 
+  @Test
+  fun `fromProfileChunk does not convert a chunk that has already been converted`() {
+    val file = File(fixture.pathname)
+    val profileChunk =
+      mock<ProfileChunk> {
+        whenever(it.traceFile).thenReturn(file)
+        whenever(it.platform).thenReturn(ProfileChunk.PLATFORM_JAVA)
+        whenever(it.sentryProfile).thenReturn(SentryProfile())
+      }
+    val converter = mock<IProfileConverter>()
+
+    // The trace file has already been deleted after converting it
+    assertFalse(file.exists())
+    SentryEnvelopeItem.fromProfileChunk(profileChunk, mock(), converter).data
+    verify(converter, never()).convertFromFile(any(), any())
+  }
+
   @Test
   fun `fromProfileChunk with invalid file throws`() {
     val file = File(fixture.pathname)
@@ -740,6 +761,27 @@ class SentryEnvelopeItemTest {
     }
   }
 
+  @Test
+  fun `fromReplay drops the payload when the video exceeds the max size`() {
+    val file = File(fixture.pathname)
+    RandomAccessFile(file, "rw").use { it.setLength(SentryReplayEvent.REPLAY_VIDEO_MAX_SIZE + 1) }
+
+    val replayEvent =
+      SentryReplayEventSerializationTest.Fixture().getSut().apply { videoFile = file }
+
+    val replayItem =
+      SentryEnvelopeItem.fromReplay(
+        fixture.serializer,
+        fixture.options.logger,
+        replayEvent,
+        null,
+        false,
+      )
+
+    assertEquals(0, replayItem.data.size)
+    assertFalse(file.exists())
+  }
+
   @Test
   fun `fromReplay deletes file only after reading data`() {
     val file = File(fixture.pathname)
@@ -304,6 +304,32 @@ class SentryOptionsTest {
     assertEquals(ProfileLifecycle.MANUAL, options.profileLifecycle)
   }
 
+  @Test
+  fun `profilingEventType defaults to WALL`() {
+    val options = SentryOptions()
+    assertEquals(ProfilingEventType.WALL, options.profilingEventType)
+    assertEquals(512 * 1024, options.profilingAllocationIntervalBytes)
+    assertEquals(1_000_000, options.profilingLockThresholdNanos)
+  }
+
+  @Test
+  fun `when profilingEventType is set to a value, value is set`() {
+    val options = SentryOptions().apply { this.profilingEventType = ProfilingEventType.ALLOC }
+    assertEquals(ProfilingEventType.ALLOC, options.profilingEventType)
+  }
+
+  @Test
+  fun `when profilingAllocationIntervalBytes is not positive, setter throws`() {
+    assertFailsWith<IllegalArgumentException> {
+      SentryOptions().profilingAllocationIntervalBytes = 0
+    }
+  }
+
+  @Test
+  fun `when profilingLockThresholdNanos is negative, setter throws`() {
+    assertFailsWith<IllegalArgumentException> { SentryOptions().profilingLockThresholdNanos = -1 }
+  }
+
   @Test
   fun `when isStartProfilerOnAppStart is set to a value, value is set`() {
     val options = SentryOptions().apply { this.isStartProfilerOnAppStart = true }
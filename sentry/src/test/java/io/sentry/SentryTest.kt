@@ -252,6 +252,21 @@ class SentryTest {
     Sentry.configureScope { assertEquals(setOf("a"), it.tags.keys) }
   }
 
+  @Test
+  fun `replaceCurrentScopes makes the scopes current without a token`() {
+    initForTest { it.dsn = dsn }
+    val scopes = Sentry.getCurrentScopes().forkedCurrentScope("test")
+
+    Sentry.replaceCurrentScopes(scopes)
+    assertSame(scopes, Sentry.getCurrentScopes())
+
+    Sentry.replaceCurrentScopes(scopes)
+    assertSame(scopes, Sentry.getCurrentScopes())
+
+    Sentry.replaceCurrentScopes(NoOpScopes.getInstance())
+    assertSame(NoOpScopes.getInstance(), Sentry.getCurrentScopes(false))
+  }
+
   @Test
   fun `warns about multiple Sentry initializations`() {
     val logger = mock<ILogger>()
@@ -176,6 +176,24 @@ class SentryTraceHeaderTest {
     assertEquals("$sentryId-$spanId-0", header.value)
   }
 
+  @Test
+  fun `handles upper case header with sampling decision and surrounding whitespace`() {
+    val sentryId = SentryId()
+    val spanId = SpanId()
+    val header = SentryTraceHeader("\t $sentryId-$spanId-1 ".uppercase())
+    assertEquals(sentryId.toString().uppercase(), header.traceId.toString())
+    assertEquals(spanId.toString().uppercase(), header.spanId.toString())
+    assertEquals(true, header.isSampled)
+  }
+
+  @Test
+  fun `when sampling decision is not 0 or 1 throws exception`() {
+    val sentryId = SentryId()
+    val spanId = SpanId()
+    assertFailsWith<InvalidSentryTraceHeaderException> { SentryTraceHeader("$sentryId-$spanId-2") }
+    assertFailsWith<InvalidSentryTraceHeaderException> { SentryTraceHeader("$sentryId-$spanId+1") }
+  }
+
   @Test
   fun `throws InvalidSentryTraceHeaderException when traceId has invalid value`() {
     assertFailsWith<InvalidSentryTraceHeaderException> { SentryTraceHeader("xxx-${SpanId()}-0") }
@@ -1636,4 +1636,65 @@ class SentryTracerTest {
     assertNull(transaction.getTag(null))
     assertNull(transaction.getTag("k"))
   }
+
+  @Test
+  fun `when transaction is not sampled, children are a single non recording span`() {
+    val tracer = fixture.getSut(samplingDecision = TracesSamplingDecision(false))
+
+    val span = tracer.startChild("op1", "description")
+    val nested = span.startChild("op2")
+    span.setData("key", "value")
+    span.finish()
+
+    assertTrue(span is NonRecordingSpan)
+    assertTrue(span.isNoOp)
+    assertSame(span, nested)
+    assertSame(span, tracer.latestActiveSpan)
+    assertNull(span.getData("key"))
+    assertTrue(tracer.children.isEmpty())
+  }
+
+  @Test
+  fun `non recording span propagates the trace of the transaction`() {
+    val tracer = fixture.getSut(samplingDecision = TracesSamplingDecision(false))
+    val span = tracer.startChild("op")
+
+    assertEquals(tracer.toSentryTrace().value, span.toSentryTrace().value)
+    assertEquals(tracer.toBaggageHeader(null)?.value, span.toBaggageHeader(null)?.value)
+    assertEquals(tracer.spanContext.traceId, span.spanContext.traceId)
+    assertEquals(false, span.isSampled)
+  }
+
+  @Test
+  fun `when transaction is not sampled, ignored span origins are still no-op`() {
+    val tracer =
+      fixture.getSut(
+        optionsConfiguration = { it.setIgnoredSpanOrigins(listOf("ignored")) },
+        samplingDecision = TracesSamplingDecision(false),
+      )
+    val span = tracer.startChild("op", null, SpanOptions().also { it.origin = "ignored" })
+
+    assertSame(NoOpSpan.getInstance(), span)
+  }
+
+  @Test
+  fun `when transaction is not sampled but waits for children, children are recorded`() {
+    val tracer =
+      fixture.getSut(waitForChildren = true, samplingDecision = TracesSamplingDecision(false))
+
+    val span = tracer.startChild("op")
+
+    assertTrue(span is Span)
+    assertEquals(1, tracer.children.size)
+  }
+
+  @Test
+  fun `when transaction has no sampling decision, children are recorded`() {
+    val tracer = fixture.getSut()
+
+    val span = tracer.startChild("op")
+
+    assertTrue(span is Span)
+    assertNull(tracer.latestActiveSpan?.takeIf { it is NonRecordingSpan })
+  }
 }
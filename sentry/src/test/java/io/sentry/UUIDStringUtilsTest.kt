@@ -4,6 +4,9 @@ import io.sentry.util.UUIDStringUtils
 import java.util.UUID
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
 
 class UUIDStringUtilsTest {
   @Test
@@ -19,4 +22,27 @@ class UUIDStringUtilsTest {
     val sentryIdString = uuid.toString().replace("-", "").substring(0, 16)
     assertEquals(sentryIdString, UUIDStringUtils.toSentrySpanIdString(uuid))
   }
+
+  @Test
+  fun `hexToLong parses what toSentryIdString produces`() {
+    val uuid = UUID.randomUUID()
+    val sentryIdString = UUIDStringUtils.toSentryIdString(uuid)
+    assertEquals(uuid.mostSignificantBits, UUIDStringUtils.hexToLong(sentryIdString, 0))
+    assertEquals(uuid.leastSignificantBits, UUIDStringUtils.hexToLong(sentryIdString, 16))
+  }
+
+  @Test
+  fun `hexToLong throws for non hex strings`() {
+    assertFailsWith<IllegalArgumentException> { UUIDStringUtils.hexToLong("0123456789abcdeg", 0) }
+    assertFailsWith<IllegalArgumentException> {
+      UUIDStringUtils.hexToLong("0123456789abcde\u0130", 0)
+    }
+  }
+
+  @Test
+  fun `isLowerCaseHex only accepts lower case hex digits`() {
+    assertTrue(UUIDStringUtils.isLowerCaseHex("0123456789abcdef"))
+    assertFalse(UUIDStringUtils.isLowerCaseHex("0123456789ABCDEF"))
+    assertFalse(UUIDStringUtils.isLowerCaseHex("0123-4567"))
+  }
 }
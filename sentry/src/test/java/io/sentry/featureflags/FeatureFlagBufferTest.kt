@@ -62,6 +62,39 @@ class FeatureFlagBufferTest {
     assertEquals("c", featureFlagValues[1]!!.flag)
   }
 
+  @Test
+  fun `updating an entry makes it the newest one`() {
+    val buffer = FeatureFlagBuffer.create(SentryOptions().also { it.maxFeatureFlags = 3 })
+    buffer.add("a", true)
+    buffer.add("b", true)
+    buffer.add("c", true)
+    buffer.add("a", false)
+    buffer.add("d", true)
+
+    val featureFlagValues = buffer.featureFlags!!.values
+    assertEquals(listOf("c", "a", "d"), featureFlagValues.map { it.flag })
+    assertFalse(featureFlagValues[1]!!.result)
+  }
+
+  @Test
+  fun `changes to a clone and the original buffer do not affect each other`() {
+    val buffer = FeatureFlagBuffer.create(SentryOptions().also { it.maxFeatureFlags = 2 })
+    buffer.add("a", true)
+    buffer.add("b", true)
+
+    val clone = buffer.clone()
+    clone.add("c", true)
+    buffer.add("a", false)
+
+    assertEquals(listOf("b", "a"), buffer.featureFlags!!.values.map { it.flag })
+    assertFalse(buffer.featureFlags!!.values[1]!!.result)
+    assertEquals(listOf("b", "c"), clone.featureFlags!!.values.map { it.flag })
+
+    buffer.clear()
+    assertEquals(0, buffer.featureFlags!!.values.size)
+    assertEquals(2, clone.featureFlags!!.values.size)
+  }
+
   @Test
   fun `drops oldest entries when merging multiple buffers`() {
     val options = SentryOptions().also { it.maxFeatureFlags = 2 }
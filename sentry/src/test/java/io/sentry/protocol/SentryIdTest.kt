@@ -2,9 +2,13 @@ package io.sentry.protocol
 
 import io.sentry.SentryUUID
 import io.sentry.util.StringUtils
+import io.sentry.util.UUIDStringUtils
 import java.util.UUID
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertNotEquals
+import kotlin.test.assertTrue
+import org.mockito.ArgumentMatchers.anyLong
 import org.mockito.Mockito
 import org.mockito.kotlin.any
 import org.mockito.kotlin.never
@@ -25,29 +29,57 @@ class SentryIdTest {
   }
 
   @Test
-  fun `UUID is not generated on initialization`() {
-    val uuid = SentryUUID.generateSentryId()
-    Mockito.mockStatic(SentryUUID::class.java).use { utils ->
-      utils.`when`<String> { SentryUUID.generateSentryId() }.thenReturn(uuid)
+  fun `hex string is not created on initialization`() {
+    Mockito.mockStatic(UUIDStringUtils::class.java).use { utils ->
       val ignored = SentryId()
-      utils.verify({ SentryUUID.generateSentryId() }, never())
+      utils.verify({ UUIDStringUtils.toSentryIdString(anyLong(), anyLong()) }, never())
     }
   }
 
   @Test
-  fun `UUID is generated only once`() {
+  fun `hex string is created only once`() {
     val uuid = SentryUUID.generateSentryId()
-    Mockito.mockStatic(SentryUUID::class.java).use { utils ->
-      utils.`when`<String> { SentryUUID.generateSentryId() }.thenReturn(uuid)
+    Mockito.mockStatic(UUIDStringUtils::class.java).use { utils ->
+      utils
+        .`when`<String> { UUIDStringUtils.toSentryIdString(anyLong(), anyLong()) }
+        .thenReturn(uuid)
       val sentryId = SentryId()
       val uuid1 = sentryId.toString()
       val uuid2 = sentryId.toString()
 
       assertEquals(uuid1, uuid2)
-      utils.verify({ SentryUUID.generateSentryId() }, times(1))
+      utils.verify({ UUIDStringUtils.toSentryIdString(anyLong(), anyLong()) }, times(1))
     }
   }
 
+  @Test
+  fun `generated id is a lower case hex string`() {
+    val id = SentryId().toString()
+    assertEquals(32, id.length)
+    assertTrue(id.all { it in '0'..'9' || it in 'a'..'f' })
+  }
+
+  @Test
+  fun `ids created from equal strings and UUIDs are equal`() {
+    val uuid = UUID.randomUUID()
+    val fromUuid = SentryId(uuid)
+    val fromString = SentryId(uuid.toString())
+    val fromHexString = SentryId(fromUuid.toString())
+    assertEquals(fromUuid, fromString)
+    assertEquals(fromUuid, fromHexString)
+    assertEquals(fromUuid.hashCode(), fromString.hashCode())
+    assertEquals(fromUuid.hashCode(), fromHexString.hashCode())
+  }
+
+  @Test
+  fun `ids created from non lower case hex strings are compared by their string`() {
+    val id = SentryId().toString()
+    assertEquals(SentryId(id.uppercase()), SentryId(id.uppercase()))
+    assertEquals(SentryId(id.uppercase()).hashCode(), SentryId(id.uppercase()).hashCode())
+    assertEquals(id.uppercase(), SentryId(id.uppercase()).toString())
+    assertNotEquals(SentryId(id), SentryId(id.uppercase()))
+  }
+
   @Test
   fun `normalizeUUID is never called when using empty constructor`() {
     Mockito.mockStatic(StringUtils::class.java).use { utils ->
@@ -79,7 +111,7 @@ class SentryIdTest {
   }
 
   @Test
-  fun `normalizeUUID is only called once when UUID is passed to constructor`() {
+  fun `normalizeUUID is never called when UUID is passed to constructor`() {
     Mockito.mockStatic(StringUtils::class.java).use { utils ->
       utils
         .`when`<Any> { StringUtils.normalizeUUID(any()) }
@@ -89,7 +121,7 @@ class SentryIdTest {
       val uuid2 = sentryId.toString()
 
       assertEquals(uuid1, uuid2)
-      utils.verify({ StringUtils.normalizeUUID(any()) }, times(1))
+      utils.verify({ StringUtils.normalizeUUID(any()) }, times(0))
     }
   }
 }
@@ -31,6 +31,7 @@ class SentryProfileSerializationTest {
               timestamp = 1753439655.415672
               threadId = "57"
               stackId = 1
+              weight = 2
             },
           )
         stacks = listOf(listOf(0, 1, 2), listOf(3, 4))
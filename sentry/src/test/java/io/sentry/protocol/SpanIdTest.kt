@@ -2,34 +2,62 @@ package io.sentry.protocol
 
 import io.sentry.SentryUUID
 import io.sentry.SpanId
+import io.sentry.util.UUIDStringUtils
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertNotEquals
+import kotlin.test.assertTrue
+import org.mockito.ArgumentMatchers.anyLong
 import org.mockito.Mockito
 import org.mockito.kotlin.never
 import org.mockito.kotlin.times
 
 class SpanIdTest {
   @Test
-  fun `ID is not generated on initialization`() {
-    val uuid = SentryUUID.generateSpanId()
-    Mockito.mockStatic(SentryUUID::class.java).use { utils ->
-      utils.`when`<String> { SentryUUID.generateSpanId() }.thenReturn(uuid)
+  fun `hex string is not created on initialization`() {
+    Mockito.mockStatic(UUIDStringUtils::class.java).use { utils ->
       val ignored = SpanId()
-      utils.verify({ SentryUUID.generateSpanId() }, never())
+      utils.verify({ UUIDStringUtils.toSentrySpanIdString(anyLong()) }, never())
     }
   }
 
   @Test
-  fun `ID is generated only once`() {
+  fun `hex string is created only once`() {
     val uuid = SentryUUID.generateSpanId()
-    Mockito.mockStatic(SentryUUID::class.java).use { utils ->
-      utils.`when`<String> { SentryUUID.generateSpanId() }.thenReturn(uuid)
+    Mockito.mockStatic(UUIDStringUtils::class.java).use { utils ->
+      utils.`when`<String> { UUIDStringUtils.toSentrySpanIdString(anyLong()) }.thenReturn(uuid)
       val spanId = SpanId()
       val uuid1 = spanId.toString()
       val uuid2 = spanId.toString()
 
       assertEquals(uuid1, uuid2)
-      utils.verify({ SentryUUID.generateSpanId() }, times(1))
+      utils.verify({ UUIDStringUtils.toSentrySpanIdString(anyLong()) }, times(1))
     }
   }
+
+  @Test
+  fun `generated id is a lower case hex string`() {
+    val id = SpanId().toString()
+    assertEquals(16, id.length)
+    assertTrue(id.all { it in '0'..'9' || it in 'a'..'f' })
+  }
+
+  @Test
+  fun `generated id is equal to an id created from its string`() {
+    val spanId = SpanId()
+    val fromString = SpanId(spanId.toString())
+    assertEquals(spanId, fromString)
+    assertEquals(spanId.hashCode(), fromString.hashCode())
+  }
+
+  @Test
+  fun `ids created from non lower case hex strings are compared by their string`() {
+    assertEquals(SpanId("abc"), SpanId("abc"))
+    assertEquals(SpanId("abc").hashCode(), SpanId("abc").hashCode())
+    assertEquals("abc", SpanId("abc").toString())
+
+    val id = SpanId().toString()
+    assertEquals(id.uppercase(), SpanId(id.uppercase()).toString())
+    assertNotEquals(SpanId(id), SpanId(id.uppercase()))
+  }
 }
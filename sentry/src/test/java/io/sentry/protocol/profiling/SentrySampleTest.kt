@@ -13,6 +13,7 @@ class SentrySampleTest {
         timestamp = 1.23
         stackId = 4
         threadId = "main"
+        weight = 512
         setUnknown(unknown)
       }
 
@@ -21,6 +22,7 @@ class SentrySampleTest {
     assertThat(copy.timestamp).isEqualTo(original.timestamp)
     assertThat(copy.stackId).isEqualTo(original.stackId)
     assertThat(copy.threadId).isEqualTo(original.threadId)
+    assertThat(copy.weight).isEqualTo(original.weight)
     assertThat(copy.unknown).containsExactlyEntriesIn(original.unknown)
     assertThat(copy.unknown).isNotSameInstanceAs(original.unknown)
 
@@ -25,6 +25,7 @@ import java.util.concurrent.TimeUnit
 import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
+import kotlin.test.assertNull
 import kotlin.test.assertTrue
 import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
@@ -534,6 +535,54 @@ class AsyncHttpTransportTest {
     assertTrue(called)
   }
 
+  @Test
+  fun `releases the envelope file once the envelope is sent`() {
+    val envelope = SentryEnvelope.from(fixture.sentryOptions.serializer, createSession(), null)
+    whenever(fixture.transportGate.isConnected).thenReturn(true)
+    whenever(fixture.rateLimiter.filter(any(), anyOrNull())).thenAnswer { it.arguments[0] }
+    var released = false
+    whenever(fixture.connection.send(any())).thenAnswer {
+      assertFalse(released)
+      TransportResult.success()
+    }
+    val hint = Hint()
+    HintUtils.setEnvelopeFileRelease(hint) { released = true }
+
+    fixture.getSUT().send(envelope, hint)
+
+    assertTrue(released)
+    assertNull(HintUtils.takeEnvelopeFileRelease(hint))
+  }
+
+  @Test
+  fun `releases the envelope file when the envelope is filtered out`() {
+    val envelope = SentryEnvelope.from(fixture.sentryOptions.serializer, SentryEvent(), null)
+    whenever(fixture.rateLimiter.filter(any(), anyOrNull())).thenReturn(null)
+    var released = false
+    val hint = Hint()
+    HintUtils.setEnvelopeFileRelease(hint) { released = true }
+
+    fixture.getSUT().send(envelope, hint)
+
+    verify(fixture.executor, never()).submit(any())
+    assertTrue(released)
+  }
+
+  @Test
+  fun `releases the envelope file when the envelope is not queued`() {
+    val envelope = SentryEnvelope.from(fixture.sentryOptions.serializer, SentryEvent(), null)
+    whenever(fixture.rateLimiter.filter(any(), anyOrNull())).thenAnswer { it.arguments[0] }
+    whenever(fixture.executor.submit(any()))
+      .thenReturn(QueuedThreadPoolExecutor.CancelledFuture<Any>())
+    var released = false
+    val hint = Hint()
+    HintUtils.setEnvelopeFileRelease(hint) { released = true }
+
+    fixture.getSUT().send(envelope, hint)
+
+    assertTrue(released)
+  }
+
   @Test
   fun `is healthy if not rate limited and not rejected recently`() {
     whenever(fixture.rateLimiter.isAnyRateLimitActive()).thenReturn(false)
@@ -56,7 +56,7 @@ class JsonSerializationUtilsTest {
   @Test
   fun `returns byte array of given serializable`() {
     val mockSerializer: JsonSerializer = mock {
-      on(it.serialize(any<JsonSerializable>(), any())).then { invocationOnMock: InvocationOnMock ->
+      on(it.serialize(any<JsonSerializable>(), any<Writer>())).then { invocationOnMock: InvocationOnMock ->
         val writer: Writer = invocationOnMock.getArgument(1)
         writer.write("mock-data")
         writer.flush()
@@ -76,7 +76,7 @@ class JsonSerializationUtilsTest {
   @Test
   fun `return null on serialization error`() {
     val mockSerializer: JsonSerializer = mock {
-      on(it.serialize(any<JsonSerializable>(), any())).then { throw Exception("Mocked exception.") }
+      on(it.serialize(any<JsonSerializable>(), any<Writer>())).then { throw Exception("Mocked exception.") }
     }
     val logger: ILogger = mock()
     val serializable: JsonSerializable = mock()
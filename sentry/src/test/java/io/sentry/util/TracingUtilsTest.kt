@@ -101,6 +101,29 @@ class TracingUtilsTest {
     assertFalse(fixture.scope.propagationContext.baggage!!.isMutable)
   }
 
+  @Test
+  fun `returns headers of the transaction if span is non recording`() {
+    fixture.setup()
+    val transaction =
+      SentryTracer(TransactionContext("name", "op", TracesSamplingDecision(false)), fixture.scopes)
+    val span = transaction.startChild("op")
+
+    val headers =
+      TracingUtils.traceIfAllowed(
+        fixture.scopes,
+        "https://sentry.io/hello",
+        fixture.preExistingBaggage,
+        span,
+      )
+
+    assertTrue(span.isNoOp)
+    assertNotNull(headers)
+    assertEquals(transaction.spanContext.traceId, headers.sentryTraceHeader.traceId)
+    assertEquals(transaction.spanContext.spanId, headers.sentryTraceHeader.spanId)
+    assertEquals(false, headers.sentryTraceHeader.isSampled)
+    assertNotEquals(fixture.scope.propagationContext.traceId, headers.sentryTraceHeader.traceId)
+  }
+
   @Test
   fun `returns headers if allowed from scope if span is noop sampled=null`() {
     fixture.setup()